@@ -0,0 +1,109 @@
+package hex.tree;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static water.TestUtil.stall_till_cloudsize;
+
+/**
+ * Inner loop of the histogram building - updating a single histogram of one leaf with a chunk of rows.
+ */
+@Fork(1)
+@Threads(1)
+@State(Scope.Thread)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class DHistogramBench {
+
+  @Param({"1000", "100000"})
+  private int rows;
+
+  @Param({"20", "256", "1024"})
+  private int nbins;
+
+  @Param({"0", "0.99"})
+  private double sparsity;
+
+  private double[] _ws;
+  private double[] _cs;
+  private double[] _ys;
+  private int[] _rows;
+  // Sparse representation of _cs
+  private double[] _nzVals;
+  private int[] _nzIds;
+  private int[] _nzs;
+  private double[] _totals;
+
+  private DHistogram _hist;
+
+  public static void main(String[] args) throws RunnerException {
+    Options opt = new OptionsBuilder()
+            .include(DHistogramBench.class.getSimpleName())
+            .build();
+
+    new Runner(opt).run();
+  }
+
+  @Setup(Level.Trial)
+  public void setupData() {
+    water.util.Log.setLogLevel("ERR");
+    stall_till_cloudsize(1);
+    Random rnd = new Random(0xBEEF);
+    _ws = new double[rows];
+    _cs = new double[rows];
+    _ys = new double[rows];
+    _rows = new int[rows];
+    _nzVals = new double[rows];
+    _nzIds = new int[rows];
+    _totals = new double[4];
+    int nz = 0;
+    for (int i = 0; i < rows; i++) {
+      _ws[i] = 1;
+      _cs[i] = rnd.nextDouble() < sparsity ? 0 : rnd.nextDouble() * 10 - 5;
+      _ys[i] = rnd.nextGaussian();
+      _rows[i] = i;
+      if (_cs[i] != 0) {
+        _nzVals[nz] = _cs[i];
+        _nzIds[nz++] = i;
+      }
+      _totals[0] += _ws[i];
+      _totals[1] += _ws[i] * _ys[i];
+      _totals[2] += _ws[i] * _ys[i] * _ys[i];
+      _totals[3]++;
+    }
+    _nzs = new int[nz];
+    for (int i = 0; i < nz; i++)
+      _nzs[i] = i;
+    _nzVals = Arrays.copyOf(_nzVals, nz);
+    _nzIds = Arrays.copyOf(_nzIds, nz);
+  }
+
+  @Setup(Level.Invocation)
+  public void setupHistogram() {
+    _hist = new DHistogram("bench", nbins, 1024, (byte) 0, -5, 5, false, 0,
+            SharedTreeModel.SharedTreeParameters.HistogramType.UniformAdaptive, 42, null, null);
+    _hist.init();
+  }
+
+  @Benchmark
+  public DHistogram updateHisto() {
+    _hist.updateHisto(_ws, null, _cs, _ys, null, _rows, rows, 0);
+    return _hist;
+  }
+
+  @Benchmark
+  public DHistogram updateHistoSparse() {
+    _hist.updateHistoSparse(_ws, _nzVals, _ys, _nzIds, _nzs, _nzs.length, 0, _totals, 0);
+    return _hist;
+  }
+
+}
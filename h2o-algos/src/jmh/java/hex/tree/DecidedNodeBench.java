@@ -0,0 +1,81 @@
+package hex.tree;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import water.fvec.Frame;
+
+import java.util.concurrent.TimeUnit;
+
+import static water.TestUtil.stall_till_cloudsize;
+
+/**
+ * Split finding - turning an undecided node with populated histograms into a decided node
+ * (best split over all columns and histograms of the children).
+ */
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@Threads(1)
+@State(Scope.Thread)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class DecidedNodeBench {
+
+  @Param({"10", "100", "1000"})
+  private int cols;
+
+  @Param({"20", "256", "1024"})
+  private int nbins;
+
+  private TreeBenchData.RootLevel _root;
+  private DHistogram[] _hs;
+  private DTree _tree;
+
+  public static void main(String[] args) throws RunnerException {
+    Options opt = new OptionsBuilder()
+            .include(DecidedNodeBench.class.getSimpleName())
+            .build();
+
+    new Runner(opt).run();
+  }
+
+  @Setup(Level.Trial)
+  public void setupData() {
+    water.util.Log.setLogLevel("ERR");
+    stall_till_cloudsize(1);
+    Frame fr = TreeBenchData.makeFrame(100_000, cols, 0, 0xBEEF);
+    _root = new TreeBenchData.RootLevel(fr, nbins);
+    _hs = _root.buildHistograms(_root.makeTree());
+  }
+
+  @Setup(Level.Invocation)
+  public void setupTree() {
+    _tree = _root.makeTree();
+  }
+
+  @Benchmark
+  public DTree.DecidedNode decideRoot() {
+    return new DTree.DecidedNode(_tree.undecided(0), _hs, null);
+  }
+
+  @Benchmark
+  public DTree.Split findBestSplitPoints() {
+    DTree.Split best = null;
+    for (int c = 0; c < _hs.length; c++) {
+      if (_hs[c] == null) continue;
+      DTree.Split s = DTree.findBestSplitPoint(_hs[c], c, _root._parms._min_rows, 0, Double.NaN, Double.NaN, false, null);
+      if (s != null && (best == null || s.se() < best.se()))
+        best = s;
+    }
+    return best;
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    _root.remove();
+  }
+
+}
@@ -0,0 +1,79 @@
+package hex.tree;
+
+import hex.tree.gbm.GBM;
+import hex.tree.gbm.GBMModel;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import water.fvec.Frame;
+import water.udf.CFuncRef;
+
+import java.util.concurrent.TimeUnit;
+
+import static water.TestUtil.stall_till_cloudsize;
+
+/**
+ * Scoring pass used to compute the training/validation metrics of a tree model ({@link Score}).
+ */
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+@Threads(1)
+@State(Scope.Thread)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ScoreBench {
+
+  @Param({"100000", "1000000"})
+  private int rows;
+
+  @Param({"10", "100"})
+  private int cols;
+
+  @Param({"10", "50"})
+  private int ntrees;
+
+  private Frame _fr;
+  private GBM _gbm;
+  private GBMModel _model;
+
+  public static void main(String[] args) throws RunnerException {
+    Options opt = new OptionsBuilder()
+            .include(ScoreBench.class.getSimpleName())
+            .build();
+
+    new Runner(opt).run();
+  }
+
+  @Setup(Level.Trial)
+  public void setup() {
+    water.util.Log.setLogLevel("ERR");
+    stall_till_cloudsize(1);
+    _fr = TreeBenchData.makeFrame(rows, cols, 0, 0xBEEF);
+    GBMModel.GBMParameters parms = new GBMModel.GBMParameters();
+    parms._train = _fr._key;
+    parms._valid = _fr._key;
+    parms._response_column = TreeBenchData.RESPONSE;
+    parms._ntrees = ntrees;
+    parms._max_depth = 5;
+    parms._score_tree_interval = ntrees;
+    parms._seed = 42;
+    _gbm = new GBM(parms);
+    _model = _gbm.trainModel().get();
+  }
+
+  @Benchmark
+  public Score scoreValidation() {
+    return new Score(_gbm, (Score.ScoreIncInfo) null, false, _gbm.vresponse(), _model._output.getModelCategory(),
+            false, null, CFuncRef.from(null)).doAll(_gbm.valid(), false);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    _model.delete();
+    _fr.delete();
+  }
+
+}
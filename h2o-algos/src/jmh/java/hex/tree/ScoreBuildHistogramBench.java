@@ -0,0 +1,73 @@
+package hex.tree;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import water.fvec.Frame;
+
+import java.util.concurrent.TimeUnit;
+
+import static water.TestUtil.stall_till_cloudsize;
+
+/**
+ * Histogram building pass of GBM/DRF (ScoreBuildHistogram2) for the root node of a tree,
+ * single node, in-process.
+ */
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+@Threads(1)
+@State(Scope.Thread)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ScoreBuildHistogramBench {
+
+  @Param({"100000", "1000000"})
+  private int rows;
+
+  @Param({"10", "100"})
+  private int cols;
+
+  @Param({"0", "0.99"})
+  private double sparsity;
+
+  @Param({"20", "256"})
+  private int nbins;
+
+  private TreeBenchData.RootLevel _root;
+  private DTree _tree;
+
+  public static void main(String[] args) throws RunnerException {
+    Options opt = new OptionsBuilder()
+            .include(ScoreBuildHistogramBench.class.getSimpleName())
+            .build();
+
+    new Runner(opt).run();
+  }
+
+  @Setup(Level.Trial)
+  public void setupData() {
+    water.util.Log.setLogLevel("ERR");
+    stall_till_cloudsize(1);
+    Frame fr = TreeBenchData.makeFrame(rows, cols, sparsity, 0xBEEF);
+    _root = new TreeBenchData.RootLevel(fr, nbins);
+  }
+
+  @Setup(Level.Invocation)
+  public void setupTree() {
+    _tree = _root.makeTree(); // fresh, empty histograms
+  }
+
+  @Benchmark
+  public DHistogram[] buildRootHistograms() {
+    return _root.buildHistograms(_tree);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    _root.remove();
+  }
+
+}
@@ -0,0 +1,140 @@
+package hex.tree;
+
+import hex.genmodel.utils.DistributionFamily;
+import hex.tree.gbm.GBMModel;
+import jsr166y.CountedCompleter;
+import water.H2O;
+import water.Key;
+import water.MRTask;
+import water.fvec.Chunk;
+import water.fvec.Frame;
+import water.fvec.NewChunk;
+import water.fvec.Vec;
+import water.util.RandomUtils;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Synthetic data for the tree-building micro-benchmarks. Frames have a controllable number of rows, columns and
+ * fraction of zeros (zero-heavy columns are stored in sparse chunks), the response is a noisy linear combination
+ * of the predictors.
+ */
+public class TreeBenchData {
+
+  static final String RESPONSE = "response";
+
+  /**
+   * Makes a frame with {@code cols} numeric predictors followed by a numeric response column.
+   */
+  public static Frame makeFrame(long rows, int cols, double sparsity, long seed) {
+    Vec template = Vec.makeCon(0, rows);
+    try {
+      final byte[] types = new byte[cols + 1];
+      Arrays.fill(types, Vec.T_NUM);
+      String[] names = new String[cols + 1];
+      for (int c = 0; c < cols; c++)
+        names[c] = "C" + (c + 1);
+      names[cols] = RESPONSE;
+      return new SyntheticFrameTask(sparsity, seed)
+              .doAll(types, template)
+              .outputFrame(Key.<Frame>make("tree_bench_" + rows + "x" + cols), names, null);
+    } finally {
+      template.remove();
+    }
+  }
+
+  private static class SyntheticFrameTask extends MRTask<SyntheticFrameTask> {
+    private final double _sparsity;
+    private final long _seed;
+
+    SyntheticFrameTask(double sparsity, long seed) {
+      _sparsity = sparsity;
+      _seed = seed;
+    }
+
+    @Override
+    public void map(Chunk[] cs, NewChunk[] ncs) {
+      Random rnd = RandomUtils.getRNG(_seed + cs[0].start());
+      int cols = ncs.length - 1;
+      for (int row = 0; row < cs[0]._len; row++) {
+        double y = 0;
+        for (int c = 0; c < cols; c++) {
+          if (rnd.nextDouble() < _sparsity) {
+            ncs[c].addNum(0);
+          } else {
+            double x = rnd.nextGaussian();
+            ncs[c].addNum(x);
+            y += (c % 7) * x;
+          }
+        }
+        ncs[cols].addNum(y + rnd.nextGaussian());
+      }
+    }
+  }
+
+  /**
+   * Everything ScoreBuildHistogram2 needs to build the histograms of the root node: the predictors with the
+   * response, predictions, work (=target of the tree) and node-assignment columns.
+   */
+  static class RootLevel {
+    final GBMModel.GBMParameters _parms;
+    final Frame _fr;
+    final Frame _fr2;
+    final int _ncols;
+    final int _respIdx, _predsIdx, _workIdx, _nidIdx;
+    private final Vec _nids;
+    private final Vec _preds;
+
+    RootLevel(Frame fr, int nbins) {
+      _fr = fr;
+      _ncols = fr.numCols() - 1;
+      _parms = new GBMModel.GBMParameters();
+      _parms._train = fr._key;
+      _parms._response_column = RESPONSE;
+      _parms._nbins = nbins;
+      _parms._nbins_top_level = nbins;
+      _preds = fr.anyVec().makeZero();
+      _nids = fr.anyVec().makeVolatileInts(new int[]{0})[0];
+      _fr2 = new Frame(fr);
+      _respIdx = _ncols;
+      _predsIdx = _fr2.numCols(); _fr2.add("preds", _preds);
+      _workIdx = _fr2.numCols(); _fr2.add("work", fr.vec(RESPONSE));
+      _nidIdx = _fr2.numCols(); _fr2.add("nids", _nids);
+    }
+
+    DTree makeTree() {
+      DTree tree = new DTree(_fr, _ncols, _ncols, _ncols, 42, _parms);
+      DHistogram[] hs = DHistogram.initialHist(_fr, _ncols, _parms._nbins, new DHistogram[_ncols], 42, _parms,
+              new Key[_ncols], null);
+      new DTree.UndecidedNode(tree, DTree.NO_PARENT, hs, null);
+      return tree;
+    }
+
+    DHistogram[] buildHistograms(final DTree tree) {
+      final DHistogram[][] hcs = new DHistogram[][]{tree.undecided(0)._hs};
+      final DHistogram[][] result = new DHistogram[1][];
+      // Same set-up as in SharedTree.ScoreBuildOneTree - ScoreBuildHistogram2 needs to be started from a F/J thread
+      H2O.submitTask(new H2O.H2OCountedCompleter() {
+        @Override
+        public void compute2() {
+          new ScoreBuildHistogram2(this, 0, _ncols, _parms._nbins, _parms._nbins_cats, tree, 0, hcs,
+                  DistributionFamily.gaussian, _respIdx, -1, _predsIdx, _workIdx, _nidIdx)
+                  .dfork2(null, _fr2, false);
+        }
+        @Override
+        public void onCompletion(CountedCompleter caller) {
+          result[0] = ((ScoreBuildHistogram) caller)._hcs[0];
+        }
+      }).join();
+      return result[0];
+    }
+
+    void remove() {
+      _nids.remove();
+      _preds.remove();
+      _fr.delete();
+    }
+  }
+
+}
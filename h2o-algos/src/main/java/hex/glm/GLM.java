@@ -61,6 +61,8 @@ public class GLM extends ModelBuilder<GLMModel,GLMParameters,GLMOutput> {
   private static final DateTimeFormatter DATE_TIME_FORMATTER = DateTimeFormat.forPattern("yyyy-MM-dd HH:mm:ss");
   
   public static final int SCORING_INTERVAL_MSEC = 15000; // scoreAndUpdateModel every minute unless score every iteration is set
+  // cache the linear predictors for the line search of L-BFGS, see GLMGradientSolver#cacheLinearPredictors
+  static final boolean LBFGS_ETA_CACHE = H2O.getSysBoolProperty("glm.lbfgs.eta_cache", true);
   public int[] _randC;  // contains categorical column levels for random columns for HGLM
   public String _generatedWeights = null;
   public String[] _randCoeffNames = null;
@@ -1804,14 +1806,21 @@ public class GLM extends ModelBuilder<GLMModel,GLMParameters,GLMOutput> {
       } else {
         if (!_parms._lambda_search && _state._iter == 0 && !_parms._HGLM)
           updateProgress(false);
-        Result r = lbfgs.solve(gslvr, beta, _state.ginfo(), new ProgressMonitor() {
-          @Override
-          public boolean progress(double[] beta, GradientInfo ginfo) {
-            if (_state._iter < 4 || ((_state._iter & 3) == 0))
-              Log.info(LogMsg("LBFGS, gradient norm = " + ArrayUtils.linfnorm(ginfo._gradient, false)));
-            return GLMDriver.this.progress(beta, ginfo);
-          }
-        });
+        if (LBFGS_ETA_CACHE)
+          gslvr.cacheLinearPredictors();
+        Result r;
+        try {
+          r = lbfgs.solve(gslvr, beta, _state.ginfo(), new ProgressMonitor() {
+            @Override
+            public boolean progress(double[] beta, GradientInfo ginfo) {
+              if (_state._iter < 4 || ((_state._iter & 3) == 0))
+                Log.info(LogMsg("LBFGS, gradient norm = " + ArrayUtils.linfnorm(ginfo._gradient, false)));
+              return GLMDriver.this.progress(beta, ginfo);
+            }
+          });
+        } finally {
+          gslvr.removeLinearPredictors();
+        }
         Log.info(LogMsg(r.toString()));
         _state.updateState(r.coefs, (GLMGradientInfo) r.ginfo);
       }
@@ -3240,7 +3249,7 @@ public class GLM extends ModelBuilder<GLMModel,GLMParameters,GLMOutput> {
   /**
    * Gradient and line search computation for L_BFGS and also L_BFGS solver wrapper (for ADMM)
    */
-  public static final class GLMGradientSolver implements GradientSolver {
+  public static final class GLMGradientSolver implements LineSearchGradientSolver {
     final GLMParameters _parms;
     final DataInfo _dinfo;
     final BetaConstraint _bc;
@@ -3328,26 +3337,14 @@ public class GLM extends ModelBuilder<GLMModel,GLMParameters,GLMOutput> {
       } else {
         assert beta.length == _dinfo.fullN() + 1;
         assert _parms._intercept || (beta[beta.length-1] == 0);
-        GLMGradientTask gt;
-        if((_parms._family == binomial && _parms._link == Link.logit) ||
-                (_parms._family == Family.fractionalbinomial && _parms._link == Link.logit))
-          gt = new GLMBinomialGradientTask(_job == null?null:_job._key,_dinfo,_parms,_l2pen, beta, _penaltyMatrix, 
-                  _gamColIndices).doAll(_dinfo._adaptedFrame);
-        else if(_parms._family == Family.gaussian && _parms._link == Link.identity)
-          gt = new GLMGaussianGradientTask(_job == null?null:_job._key,_dinfo,_parms,_l2pen, beta, _penaltyMatrix,
-                  _gamColIndices).doAll(_dinfo._adaptedFrame);
-        else if (Family.negativebinomial.equals(_parms._family))
-          gt =  new GLMNegativeBinomialGradientTask(_job == null?null:_job._key,_dinfo,
-                  _parms,_l2pen, beta, _penaltyMatrix, _gamColIndices).doAll(_dinfo._adaptedFrame);
-        else if(_parms._family == Family.poisson && _parms._link == Link.log)
-          gt = new GLMPoissonGradientTask(_job == null?null:_job._key,_dinfo,_parms,_l2pen, beta, _penaltyMatrix, 
-                  _gamColIndices).doAll(_dinfo._adaptedFrame);
-        else if(_parms._family == Family.quasibinomial)
-          gt = new GLMQuasiBinomialGradientTask(_job == null?null:_job._key,_dinfo,_parms,_l2pen, beta, 
-                  _penaltyMatrix, _gamColIndices).doAll(_dinfo._adaptedFrame);
-        else
-          gt = new GLMGenericGradientTask(_job == null?null:_job._key, _dinfo, _parms, _l2pen, beta, _penaltyMatrix, 
-                  _gamColIndices).doAll(_dinfo._adaptedFrame);
+        GLMGradientTask gt = gradientTask(beta);
+        if (_etaCache != null) {
+          gt._etaOut = _etaCache;
+          _etaBeta = null;
+        }
+        gt.doAll(_dinfo._adaptedFrame);
+        if (_etaCache != null)
+          _etaBeta = beta.clone();
         double [] gradient = gt._gradient;
         double  likelihood = gt._likelihood;
         if (!_parms._intercept) // no intercept, null the ginfo
@@ -3362,6 +3359,106 @@ public class GLM extends ModelBuilder<GLMModel,GLMParameters,GLMOutput> {
       }
     }
 
+    private GLMGradientTask gradientTask(double[] beta) {
+      if((_parms._family == binomial && _parms._link == Link.logit) ||
+              (_parms._family == Family.fractionalbinomial && _parms._link == Link.logit))
+        return new GLMBinomialGradientTask(_job == null?null:_job._key,_dinfo,_parms,_l2pen, beta, _penaltyMatrix, 
+                _gamColIndices);
+      else if(_parms._family == Family.gaussian && _parms._link == Link.identity)
+        return new GLMGaussianGradientTask(_job == null?null:_job._key,_dinfo,_parms,_l2pen, beta, _penaltyMatrix,
+                _gamColIndices);
+      else if (Family.negativebinomial.equals(_parms._family))
+        return new GLMNegativeBinomialGradientTask(_job == null?null:_job._key,_dinfo,
+                _parms,_l2pen, beta, _penaltyMatrix, _gamColIndices);
+      else if(_parms._family == Family.poisson && _parms._link == Link.log)
+        return new GLMPoissonGradientTask(_job == null?null:_job._key,_dinfo,_parms,_l2pen, beta, _penaltyMatrix, 
+                _gamColIndices);
+      else if(_parms._family == Family.quasibinomial)
+        return new GLMQuasiBinomialGradientTask(_job == null?null:_job._key,_dinfo,_parms,_l2pen, beta, 
+                _penaltyMatrix, _gamColIndices);
+      else
+        return new GLMGenericGradientTask(_job == null?null:_job._key, _dinfo, _parms, _l2pen, beta, _penaltyMatrix, 
+                _gamColIndices);
+    }
+
+    // Linear predictors X*beta (at _etaBeta) and X*direction cached by rows for the line search, both without the
+    // offset - it is added back at each step of the line search
+    private Vec _etaCache;
+    private Vec _dirCache;
+    private double[] _etaBeta;
+
+    /**
+     * Cache the linear predictors of the rows, so that the line search of L-BFGS can evaluate the objective along
+     * the search direction without reading the predictors: only the linear predictors of the direction are computed
+     * (one pass over the predictors) and each step of the line search is an elementwise pass over the cached
+     * values. The gradient is computed only at the final step.
+     *
+     * Not used for multinomial and ordinal models, GAM and with beta constraints.
+     */
+    public void cacheLinearPredictors() {
+      if (_etaCache != null || multinomial.equals(_parms._family) || ordinal.equals(_parms._family) ||
+              _penaltyMatrix != null || (_bc != null && _bc._betaGiven != null && _bc._rho != null))
+        return;
+      Vec[] vecs = _dinfo._adaptedFrame.anyVec().makeZeros(2);
+      _etaCache = vecs[0];
+      _dirCache = vecs[1];
+      _etaBeta = null;
+    }
+
+    public void removeLinearPredictors() {
+      if (_etaCache == null) return;
+      Futures fs = new Futures();
+      _etaCache.remove(fs);
+      _dirCache.remove(fs);
+      fs.blockForPending();
+      _etaCache = _dirCache = null;
+      _etaBeta = null;
+    }
+
+    private void cacheEta(double[] beta) {
+      if (Arrays.equals(beta, _etaBeta))
+        return;
+      GLMGradientTask gt = gradientTask(beta);
+      gt._etaOut = _etaCache;
+      gt._etaOnly = true;
+      gt.doAll(_dinfo._adaptedFrame);
+      _etaBeta = beta.clone();
+    }
+
+    @Override
+    public LineEvaluator lineEvaluator(final double[] beta, final double[] direction) {
+      if (_etaCache == null)
+        return null;
+      cacheEta(beta);
+      GLMGradientTask gt = gradientTask(direction);
+      gt._etaOut = _dirCache;
+      gt._etaOnly = true;
+      gt.doAll(_dinfo._adaptedFrame);
+      final Frame fr = new Frame(_etaCache, _dirCache,
+              _dinfo._adaptedFrame.vec(_dinfo._adaptedFrame.numCols() - _dinfo._responses));
+      if (_dinfo._weights)
+        fr.add("weights", _dinfo._adaptedFrame.vec(_dinfo.weightChunkId()));
+      if (_dinfo._offset)
+        fr.add("offset", _dinfo._adaptedFrame.vec(_dinfo.offsetChunkId()));
+      return new LineEvaluator() {
+        @Override
+        public double[] evaluate(double step) {
+          cacheEta(beta); // the cache was updated by a gradient computation in between
+          GLMGradientTask gt = gradientTask(beta);
+          gt._lineStep = step;
+          gt.doAll(fr);
+          double l2 = 0, dl2 = 0;
+          for (int i = 0; i < beta.length - 1; ++i) { // no penalty on the intercept
+            double b = beta[i] + step * direction[i];
+            l2 += b * b;
+            dl2 += b * direction[i];
+          }
+          return new double[]{gt._likelihood * _parms._obj_reg + .5 * _l2pen * l2,
+                  gt._lineDeriv * _parms._obj_reg + _l2pen * dl2};
+        }
+      };
+    }
+
     @Override
     public GradientInfo getObjective(double[] beta) {
       double l = new GLMResDevTask(_job._key,_dinfo,_parms,beta).doAll(_dinfo._adaptedFrame)._likelihood;
@@ -14,6 +14,8 @@ import water.H2O.H2OCountedCompleter;
 import water.fvec.C0DChunk;
 import water.fvec.Chunk;
 import water.fvec.Frame;
+import water.fvec.NewChunk;
+import water.fvec.Vec;
 import water.util.ArrayUtils;
 import water.util.FrameUtils;
 import water.util.MathUtils;
@@ -416,6 +418,11 @@ public abstract class GLMTask  {
     protected final DataInfo _dinfo;
     public double[][][] _penalty_mat; // for gam only
     public int[][] _gamBetaIndices; // for gam only
+    // Linear predictors cached for the line search, see GLMGradientSolver#lineEvaluator
+    Vec _etaOut;     // if set, the linear predictors (without offset) computed by map are stored in this Vec
+    boolean _etaOnly; // only compute the linear predictors and store them in _etaOut
+    double _lineStep = Double.NaN; // if set, evaluate at eta + step*etaDir + offset over frame (eta, etaDir, response[, weights][, offset])
+    public double _lineDeriv; // derivative of the likelihood along the direction, when evaluating at _lineStep
     
     protected GLMGradientTask(Key jobKey, DataInfo dinfo, double reg, double lambda, double[] beta){
       _dinfo = dinfo;
@@ -528,15 +535,32 @@ public abstract class GLMTask  {
       }
     }
 
+    private void mapLine(Chunk [] chks) {
+      Chunk response = chks[2];
+      Chunk weights = _dinfo._weights?chks[3]:new C0DChunk(1,response._len);
+      double [] ws = weights.getDoubles(MemoryManager.malloc8d(weights._len),0,weights._len);
+      double [] ys = response.getDoubles(MemoryManager.malloc8d(weights._len),0,response._len);
+      double [] etas = chks[0].getDoubles(MemoryManager.malloc8d(response._len),0,response._len);
+      double [] dirs = chks[1].getDoubles(MemoryManager.malloc8d(response._len),0,response._len);
+      for(int i = 0; i < etas.length; ++i)
+        etas[i] += _lineStep*dirs[i];
+      if(_dinfo._offset)
+        ArrayUtils.add(etas,chks[_dinfo._weights?4:3].getDoubles(MemoryManager.malloc8d(response._len),0,response._len));
+      computeGradientMultipliers(etas,ys,ws);
+      _lineDeriv = ArrayUtils.innerProduct(etas,dirs);
+    }
+
     public void map(Chunk [] chks) {
+      if(!Double.isNaN(_lineStep)) {
+        mapLine(chks);
+        return;
+      }
       _gradient = MemoryManager.malloc8d(_beta.length);
       Chunk response = chks[chks.length-_dinfo._responses];
       Chunk weights = _dinfo._weights?chks[_dinfo.weightChunkId()]:new C0DChunk(1,response._len);
       double [] ws = weights.getDoubles(MemoryManager.malloc8d(weights._len),0,weights._len);
       double [] ys = response.getDoubles(MemoryManager.malloc8d(weights._len),0,response._len);
       double [] etas = MemoryManager.malloc8d(response._len);
-      if(_dinfo._offset)
-        chks[_dinfo.offsetChunkId()].getDoubles(etas,0,etas.length);
       double sparseOffset = 0;
       int numStart = _dinfo.numStart();
       if(_dinfo._normSub != null)
@@ -548,6 +572,14 @@ public abstract class GLMTask  {
       int [] ids = MemoryManager.malloc4(response._len);
       computeCategoricalEtas(chks,etas,vals,ids);
       computeNumericEtas(chks,etas,vals,ids);
+      if(_etaOut != null)
+        new NewChunk(_etaOut.chunkForChunkIdx(response.cidx()),_etaOnly?etas:etas.clone()).close(_fs);
+      if(_etaOnly) {
+        _gradient = null;
+        return;
+      }
+      if(_dinfo._offset)
+        ArrayUtils.add(etas,chks[_dinfo.offsetChunkId()].getDoubles(vals,0,vals.length));
       computeGradientMultipliers(etas,ys,ws);
       // walk the chunks again, add to the gradient
       computeCategoricalGrads(chks,etas,vals,ids);
@@ -567,10 +599,12 @@ public abstract class GLMTask  {
 
     @Override
     public final void reduce(GLMGradientTask gmgt){
-      ArrayUtils.add(_gradient,gmgt._gradient);
+      _gradient = ArrayUtils.add(_gradient,gmgt._gradient);
       _likelihood += gmgt._likelihood;
+      _lineDeriv += gmgt._lineDeriv;
     }
     @Override public final void postGlobal(){
+      if(_gradient == null) return; // only the linear predictors or the line search were computed
       ArrayUtils.mult(_gradient,_reg);
       for(int j = 0; j < _beta.length - 1; ++j)
         _gradient[j] += _currentLambda * _beta[j];  // add L2 constraint for gradient
@@ -1266,10 +1300,16 @@ public abstract class GLMTask  {
     @Override
     public void chunkInit() {
       _gram = new Gram(_dinfo.fullN(), _dinfo.largestCat(), _dinfo.numNums(), _dinfo._cats, true);
+      _gram.startBlockedRows();
       _xy = MemoryManager.malloc8d(_dinfo.fullN() + 1);
 
     }
 
+    @Override
+    public void chunkDone() {
+      _gram.flushRows();
+    }
+
     @Override
     protected void processRow(Row r) {
       double wz = r.weight * (r.response(0) - r.offset);
@@ -1399,10 +1439,12 @@ public abstract class GLMTask  {
     @Override public void chunkInit(){
       // initialize
       _gram = new Gram(_dinfo.fullN(), _dinfo.largestCat(), _dinfo.numNums(), _dinfo._cats,true);
+      _gram.startBlockedRows();
       _xy = MemoryManager.malloc8d(_dinfo.fullN()+1); // + 1 is for intercept
       if(_sparse)
         _sparseOffset = GLM.sparseOffset(_beta,_dinfo);
     }
+    @Override public void chunkDone(){_gram.flushRows();}
     @Override
     protected void processRow(Row r) {
       double y = r.response(0);
@@ -1533,6 +1575,7 @@ public abstract class GLMTask  {
     public void chunkInit() {
       // initialize
       _gram = new Gram(_dinfo.fullN(), _dinfo.largestCat(), _dinfo.numNums(), _dinfo._cats,true);
+      _gram.startBlockedRows();
       _xy = MemoryManager.malloc8d(_dinfo.fullN()+1); // + 1 is for intercept
       if(_sparse)
         _sparseOffset = GLM.sparseOffset(_beta,_dinfo);
@@ -1593,7 +1636,10 @@ public abstract class GLMTask  {
     }
 
     @Override
-    public void chunkDone(){adjustForSparseStandardizedZeros();}
+    public void chunkDone(){
+      _gram.flushRows();
+      adjustForSparseStandardizedZeros();
+    }
 
     @Override
     public void reduce(GLMIterationTask git){
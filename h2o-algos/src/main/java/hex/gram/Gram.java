@@ -4,6 +4,7 @@ package hex.gram;
 import hex.DataInfo;
 import hex.FrameTask2;
 import jsr166y.ForkJoinTask;
+import jsr166y.ForkJoinWorkerThread;
 import jsr166y.RecursiveAction;
 import water.*;
 import water.fvec.Chunk;
@@ -21,6 +22,13 @@ public final class Gram extends Iced<Gram> {
   final int _denseN;
   int _fullN;
   final static int MIN_TSKSZ=10000;
+  // Blocked accumulation of the dense part, see addRowDense
+  final static int BLOCK_MIN_DENSE = Integer.parseInt(H2O.getSysProperty("gram.block.min_dense", "128"));
+  final static int BLOCK_ROWS = 32;
+  final static int BLOCK_TILE = 128;
+  private transient double[][] _blockX;  // buffered dense values, by row
+  private transient double[] _blockW;    // weights of the buffered rows
+  private transient int _blockN;
 
   private static class XXCache {
     public final boolean lowerDiag;
@@ -481,12 +489,10 @@ public final class Gram extends Iced<Gram> {
     final Cholesky fchol = chol;
     final int sparseN = _diag.length;
     final int denseN = _fullN - sparseN;
-    // compute the cholesky of the diagonal and diagonal*dense parts
-    if( _diag != null ) for( int i = 0; i < sparseN; ++i ) {
-      double d = 1.0 / (chol._diag[i] = Math.sqrt(_diag[i]));
-      for( int j = 0; j < denseN; ++j )
-        chol._xx[j][i] = d*_xx[j][i];
-    }
+    // compute the cholesky of the diagonal part, the diagonal*dense part is done by rows below
+    final double[] invDiag = new double[sparseN];
+    if( _diag != null ) for( int i = 0; i < sparseN; ++i )
+      invDiag[i] = 1.0 / (chol._diag[i] = Math.sqrt(_diag[i]));
     ForkJoinTask [] fjts = new ForkJoinTask[denseN];
     // compute the outer product of diagonal*dense
     //Log.info("SPARSEN = " + sparseN + "    DENSEN = " + denseN);
@@ -497,6 +503,9 @@ public final class Gram extends Iced<Gram> {
         @Override protected void compute() {
           int[] tmp = new int[sparseN];
           double[] rowi = fchol._xx[fi];
+          double[] xxi = _xx[fi];
+          for( int k = 0; k < sparseN; ++k )
+            rowi[k] = invDiag[k]*xxi[k];
           int n = 0;
           for( int k = 0; k < sparseN; ++k )
             if (rowi[k] != .0) tmp[n++] = k;
@@ -596,6 +605,8 @@ public final class Gram extends Iced<Gram> {
   }
 
   public void add(Gram grm) {
+    flushRows();
+    grm.flushRows();
     ArrayUtils.add(_xx,grm._xx);
     ArrayUtils.add(_diag,grm._diag);
   }
@@ -776,6 +787,47 @@ public final class Gram extends Iced<Gram> {
       addRowSparse(row, w);
   }
 
+  /**
+   * Switch to blocked accumulation of the dense*dense part of the gram. Rows added by {@link #addRowDense} are
+   * buffered and added to the gram in blocks of {@link #BLOCK_ROWS} rows (rank-k update, tiled for cache locality)
+   * instead of one rank-1 update per row. Only used when there are enough dense columns for it to pay off.
+   *
+   * The buffered rows must be added by {@link #flushRows()} before the gram is used (typically in chunkDone).
+   */
+  public final void startBlockedRows() {
+    if (_denseN < BLOCK_MIN_DENSE || _blockX != null) return;
+    _blockX = new double[BLOCK_ROWS][_denseN];
+    _blockW = new double[BLOCK_ROWS];
+    _blockN = 0;
+  }
+
+  /** Adds the rows buffered since the last flush to the gram, see {@link #startBlockedRows()}. */
+  public final void flushRows() {
+    if (_blockN == 0) return;
+    final int intercept = _hasIntercept?1:0;
+    final int denseRowStart = _fullN - _denseN - _diagN - intercept;
+    final int denseColStart = _fullN - _denseN - intercept;
+    final int n = _blockN;
+    // tiles of the lower triangle stay in cache while all the buffered rows are added to them
+    for (int i0 = 0; i0 < _denseN; i0 += BLOCK_TILE) {
+      final int i1 = Math.min(i0 + BLOCK_TILE, _denseN);
+      for (int j0 = 0; j0 < i1; j0 += BLOCK_TILE) {
+        for (int i = i0; i < i1; ++i) {
+          final double [] mrow = _xx[i+denseRowStart];
+          final int j1 = Math.min(j0 + BLOCK_TILE, i + 1);
+          for (int b = 0; b < n; ++b) {
+            final double [] x = _blockX[b];
+            final double d = _blockW[b]*x[i];
+            if (d == 0) continue;
+            for (int j = j0; j < j1; ++j)
+              mrow[j+denseColStart] += d*x[j];
+          }
+        }
+      }
+    }
+    _blockN = 0;
+  }
+
   public final void   addRowDense(DataInfo.Row row, double w) {
     final int intercept = _hasIntercept?1:0;
     final int denseRowStart = _fullN - _denseN - _diagN - intercept; // we keep dense numbers at the right bottom of the matrix, -1 is for intercept
@@ -783,12 +835,21 @@ public final class Gram extends Iced<Gram> {
 
     assert _denseN + denseRowStart == _xx.length-intercept;
     final double [] interceptRow = _hasIntercept?_xx[_denseN + denseRowStart]:null;
+    // nums * nums, blocked
+    final boolean blocked = _blockX != null;
+    if (blocked) {
+      System.arraycopy(row.numVals, 0, _blockX[_blockN], 0, _denseN);
+      _blockW[_blockN] = w;
+      if (++_blockN == BLOCK_ROWS)
+        flushRows();
+    }
     // nums
     for(int i = 0; i < _denseN; ++i) if(row.numVals[i] != 0) {
       final double [] mrow = _xx[i+denseRowStart];
       final double d = w * row.numVals[i];
-      for(int j = 0; j <= i; ++j) if(row.numVals[j] != 0)
-        mrow[j+denseColStart] += d* row.numVals[j];
+      if (!blocked)
+        for(int j = 0; j <= i; ++j) if(row.numVals[j] != 0)
+          mrow[j+denseColStart] += d* row.numVals[j];
       if(_hasIntercept)
         interceptRow[i+denseColStart] += d; // intercept*x[i]
       // nums * cats
@@ -848,6 +909,11 @@ public final class Gram extends Iced<Gram> {
   public void mul(double[] x, double[] res){
     int colSize = fullN();        // actual gram matrix size
     int offsetForCat = colSize-_xx.length; // offset for categorical columns
+    int p = Runtime.getRuntime().availableProcessors();
+    if (p > 1 && (long) _xx.length * colSize >= 2L * MIN_TSKSZ * p && Thread.currentThread() instanceof ForkJoinWorkerThread) {
+      mulParallel(x, res, p);
+      return;
+    }
 
     for (int rowIndex = 0; rowIndex < colSize; rowIndex++) {
       double d = 0;
@@ -874,6 +940,53 @@ public final class Gram extends Iced<Gram> {
     }
   }
 
+  /**
+   * Same as {@link #mul(double[], double[])} for wide grams: the lower triangle is traversed by rows (instead of
+   * the strided column access above the diagonal), the rows are split into blocks of about the same number of
+   * elements and processed in parallel, each block accumulating into its own result.
+   */
+  void mulParallel(final double[] x, final double[] res, int p) {
+    final int colSize = fullN();
+    final int offsetForCat = colSize - _xx.length;
+    final int[] bounds = new int[p + 1];
+    final long total = (long) _xx.length * (offsetForCat + offsetForCat + _xx.length + 1) / 2;
+    long acc = 0;
+    for (int i = 0, k = 1; i < _xx.length && k < p; ++i) {
+      acc += _xx[i].length;
+      if (acc >= total * k / p) bounds[k++] = i + 1;
+    }
+    for (int k = 1; k <= p; ++k)
+      bounds[k] = k == p ? _xx.length : Math.max(bounds[k], bounds[k - 1]);
+    final double[][] partial = new double[p][];
+    RecursiveAction[] ras = new RecursiveAction[p];
+    for (int k = 0; k < p; ++k) {
+      final int fk = k;
+      ras[k] = new RecursiveAction() {
+        @Override protected void compute() {
+          double[] r = MemoryManager.malloc8d(colSize);
+          for (int i = bounds[fk]; i < bounds[fk + 1]; ++i) {
+            final double[] row = _xx[i];
+            final int rowIndex = i + offsetForCat;
+            final double xi = x[rowIndex];
+            double d = row[rowIndex] * xi; // on diagonal
+            for (int colIndex = 0; colIndex < rowIndex; ++colIndex) {
+              d += row[colIndex] * x[colIndex];  // below diagonal
+              r[colIndex] += row[colIndex] * xi; // above diagonal, by symmetry
+            }
+            r[rowIndex] += d;
+          }
+          partial[fk] = r;
+        }
+      };
+    }
+    ForkJoinTask.invokeAll(ras);
+    for (int i = 0; i < offsetForCat; ++i)
+      res[i] = _diag[i] * x[i];
+    Arrays.fill(res, offsetForCat, colSize, 0);
+    for (double[] r : partial)
+      ArrayUtils.add(res, r);
+  }
+
   /**
    * Task to compute outer product of a matrix normalized by the number of observations (not counting rows with NAs).
    * in R's notation g = X%*%T(X)/nobs, nobs = number of rows of X with no NA.  Copied from GramTask.
@@ -48,6 +48,25 @@ public class OptimizationUtils {
   }
 
 
+  /**
+   * Gradient solver which can evaluate the objective and its derivative along a search direction without computing
+   * the full gradient, eg. from cached linear predictors.
+   */
+  public interface LineSearchGradientSolver extends GradientSolver {
+    /**
+     * Prepare evaluations along the direction from beta.
+     * @return evaluator or null if not available, the full gradient is then computed at each step
+     */
+    LineEvaluator lineEvaluator(double [] beta, double [] direction);
+  }
+
+  public interface LineEvaluator {
+    /**
+     * @return objective value at beta + step*direction and its derivative with respect to the step
+     */
+    double [] evaluate(double step);
+  }
+
   public interface LineSearchSolver {
     boolean evaluate(double [] direction);
     double step();
@@ -339,6 +358,10 @@ public class OptimizationUtils {
         return false;
       }
       double [] beta = new double[_beta.length];
+      final GradientInfo ginfoStart = _ginfox;
+      final LineEvaluator lineEval = _gslvr instanceof LineSearchGradientSolver
+          ? ((LineSearchGradientSolver) _gslvr).lineEvaluator(_beta, direction)
+          : null;
       double width = _maxStep - _minStep;
       double oldWidth = 2*width;
       boolean stage1 = true;
@@ -358,16 +381,26 @@ public class OptimizationUtils {
         step = Math.max(step,_minStep);
         double maxFval = oldObjval + step * dgtest;
 
-        for (int i = 0; i < beta.length; ++i)
-          beta[i] = _beta[i] + step * direction[i];
-        GradientInfo newGinfo = _gslvr.getGradient(beta);
+        GradientInfo newGinfo;
+        double dgp;
+        if (lineEval != null) { // objective and derivative only, the gradient is computed at the final step
+          double [] fdg = lineEval.evaluate(step);
+          newGinfo = new GradientInfo(fdg[0], null);
+          dgp = fdg[1];
+        } else {
+          for (int i = 0; i < beta.length; ++i)
+            beta[i] = _beta[i] + step * direction[i];
+          newGinfo = _gslvr.getGradient(beta);
+          dgp = Double.NaN;
+        }
         if(newGinfo._objVal < maxObj && (_betGradient == null || (newGinfo._objVal - maxFval) < _bestPsiVal)){
           _bestPsiVal = (newGinfo._objVal - maxFval);
           _betGradient = newGinfo;
           _bestStep = step;
         }
         ++_iter;
-        if(_iter < _maxfev && (!Double.isNaN(step) && (Double.isNaN(newGinfo._objVal) || Double.isInfinite(newGinfo._objVal) || ArrayUtils.hasNaNsOrInfs(newGinfo._gradient)))) {
+        boolean invalidDg = lineEval != null ? Double.isNaN(dgp) || Double.isInfinite(dgp) : ArrayUtils.hasNaNsOrInfs(newGinfo._gradient);
+        if(_iter < _maxfev && (!Double.isNaN(step) && (Double.isNaN(newGinfo._objVal) || Double.isInfinite(newGinfo._objVal) || invalidDg))) {
           _brackt = true;
           _sty = step;
           _maxStep = step;
@@ -376,7 +409,8 @@ public class OptimizationUtils {
           step *= .5;
           continue;
         }
-        double dgp = ArrayUtils.innerProduct(newGinfo._gradient, direction);
+        if (lineEval == null)
+          dgp = ArrayUtils.innerProduct(newGinfo._gradient, direction);
         if(Double.isNaN(step) || _brackt && (step <= _stMin || step >= _stMax)) {
           _returnStatus = 6;
           break;
@@ -442,7 +476,10 @@ public class OptimizationUtils {
         for (int i = 0; i < beta.length; ++i)
           beta[i] = _beta[i] + _stx * direction[i];
         _beta = beta;
-      }
+        if (lineEval != null)
+          _ginfox = _gslvr.getGradient(beta);
+      } else if (lineEval != null)
+        _ginfox = ginfoStart; // beta is not updated, keep the gradient at beta
       return succ;
     }
 
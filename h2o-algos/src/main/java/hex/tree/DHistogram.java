@@ -70,6 +70,8 @@ public final class DHistogram extends Iced {
                                  //      - 6 if gamma denominator is needed
                                  //      - 7 if gamma nominator is needed (tweedie constraints)
                                  // also see functions hasPreds() and hasDenominator()
+  protected float [] _compactVals;  // Single precision wY and wYY of the bins while the histogram is being reduced, see compact()
+  protected double [] _compactRest; // ... and the remaining values of _vals (weights, extra statistics, NA bucket) in double
   private final Distribution _dist;
   public double w(int i){  return _vals[_vals_dim*i+0];}
   public double wY(int i){ return _vals[_vals_dim*i+1];}
@@ -374,6 +376,10 @@ public final class DHistogram extends Iced {
   public void add( DHistogram dsh ) {
     assert (_vals == null || dsh._vals == null) || (_isInt == dsh._isInt && _nbin == dsh._nbin && _step == dsh._step &&
       _min == dsh._min && _maxEx == dsh._maxEx);
+    if( dsh._compactVals != null || _compactVals != null ) {
+      addCompact(dsh);
+      return;
+    }
     if( dsh._vals == null ) return;
     if(_vals == null)
       init(dsh._vals);
@@ -383,6 +389,22 @@ public final class DHistogram extends Iced {
     if (_maxIn < dsh._maxIn) _maxIn = dsh._maxIn;
   }
 
+  // Merge where at least one of the histograms is in the single precision representation
+  private void addCompact( DHistogram dsh ) {
+    dsh.compact();
+    if( dsh._compactVals == null ) return;
+    compact();
+    if( _compactVals == null ) {
+      _compactVals = dsh._compactVals;
+      _compactRest = dsh._compactRest;
+    } else {
+      ArrayUtils.add(_compactVals,dsh._compactVals);
+      ArrayUtils.add(_compactRest,dsh._compactRest);
+    }
+    if (_min2 > dsh._min2) _min2 = dsh._min2;
+    if (_maxIn < dsh._maxIn) _maxIn = dsh._maxIn;
+  }
+
   // Inclusive min & max
   public double find_min  () { return _min2 ; }
   public double find_maxIn() { return _maxIn; }
@@ -424,6 +446,88 @@ public final class DHistogram extends Iced {
             parms._min_split_improvement, parms._histogram_type, seed, globalQuantilesKey, cs);
   }
 
+  // Empty histogram with exactly the same bins as the given one
+  private DHistogram(DHistogram h, boolean initNA) {
+    _name = h._name;
+    _minSplitImprovement = h._minSplitImprovement;
+    _isInt = h._isInt;
+    _nbin = h._nbin;
+    _step = h._step;
+    _min = h._min;
+    _maxEx = h._maxEx;
+    _min2 = Double.MAX_VALUE;
+    _maxIn = -Double.MAX_VALUE;
+    _initNA = initNA;
+    _pred1 = h._pred1;
+    _pred2 = h._pred2;
+    _vals_dim = h._vals_dim;
+    _dist = h._dist;
+    _histoType = h._histoType;
+    _seed = h._seed;
+    _globalQuantilesKey = h._globalQuantilesKey;
+  }
+
+  /**
+   * Makes a new, not yet populated histogram binned exactly the same way as this one. Histograms of the children
+   * made this way can be derived from the parent histogram by subtraction, see {@link #initAsDifference}.
+   * @param hasNAs whether the new histogram can expect NAs
+   * @return empty histogram with the same bins
+   */
+  DHistogram emptyCopy(boolean hasNAs) {
+    return new DHistogram(this, hasNAs);
+  }
+
+  /**
+   * Checks whether the given histogram has the same bins as this one (both populated or not).
+   * Only histograms without the extra per-bin statistics are considered.
+   */
+  boolean hasSameBins(DHistogram h) {
+    return _vals_dim == 3 && h._vals_dim == 3 &&
+            _isInt == h._isInt && _nbin == h._nbin && _step == h._step && _min == h._min && _maxEx == h._maxEx &&
+            _histoType == h._histoType && _seed == h._seed;
+  }
+
+  /**
+   * Checks whether the given (new, not yet populated) histogram bins the data exactly as this one. Only uniform bins
+   * are considered, they don't depend on the seed: a child histogram that passes this check can be replaced by
+   * {@link #emptyCopy(boolean)} of the parent without changing the split candidates.
+   */
+  boolean hasSameUniformBins(DHistogram h) {
+    return _histoType == SharedTreeModel.SharedTreeParameters.HistogramType.UniformAdaptive &&
+            h._histoType == SharedTreeModel.SharedTreeParameters.HistogramType.UniformAdaptive &&
+            _vals_dim == 3 && h._vals_dim == 3 &&
+            _isInt == h._isInt && _nbin == h._nbin && _step == h._step && _min == h._min && _maxEx == h._maxEx;
+  }
+
+  /**
+   * Populates this histogram as the difference of the parent histogram and the histogram of the sibling node,
+   * the rows of the parent are exactly the rows of its two children. Bins of the parent have to match.
+   * Min/max of the parent is used as a conservative estimate of the actual min/max.
+   * @param parent populated histogram of the parent node
+   * @param sibling populated histogram of the sibling node
+   */
+  void initAsDifference(DHistogram parent, DHistogram sibling) {
+    assert _vals == null && hasSameBins(parent) && hasSameBins(sibling);
+    double[] vals = parent._vals.clone();
+    if (sibling._vals != null) {
+      for (int i = 0; i < vals.length; i += _vals_dim) {
+        double w = vals[i] - sibling._vals[i];
+        if (w <= 1e-10 * vals[i]) { // Bin is empty, don't leave round-off residues behind
+          vals[i] = 0;
+          vals[i + 1] = 0;
+          vals[i + 2] = 0;
+        } else {
+          vals[i] = w;
+          vals[i + 1] -= sibling._vals[i + 1];
+          vals[i + 2] -= sibling._vals[i + 2];
+        }
+      }
+    }
+    init(vals);
+    _min2 = parent._min2;
+    _maxIn = parent._maxIn;
+  }
+
   // Pretty-print a histogram
   @Override public String toString() {
     StringBuilder sb = new StringBuilder();
@@ -513,6 +617,103 @@ public final class DHistogram extends Iced {
     }
   }
 
+  /**
+   * Sparse version of updateHisto, only visits rows with a non-zero value in the column. Contribution of the zero rows
+   * is derived from the leaf totals. Supports only histograms without the extra per-bin statistics (_vals_dim == 3).
+   * Not thread safe, assumed to have private copy.
+   * @param ws observation weights
+   * @param cs non-zero values of the column (as extracted by Chunk#getSparseDoubles)
+   * @param ys response column of the regression tree
+   * @param ids chunk-relative row ids of the non-zero values
+   * @param nzs indices into cs/ids sorted by leaf assignment
+   * @param hi  upper bound on index into nzs array to be processed by this call (exclusive)
+   * @param lo  lower bound on index into nzs array to be processed by this call (inclusive)
+   * @param totals sum of weights, wY, wYY and count of rows with non-zero weight over all rows of the leaf
+   * @param off offset of the leaf in the totals array
+   */
+  void updateHistoSparse(double[] ws, double[] cs, double[] ys, int[] ids, int[] nzs, int hi, int lo,
+                         double[] totals, int off) {
+    assert _vals_dim == 3;
+    double nzW = 0, nzWY = 0, nzWYY = 0;
+    int nzCnt = 0;
+    for (int r = lo; r < hi; ++r) {
+      final int i = nzs[r];
+      final int k = ids[i];
+      final double weight = ws[k];
+      if (weight == 0)
+        continue;
+      final double col_data = cs[i];
+      if (col_data < _min2) _min2 = col_data;
+      if (col_data > _maxIn) _maxIn = col_data;
+      final double y = ys[k];
+      double wy = weight * y;
+      double wyy = wy * y;
+      int b = bin(col_data);
+      final int binDimStart = _vals_dim*b;
+      _vals[binDimStart + 0] += weight;
+      _vals[binDimStart + 1] += wy;
+      _vals[binDimStart + 2] += wyy;
+      nzW += weight;
+      nzWY += wy;
+      nzWYY += wyy;
+      nzCnt++;
+    }
+    if (totals[off + 3] - nzCnt <= 0)
+      return; // No zeros in this leaf
+    if (0 < _min2) _min2 = 0;
+    if (0 > _maxIn) _maxIn = 0;
+    final int binDimStart = _vals_dim*bin(0);
+    _vals[binDimStart + 0] += totals[off] - nzW;
+    _vals[binDimStart + 1] += totals[off + 1] - nzWY;
+    _vals[binDimStart + 2] += totals[off + 2] - nzWYY;
+  }
+
+  /**
+   * Switches to the single precision representation of the response sums (wY and wYY) of the bins. Reduces the memory
+   * held by the histogram and the bytes sent over the wire when histograms are reduced across nodes. Same as in
+   * {@link #reducePrecision()}, sums of weights, the extra statistics and the NA bucket are kept in double: counts above
+   * 2^24 or non-integer weights would lose precision and change split selection and min_rows checks.
+   * A bin of w, wY and wYY goes from 24 to 16 bytes, about a third less; with the extra statistics of
+   * {@code _vals_dim > 3} the saving is smaller (56 to 48 bytes for 7 values per bin).
+   * The histogram cannot be updated or used for split finding until {@link #expand()} is called.
+   */
+  void compact() {
+    if (_vals == null) return;
+    float[] sums = new float[2 * _nbin];
+    double[] rest = new double[_vals.length - sums.length];
+    for (int b = 0, s = 0, r = 0; b <= _nbin; b++) {
+      for (int d = 0; d < _vals_dim; d++) {
+        final double v = _vals[_vals_dim * b + d];
+        if (b < _nbin && (d == 1 || d == 2))
+          sums[s++] = (float) v;
+        else
+          rest[r++] = v;
+      }
+    }
+    _compactVals = sums;
+    _compactRest = rest;
+    _vals = null;
+  }
+
+  /**
+   * Switches back from the single precision representation made by {@link #compact()}.
+   */
+  void expand() {
+    if (_compactVals == null) return;
+    double[] vals = new double[_compactVals.length + _compactRest.length];
+    for (int b = 0, s = 0, r = 0; b <= _nbin; b++) {
+      for (int d = 0; d < _vals_dim; d++) {
+        vals[_vals_dim * b + d] = b < _nbin && (d == 1 || d == 2) ? _compactVals[s++] : _compactRest[r++];
+      }
+    }
+    _compactVals = null;
+    _compactRest = null;
+    if (_splitPts == null)
+      init(vals); // Received over the wire, split points need to be recomputed
+    else
+      _vals = vals;
+  }
+
   /**
    * Cast bin values *except for sums of weights and Na-bucket counters to floats to drop least significant bits.
    * Improves reproducibility (drop bits most affected by floating point error).
@@ -303,7 +303,10 @@ public class DTree extends Iced {
         final boolean hasNAs = (_nasplit == DHistogram.NASplitDir.NALeft && way == 0 || 
                 _nasplit == DHistogram.NASplitDir.NARight && way == 1) && h.hasNABin();
 
-        nhists[j] = DHistogram.make(h._name, adj_nbins, h._isInt, min, maxEx, hasNAs,h._seed*0xDECAF+(way+1), parms, h._globalQuantilesKey, cs);
+        DHistogram nh = DHistogram.make(h._name, adj_nbins, h._isInt, min, maxEx, hasNAs,h._seed*0xDECAF+(way+1), parms, h._globalQuantilesKey, cs);
+        if (parms._histogram_subtraction && cs == null && h.hasSameUniformBins(nh))
+          nh = h.emptyCopy(hasNAs); // Bins of the parent (only the seed differs), histogram of one of the children can be derived by subtraction
+        nhists[j] = nh;
         cnt++;                    // At least some chance of splitting
       }
       return cnt == 0 ? null : nhists;
@@ -331,6 +334,8 @@ public class DTree extends Iced {
   public static class UndecidedNode extends Node {
     public transient DHistogram[] _hs; //(up to) one histogram per column
     public transient Constraints _cs;
+    transient DHistogram[] _parentHs; // Parent histograms of the columns derived by subtraction (null for computed columns)
+    transient int _siblingNid;        // Sibling node holding the computed histograms to subtract
     public final int _scoreCols[];      // A list of columns to score; could be null for all
     public UndecidedNode( DTree tree, int pid, DHistogram[] hs, Constraints cs ) {
       super(tree,pid);
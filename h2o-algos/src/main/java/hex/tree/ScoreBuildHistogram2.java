@@ -56,6 +56,13 @@ import java.util.concurrent.atomic.AtomicInteger;
  *
  *    exp(nthreads-pre-column) = max(1,H2O.NUMCPUS - num_cols)
  *
+ * Sparse columns:
+ *
+ * Zero-sparse chunks (CXIChunk/CXFChunk) only have their non-zero entries visited in phase 2. Phase 1 keeps the leaf
+ * assignment of each row and per-leaf totals of w, wY and wYY, the zero bin of each leaf is then derived as the leaf
+ * total minus the contributions of the non-zero rows. Only used for histograms without extra per-bin statistics.
+ * Can be turned off with -Dsys.ai.h2o.sharedtree.sparseHistograms=false.
+ *
  */
 public class ScoreBuildHistogram2 extends ScoreBuildHistogram {
   transient int []   _cids;
@@ -64,11 +71,15 @@ public class ScoreBuildHistogram2 extends ScoreBuildHistogram {
   transient double [][] _ws;
   transient int [][] _nhs;
   transient int [][] _rss;
+  transient int [][] _nnids; // Leaf assignment of each row, only kept for chunk rows with a zero-sparse column
+  transient double [][] _lts; // Leaf totals (w, wY, wYY, count), only kept for chunk rows with a zero-sparse column
   Frame _fr2;
   final int _numLeafs;
   final IcedBitSet _activeCols;
   final int _respIdx;
   final int _predsIdx;
+  final boolean _lowPrecision;
+  final boolean _sparse;
 
   public ScoreBuildHistogram2(H2O.H2OCountedCompleter cc, int k, int ncols, int nbins, int nbins_cats, DTree tree, int leaf, DHistogram[][] hcs, DistributionFamily family, 
                               int respIdx, int weightIdx, int predsIdx, int workIdx, int nidIdxs) {
@@ -76,6 +87,8 @@ public class ScoreBuildHistogram2 extends ScoreBuildHistogram {
     _numLeafs = _hcs.length;
     _respIdx = respIdx;
     _predsIdx = predsIdx;
+    _lowPrecision = tree._parms != null && tree._parms._low_precision_histograms;
+    _sparse = tree._parms == null || tree._parms._sparse_histograms;
 
     int hcslen = _hcs.length;
     IcedBitSet activeCols = new IcedBitSet(ncols);
@@ -164,6 +177,8 @@ public class ScoreBuildHistogram2 extends ScoreBuildHistogram {
     _ws = new double[_cids.length][];
     _nhs = new int[_cids.length][];
     _rss = new int[_cids.length][];
+    _nnids = new int[_cids.length][];
+    _lts = new double[_cids.length][];
     long [] espc = v.espc();
     int largestChunkSz = 0;
     for(int i = 1; i < espc.length; ++i){
@@ -212,7 +227,8 @@ public class ScoreBuildHistogram2 extends ScoreBuildHistogram {
         for (int row = 0; row < nnids.length; row++)
           if (nnids[row] >= 0)
             rows[nh[nnids[row]]++] = row;
-
+        if (_sparse && hasSparseZeroCol(chks))
+          _nnids[id] = nnids;
       }
       @Override
       protected void map(int id) {
@@ -232,6 +248,8 @@ public class ScoreBuildHistogram2 extends ScoreBuildHistogram {
           if(_weightIdx != -1){
             _ws[id] = chks[_weightIdx].getDoubles(MemoryManager.malloc8d(len), 0, len);
           }
+          if(_nnids[id] != null)
+            _lts[id] = leafTotals(_nhs[id], _rss[id], _ws[id], _ys[id]);
         }
       }
     },new H2O.H2OCountedCompleter(this){
@@ -268,6 +286,33 @@ public class ScoreBuildHistogram2 extends ScoreBuildHistogram {
     }).fork();
   }
 
+  private boolean hasSparseZeroCol(Chunk[] chks) {
+    for (int c = 0; c < _ncols; c++)
+      if (chks[c].isSparseZero() && (_activeCols == null || _activeCols.contains(c)))
+        return true;
+    return false;
+  }
+
+  // Sums of w, wY, wYY and count of rows with non-zero weight for each leaf
+  private double[] leafTotals(int[] nh, int[] rs, double[] ws, double[] ys) {
+    double[] totals = new double[4 * _numLeafs];
+    for (int n = 0; n < _numLeafs; n++) {
+      int hi = nh[n];
+      int lo = (n == 0 ? 0 : nh[n - 1]);
+      for (int r = lo; r < hi; r++) {
+        int k = rs[r];
+        double w = ws[k];
+        if (w == 0) continue;
+        double wy = w * ys[k];
+        totals[4 * n] += w;
+        totals[4 * n + 1] += wy;
+        totals[4 * n + 2] += wy * ys[k];
+        totals[4 * n + 3]++;
+      }
+    }
+    return totals;
+  }
+
   private static void mergeHistos(DHistogram [] hcs, DHistogram [] hcs2){
     // Distributed histograms need a little work
     for( int i=0; i< hcs.length; i++ ) {
@@ -303,6 +348,8 @@ public class ScoreBuildHistogram2 extends ScoreBuildHistogram {
       double[] cs = null;
       double[] resp = null;
       double[] preds = null;
+      int[] ids = null;
+      int[] nzs = null;
       for(int i = _cidx.getAndIncrement(); i < _cids.length; i = _cidx.getAndIncrement()) {
         if (cs == null) {
           cs = MemoryManager.malloc8d(_maxChunkSz);
@@ -311,7 +358,52 @@ public class ScoreBuildHistogram2 extends ScoreBuildHistogram {
           if (_predsIdx >= 0)
             preds = MemoryManager.malloc8d(_maxChunkSz);
         }
-        computeChunk(i, cs, _ws[i], resp, preds);
+        if (_lts[i] != null && _chks[i][_col].isSparseZero() && sparseHistos()) {
+          if (ids == null) {
+            ids = MemoryManager.malloc4(_maxChunkSz);
+            nzs = MemoryManager.malloc4(_maxChunkSz);
+          }
+          computeChunkSparse(i, cs, ids, nzs, _ws[i]);
+        } else
+          computeChunk(i, cs, _ws[i], resp, preds);
+      }
+    }
+
+    // Sparse path is only possible if none of the histograms need the extra per-bin statistics
+    private boolean sparseHistos() {
+      for (DHistogram h : _lh)
+        if (h != null && h.hasPreds())
+          return false;
+      return true;
+    }
+
+    private void computeChunkSparse(int id, double[] cs, int[] ids, int[] nzs, double[] ws) {
+      int [] nh = _nhs[id];
+      int [] nnids = _nnids[id];
+      double [] ys = ScoreBuildHistogram2.this._ys[id];
+      final int hcslen = _lh.length;
+      int nzlen = _chks[id][_col].getSparseDoubles(cs, ids);
+      // Sort the non-zero entries by leaf, the same way phase 1 sorts the rows
+      int [] nzh = new int[hcslen + 1];
+      for (int i = 0; i < nzlen; i++) {
+        int n = nnids[ids[i]];
+        if (n >= 0) nzh[n + 1]++;
+      }
+      for (int n = 0; n < hcslen; n++) nzh[n + 1] += nzh[n];
+      for (int i = 0; i < nzlen; i++) {
+        int n = nnids[ids[i]];
+        if (n >= 0) nzs[nzh[n]++] = i;
+      }
+      for (int n = 0; n < hcslen; n++) {
+        int sCols[] = _tree.undecided(n + _leaf)._scoreCols; // Columns to score (null, or a list of selected cols)
+        if (sCols == null || ArrayUtils.find(sCols, _col) >= 0) {
+          DHistogram h = _lh[n];
+          int rowsHi = nh[n];
+          int rowsLo = (n == 0 ? 0 : nh[n - 1]);
+          if (rowsHi == rowsLo || h == null) continue; // Ignore untracked columns in this split
+          if (h._vals == null) h.init();
+          h.updateHistoSparse(ws, cs, ys, ids, nzs, nzh[n], n == 0 ? 0 : nzh[n - 1], _lts[id], 4 * n);
+        }
       }
     }
 
@@ -353,11 +445,20 @@ public class ScoreBuildHistogram2 extends ScoreBuildHistogram {
     }
   }
 
+  @Override protected void closeLocal() {
+    if (!_lowPrecision) return;
+    // Node-local histograms are final, keep them in single precision for the reduce across nodes
+    for(DHistogram [] ary:_hcs)
+      for(DHistogram dh:ary)
+        if(dh != null) dh.compact();
+  }
+
   @Override public void postGlobal(){
     _hcs = ArrayUtils.transpose(_hcs);
     for(DHistogram [] ary:_hcs)
       for(DHistogram dh:ary) {
         if(dh == null) continue;
+        dh.expand();
         dh.reducePrecision();
       }
   }
@@ -167,6 +167,12 @@ public abstract class SharedTree<
     _orig_projection_array = LinearAlgebraUtils.toEigenProjectionArray(_origTrain, _train, expensive);
     _parms._parallel_main_model_building = H2O.getSysBoolProperty(
             "sharedtree.crossvalidation.parallelMainModelBuilding", _parms._parallel_main_model_building);
+    _parms._sparse_histograms = H2O.getSysBoolProperty(
+            "sharedtree.sparseHistograms", _parms._sparse_histograms);
+    _parms._histogram_subtraction = H2O.getSysBoolProperty(
+            "sharedtree.histogramSubtraction", _parms._histogram_subtraction);
+    _parms._low_precision_histograms = H2O.getSysBoolProperty(
+            "sharedtree.lowPrecisionHistograms", _parms._low_precision_histograms);
     if (_parms._max_runtime_secs > 0 && _parms._parallel_main_model_building) {
       _parms._parallel_main_model_building = false;
       warn("_parallel_main_model_building", 
@@ -605,6 +611,8 @@ public abstract class SharedTree<
       ScoreBuildHistogram sbh = (ScoreBuildHistogram) caller;
       final int leafOffset = _leafOffsets[_k];
       int tmax = _tree.len();   // Number of total splits in tree K
+      for (int leaf = leafOffset; leaf < tmax; leaf++) // Complete histograms of the larger siblings
+        deriveHistograms(_tree.undecided(leaf), sbh._hcs, leafOffset);
       for (int leaf = leafOffset; leaf < tmax; leaf++) { // Visit all the new splits (leaves)
         DTree.UndecidedNode udn = _tree.undecided(leaf);
         if (LOG.isTraceEnabled()) LOG.trace((_st._nclass==1?"Regression":("Class "+_st._response.domain()[_k]))+",\n  Undecided node:"+udn);
@@ -613,6 +621,8 @@ public abstract class SharedTree<
         if (LOG.isTraceEnabled()) LOG.trace(dn + "\n" + dn._split);
         if (dn._split == null) udn.doNotSplit();
         else {
+          if (_tree._parms._histogram_subtraction)
+            planSubtraction(dn, sbh._hcs[leaf - leafOffset]);
           _did_split = true;
           DTree.Split s = dn._split; // Accumulate squared error improvements per variable
           float improvement = (float) (s.pre_split_se() - s.se());
@@ -623,11 +633,63 @@ public abstract class SharedTree<
       _leafOffsets[_k] = tmax;          // Setup leafs for next tree level
       int new_leafs = _tree.len() - tmax; //new_leafs can be 0 if no actual splits were made
       _hcs[_k] = new DHistogram[new_leafs][/*ncol*/];
-      for (int nl = tmax; nl < _tree.len(); nl++)
-        _hcs[_k][nl - tmax] = _tree.undecided(nl)._hs;
+      for (int nl = tmax; nl < _tree.len(); nl++) {
+        DTree.UndecidedNode udn = _tree.undecided(nl);
+        DHistogram[] hs = udn._hs;
+        if (udn._parentHs != null) { // Derived histograms are not built from the data
+          hs = hs.clone();
+          for (int c = 0; c < hs.length; c++)
+            if (udn._parentHs[c] != null) hs[c] = null;
+        }
+        _hcs[_k][nl - tmax] = hs;
+      }
 //      if (_did_split && new_leafs > 0) _tree._depth++;
       if (_did_split) _tree._depth++; //
     }
+
+    // Histogram subtraction: rows of a split node are exactly the rows of its two children. Only the histograms
+    // of the smaller child are built from the data, the larger child gets the histograms of the parent minus the
+    // histograms of the sibling. Only possible for columns where the children kept the bins of the parent.
+    private void planSubtraction(DTree.DecidedNode dn, DHistogram[] parentHs) {
+      if (dn._nids[0] < 0 || dn._nids[1] < 0)
+        return;
+      boolean leftSmaller = dn._split.n0() <= dn._split.n1();
+      DTree.UndecidedNode smaller = _tree.undecided(dn._nids[leftSmaller ? 0 : 1]);
+      DTree.UndecidedNode larger = _tree.undecided(dn._nids[leftSmaller ? 1 : 0]);
+      DHistogram[] derivedFrom = null;
+      for (int c = 0; c < parentHs.length; c++) {
+        DHistogram p = parentHs[c];
+        if (p == null || p._vals == null || larger._hs[c] == null || smaller._hs[c] == null)
+          continue;
+        if (!scoresCol(larger, c) || !scoresCol(smaller, c))
+          continue;
+        if (!larger._hs[c].hasSameBins(p) || !smaller._hs[c].hasSameBins(p))
+          continue;
+        if (derivedFrom == null)
+          derivedFrom = new DHistogram[parentHs.length];
+        derivedFrom[c] = p;
+      }
+      larger._parentHs = derivedFrom;
+      larger._siblingNid = smaller._nid;
+    }
+
+    private static boolean scoresCol(DTree.UndecidedNode udn, int col) {
+      return udn._scoreCols == null || ArrayUtils.find(udn._scoreCols, col) >= 0;
+    }
+
+    private void deriveHistograms(DTree.UndecidedNode udn, DHistogram[][] hcs, int leafOffset) {
+      if (udn._parentHs == null)
+        return;
+      DHistogram[] hs = hcs[udn._nid - leafOffset];
+      DHistogram[] siblingHs = hcs[udn._siblingNid - leafOffset];
+      for (int c = 0; c < hs.length; c++) {
+        if (udn._parentHs[c] == null) continue;
+        DHistogram h = udn._hs[c];
+        h.initAsDifference(udn._parentHs[c], siblingHs[c]);
+        hs[c] = h;
+      }
+      udn._parentHs = null; // Release the parent histograms
+    }
   }
 
   // --------------------------------------------------------------------------
@@ -89,6 +89,15 @@ public abstract class SharedTreeModel<
 
     public boolean _parallel_main_model_building = false;
 
+    public boolean _sparse_histograms = true;
+
+    // Derive the histograms of the larger child by subtraction where the children bin a column exactly as the parent.
+    // A derived histogram only knows the min/max of the parent, its children bin over that (wider) range: the splits
+    // below a derived node, and so the model, can differ from a run without subtraction
+    public boolean _histogram_subtraction = false;
+
+    public boolean _low_precision_histograms = false;
+
     /** Fields which can NOT be modified if checkpoint is specified.
      * FIXME: should be defined in Schema API annotation
      */
@@ -0,0 +1,96 @@
+package hex.gram;
+
+import hex.DataInfo;
+import jsr166y.ForkJoinPool;
+import jsr166y.RecursiveAction;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import water.Scope;
+import water.TestUtil;
+import water.fvec.Frame;
+import water.fvec.TestFrameBuilder;
+import water.fvec.Vec;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class GramTest extends TestUtil {
+
+  @BeforeClass
+  public static void setup() { stall_till_cloudsize(1); }
+
+  private static final int CATS = 3;
+  private static final int NUMS = 300;
+
+  private static Gram makeGram(boolean blocked, long seed) {
+    Scope.enter();
+    try {
+      Frame fr = new TestFrameBuilder()
+              .withColNames("c", "y")
+              .withVecTypes(Vec.T_CAT, Vec.T_NUM)
+              .withDataForCol(0, ar("a", "b", "c"))
+              .withDataForCol(1, ard(1, 2, 3))
+              .build();
+      DataInfo dinfo = new DataInfo(fr, null, 1, true, DataInfo.TransformType.NONE, DataInfo.TransformType.NONE,
+              true, false, false, false, false, false);
+      Scope.track_generic(dinfo);
+      return makeGram(dinfo, blocked, seed);
+    } finally {
+      Scope.exit();
+    }
+  }
+
+  private static Gram makeGram(DataInfo dinfo, boolean blocked, long seed) {
+    Gram gram = new Gram(CATS + NUMS, CATS, NUMS, 1, true);
+    if (blocked)
+      gram.startBlockedRows();
+    Random rnd = new Random(seed);
+    for (int r = 0; r < 100; r++) { // not a multiple of the block size
+      double[] nums = new double[NUMS];
+      for (int i = 0; i < NUMS; i++)
+        nums[i] = rnd.nextInt(5) == 0 ? 0 : rnd.nextGaussian();
+      DataInfo.Row row = dinfo.new Row(false, nums, new int[]{rnd.nextInt(CATS)}, null, r, 0);
+      gram.addRow(row, rnd.nextDouble());
+    }
+    gram.flushRows();
+    return gram;
+  }
+
+  @Test
+  public void testBlockedRowsMatchRowByRow() {
+    Gram expected = makeGram(false, 42);
+    Gram blocked = makeGram(true, 42);
+    assertArrayEquals(expected._diag, blocked._diag, 0);
+    for (int i = 0; i < expected._xx.length; i++)
+      assertArrayEquals(expected._xx[i], blocked._xx[i], 1e-10);
+  }
+
+  @Test
+  public void testMulParallel() {
+    final Gram gram = makeGram(true, 7);
+    double[][] xx = gram.getXX();
+    final double[] x = new double[xx.length];
+    Random rnd = new Random(0xCAFE);
+    for (int i = 0; i < x.length; i++)
+      x[i] = rnd.nextGaussian();
+    double[] expected = new double[x.length];
+    for (int i = 0; i < x.length; i++)
+      for (int j = 0; j < x.length; j++)
+        expected[i] += xx[i][j] * x[j];
+    double[] res = new double[x.length];
+    gram.mul(x, res);
+    assertArrayEquals(expected, res, 1e-8);
+    final double[] parRes = new double[x.length];
+    ForkJoinPool pool = new ForkJoinPool(4);
+    try {
+      pool.invoke(new RecursiveAction() {
+        @Override protected void compute() { gram.mulParallel(x, parRes, 4); }
+      });
+    } finally {
+      pool.shutdown();
+    }
+    assertArrayEquals(expected, parRes, 1e-8);
+  }
+
+}
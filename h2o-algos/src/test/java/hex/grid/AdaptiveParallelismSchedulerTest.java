@@ -0,0 +1,137 @@
+package hex.grid;
+
+import hex.tree.gbm.GBMModel;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import water.Key;
+import water.runner.CloudSize;
+import water.runner.H2ORunner;
+
+import static org.junit.Assert.*;
+
+@RunWith(H2ORunner.class)
+@CloudSize(1)
+public class AdaptiveParallelismSchedulerTest {
+
+  @Test
+  public void testSmallModelsArePackedWithBigModel() {
+    AdaptiveParallelismScheduler scheduler = new AdaptiveParallelismScheduler(8);
+    assertEquals(2, scheduler.targetParallelism());
+
+    GBMModel.GBMParameters small = gbmParams(10, 0);
+    GBMModel.GBMParameters big = gbmParams(100, 0);
+
+    assertTrue(scheduler.canStart(small));
+    scheduler.onModelStarted(modelKey("small1"), small);
+    assertFalse("Big model shouldn't fit next to a running model", scheduler.canStart(big));
+    assertTrue(scheduler.canStart(small));
+    scheduler.onModelStarted(modelKey("small2"), small);
+    assertEquals(2, scheduler.running());
+    assertFalse(scheduler.canStart(small));
+
+    scheduler.onModelFinished(modelKey("small1"));
+    scheduler.onModelFinished(modelKey("small2"));
+    assertEquals(0, scheduler.running());
+    assertTrue("Big model always starts when nothing is running", scheduler.canStart(big));
+    scheduler.onModelStarted(modelKey("big"), big);
+    assertFalse(scheduler.canStart(small));
+  }
+
+  @Test
+  public void testMixedModelsBigFirst() {
+    AdaptiveParallelismScheduler scheduler = new AdaptiveParallelismScheduler(8);
+    GBMModel.GBMParameters small = gbmParams(10, 0);
+    GBMModel.GBMParameters big = gbmParams(100, 0);
+
+    // first model has nothing to compare with - takes a single slot
+    scheduler.onModelStarted(modelKey("big1"), big);
+    assertEquals(1, scheduler.usedSlots(), 0);
+    // mean cost is now the cost of the big model, small models are cheap compared to it
+    assertTrue(scheduler.canStart(small));
+    scheduler.onModelStarted(modelKey("small1"), small);
+    assertEquals(2, scheduler.usedSlots(), 0);
+    assertFalse(scheduler.canStart(small));
+
+    // the big model releases the slot it was started with, even though the mean cost changed in between
+    scheduler.onModelFinished(modelKey("big1"));
+    assertEquals(1, scheduler.usedSlots(), 0);
+    assertFalse("Big model takes the whole target now", scheduler.canStart(big));
+    scheduler.onModelStarted(modelKey("small2"), small);
+    assertEquals(2, scheduler.usedSlots(), 0);
+
+    scheduler.adjust(new AdaptiveParallelismScheduler.ClusterLoad(0.1, 0.9));
+    assertEquals(3, scheduler.targetParallelism());
+    scheduler.onModelFinished(modelKey("small1"));
+    assertEquals(1, scheduler.usedSlots(), 0);
+    scheduler.onModelStarted(modelKey("big2"), big); // mean cost is (100 + 10 + 10 + 100) / 4 = 55
+    assertEquals(1 + 100 / 55.0, scheduler.usedSlots(), 1e-10);
+    scheduler.adjust(new AdaptiveParallelismScheduler.ClusterLoad(0.5, 0.1));
+    assertEquals(1, scheduler.targetParallelism());
+
+    // releasing the models frees exactly what they took - no drift when the target or the mean cost changes
+    scheduler.onModelFinished(modelKey("small2"));
+    assertEquals(100 / 55.0, scheduler.usedSlots(), 1e-10); // big model would now take only 1 slot
+    scheduler.onModelFinished(modelKey("unknown")); // not started - ignored
+    assertEquals(1, scheduler.running());
+    scheduler.onModelFinished(modelKey("big2"));
+    assertEquals(0, scheduler.usedSlots(), 0);
+    assertEquals(0, scheduler.running());
+  }
+
+  @Test
+  public void testCrossValidationIncreasesCost() {
+    assertEquals(10, AdaptiveParallelismScheduler.cost(gbmParams(10, 0)), 0);
+    assertEquals(60, AdaptiveParallelismScheduler.cost(gbmParams(10, 5)), 0);
+  }
+
+  @Test
+  public void testParallelismFollowsClusterLoad() {
+    AdaptiveParallelismScheduler scheduler = new AdaptiveParallelismScheduler(4);
+    scheduler.onModelStarted(modelKey("m1"), gbmParams(10, 0));
+
+    // not all slots used yet - no reason to increase
+    scheduler.adjust(new AdaptiveParallelismScheduler.ClusterLoad(0.1, 0.9));
+    assertEquals(2, scheduler.targetParallelism());
+
+    scheduler.onModelStarted(modelKey("m2"), gbmParams(10, 0));
+    scheduler.adjust(new AdaptiveParallelismScheduler.ClusterLoad(0.95, 0.9));
+    assertEquals("CPUs are busy", 2, scheduler.targetParallelism());
+    scheduler.adjust(new AdaptiveParallelismScheduler.ClusterLoad(0.1, 0.3));
+    assertEquals("Not enough memory", 2, scheduler.targetParallelism());
+
+    scheduler.adjust(new AdaptiveParallelismScheduler.ClusterLoad(0.1, 0.9));
+    assertEquals(3, scheduler.targetParallelism());
+    scheduler.onModelStarted(modelKey("m3"), gbmParams(10, 0));
+    scheduler.adjust(new AdaptiveParallelismScheduler.ClusterLoad(Double.NaN, 0.9));
+    assertEquals(4, scheduler.targetParallelism());
+    scheduler.onModelStarted(modelKey("m4"), gbmParams(10, 0));
+    scheduler.adjust(new AdaptiveParallelismScheduler.ClusterLoad(0.1, 0.9));
+    assertEquals("Capped by the maximal parallelism", 4, scheduler.targetParallelism());
+
+    scheduler.adjust(new AdaptiveParallelismScheduler.ClusterLoad(0.5, 0.1));
+    assertEquals(2, scheduler.targetParallelism());
+    scheduler.adjust(new AdaptiveParallelismScheduler.ClusterLoad(0.5, 0.1));
+    scheduler.adjust(new AdaptiveParallelismScheduler.ClusterLoad(0.5, 0.1));
+    assertEquals(1, scheduler.targetParallelism());
+  }
+
+  @Test
+  public void testSampleLoad() {
+    AdaptiveParallelismScheduler scheduler = new AdaptiveParallelismScheduler(4);
+    AdaptiveParallelismScheduler.ClusterLoad load = scheduler.sampleLoad();
+    assertTrue(load._minFreeMemFraction > 0 && load._minFreeMemFraction <= 1);
+    assertTrue(Double.isNaN(load._cpuUtilization)); // first sample has nothing to compare with
+  }
+
+  private static Key modelKey(String name) {
+    return Key.make(name);
+  }
+
+  private static GBMModel.GBMParameters gbmParams(int ntrees, int nfolds) {
+    GBMModel.GBMParameters params = new GBMModel.GBMParameters();
+    params._ntrees = ntrees;
+    params._nfolds = nfolds;
+    return params;
+  }
+
+}
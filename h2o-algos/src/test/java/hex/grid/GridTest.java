@@ -230,6 +230,39 @@ public class GridTest extends TestUtil {
     }
   }
 
+  @Test
+  public void testAdaptiveParallelismLevelGridSearch() {
+    try {
+      Scope.enter();
+
+      final Frame trainingFrame = generateRealOnly(5, 1000, 0, 0xCAFE);
+      Scope.track(trainingFrame);
+
+      final Integer[] ntreesArr = new Integer[]{3, 30, 4, 5};
+      final Integer[] maxDepthArr = new Integer[]{2, 3};
+      HashMap<String, Object[]> hyperParms = new HashMap<String, Object[]>() {{
+        put("_ntrees", ntreesArr);
+        put("_max_depth", maxDepthArr);
+      }};
+
+      GBMModel.GBMParameters params = new GBMModel.GBMParameters();
+      params._train = trainingFrame._key;
+      params._response_column = trainingFrame.name(0);
+      params._seed = 42;
+
+      final Job<Grid> gs = GridSearch.startGridSearch(null, params, hyperParms,
+              GridSearch.getParallelismLevel(GridSearch.ADAPTIVE_PARALLELISM_LEVEL));
+      Scope.track_generic(gs);
+      final Grid grid = gs.get();
+      Scope.track_generic(grid);
+      assertEquals(GridSearch.ADAPTIVE_PARALLELISM_LEVEL, grid.getParallelism());
+      assertEquals(ntreesArr.length * maxDepthArr.length, grid.getModelCount());
+      assertEquals(0, grid.getFailures().getFailureCount());
+    } finally {
+      Scope.exit();
+    }
+  }
+
   @Test
   public void testFaileH2OdParamsCleanup() {
     try {
@@ -12,15 +12,18 @@ import org.junit.runner.RunWith;
 import water.Scope;
 import water.TestUtil;
 import water.fvec.Frame;
+import water.fvec.TestFrameBuilder;
+import water.fvec.Vec;
 import water.runner.CloudSize;
 import water.runner.H2ORunner;
 
 
-import java.io.ByteArrayOutputStream;
-import java.io.File;
-import java.io.IOException;
-import java.io.PrintStream;
+import java.io.*;
 import java.security.Permission;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 
 import static org.junit.Assert.*;
 import static water.TestUtil.parseAndTrackTestFile;
@@ -145,6 +148,69 @@ public class PredictCsvTest {
   }
 
 
+  @Test
+  public void testParallelScoringWithGzip() throws Exception {
+    try {
+      Scope.enter();
+      Frame train = new TestFrameBuilder()
+              .withColNames("x1", "x2", "x3", "y")
+              .withVecTypes(Vec.T_NUM, Vec.T_NUM, Vec.T_NUM, Vec.T_NUM)
+              .withRandomDoubleDataForCol(0, 5000, 0, 10, 42)
+              .withRandomDoubleDataForCol(1, 5000, -5, 5, 43)
+              .withRandomIntDataForCol(2, 5000, 0, 3, 44)
+              .withRandomDoubleDataForCol(3, 5000, 0, 100, 45)
+              .build();
+
+      GBMModel.GBMParameters p = new GBMModel.GBMParameters();
+      p._train = train._key;
+      p._seed = 0xC0DE;
+      p._response_column = "y";
+      p._ntrees = 5;
+
+      GBMModel model = new GBM(p).trainModel().get();
+      Scope.track_generic(model);
+
+      final File modelFile = folder.newFile();
+      model.exportMojo(modelFile.getAbsolutePath(), true);
+
+      final File inputFile = folder.newFile("input.csv.gz");
+      try (Writer w = new OutputStreamWriter(new GZIPOutputStream(new FileOutputStream(inputFile)))) {
+        w.write("x1,x2,x3\n");
+        for (long row = 0; row < train.numRows(); row++) {
+          w.write(train.vec(0).at(row) + "," + train.vec(1).at(row) + "," + train.vec(2).at(row) + "\n");
+        }
+      }
+
+      final File sequentialOutput = folder.newFile("sequential.csv");
+      PredictCsv.make(new String[]{"--mojo", modelFile.getAbsolutePath(),
+              "--input", inputFile.getAbsolutePath(),
+              "--output", sequentialOutput.getAbsolutePath()}, null).run();
+
+      final File parallelOutput = folder.newFile("parallel.csv.gz");
+      PredictCsv.make(new String[]{"--mojo", modelFile.getAbsolutePath(),
+              "--input", inputFile.getAbsolutePath(),
+              "--output", parallelOutput.getAbsolutePath(),
+              "--threads", "4"}, null).run();
+
+      List<String> expected = readLines(new FileInputStream(sequentialOutput));
+      List<String> actual = readLines(new GZIPInputStream(new FileInputStream(parallelOutput)));
+      assertEquals(train.numRows() + 1, expected.size());
+      assertEquals(expected, actual);
+    } finally {
+      Scope.exit();
+    }
+  }
+
+  private static List<String> readLines(InputStream is) throws IOException {
+    List<String> lines = new ArrayList<>();
+    try (BufferedReader r = new BufferedReader(new InputStreamReader(is))) {
+      String line;
+      while ((line = r.readLine()) != null)
+        lines.add(line);
+    }
+    return lines;
+  }
+
   protected static class PreventedExitException extends SecurityException {
     public final int status;
 
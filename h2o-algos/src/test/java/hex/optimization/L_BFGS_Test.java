@@ -11,10 +11,11 @@ import org.junit.BeforeClass;
 import org.junit.Test;
 import water.*;
 import water.fvec.Frame;
+import water.fvec.TestFrameBuilder;
+import water.fvec.Vec;
 import water.util.ArrayUtils;
 
-import static org.junit.Assert.assertEquals;
-import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.*;
 
 /**
 * Created by tomasnykodym on 9/16/14.
@@ -95,6 +96,98 @@ public class L_BFGS_Test  extends TestUtil {
     }
   }
 
+  @Test
+  public void logisticCachedLinearPredictors() {
+    Scope.enter();
+    DataInfo dinfo = null;
+    GLMGradientSolver solver = null;
+    try {
+      Frame source = new TestFrameBuilder()
+              .withColNames("c", "x1", "x2", "y")
+              .withVecTypes(Vec.T_CAT, Vec.T_NUM, Vec.T_NUM, Vec.T_CAT)
+              .withDataForCol(0, ar("a", "b", "c", "a", "b", "c", "a", "b", "c", "a"))
+              .withDataForCol(1, ard(1.5, -2, 0.3, 4, 0, 2.2, -1, 0.5, 3, -0.7))
+              .withDataForCol(2, ard(0, 1, 0, 0, 2, 0, 1, 0, 0, 3))
+              .withDataForCol(3, ar("0", "1", "0", "1", "1", "0", "0", "1", "1", "0"))
+              .withChunkLayout(4, 3, 3)
+              .build();
+      dinfo = new DataInfo(source, null, 1, false, DataInfo.TransformType.STANDARDIZE, DataInfo.TransformType.NONE, true, false, false, /* weights */ false, /* offset */ false, /* fold */ false);
+      DKV.put(dinfo._key,dinfo);
+      GLMParameters glmp = new GLMParameters(Family.binomial, Family.binomial.defaultLink);
+      glmp._obj_reg = 1/10.0;
+      solver = new GLMGradientSolver(null, glmp, dinfo, 1e-2, null);
+      double[] beta = new double[]{0.1, -0.2, 0.3, -0.4, 0.2};
+      double[] dir = new double[]{0.5, 0.1, -0.3, 0.2, -0.1};
+      assertEquals(dinfo.fullN() + 1, beta.length);
+      assertCachedLinearPredictors(solver, beta, dir);
+    } finally {
+      if (solver != null)
+        solver.removeLinearPredictors();
+      if (dinfo != null)
+        DKV.remove(dinfo._key);
+      Scope.exit();
+    }
+  }
+
+  @Test
+  public void poissonCachedLinearPredictorsWithOffset() {
+    Scope.enter();
+    DataInfo dinfo = null;
+    GLMGradientSolver solver = null;
+    try {
+      Frame source = new TestFrameBuilder()
+              .withColNames("c", "x1", "x2", "w", "off", "y")
+              .withVecTypes(Vec.T_CAT, Vec.T_NUM, Vec.T_NUM, Vec.T_NUM, Vec.T_NUM, Vec.T_NUM)
+              .withDataForCol(0, ar("a", "b", "c", "a", "b", "c", "a", "b", "c", "a"))
+              .withDataForCol(1, ard(1.5, -2, 0.3, 4, 0, 2.2, -1, 0.5, 3, -0.7))
+              .withDataForCol(2, ard(0, 1, 0, 0, 2, 0, 1, 0, 0, 3))
+              .withDataForCol(3, ard(1, 2, 1, 0.5, 1, 1, 3, 1, 0.5, 1))
+              .withDataForCol(4, ard(0.7, -0.3, 1.2, 0, 2, -1, 0.4, 1.5, -0.5, 0.9))
+              .withDataForCol(5, ard(2, 0, 5, 1, 9, 0, 1, 4, 1, 3))
+              .withChunkLayout(4, 3, 3)
+              .build();
+      dinfo = new DataInfo(source, null, 1, false, DataInfo.TransformType.STANDARDIZE, DataInfo.TransformType.NONE, true, false, false, /* weights */ true, /* offset */ true, /* fold */ false);
+      DKV.put(dinfo._key,dinfo);
+      GLMParameters glmp = new GLMParameters(Family.poisson, Family.poisson.defaultLink);
+      glmp._obj_reg = 1/10.0;
+      solver = new GLMGradientSolver(null, glmp, dinfo, 1e-2, null);
+      double[] beta = new double[]{0.1, -0.2, 0.3, -0.4, 0.2};
+      double[] dir = new double[]{0.5, 0.1, -0.3, 0.2, -0.1};
+      assertEquals(dinfo.fullN() + 1, beta.length);
+      assertCachedLinearPredictors(solver, beta, dir);
+    } finally {
+      if (solver != null)
+        solver.removeLinearPredictors();
+      if (dinfo != null)
+        DKV.remove(dinfo._key);
+      Scope.exit();
+    }
+  }
+
+  // line search over the cached linear predictors matches the full gradient, L-BFGS finds the same solution
+  private static void assertCachedLinearPredictors(GLMGradientSolver solver, double[] beta, double[] dir) {
+    solver.cacheLinearPredictors();
+    OptimizationUtils.LineEvaluator eval = solver.lineEvaluator(beta, dir);
+    for (double step : new double[]{0, 0.5, 2}) {
+      GradientInfo ginfo = solver.getGradient(ArrayUtils.wadd(beta.clone(), dir, step));
+      double[] fdg = eval.evaluate(step);
+      assertEquals(ginfo._objVal, fdg[0], 1e-10);
+      assertEquals(ArrayUtils.innerProduct(ginfo._gradient, dir), fdg[1], 1e-10);
+    }
+
+    // same solution with and without the cache
+    L_BFGS.Result cached = new L_BFGS().setGradEps(1e-8).solve(solver, beta.clone(), solver.getGradient(beta), new L_BFGS.ProgressMonitor() {
+      public boolean progress(double[] beta, GradientInfo ginfo) { return true; }
+    });
+    solver.removeLinearPredictors();
+    assertNull(solver.lineEvaluator(beta, dir));
+    L_BFGS.Result full = new L_BFGS().setGradEps(1e-8).solve(solver, beta.clone(), solver.getGradient(beta), new L_BFGS.ProgressMonitor() {
+      public boolean progress(double[] beta, GradientInfo ginfo) { return true; }
+    });
+    assertEquals(full.ginfo._objVal, cached.ginfo._objVal, 1e-8);
+    assertArrayEquals(full.coefs, cached.coefs, 1e-4);
+  }
+
   // Test LSM on arcene - wide dataset with ~10k columns
   // test warm start and max #iteratoions
   @Test
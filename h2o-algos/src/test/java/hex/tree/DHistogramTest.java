@@ -2,12 +2,16 @@ package hex.tree;
 
 import org.junit.BeforeClass;
 import org.junit.Test;
+import water.AutoBuffer;
 import water.DKV;
 import water.Key;
 import water.Scope;
 import water.TestUtil;
+import water.fvec.Chunk;
+import water.fvec.Vec;
 
 import java.util.Arrays;
+import java.util.Random;
 
 import static org.junit.Assert.*;
 
@@ -115,4 +119,196 @@ public class DHistogramTest extends TestUtil {
     }
   }
 
+  @Test
+  public void updateHistoSparseMatchesDense() {
+    Scope.enter();
+    try {
+      final int len = 10000;
+      final Random rnd = new Random(42);
+      final double[] cs = new double[len];
+      final double[] ws = new double[len];
+      final double[] ys = new double[len];
+      final int[] rows = new int[len];
+      for (int i = 0; i < len; i++) {
+        double r = rnd.nextDouble();
+        cs[i] = r < 0.97 ? 0 : (r < 0.98 ? Double.NaN : rnd.nextInt(100) - 50);
+        ws[i] = rnd.nextInt(10) == 0 ? 0 : rnd.nextDouble();
+        ys[i] = rnd.nextGaussian();
+        rows[i] = i;
+      }
+      Vec v = Scope.track(Vec.makeVec(cs, Vec.newKey()));
+      Chunk c = v.chunkForChunkIdx(0);
+      assertTrue(c.isSparseZero());
+
+      DHistogram dense = new DHistogram("dense", 20, 1024, (byte) 1, -50, 50, false, -0.001,
+              SharedTreeModel.SharedTreeParameters.HistogramType.UniformAdaptive, 42L, null, null);
+      dense.init();
+      dense.updateHisto(ws, null, cs, ys, null, rows, len, 0);
+
+      double[] vals = new double[len];
+      int[] ids = new int[len];
+      int nzlen = c.getSparseDoubles(vals, ids);
+      assertTrue(nzlen < len / 10);
+      int[] nzs = new int[nzlen];
+      for (int i = 0; i < nzlen; i++)
+        nzs[i] = i;
+      double[] totals = new double[4];
+      for (int i = 0; i < len; i++) {
+        if (ws[i] == 0) continue;
+        totals[0] += ws[i];
+        totals[1] += ws[i] * ys[i];
+        totals[2] += ws[i] * ys[i] * ys[i];
+        totals[3]++;
+      }
+      DHistogram sparse = new DHistogram("sparse", 20, 1024, (byte) 1, -50, 50, false, -0.001,
+              SharedTreeModel.SharedTreeParameters.HistogramType.UniformAdaptive, 42L, null, null);
+      sparse.init();
+      sparse.updateHistoSparse(ws, vals, ys, ids, nzs, nzlen, 0, totals, 0);
+
+      assertEquals(dense._min2, sparse._min2, 0);
+      assertEquals(dense._maxIn, sparse._maxIn, 0);
+      assertArrayEquals(dense._vals, sparse._vals, 1e-8);
+    } finally {
+      Scope.exit();
+    }
+  }
+
+  @Test
+  public void initAsDifferenceMatchesDirectlyBuiltHistogram() {
+    final int len = 1000;
+    final Random rnd = new Random(0xDECAF);
+    final double[] cs = new double[len];
+    final double[] ws = new double[len];
+    final double[] ys = new double[len];
+    final int[] rows = new int[len];
+    for (int i = 0; i < len; i++) {
+      cs[i] = rnd.nextInt(20) == 0 ? Double.NaN : rnd.nextDouble() * 10;
+      ws[i] = rnd.nextInt(5);
+      ys[i] = rnd.nextGaussian();
+      rows[i] = i;
+    }
+    DHistogram parent = new DHistogram("parent", 20, 1024, (byte) 0, 0, 10, true, -0.001,
+            SharedTreeModel.SharedTreeParameters.HistogramType.Random, 42L, null, null);
+    parent.init();
+    parent.updateHisto(ws, null, cs, ys, null, rows, len, 0);
+
+    // first 300 rows go left, the rest goes right
+    DHistogram left = parent.emptyCopy(true);
+    DHistogram right = parent.emptyCopy(true);
+    assertTrue(left.hasSameBins(parent));
+    assertTrue(right.hasSameBins(parent));
+    left.init();
+    left.updateHisto(ws, null, cs, ys, null, rows, 300, 0);
+    right.init();
+    right.updateHisto(ws, null, cs, ys, null, rows, len, 300);
+    assertArrayEquals(parent._splitPts, right._splitPts, 0);
+
+    DHistogram derived = parent.emptyCopy(true);
+    derived.initAsDifference(parent, left);
+    assertArrayEquals(right._vals, derived._vals, 1e-8);
+    assertEquals(parent.find_min(), derived.find_min(), 0);
+    assertEquals(parent.find_maxIn(), derived.find_maxIn(), 0);
+  }
+
+  @Test
+  public void hasSameBinsRejectsRebinnedHistogram() {
+    DHistogram h = new DHistogram("h", 20, 1024, (byte) 0, 0, 10, false, -0.001,
+            SharedTreeModel.SharedTreeParameters.HistogramType.UniformAdaptive, 42L, null, null);
+    DHistogram narrower = new DHistogram("h", 20, 1024, (byte) 0, 0, 5, false, -0.001,
+            SharedTreeModel.SharedTreeParameters.HistogramType.UniformAdaptive, 42L, null, null);
+    assertTrue(h.hasSameBins(h.emptyCopy(false)));
+    assertFalse(h.hasSameBins(narrower));
+  }
+
+  @Test
+  public void hasSameUniformBinsIgnoresSeedOnly() {
+    DHistogram h = new DHistogram("h", 20, 1024, (byte) 0, 0, 10, false, -0.001,
+            SharedTreeModel.SharedTreeParameters.HistogramType.UniformAdaptive, 42L, null, null);
+    DHistogram child = new DHistogram("h", 20, 1024, (byte) 0, 0, 10, true, -0.001,
+            SharedTreeModel.SharedTreeParameters.HistogramType.UniformAdaptive, 43L, null, null);
+    DHistogram narrower = new DHistogram("h", 20, 1024, (byte) 0, 0, 9.5, false, -0.001,
+            SharedTreeModel.SharedTreeParameters.HistogramType.UniformAdaptive, 42L, null, null);
+    DHistogram fewerBins = new DHistogram("h", 10, 1024, (byte) 0, 0, 10, false, -0.001,
+            SharedTreeModel.SharedTreeParameters.HistogramType.UniformAdaptive, 42L, null, null);
+    DHistogram random = new DHistogram("h", 20, 1024, (byte) 0, 0, 10, false, -0.001,
+            SharedTreeModel.SharedTreeParameters.HistogramType.Random, 42L, null, null);
+    assertTrue(h.hasSameUniformBins(child));
+    assertFalse(h.hasSameUniformBins(narrower));
+    assertFalse(h.hasSameUniformBins(fewerBins));
+    assertFalse("Random split points depend on the seed", random.hasSameUniformBins(random.emptyCopy(false)));
+  }
+
+  @Test
+  public void compactHistogramsReduceInSinglePrecision() {
+    final int len = 1000;
+    final Random rnd = new Random(42);
+    final double[] cs = new double[len];
+    final double[] ws = new double[len];
+    final double[] ys = new double[len];
+    final int[] rows = new int[len];
+    for (int i = 0; i < len; i++) {
+      cs[i] = rnd.nextInt(20) == 0 ? Double.NaN : rnd.nextDouble() * 10;
+      ws[i] = 1;
+      ys[i] = rnd.nextGaussian();
+      rows[i] = i;
+    }
+    DHistogram expected = new DHistogram("h", 20, 1024, (byte) 0, 0, 10, true, -0.001,
+            SharedTreeModel.SharedTreeParameters.HistogramType.UniformAdaptive, 42L, null, null);
+    expected.init();
+    expected.updateHisto(ws, null, cs, ys, null, rows, len, 0);
+
+    DHistogram h1 = expected.emptyCopy(true);
+    h1.init();
+    h1.updateHisto(ws, null, cs, ys, null, rows, 500, 0);
+    DHistogram h2 = expected.emptyCopy(true);
+    h2.init();
+    h2.updateHisto(ws, null, cs, ys, null, rows, len, 500);
+
+    int fullSize = new AutoBuffer().put(h2).buf().length;
+    h2.compact();
+    byte[] compactBytes = new AutoBuffer().put(h2).buf();
+    assertTrue(compactBytes.length < fullSize);
+    DHistogram received = new AutoBuffer(compactBytes).get();
+
+    h1.compact();
+    h1.add(received);
+    h1.expand();
+    assertNull(h1._compactVals);
+    assertArrayEquals(expected._vals, h1._vals, 1e-4);
+    assertEquals(expected.find_min(), h1.find_min(), 0);
+    assertEquals(expected.find_maxIn(), h1.find_maxIn(), 0);
+  }
+
+  @Test
+  public void compactHistogramsKeepWeightsInDoublePrecision() {
+    final int len = 100;
+    final Random rnd = new Random(42);
+    final double[] cs = new double[len];
+    final double[] ws = new double[len];
+    final double[] ys = new double[len];
+    final int[] rows = new int[len];
+    for (int i = 0; i < len; i++) {
+      cs[i] = i % 10 == 0 ? Double.NaN : rnd.nextDouble() * 10;
+      ws[i] = i == 1 ? (1 << 24) : 0.1 + rnd.nextDouble(); // one bin with more than 2^24 (unit) weight
+      ys[i] = rnd.nextGaussian();
+      rows[i] = i;
+    }
+    DHistogram h = new DHistogram("h", 20, 1024, (byte) 0, 0, 10, true, -0.001,
+            SharedTreeModel.SharedTreeParameters.HistogramType.UniformAdaptive, 42L, null, null);
+    h.init();
+    h.updateHisto(ws, null, cs, ys, null, rows, len, 0);
+    double[] vals = h._vals.clone();
+
+    h.compact();
+    h.expand();
+    for (int b = 0; b < h.nbins(); b++) {
+      assertEquals(vals[3 * b], h.w(b), 0);
+      assertEquals(vals[3 * b + 1], h.wY(b), Math.abs(vals[3 * b + 1]) * 1e-6);
+      assertEquals((float) vals[3 * b + 2], h.wYY(b), 0);
+    }
+    assertEquals(vals[3 * h.nbins()], h.wNA(), 0);
+    assertEquals(vals[3 * h.nbins() + 1], h.wYNA(), 0);
+    assertEquals(vals[3 * h.nbins() + 2], h.wYYNA(), 0);
+  }
+
 }
@@ -1142,6 +1142,170 @@ public class GBMTest extends TestUtil {
       assertEquals(0.21694215729861027, mse, 1e-8); //check for the same result on 1 nodes and 5 nodes (will only work with enough chunks), mse, 1e-8); //check for the same result on 1 nodes and 5 nodes (will only work with enough chunks)
   }
 
+  @Test public void testSparseHistogramsReproducibility() {
+    Scope.enter();
+    try {
+      Frame tfr = Scope.track(makeSparseFrame());
+      assertTrue(tfr.vec("x1").chunkForChunkIdx(0).isSparseZero());
+
+      GBMModel.GBMParameters parms = makeGBMParameters();
+      parms._train = tfr._key;
+      parms._response_column = "y";
+      parms._ntrees = 5;
+      parms._max_depth = 5;
+      parms._seed = 42;
+
+      parms._sparse_histograms = true;
+      GBMModel sparse = (GBMModel) Scope.track_generic(new GBM(parms).trainModel().get());
+      parms._sparse_histograms = false;
+      GBMModel dense = (GBMModel) Scope.track_generic(new GBM(parms).trainModel().get());
+
+      // Sparse histograms accumulate the node statistics in a different order, leaf values are computed
+      // outside of the histograms and have to match exactly
+      assertSameTreesAndPredictions(dense, sparse, tfr, 1e-4);
+    } finally {
+      Scope.exit();
+    }
+  }
+
+  @Test public void testHistogramSubtractionReproducibility() {
+    Scope.enter();
+    try {
+      Frame tfr = Scope.track(makeSparseFrame());
+
+      GBMModel.GBMParameters parms = makeGBMParameters();
+      parms._train = tfr._key;
+      parms._response_column = "y";
+      parms._ntrees = 5;
+      parms._max_depth = 5;
+      parms._seed = 42;
+
+      parms._histogram_subtraction = false;
+      GBMModel computed = (GBMModel) Scope.track_generic(new GBM(parms).trainModel().get());
+      parms._histogram_subtraction = true;
+      GBMModel derived = (GBMModel) Scope.track_generic(new GBM(parms).trainModel().get());
+
+      // Node statistics of the derived histograms carry the round-off of the subtraction
+      assertSameTreesAndPredictions(computed, derived, tfr, 1e-4);
+    } finally {
+      Scope.exit();
+    }
+  }
+
+  @Test public void testHistogramSubtractionReproducibilityContinuous() {
+    Scope.enter();
+    try {
+      Frame tfr = Scope.track(makeContinuousFrame());
+
+      GBMModel.GBMParameters parms = makeGBMParameters();
+      parms._train = tfr._key;
+      parms._response_column = "y";
+      parms._ntrees = 5;
+      parms._max_depth = 6;
+      parms._nbins = 20;
+      parms._nbins_top_level = 20; // children keep the number of bins, bins of the parent can be reused from the top
+      parms._seed = 42;
+
+      parms._histogram_subtraction = false;
+      GBMModel computed = (GBMModel) Scope.track_generic(new GBM(parms).trainModel().get());
+      parms._histogram_subtraction = true;
+      GBMModel derived = (GBMModel) Scope.track_generic(new GBM(parms).trainModel().get());
+
+      // Children of the root bin the columns over the observed range of the root in both modes, their splits match
+      SharedTreeNode expectedRoot = computed.getSharedTreeSubgraph(0, 0).rootNode;
+      SharedTreeNode actualRoot = derived.getSharedTreeSubgraph(0, 0).rootNode;
+      assertSameNode("Root", expectedRoot, actualRoot, 1e-4);
+      assertSameNode("Left child", expectedRoot.getLeftChild(), actualRoot.getLeftChild(), 1e-4);
+      assertSameNode("Right child", expectedRoot.getRightChild(), actualRoot.getRightChild(), 1e-4);
+      // Deeper, a derived histogram only knows the min/max of its parent and its children bin over a wider range,
+      // the trees may differ but the fit is as good
+      double expectedMSE = computed._output._training_metrics.mse();
+      assertEquals(expectedMSE, derived._output._training_metrics.mse(), 0.02 * expectedMSE);
+    } finally {
+      Scope.exit();
+    }
+  }
+
+  // Continuous columns, split candidates depend on the range of the bins
+  private static Frame makeContinuousFrame() {
+    final int nrows = 10000;
+    Random rnd = new Random(0xBEEF);
+    double[][] cols = new double[4][nrows];
+    for (int r = 0; r < nrows; r++) {
+      cols[0][r] = rnd.nextGaussian() * 3;
+      cols[1][r] = rnd.nextDouble() * 100 - 20;
+      cols[2][r] = Math.exp(rnd.nextGaussian());
+      cols[3][r] = Math.sin(cols[0][r]) * 2 + (cols[1][r] > 40 ? 1.5 : -0.5) + Math.log(cols[2][r]) + 0.3 * rnd.nextGaussian();
+    }
+    return new TestFrameBuilder()
+            .withColNames("x1", "x2", "x3", "y")
+            .withVecTypes(Vec.T_NUM, Vec.T_NUM, Vec.T_NUM, Vec.T_NUM)
+            .withDataForCol(0, cols[0])
+            .withDataForCol(1, cols[1])
+            .withDataForCol(2, cols[2])
+            .withDataForCol(3, cols[3])
+            .withChunkLayout(2500, 2500, 2500, 2500)
+            .build();
+  }
+
+  // Mostly-zero small integer columns (stored as sparse chunks) plus a dense one
+  private static Frame makeSparseFrame() {
+    final int nrows = 10000;
+    Random rnd = new Random(0xFEED);
+    double[][] cols = new double[5][nrows];
+    for (int r = 0; r < nrows; r++) {
+      for (int c = 0; c < 3; c++)
+        cols[c][r] = rnd.nextInt(20) == 0 ? 1 + rnd.nextInt(5) : 0;
+      cols[3][r] = rnd.nextInt(10);
+      cols[4][r] = 2 * cols[0][r] - cols[1][r] + 0.5 * cols[3][r] + (cols[2][r] > 2 ? 3 : 0) + rnd.nextGaussian();
+    }
+    return new TestFrameBuilder()
+            .withColNames("x1", "x2", "x3", "x4", "y")
+            .withVecTypes(Vec.T_NUM, Vec.T_NUM, Vec.T_NUM, Vec.T_NUM, Vec.T_NUM)
+            .withDataForCol(0, cols[0])
+            .withDataForCol(1, cols[1])
+            .withDataForCol(2, cols[2])
+            .withDataForCol(3, cols[3])
+            .withDataForCol(4, cols[4])
+            .withChunkLayout(2500, 2500, 2500, 2500)
+            .build();
+  }
+
+  /**
+   * Asserts both models made the same splits with the same leaf values and give the same predictions.
+   * @param statsTolerance relative tolerance for the squared error and prediction of the internal nodes, 0 means exact
+   */
+  private static void assertSameTreesAndPredictions(GBMModel expected, GBMModel actual, Frame fr, double statsTolerance) {
+    assertEquals(expected._output._ntrees, actual._output._ntrees);
+    for (int t = 0; t < expected._output._ntrees; t++) {
+      SharedTreeSubgraph expectedTree = expected.getSharedTreeSubgraph(t, 0);
+      SharedTreeSubgraph actualTree = actual.getSharedTreeSubgraph(t, 0);
+      assertEquals(expectedTree.nodesArray.size(), actualTree.nodesArray.size());
+      for (int n = 0; n < expectedTree.nodesArray.size(); n++) {
+        assertSameNode("Tree " + t + ", node " + n, expectedTree.nodesArray.get(n), actualTree.nodesArray.get(n),
+                statsTolerance);
+      }
+    }
+    Frame expectedPreds = Scope.track(expected.score(fr));
+    Frame actualPreds = Scope.track(actual.score(fr));
+    assertFrameEquals(expectedPreds, actualPreds, 0);
+  }
+
+  private static void assertSameNode(String node, SharedTreeNode e, SharedTreeNode a, double statsTolerance) {
+    assertEquals(node, e.getColId(), a.getColId());
+    assertEquals(node, e.getSplitValue(), a.getSplitValue(), 0);
+    assertEquals(node, e.isLeftward(), a.isLeftward());
+    assertEquals(node, e.isNaVsRest(), a.isNaVsRest());
+    assertEquals(node, e.isInclusiveNa(), a.isInclusiveNa());
+    assertEquals(node, e.getInclusiveLevels(), a.getInclusiveLevels());
+    assertEquals(node, e.getWeight(), a.getWeight(), 0);
+    assertEquals(node, e.getSquaredError(), a.getSquaredError(), statsTolerance * Math.abs(e.getSquaredError()));
+    if (e.isLeaf())
+      assertEquals(node, e.getPredValue(), a.getPredValue(), 0);
+    else
+      assertEquals(node, e.getPredValue(), a.getPredValue(), statsTolerance * Math.abs(e.getPredValue()));
+  }
+
   @Test public void testReprodubilityAirlineSingleNode() {
     Frame tfr=null;
     final int N = 10;
@@ -266,7 +266,7 @@ abstract public class ModelBuilder<M extends Model<M,P,O>, P extends Model.Param
     public boolean onExceptionalCompletion(Throwable ex, CountedCompleter caller) {
       setFinalState();
       if (_callback != null) {
-        _callback.onModelFailure(ex, _parms);
+        _callback.onModelFailure(_result, ex, _parms);
       }
       return true;
     }
@@ -388,7 +388,7 @@ abstract public class ModelBuilder<M extends Model<M,P,O>, P extends Model.Param
                           @Override
                           public boolean onExceptionalCompletion(Throwable ex, CountedCompleter caller) {
                             Log.warn("Model training job " + _job._description + " completed with exception: " + ex);
-                            if (callback != null) callback.onModelFailure(ex, _parms);
+                            if (callback != null) callback.onModelFailure(_result, ex, _parms);
                             try {
                               Keyed.remove(_job._result); // ensure there's no incomplete model left for manipulation after crash or cancellation
                             } catch (Exception logged) {
@@ -1,6 +1,7 @@
 package hex;
 
 import water.Iced;
+import water.Key;
 
 public abstract class ModelBuilderListener<D extends Iced> extends Iced<D> {
   /**
@@ -13,10 +14,11 @@ public abstract class ModelBuilderListener<D extends Iced> extends Iced<D> {
   /**
    * Callback for failed model builds
    *
+   * @param modelKey   Key of the model that failed to build
    * @param cause      An instance of {@link Throwable} - cause of failure
    * @param parameters An instance of Model.Parameters used in the attempt to build the model
    */
-  abstract void onModelFailure(Throwable cause, Model.Parameters parameters);
+  abstract void onModelFailure(Key modelKey, Throwable cause, Model.Parameters parameters);
 
 
 }
@@ -3,6 +3,7 @@ package hex;
 import jsr166y.ForkJoinTask;
 import org.apache.log4j.Logger;
 import water.Iced;
+import water.Key;
 import water.util.IcedAtomicInt;
 
 import java.util.*;
@@ -64,9 +65,9 @@ public class ParallelModelBuilder extends ForkJoinTask<ParallelModelBuilder> {
     }
 
     @Override
-    public void onModelFailure(Throwable cause, Model.Parameters parameters) {
+    public void onModelFailure(Key modelKey, Throwable cause, Model.Parameters parameters) {
       try {
-        final ModelBuildFailure modelBuildFailure = new ModelBuildFailure(cause, parameters);
+        final ModelBuildFailure modelBuildFailure = new ModelBuildFailure(modelKey, cause, parameters);
         _callback.onBuildFailure(modelBuildFailure, ParallelModelBuilder.this);
       } finally {
         attemptComplete();
@@ -78,14 +79,20 @@ public class ParallelModelBuilder extends ForkJoinTask<ParallelModelBuilder> {
    * Contains all the necessary information after a model builder has failed to build the model
    */
   public static class ModelBuildFailure {
+    private final Key _modelKey;
     private final Throwable _throwable;
     private final Model.Parameters _parameters;
 
-    public ModelBuildFailure(Throwable throwable, Model.Parameters parameters) {
+    public ModelBuildFailure(Key modelKey, Throwable throwable, Model.Parameters parameters) {
+      this._modelKey = modelKey;
       this._throwable = throwable;
       this._parameters = parameters;
     }
 
+    public Key getModelKey() {
+      return _modelKey;
+    }
+
     public Throwable getThrowable() {
       return _throwable;
     }
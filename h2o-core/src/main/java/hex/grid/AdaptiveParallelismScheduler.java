@@ -0,0 +1,172 @@
+package hex.grid;
+
+import hex.Model;
+import water.H2O;
+import water.H2ONode;
+import water.HeartBeat;
+import water.Key;
+import water.util.Log;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Decides how many models of a grid are built concurrently when the grid runs with adaptive parallelism
+ * ({@link GridSearch#ADAPTIVE_PARALLELISM_LEVEL}).
+ *
+ * The scheduler keeps a target parallelism between 1 and {@link GridSearch#getAdaptiveParallelism()}, adjusted from
+ * the load of the cluster as reported by the heartbeats of the nodes (the same CPU ticks as
+ * {@link water.util.WaterMeterCpuTicks}, and the K/V + POJO memory usage):
+ *  - the target is halved when some node runs low on free memory,
+ *  - it is increased when the CPUs are not saturated and there is enough memory for more models.
+ *
+ * Models don't count the same: a model occupies a number of slots proportional to its expected cost (progress units,
+ * times the number of cross-validation models) relative to the mean cost of the models started so far. A big model
+ * leaves fewer slots for the other models, so it is packed with the small models rather than with another big one.
+ *
+ * Not thread-safe, the caller is expected to synchronize the calls.
+ */
+class AdaptiveParallelismScheduler {
+
+  /** Minimal time between two samples of the cluster load */
+  static final long SAMPLE_INTERVAL_MS = 1000;
+  /** Free memory fraction (on any node) below which the parallelism is reduced */
+  static final double LOW_FREE_MEM = 0.2;
+  /** Free memory fraction (on all nodes) required to increase the parallelism */
+  static final double HIGH_FREE_MEM = 0.4;
+  /** CPU utilization above which adding more models doesn't help */
+  static final double HIGH_CPU_UTILIZATION = 0.9;
+
+  /**
+   * Load of the cluster between two samples.
+   */
+  static class ClusterLoad {
+    final double _cpuUtilization; // NaN if not known
+    final double _minFreeMemFraction;
+
+    ClusterLoad(double cpuUtilization, double minFreeMemFraction) {
+      _cpuUtilization = cpuUtilization;
+      _minFreeMemFraction = minFreeMemFraction;
+    }
+  }
+
+  private final int _maxParallelism;
+  private int _target;
+  private final Map<Key, Double> _runningSlots = new HashMap<>();
+  private double _usedSlots;
+  private double _meanCost;
+  private long _started;
+  private long _lastSampleMs;
+  private long[] _idleTicks;
+  private long[] _totalTicks;
+
+  AdaptiveParallelismScheduler(int maxParallelism) {
+    _maxParallelism = Math.max(1, maxParallelism);
+    _target = Math.min(2, _maxParallelism);
+  }
+
+  int targetParallelism() {
+    return _target;
+  }
+
+  int running() {
+    return _runningSlots.size();
+  }
+
+  /**
+   * @return true if a model with given parameters can be started now
+   */
+  boolean canStart(Model.Parameters params) {
+    return _runningSlots.isEmpty() || _usedSlots + slots(cost(params)) <= _target;
+  }
+
+  /**
+   * Records the slots taken by a started model, they are released by {@link #onModelFinished(Key)} - the mean cost and
+   * the target can change in between, the model keeps the slots it was started with.
+   */
+  void onModelStarted(Key modelKey, Model.Parameters params) {
+    final double cost = cost(params);
+    _meanCost += (cost - _meanCost) / ++_started;
+    final double slots = slots(cost);
+    _runningSlots.put(modelKey, slots);
+    _usedSlots += slots;
+  }
+
+  void onModelFinished(Key modelKey) {
+    final Double slots = _runningSlots.remove(modelKey);
+    if (slots == null)
+      return;
+    _usedSlots = _runningSlots.isEmpty() ? 0 : _usedSlots - slots; // reset to avoid accumulating round-off errors
+  }
+
+  double usedSlots() {
+    return _usedSlots;
+  }
+
+  /**
+   * Samples the cluster load (at most once per {@link #SAMPLE_INTERVAL_MS}) and adjusts the target parallelism.
+   */
+  void update() {
+    final long now = System.currentTimeMillis();
+    if (now - _lastSampleMs < SAMPLE_INTERVAL_MS)
+      return;
+    _lastSampleMs = now;
+    adjust(sampleLoad());
+  }
+
+  void adjust(ClusterLoad load) {
+    final int target = _target;
+    if (load._minFreeMemFraction < LOW_FREE_MEM) {
+      _target = Math.max(1, _target / 2);
+    } else if (load._minFreeMemFraction >= HIGH_FREE_MEM && _usedSlots >= _target &&
+            !(load._cpuUtilization >= HIGH_CPU_UTILIZATION)) { // NaN (unknown utilization) doesn't block the increase
+      _target = Math.min(_maxParallelism, _target + Math.max(1, _target / 4));
+    }
+    if (target != _target) {
+      Log.info("Grid search parallelism changed from " + target + " to " + _target + " (CPU utilization: " +
+              load._cpuUtilization + ", min free memory fraction: " + load._minFreeMemFraction + ")");
+    }
+  }
+
+  /**
+   * Slots occupied by a model of given cost, at most the whole target parallelism.
+   */
+  double slots(double cost) {
+    if (_meanCost <= 0)
+      return 1;
+    return Math.min(_target, Math.max(1, cost / _meanCost));
+  }
+
+  static double cost(Model.Parameters params) {
+    return Math.max(1, (double) params.progressUnits() * (params._nfolds > 0 ? params._nfolds + 1 : 1));
+  }
+
+  ClusterLoad sampleLoad() {
+    final H2ONode[] members = H2O.CLOUD.members();
+    if (_idleTicks == null || _idleTicks.length != members.length) {
+      _idleTicks = new long[members.length];
+      _totalTicks = new long[members.length];
+    }
+    long idle = 0, total = 0;
+    double minFreeMem = 1;
+    for (int i = 0; i < members.length; i++) {
+      final HeartBeat hb = members[i]._heartbeat;
+      if (hb == null)
+        continue;
+      final long usedMem = hb.get_kv_mem() + hb.get_pojo_mem();
+      if (usedMem + hb.get_free_mem() > 0)
+        minFreeMem = Math.min(minFreeMem, (double) hb.get_free_mem() / (usedMem + hb.get_free_mem()));
+      if (hb._system_total_ticks < 0) // ticks not available on this platform
+        continue;
+      if (_totalTicks[i] > 0 && hb._system_total_ticks > _totalTicks[i]) {
+        idle += hb._system_idle_ticks - _idleTicks[i];
+        total += hb._system_total_ticks - _totalTicks[i];
+      }
+      _idleTicks[i] = hb._system_idle_ticks;
+      _totalTicks[i] = hb._system_total_ticks;
+    }
+    final double cpuUtilization = total > 0 ? 1 - (double) idle / total : Double.NaN;
+    return new ClusterLoad(cpuUtilization, minFreeMem);
+  }
+
+}
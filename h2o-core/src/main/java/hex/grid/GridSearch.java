@@ -12,6 +12,9 @@ import water.util.Log;
 import water.util.PojoUtils;
 
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 
@@ -126,12 +129,14 @@ public final class GridSearch<MP extends Model.Parameters> {
       @Override public void compute2() {
         try {
           beforeGridStart(grid);
-          if (_parallelism == 1) {
+          if (_parallelism == SEQUENTIAL_MODEL_BUILDING) {
             gridSearch(grid);
           } else if (_parallelism > 1) {
             parallelGridSearch(grid);
+          } else if (_parallelism == ADAPTIVE_PARALLELISM_LEVEL) {
+            adaptiveParallelGridSearch(grid);
           } else {
-            throw new IllegalArgumentException(String.format("Grid search parallelism level must be >= 1. Give value is '%d'.",
+            throw new IllegalArgumentException(String.format("Grid search parallelism level must be >= 0. Give value is '%d'.",
                     _parallelism));
           }
         } finally {
@@ -216,10 +221,19 @@ public final class GridSearch<MP extends Model.Parameters> {
     private final HyperSpaceWalker.HyperSpaceIterator<MP> hyperspaceIterator;
     private final Grid grid;
     private final Lock parallelSearchGridLock = new ReentrantLock();
+    // adaptive parallelism only
+    private final AdaptiveParallelismScheduler scheduler;
+    private MP pendingModelParams; // next model waiting for free slots
+    private boolean stopped; // no more models will be started
 
     public ModelFeeder(HyperSpaceWalker.HyperSpaceIterator<MP> hyperspaceIterator, Grid grid) {
+      this(hyperspaceIterator, grid, null);
+    }
+
+    ModelFeeder(HyperSpaceWalker.HyperSpaceIterator<MP> hyperspaceIterator, Grid grid, AdaptiveParallelismScheduler scheduler) {
       this.hyperspaceIterator = hyperspaceIterator;
       this.grid = grid;
+      this.scheduler = scheduler;
     }
 
     @Override
@@ -233,10 +247,15 @@ public final class GridSearch<MP extends Model.Parameters> {
         grid.update(_job);
 
         attemptGridSave(grid);
+        if (scheduler != null) scheduler.onModelFinished(finishedModel._key);
       } finally {
         parallelSearchGridLock.unlock();
       }
-      attemptBuildNextModel(parallelModelBuilder, finishedModel);
+      if (scheduler != null) {
+        launchModels(parallelModelBuilder, finishedModel);
+      } else {
+        attemptBuildNextModel(parallelModelBuilder, finishedModel);
+      }
     }
 
     @Override
@@ -245,10 +264,65 @@ public final class GridSearch<MP extends Model.Parameters> {
       parallelSearchGridLock.lock();
       try {
         grid.appendFailedModelParameters(null, modelBuildFailure.getParameters(), modelBuildFailure.getThrowable());
+        if (scheduler != null) scheduler.onModelFinished(modelBuildFailure.getModelKey());
+      } finally {
+        parallelSearchGridLock.unlock();
+      }
+      if (scheduler != null) {
+        launchModels(parallelModelBuilder, null);
+      } else {
+        attemptBuildNextModel(parallelModelBuilder, null);
+      }
+    }
+
+    /**
+     * Re-evaluates the load of the cluster and starts new models if the scheduler allows more of them to run.
+     * Called periodically while the models are being built.
+     */
+    private void onTick(final ParallelModelBuilder parallelModelBuilder) {
+      parallelSearchGridLock.lock();
+      try {
+        if (stopped) return;
+        scheduler.update();
+      } finally {
+        parallelSearchGridLock.unlock();
+      }
+      launchModels(parallelModelBuilder, null);
+    }
+
+    /**
+     * Starts as many models as the adaptive scheduler allows.
+     *
+     * @return number of models currently being built
+     */
+    private int launchModels(final ParallelModelBuilder parallelModelBuilder, final Model previousModel) {
+      parallelSearchGridLock.lock();
+      try {
+        if (!stopped && (!isThereEnoughTime() || _job.stop_requested()
+                || previousModel != null && _hyperSpaceWalker.stopEarly(previousModel, grid.getScoringInfos()))) {
+          stopped = true;
+        }
+        while (!stopped) {
+          final MP nextModelParams = pendingModelParams != null
+                  ? pendingModelParams
+                  : getNextModelParams(hyperspaceIterator, previousModel, grid);
+          pendingModelParams = null;
+          if (nextModelParams == null) {
+            stopped = true;
+          } else if (!scheduler.canStart(nextModelParams)) {
+            pendingModelParams = nextModelParams;
+            break;
+          } else {
+            reconcileMaxRuntime(grid._key, nextModelParams);
+            final ModelBuilder builder = ModelBuilder.make(nextModelParams);
+            scheduler.onModelStarted(builder.dest(), nextModelParams);
+            parallelModelBuilder.run(Collections.singletonList(builder));
+          }
+        }
+        return scheduler.running();
       } finally {
         parallelSearchGridLock.unlock();
       }
-      attemptBuildNextModel(parallelModelBuilder, null);
     }
 
     private void attemptBuildNextModel(final ParallelModelBuilder parallelModelBuilder, final Model previousModel) {
@@ -338,6 +412,37 @@ public final class GridSearch<MP extends Model.Parameters> {
   }
 
 
+  /**
+   * Searches the hyperspace and builds models in parallel, the number of models built at the same time is decided
+   * by {@link AdaptiveParallelismScheduler} based on the cost of the models and the load of the cluster.
+   *
+   * @param grid Grid to add models to
+   */
+  private void adaptiveParallelGridSearch(final Grid<MP> grid) {
+    final AdaptiveParallelismScheduler scheduler = new AdaptiveParallelismScheduler(getAdaptiveParallelism());
+    final ModelFeeder modelFeeder = new ModelFeeder(_hyperSpaceWalker.iterator(), grid, scheduler);
+    final ParallelModelBuilder parallelModelBuilder = new ParallelModelBuilder(modelFeeder);
+
+    if (modelFeeder.launchModels(parallelModelBuilder, null) > 0) {
+      while (true) {
+        try {
+          parallelModelBuilder.get(AdaptiveParallelismScheduler.SAMPLE_INTERVAL_MS, TimeUnit.MILLISECONDS);
+          break;
+        } catch (TimeoutException e) {
+          modelFeeder.onTick(parallelModelBuilder);
+        } catch (InterruptedException | ExecutionException e) {
+          throw new RuntimeException(e);
+        }
+      }
+    }
+    grid.update(_job);
+
+    attemptGridSave(grid);
+    if (_job.stop_requested()) {
+      throw new Job.JobCancelledException();
+    }
+  }
+
   /**
    * Invokes grid search based on specified hyper space walk strategy.
    *
@@ -850,8 +955,9 @@ public final class GridSearch<MP extends Model.Parameters> {
    * built in parallel.
    *
    * @param parallelism User-desired parallelism, the frontend/client API representation.
-   * @return An integer >= 1, representing the final number of models to be built in parallel. 1 effectively means sequential
-   * (no parallelism).
+   * @return An integer >= 0, representing the final number of models to be built in parallel. 1 effectively means sequential
+   * (no parallelism). {@link #ADAPTIVE_PARALLELISM_LEVEL} is returned as is, the number of models built in parallel is then
+   * adjusted during the grid search.
    */
   public static int getParallelismLevel(final int parallelism) {
     if (parallelism < 0) {
@@ -859,15 +965,11 @@ public final class GridSearch<MP extends Model.Parameters> {
               parallelism));
     }
 
-    if (parallelism == 0) {
-      return getAdaptiveParallelism();
-    } else {
-      return parallelism;
-    }
+    return parallelism;
   }
 
   /**
-   * @return An integer with dynamically calculated level of parallelism based on Cluster's properties.
+   * @return Maximal number of models built in parallel in the adaptive regime, based on Cluster's properties.
    */
   public static int getAdaptiveParallelism() {
     return 2 * H2O.NUMCPUS;
@@ -52,7 +52,9 @@ public class GridSearchSchema<G extends Grid<MP>,
   public HyperSpaceSearchCriteriaV99 search_criteria;
 
   @API(help = "Level of parallelism during grid model building. 1 = sequential building (default). 0 for adaptive " +
-      "parallelism. Any number > 1 sets the exact number of models built in parallel.")
+      "parallelism: the number of models built in parallel is adjusted during the search (up to 2 x number of CPUs) " +
+      "from the load of the cluster and the expected cost of the models, the grid keeps reporting parallelism 0. " +
+      "Any number > 1 sets the exact number of models built in parallel.")
   public int parallelism;
   
   @API(help= "Path to a directory where grid will save everything necessary to resume training after cluster crash.", 
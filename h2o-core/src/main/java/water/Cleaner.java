@@ -113,6 +113,7 @@ class Cleaner extends Thread {
       long cleaned = 0;         // Disk i/o bytes
       long freed = 0;           // memory freed bytes
       long io_ns = 0;           // i/o ns writing
+      long offheaped = 0;       // bytes moved off-heap
 
       // For faster K/V store walking get the NBHM raw backing array,
       // and walk it directly.
@@ -150,9 +151,18 @@ class Cleaner extends Thread {
         // Too many POJOs are written to dynamically; cannot spill & reload
         // them without losing changes.
 
+        // Under pressure, prefer parking the Chunk off-heap over a disk write
+        // (only home Values, cached copies of remote Chunks are just dropped)
+        if( isChunk && force && !val.isPersisted() && MemoryManager.offHeapEnabled() && !val.isOffHeap() && ((Key)ok).home() ) {
+          if( val.storeOffHeap() ) {
+            if( H2O.STORE.get(ok) != val ) { val.freeOffHeap(); continue; } // Raced a remove/replace, nobody frees the copy
+            offheaped += val._max;
+          }
+        }
+
         // Should I write this value out to disk?
         // Should I further force it from memory?
-        if( isChunk && !val.isPersisted() && !diskFull && ((Key)ok).home() ) { // && (force || (lazyPersist() && lazy_clean(key)))) {
+        if( isChunk && !val.isPersisted() && !val.isOffHeap() && !diskFull && ((Key)ok).home() ) { // && (force || (lazyPersist() && lazy_clean(key)))) {
           long now_ns = System.nanoTime();
           try { val.storePersist(); } // Write to disk
           catch( FileNotFoundException fnfe ) { continue; } // Can happen due to racing key delete/remove
@@ -169,7 +179,7 @@ class Cleaner extends Thread {
           io_ns += System.nanoTime() - now_ns; // Accumulate i/o time
         }
         // And, under pressure, free all
-        if( isChunk && force && (val.isPersisted() || !((Key)ok).home()) ) {
+        if( isChunk && force && (val.isPersisted() || val.isOffHeap() || !((Key)ok).home()) ) {
           val.freeMem ();  if( m != null ) freed += val._max;  m = null;
           val.freePOJO();  if( p != null ) freed += val._max;  p = null;
           if( isChunk ) freed -= val._max; // Double-counted freed mem for Chunks since val._pojo._mem & val._mem are the same.
@@ -187,7 +197,9 @@ class Cleaner extends Thread {
       }
 
       String s1 = "Cleaner pass took: "+PrettyPrint.msecs(System.currentTimeMillis()-now,true)+
-                  ", spilled "+PrettyPrint.bytes(cleaned)+" in "+PrettyPrint.usecs(io_ns>>10);
+                  ", spilled "+PrettyPrint.bytes(cleaned)+" in "+PrettyPrint.usecs(io_ns>>10)+
+                  (MemoryManager.offHeapEnabled() ? ", moved off-heap "+PrettyPrint.bytes(offheaped)+
+                          " (off-heap total "+PrettyPrint.bytes(MemoryManager.offHeapUsed())+")" : "");
       h = Histo.current(true); // Force a new histogram
       MemoryManager.set_goals("postclean",false);
       // No logging if under memory pressure: can deadlock the cleaner thread
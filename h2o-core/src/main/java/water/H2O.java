@@ -1838,6 +1838,8 @@ final public class H2O {
     // Create the starter Cloud with 1 member
     SELF._heartbeat._jar_md5 = JarHash.JARHASH;
     SELF._heartbeat._client = ARGS.client;
+    SELF._heartbeat._tcp_compression = H2ONode.TCP_COMPRESSION;
+    SELF._heartbeat._topology = NodeTopology.selfLabel();
     SELF._heartbeat._cloud_name_hash = ARGS.name.hashCode();
   }
 
@@ -2090,6 +2092,7 @@ final public class H2O {
     // If the K/V mapping is changing, let the store cleaner just overwrite.
     // If the K/V mapping is new, let the store cleaner just create
     if( old != null && val == null ) old.removePersist(); // Remove the old guy
+    if( old != null && val != null ) old.freeOffHeap();  // Off-heap copy is not reused by the new guy
     if( val != null ) {
       Cleaner.dirty_store(); // Start storing the new guy
       if( old==null ) Scope.track_internal(key); // New Key - start tracking
@@ -2100,9 +2103,17 @@ final public class H2O {
   // Get the value from the store
   public static void raw_remove(Key key) {
     Value v = STORE.remove(key);
-    if( v != null ) v.removePersist();
+    if( v != null ) v.removePersist(); // Also releases the off-heap copy
+  }
+  public static void raw_clear() {
+    if( MemoryManager.offHeapEnabled() ) { // Release the off-heap copies of the dropped Values
+      for( Key key : STORE.keySet() ) {
+        Value v = STORE.remove(key);
+        if( v != null ) v.freeOffHeap();
+      }
+    }
+    STORE.clear();
   }
-  public static void raw_clear() { STORE.clear(); }
   
   public static boolean containsKey( Key key ) { return STORE.get(key) != null; }
   static Key getk( Key key ) { return STORE.getk(key); }
@@ -2,6 +2,7 @@ package water;
 
 import water.nbhm.NonBlockingHashMap;
 import water.nbhm.NonBlockingHashMapLong;
+import water.network.CompressedSocketChannel;
 import water.network.SocketChannelFactory;
 import water.util.*;
 
@@ -409,6 +410,16 @@ public final class H2ONode extends Iced<H2ONode> implements Comparable {
   // Count of concurrent TCP requests both incoming and outgoing
   static final AtomicInteger TCPS = new AtomicInteger(0);
 
+  // Compression of big TCP transfers: it is advertised in the heartbeat and used only when both nodes have it enabled;
+  // messages (or their parts) smaller than the threshold are sent uncompressed
+  static final boolean TCP_COMPRESSION = H2O.getSysBoolProperty("tcp.compression", false);
+  static final int TCP_COMPRESSION_THRESHOLD = Integer.parseInt(H2O.getSysProperty("tcp.compression.threshold", "4096"));
+
+  boolean useTCPCompression() {
+    HeartBeat hb = _heartbeat;
+    return H2O.SELF._heartbeat._tcp_compression && hb != null && hb._tcp_compression;
+  }
+
   ByteChannel getTCPSocket() throws IOException {
     // Under lock, claim an existing open socket if possible
     synchronized(this) {
@@ -430,8 +441,9 @@ public final class H2ONode extends Iced<H2ONode> implements Comparable {
     sock2.socket().setSendBufferSize(AutoBuffer.BBP_BIG._size);
     boolean res = sock2.connect( _key );
     assert res && !sock2.isConnectionPending() && sock2.isBlocking() && sock2.isConnected() && sock2.isOpen();
+    final boolean compress = useTCPCompression();
     ByteBuffer bb = ByteBuffer.allocate(6).order(ByteOrder.nativeOrder());
-    bb.put((byte)2);
+    bb.put(compress ? TCPReceiverThread.TCP_BIG_COMPRESSED : TCPReceiverThread.TCP_BIG);
     bb.putShort(H2O.SELF._timestamp);
     bb.putChar((char)H2O.H2O_PORT);
     bb.put((byte)0xef);
@@ -441,7 +453,7 @@ public final class H2ONode extends Iced<H2ONode> implements Comparable {
       wrappedSocket.write(bb);
     }
     TCPS.incrementAndGet();     // Cluster-wide counting
-    return wrappedSocket;
+    return compress ? new CompressedSocketChannel(wrappedSocket, TCP_COMPRESSION_THRESHOLD) : wrappedSocket;
   }
   synchronized void freeTCPSocket( ByteChannel sock ) {
     assert 0 <= _socksAvail && _socksAvail < _socks.length;
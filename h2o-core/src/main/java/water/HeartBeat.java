@@ -19,6 +19,9 @@ public class HeartBeat extends Iced<HeartBeat> {
 
   public boolean _client;       // This is a client node: no keys homed here
 
+  boolean _tcp_compression;     // Node accepts (and sends) compressed bulk TCP transfers
+  String _topology;             // Host/rack label of the node, see NodeTopology
+
   public int _pid;              // Process ID
 
   // Static cpus & threads
@@ -8,7 +8,9 @@ import water.util.PrettyPrint;
 import water.fvec.Vec.VectorGroup;
 import water.fvec.Vec;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Map/Reduce style distributed computation.
@@ -168,9 +170,22 @@ public abstract class MRTask<T extends MRTask<T>> extends DTask<T> implements Fo
   /** The range of Nodes to work on remotely */
   protected short _nlo, _nhi;
 
+  /** Topology-aware order of the Nodes (node index by position in the tree), null for the default rotation */
+  private short[] _order;
+
   /** Internal field to track a range of local Chunks to work on */
   transient protected int _lo, _hi;
 
+  /** Lowest Chunk index the read-ahead of this task is allowed to touch */
+  transient int _plo;
+
+  /** Number of Chunks (per column) read ahead while mapping; 0 turns off the read-ahead */
+  private static final int PREFETCH_CHUNKS = Integer.parseInt(H2O.getSysProperty("mrtask.prefetch", "4"));
+
+  /** Number of swapped-out Chunks scheduled for a read-ahead on this node; exposed for testing only */
+  private static final AtomicLong PREFETCHED = new AtomicLong();
+  static long prefetchedChunks() { return PREFETCHED.get(); }
+
   /** We can add more things to block on - in case we want a bunch of lazy
    *  tasks produced by children to all end before this top-level task ends.
    *  Semantically, these will all complete before we return from the top-level
@@ -306,8 +321,22 @@ public abstract class MRTask<T extends MRTask<T>> extends DTask<T> implements Fo
   protected void closeLocal() { }
 
   /** Compute a permissible node index on which to launch remote work. */
-  private int addShift( int x ) { x += _nlo; int sz = H2O.CLOUD.size(); return x < sz ? x : x-sz; }
-  private int subShift( int x ) { x -= _nlo; int sz = H2O.CLOUD.size(); return x <  0 ? x+sz : x; }
+  private int addShift( int x ) {
+    if( _order != null ) return _order[x];
+    x += _nlo; int sz = H2O.CLOUD.size(); return x < sz ? x : x-sz;
+  }
+  private int subShift( int x ) {
+    if( _order != null ) {
+      for( int p = 0; p < _order.length; p++ ) if( _order[p] == x ) return p;
+      throw H2O.fail("Node " + x + " is not part of the reduction tree");
+    }
+    x -= _nlo; int sz = H2O.CLOUD.size(); return x <  0 ? x+sz : x;
+  }
+  // Distribute the work (and reduce the results) along the cloud topology if it is known
+  private void initOrder() {
+    NodeTopology topo = NodeTopology.current();
+    _order = topo != null ? topo.order(_nlo) : null;
+  }
   private short selfidx() { int idx = H2O.SELF.index(); if( idx>= 0 ) return (short)idx; assert H2O.SELF.isClient(); return 0; }
 
   // Profiling support.  Time for each subpart of a single M/R task, plus any
@@ -554,6 +583,7 @@ public abstract class MRTask<T extends MRTask<T>> extends DTask<T> implements Fo
     _topGlobal = true;
     _keys = keys;
     _nlo = selfidx(); _nhi = (short)H2O.CLOUD.size(); // Do Whole Cloud
+    initOrder();
     setupLocal0();              // Local setup
     H2O.submitTask(this);       // Begin normal execution on a FJ thread
   }
@@ -617,6 +647,7 @@ public abstract class MRTask<T extends MRTask<T>> extends DTask<T> implements Fo
       _vid = fr.anyVec().group().reserveKeys(outputTypes.length);
     _fr = fr;                   // Record vectors to work on
     _nlo = selfidx(); _nhi = (short)H2O.CLOUD.size(); // Do Whole Cloud
+    initOrder();
     _run_local = runLocal;     // Run locally by copying data, or run globally?
     assert checkRunLocal() : "MRTask is expected to be running in a local-mode but _run_local = false";
     setupLocal0();              // Local setup
@@ -700,7 +731,8 @@ public abstract class MRTask<T extends MRTask<T>> extends DTask<T> implements Fo
     int selfidx = selfidx();
     int nlo = subShift(selfidx);
     assert nlo < _nhi;
-    final int nmid = (nlo+_nhi)>>>1; // Mid-point
+    NodeTopology topo = _order != null ? NodeTopology.current() : null;
+    final int nmid = topo != null ? topo.split(_order, nlo, _nhi) : (nlo+_nhi)>>>1; // Mid-point
 
     // Run remote IF:
     // - Not forced to run local (no remote jobs allowed) AND
@@ -764,6 +796,7 @@ public abstract class MRTask<T extends MRTask<T>> extends DTask<T> implements Fo
       _rite = copyAndInit();
       _left._hi = mid;          // Reset mid-point
       _rite._lo = mid;          // Also set self mid-point
+      _left._plo = _lo;         // Left half starts its own read-ahead range
       addToPendingCount(1);     // One fork awaiting completion
       if( !isCompletedAbnormally() ) _left.fork();     // Runs in another thread/FJ instance
       if( !isCompletedAbnormally() ) _rite.compute2(); // Runs in THIS F/J thread
@@ -789,6 +822,7 @@ public abstract class MRTask<T extends MRTask<T>> extends DTask<T> implements Fo
 
         // Make decompression chunk headers for these chunks
         Vec vecs[] = _fr.vecs();
+        if( PREFETCH_CHUNKS > 0 ) prefetchChunks(vecs);
         Chunk bvs[] = new Chunk[vecs.length];
         NewChunk [] appendableChunks = null;
         for( int i=0; i<vecs.length; i++ )
@@ -851,6 +885,55 @@ public abstract class MRTask<T extends MRTask<T>> extends DTask<T> implements Fo
     tryComplete();
   }
 
+  // Read-ahead of the Chunks this F/J thread is likely to map next, so that
+  // loading of swapped-out (or, when running local, remote) Chunks overlaps
+  // with the mapping instead of blocking it.  The right half of a range is
+  // mapped by the current thread while the left half is forked; the LIFO
+  // worker picks up the forked halves afterwards, so Chunks of a range are
+  // mostly mapped in descending order.  The read-ahead stays within the
+  // memory headroom of the K/V cache.
+  private void prefetchChunks( Vec[] vecs ) {
+    final int lo = Math.max(_plo, _lo - PREFETCH_CHUNKS);
+    if( lo >= _lo || priority()+1 >= H2O.MIN_HI_PRIORITY ) return;
+    if( !_run_local && Cleaner.Histo.swapped() == 0 ) return; // Nothing on disk, all local Chunks are in memory
+    final Vec v0 = _fr.anyVec();
+    ArrayList<Value> toLoad = null;
+    long bytes = 0;
+    for( int cidx = _lo - 1; cidx >= lo; cidx-- ) {
+      if( !_run_local && !v0.chunkKey(cidx).home() ) continue; // Mapped elsewhere
+      for( Vec vec : vecs ) {
+        if( vec == null ) continue;
+        Key k = vec.chunkKey(cidx);
+        if( !k.home() ) {       // Only when running local, fetch asynchronously
+          if( !MemoryManager.canAlloc() ) return;
+          DKV.prefetch(k);
+          continue;
+        }
+        Value val = Value.STORE_get(k);
+        if( val == null || !val.isPersisted() || val.rawMem() != null || val.rawPOJO() != null )
+          continue;             // Not swapped out
+        if( !MemoryManager.hasCacheHeadroom(bytes + val._max) ) break;
+        bytes += val._max;
+        if( toLoad == null ) toLoad = new ArrayList<>();
+        toLoad.add(val);
+      }
+    }
+    if( toLoad != null ) {      // Disk reads block, load in the next pool to not take threads away from the map
+      PREFETCHED.addAndGet(toLoad.size());
+      H2O.submitTask(new ChunkLoader(toLoad.toArray(new Value[toLoad.size()]), (byte)(priority()+1)));
+    }
+  }
+
+  private static class ChunkLoader extends H2O.H2OCountedCompleter<ChunkLoader> {
+    private final transient Value[] _vals;
+    ChunkLoader( Value[] vals, byte priority ) { super(priority); _vals = vals; }
+    @Override public void compute2() {
+      for( Value val : _vals )
+        if( MemoryManager.canAlloc() ) val.memOrLoad();
+      tryComplete();
+    }
+  }
+
   /** OnCompletion - reduce the left and right into self.  Called internal by
    *  F/J.  Not expected to be user-called. */
   @Override public final void onCompletion( CountedCompleter caller ) {
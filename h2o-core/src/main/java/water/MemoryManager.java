@@ -8,6 +8,7 @@ import water.util.PrettyPrint;
 import javax.management.Notification;
 import javax.management.NotificationEmitter;
 import java.lang.management.*;
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 import java.util.concurrent.atomic.AtomicLong;
 
@@ -82,6 +83,20 @@ abstract public class MemoryManager {
   }
   static boolean canAlloc() { return CAN_ALLOC; }
 
+  // Room left in the K/V cache for reading data ahead (eg. swapped Chunks),
+  // without pushing the Cleaner into evicting data in use right now.
+  static boolean hasCacheHeadroom( long bytes ) {
+    return CAN_ALLOC && bytes <= READ_AHEAD_MAX && Cleaner.Histo.cached() + bytes < Cleaner.DESIRED;
+  }
+  private static volatile long READ_AHEAD_MAX = Long.MAX_VALUE;
+  /** Test hook only, caps the bytes {@link #hasCacheHeadroom} allows to read ahead.
+   *  @return the previous cap, to be restored by the caller */
+  static long setReadAheadMax( long max ) {
+    long old = READ_AHEAD_MAX;
+    READ_AHEAD_MAX = max;
+    return old;
+  }
+
   static void set_goals( String msg, boolean oom){
     set_goals(msg, oom, 0);
   }
@@ -314,6 +329,44 @@ abstract public class MemoryManager {
   public static float  [] arrayCopyOf( float [] orig, int sz) { return arrayCopyOfRange(orig,0,sz); }
   public static double [] arrayCopyOf( double[] orig, int sz) { return arrayCopyOfRange(orig,0,sz); }
 
+  // Off-heap (direct) memory which the Cleaner may use to park cold Chunk
+  // payloads instead of swapping them to disk.  Accounted separately from the
+  // heap: off-heap bytes are never part of the K/V cache level.  Zero (the
+  // default) disables off-heap caching.
+  private static volatile long OFF_HEAP_MAX = Long.getLong(H2O.OptArgs.SYSTEM_PROP_PREFIX + "memory.offheap.max", 0);
+  private static final AtomicLong _offHeapUsed = new AtomicLong();
+
+  public static boolean offHeapEnabled() { return OFF_HEAP_MAX > 0; }
+  /** Test hook only, the budget is fixed for the lifetime of the node.
+   *  @return the previous budget, to be restored by the caller */
+  static long setOffHeapMax(long max) {
+    long old = OFF_HEAP_MAX;
+    OFF_HEAP_MAX = max;
+    return old;
+  }
+  /** Bytes currently held off-heap by K/V Values */
+  public static long offHeapUsed() { return _offHeapUsed.get(); }
+
+  /**
+   * Allocates a direct buffer charged against the off-heap budget.
+   * @return new direct buffer, or null if the budget is exhausted
+   */
+  static ByteBuffer mallocOffHeap(int bytes) {
+    if( _offHeapUsed.addAndGet(bytes) > OFF_HEAP_MAX ) {
+      _offHeapUsed.addAndGet(-bytes);
+      return null;
+    }
+    try {
+      return ByteBuffer.allocateDirect(bytes);
+    } catch( OutOfMemoryError e ) { // Direct memory limit of the JVM reached
+      _offHeapUsed.addAndGet(-bytes);
+      return null;
+    }
+  }
+  static void freeOffHeap(int bytes) {
+    _offHeapUsed.addAndGet(-bytes);
+  }
+
   // Memory available for tasks (we assume 3/4 of the heap is available for tasks)
   static final AtomicLong _taskMem = new AtomicLong(MEM_MAX-(MEM_MAX>>2));
 
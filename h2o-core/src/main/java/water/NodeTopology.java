@@ -0,0 +1,130 @@
+package water;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Physical placement of the cloud members, used by {@link MRTask} to build a topology-aware
+ * distribution and reduction tree.
+ *
+ * Every node advertises a topology label in its heartbeat. By default the label is the host address of the node,
+ * nodes running on the same host thus form one group. When the host address doesn't reflect the placement
+ * (eg. multiple Kubernetes pods on one machine, nodes sharing a rack) the label can be set explicitly with system
+ * property {@code sys.ai.h2o.node.topology} (eg. to the name of the Kubernetes node or of the rack).
+ *
+ * Nodes of the same group are placed next to each other in the reduction tree, so that their results get reduced
+ * locally first and only the partial results travel between the groups. Can be disabled by setting
+ * {@code sys.ai.h2o.mrtask.topology=false}.
+ */
+final class NodeTopology {
+
+  private static final boolean ENABLED = H2O.getSysBoolProperty("mrtask.topology", true);
+
+  private static volatile NodeTopology _cached;
+
+  private final H2O _cloud;
+  private final int[] _groups;  // group id of each node, by node index
+  private final int _ngroups;
+
+  NodeTopology(H2O cloud, int[] groups, int ngroups) {
+    _cloud = cloud;
+    _groups = groups;
+    _ngroups = ngroups;
+  }
+
+  /** Topology label of this node, advertised in the heartbeat */
+  static String selfLabel() {
+    String label = H2O.getSysProperty("node.topology", null);
+    return label != null ? label : H2O.SELF._key.getAddress().getHostAddress();
+  }
+
+  /**
+   * Gets the topology of the current cloud.
+   * @return topology or null if it is not useful (all nodes in one group, or each node in its own group),
+   * disabled or not yet known
+   */
+  static NodeTopology current() {
+    if (!ENABLED || H2O.ARGS.client)
+      return null;
+    final H2O cloud = H2O.CLOUD;
+    NodeTopology topo = _cached;
+    if (topo != null && topo._cloud == cloud)
+      return topo._ngroups > 1 && topo._ngroups < topo._groups.length ? topo : null;
+    topo = make(cloud);
+    if (topo == null)
+      return null; // not all labels are known yet, don't cache
+    _cached = topo;
+    return topo._ngroups > 1 && topo._ngroups < topo._groups.length ? topo : null;
+  }
+
+  private static NodeTopology make(H2O cloud) {
+    final H2ONode[] members = cloud._memary;
+    final int[] groups = new int[members.length];
+    final Map<String, Integer> ids = new HashMap<>();
+    for (int i = 0; i < members.length; i++) {
+      HeartBeat hb = members[i]._heartbeat;
+      String label = hb != null ? hb._topology : null;
+      if (label == null)
+        return null;
+      Integer id = ids.get(label);
+      if (id == null)
+        ids.put(label, id = ids.size());
+      groups[i] = id;
+    }
+    return new NodeTopology(cloud, groups, ids.size());
+  }
+
+  /**
+   * Order of the nodes in the reduction tree of a task launched from a given node. The order starts with the
+   * launching node and is the same as the default rotation ({@code origin, origin+1, ...}), except that members
+   * of a group are kept together.
+   * @param origin index of the node launching the task
+   * @return node indices by tree position
+   */
+  short[] order(int origin) {
+    final int n = _groups.length;
+    final List<List<Short>> buckets = new ArrayList<>(_ngroups);
+    final int[] bucketOf = new int[_ngroups];
+    Arrays.fill(bucketOf, -1);
+    for (int p = 0; p < n; p++) {
+      int node = (origin + p) % n;
+      int g = _groups[node];
+      if (bucketOf[g] < 0) {
+        bucketOf[g] = buckets.size();
+        buckets.add(new ArrayList<Short>());
+      }
+      buckets.get(bucketOf[g]).add((short) node);
+    }
+    short[] order = new short[n];
+    int p = 0;
+    for (List<Short> bucket : buckets)
+      for (Short node : bucket)
+        order[p++] = node;
+    return order;
+  }
+
+  /**
+   * Picks the split point of a range of tree positions, preferring a boundary between two groups when one is
+   * reasonably close to the middle of the range.
+   * @param order node order of the task
+   * @param lo first position of the range (the node doing the split)
+   * @param hi end of the range (exclusive)
+   * @return split point in range [lo+1, hi]
+   */
+  int split(short[] order, int lo, int hi) {
+    final int mid = (lo + hi) >>> 1;
+    if (order.length != _groups.length)
+      return mid; // task launched in a different cloud
+    final int slack = (hi - lo) >>> 2;
+    int best = -1;
+    for (int b = Math.max(lo + 1, mid - slack); b <= Math.min(hi - 1, mid + slack); b++) {
+      if (_groups[order[b]] != _groups[order[b - 1]] && (best < 0 || Math.abs(b - mid) < Math.abs(best - mid)))
+        best = b;
+    }
+    return best < 0 ? mid : best;
+  }
+
+}
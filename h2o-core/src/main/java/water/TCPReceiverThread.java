@@ -10,6 +10,7 @@ import java.nio.channels.SocketChannel;
 import java.util.Date;
 import java.util.Random;
 
+import water.network.CompressedSocketChannel;
 import water.network.SocketChannelFactory;
 import water.util.Log;
 import water.util.SB;
@@ -36,6 +37,11 @@ public class TCPReceiverThread extends Thread {
    * Byte representing TCP communication for big data
    */
   static final byte TCP_BIG = 2;
+
+  /**
+   * Byte representing TCP communication for big data, the data is compressed (see {@link CompressedSocketChannel})
+   */
+  static final byte TCP_BIG_COMPRESSED = 4;
   
   public TCPReceiverThread(
           ServerSocketChannel sock) {
@@ -82,7 +88,7 @@ public class TCPReceiverThread extends Thread {
           wrappedSocket.read(bb);
         }
         bb.flip();
-        int chanType = bb.get(); // 1 - small, 2 - big, 3 - external
+        int chanType = bb.get(); // 1 - small, 2 - big, 3 - external, 4 - big compressed
         short timestamp = bb.getShort(); // read timestamp
                                          // Note: timestamp was not part of the original protocol, was added in 3.22.0.1, #a33de44)
         if (H2ONodeTimestamp.decodeIsClient(timestamp) && !H2O.ARGS.allow_clients) {
@@ -103,12 +109,15 @@ public class TCPReceiverThread extends Thread {
         case TCP_SMALL:
           new SmallMessagesReaderThread(H2ONode.intern(inetAddress, port, timestamp), wrappedSocket).start();
           break;
+        case TCP_BIG_COMPRESSED:
+          wrappedSocket = new CompressedSocketChannel(wrappedSocket, H2ONode.TCP_COMPRESSION_THRESHOLD);
+          // fall through
         case TCP_BIG:
           new TCPReaderThread(wrappedSocket, new AutoBuffer(wrappedSocket, inetAddress, timestamp), inetAddress, timestamp).start();
           break;
         default:
           ListenerService.getInstance().report("protocol-failure", "channel-type", chanType);
-          throw new IOException("Communication protocol failure: Unexpected channel type " + chanType + ", only know 1 - Small, 2 - Big");
+          throw new IOException("Communication protocol failure: Unexpected channel type " + chanType + ", only know 1 - Small, 2 - Big, 4 - Big Compressed");
         }
       } catch( java.nio.channels.AsynchronousCloseException ex ) {
         break;                  // Socket closed for shutdown
@@ -1,6 +1,7 @@
 package water;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
@@ -95,16 +96,51 @@ public final class Value extends Iced implements ForkJoinPool.ManagedBlocker {
   private volatile Freezable _pojo;
   Freezable rawPOJO() { return _pojo; }
 
+  // ---
+  // An off-heap copy of the _mem array, parked there by the Cleaner instead of
+  // swapping to disk when off-heap caching is enabled in the MemoryManager.
+  // Like the disk copy it stays valid until the Value is removed or replaced.
+  private transient volatile ByteBuffer _offHeap;
+  private static final AtomicReferenceFieldUpdater<Value,ByteBuffer> OFFHEAP_UPDATER =
+          AtomicReferenceFieldUpdater.newUpdater(Value.class, ByteBuffer.class, "_offHeap");
+  /** Check if the backing byte[] has a copy in off-heap memory */
+  final boolean isOffHeap() { return _offHeap != null; }
+
+  /** Copy the byte[] into off-heap memory so both cached forms can be freed.
+   *  @return false if the off-heap budget is exhausted */
+  final boolean storeOffHeap() {
+    if( _offHeap != null ) return true;
+    byte[] m = memOrLoad();
+    ByteBuffer bb = MemoryManager.mallocOffHeap(m.length);
+    if( bb == null ) return false;
+    bb.put(m).flip();
+    if( !OFFHEAP_UPDATER.compareAndSet(this, null, bb) )
+      MemoryManager.freeOffHeap(bb.capacity()); // Lost a race, other copy is just as good
+    return true;
+  }
+
+  /** Release the off-heap copy, if any. */
+  final void freeOffHeap() {
+    ByteBuffer bb = OFFHEAP_UPDATER.getAndSet(this, null);
+    if( bb != null ) MemoryManager.freeOffHeap(bb.capacity());
+  }
+
+  private byte[] loadOffHeap(ByteBuffer bb) {
+    byte[] m = MemoryManager.malloc1(bb.capacity());
+    bb.duplicate().get(m);
+    return m;
+  }
+
   /** Invalidate byte[] cache.  Only used to eagerly free memory, for data
    *  which is expected to be read-once. */
   public final void freeMem() {
-    assert isPersisted() || _pojo != null || _key.isChunkKey();
+    assert isPersisted() || _pojo != null || isOffHeap() || _key.isChunkKey();
     _mem = null;
   }
   /** Invalidate POJO cache.  Only used to eagerly free memory, for data
    *  which is expected to be read-once. */
   public final void freePOJO() {
-    assert isPersisted() || _mem != null;
+    assert isPersisted() || _mem != null || isOffHeap();
     _pojo = null;
   }
 
@@ -136,11 +172,13 @@ public final class Value extends Iced implements ForkJoinPool.ManagedBlocker {
     if( pojo != null )          // Has the POJO, make raw bytes
       return _mem = pojo.asBytes();
     if( _max == 0 ) return (_mem = new byte[0]);
+    ByteBuffer offHeap = _offHeap; // Read once!
+    if( offHeap != null ) return (_mem = loadOffHeap(offHeap));
     return (_mem = loadPersist());
   }
   // Just an empty shell of a Value, no local data but the Value is "real".
   // Any attempt to look at the Value will require a remote fetch.
-  final boolean isEmpty() { return _max > 0 && _mem==null && _pojo == null && !isPersisted(); }
+  final boolean isEmpty() { return _max > 0 && _mem==null && _pojo == null && _offHeap == null && !isPersisted(); }
 
   /** The FAST path get-POJO as an {@link Iced} subclass - final method for
    *  speed.  Will (re)build the POJO from the _mem array.  Never returns NULL.
@@ -243,6 +281,7 @@ public final class Value extends Iced implements ForkJoinPool.ManagedBlocker {
     // 01       double delete; do nothing
     // 10 -> 11 delete
     // 11       double delete; do nothing
+    freeOffHeap();
     if( !onICE() ) return;      // Wrong filestore?
     if( isDeleted() ) return;   // Already deleted?
     setDel();                   // Set del bit BEFORE testing isPersist
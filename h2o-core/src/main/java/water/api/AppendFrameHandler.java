@@ -0,0 +1,21 @@
+package water.api;
+
+import water.H2O;
+import water.api.schemas3.AppendFrameV3;
+import water.fvec.Frame;
+import water.fvec.FrameAppender;
+
+class AppendFrameHandler extends Handler {
+  // Appends rows of a (typically just parsed) Frame to an existing Frame
+  @SuppressWarnings("unused") // called through reflection by RequestServer
+  public AppendFrameV3 append(int version, AppendFrameV3 append) {
+    Frame target = FramesHandler.getFromDKV("destination_frame", append.destination_frame.key());
+    Frame batch = FramesHandler.getFromDKV("source_frame", append.source_frame.key());
+    target = new FrameAppender(target, batch).append(null);
+    if (append.delete_source)
+      batch.delete();
+    append.rows = target.numRows();
+    H2O.updateNotIdle();
+    return append;
+  }
+}
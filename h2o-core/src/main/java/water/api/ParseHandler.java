@@ -30,6 +30,8 @@ class ParseHandler extends Handler {
                                       parse.custom_non_data_line_markers != null ? parse.custom_non_data_line_markers.getBytes(): null,
                                       parse.escapechar);
 
+    setup.setColumnStatsFilter(ColumnStatsFilter.parse(parse.block_filter));
+
     if (parse.source_frames == null)
       throw new H2OIllegalArgumentException("Data for Frame '" + parse.destination_frame.name + "' is not available. Please check that the path is valid (for all H2O nodes).'");
     Key[] srcs = new Key[parse.source_frames.length];
@@ -66,6 +66,10 @@ public class RegisterV3Api extends AbstractRegister {
             "POST /3/Parse", ParseHandler.class, "parse",
             "Parse a raw byte-oriented Frame into a useful columnar data Frame."); // NOTE: prefer POST due to higher content limits
 
+    context.registerEndpoint("appendFrame",
+            "POST /3/AppendFrame", AppendFrameHandler.class, "append",
+            "Append rows of a Frame (e.g. a parsed micro-batch) to an existing Frame in place, as new chunks.");
+
     context.registerEndpoint("setupDecryption",
             "POST /3/DecryptionSetup", DecryptionSetupHandler.class, "setupDecryption",
             "Install a decryption tool for parsing of encrypted data.");
@@ -0,0 +1,21 @@
+package water.api.schemas3;
+
+import water.Iced;
+import water.api.API;
+import water.api.schemas3.KeyV3.FrameKeyV3;
+
+public class AppendFrameV3 extends RequestSchemaV3<Iced, AppendFrameV3> {
+
+  @API(help="Frame to append the rows to, it is updated in place.", required = true)
+  public FrameKeyV3 destination_frame;
+
+  @API(help="Frame with the new rows (eg. a parsed micro-batch), must have the same column names and types.", required = true)
+  public FrameKeyV3 source_frame;
+
+  @API(help="If true, the source frame is deleted after its rows were appended.", direction = API.Direction.INPUT)
+  public boolean delete_source;
+
+  @API(help="Number of rows of the destination frame after the append.", direction = API.Direction.OUTPUT)
+  public long rows;
+
+}
@@ -38,4 +38,8 @@ public class ImportSQLTableV99 extends RequestSchemaV3<Iced,ImportSQLTableV99> {
   @API(help = "Desired number of chunks for the target Frame. Optional.")
   public String num_chunks_hint;
 
+  @API(help = "Integer or date column to split the table into key ranges by in the PARTITIONED fetch mode. Optional, " +
+          "the first integer or date column is used by default.")
+  public String partition_column;
+
 }
@@ -39,6 +39,12 @@ public class ParseV3 extends RequestSchemaV3<Iced, ParseV3> {
   @API(help="Skipped columns indices", direction=API.Direction.INOUT)
   public int[] skipped_columns;
 
+  @API(help="Block filter on column statistics given as ranges 'column_index:min:max' (empty bound = unbounded, " +
+          "column indices are the same as for skipped_columns); Parquet row groups and ORC stripes which cannot contain " +
+          "a row satisfying all the ranges are not read. Rows are not filtered: blocks which are read are imported in full",
+          direction=API.Direction.INPUT)
+  public String[] block_filter;
+
   @API(help="Domains for categorical columns")
   public String[][] domains;
 
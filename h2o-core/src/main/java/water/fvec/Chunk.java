@@ -151,6 +151,11 @@ public abstract class Chunk extends Iced<Chunk> implements Vec.Holder {
   /** Exposed for internal testing only.  Not a publically visible API. */
   public Chunk chk2() { return _chk2; }
 
+  /** Rollups of this Chunk, cached on the home node so that recomputing the
+   *  rollups of a Vec only rescans the Chunks written since.  Not a publically
+   *  visible API, see {@link RollupStats}. */
+  transient volatile RollupStats.ChunkSummary _summary;
+
   /** Owning Vec; a read-only field */
   transient Vec _vec;
   /** Owning Vec */
@@ -389,6 +394,7 @@ public abstract class Chunk extends Iced<Chunk> implements Vec.Holder {
     c2._vec=null;
     c2._start=-1;
     c2._cidx=-1;
+    c2._summary=null;
     c2._mem = _mem.clone();
     c2.initFromBytes();
     assert len() == c2._len;
@@ -404,6 +410,7 @@ public abstract class Chunk extends Iced<Chunk> implements Vec.Holder {
   private void setWrite(Chunk ck) {
     assert(_chk2==null);
     _vec.preWriting();          // One-shot writing-init
+    _summary = ck._summary = null; // Clones share the data, drop the cached rollups
     _chk2 = ck;
     assert _chk2._chk2 == null; // Clone has NOT been written into
   }
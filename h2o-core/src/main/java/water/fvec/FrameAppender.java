@@ -0,0 +1,207 @@
+package water.fvec;
+
+import water.*;
+import water.exceptions.H2OIllegalArgumentException;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Appends rows of one Frame (typically a freshly parsed micro-batch) to an existing Frame, in place.
+ *
+ * Unlike rbind, the Chunks of the target Frame are left untouched: the Chunks of the batch are copied after the last
+ * Chunk of each target Vec, the Vecs get a new (extended) row layout and keep their Keys. Only the new data is
+ * moved around:
+ *  - categorical domains are extended by the levels not yet present in the target, the existing levels keep their
+ *    codes and only the appended Chunks are remapped,
+ *  - rollups of the appended Chunks are merged into the existing rollups (see {@link RollupStats#appendChunks}).
+ *
+ * The target Frame is write-locked for the duration of the append. Because the Vecs are modified in place, appending
+ * to a Frame which shares a Vec with another Frame in the DKV is refused - the other Frame would change too.
+ */
+public class FrameAppender {
+
+  private final Frame _target;
+  private final Frame _batch;
+
+  public FrameAppender(Frame target, Frame batch) {
+    _target = target;
+    _batch = batch;
+  }
+
+  /**
+   * Appends the batch to the target Frame.
+   * @param jobKey job performing the append (may be null), used for locking
+   * @return the updated target Frame
+   */
+  public Frame append(Key<Job> jobKey) {
+    checkCompatible();
+    if (_batch.numRows() == 0)
+      return _target;
+    _target.write_lock(jobKey);
+    try {
+      checkNotShared();
+      appendLocked();
+      _target.update(jobKey);
+    } finally {
+      _target.unlock(jobKey);
+    }
+    return _target;
+  }
+
+  private void checkCompatible() {
+    if (_target.numCols() == 0)
+      throw new H2OIllegalArgumentException("Cannot append to a Frame without columns: " + _target._key);
+    if (_target.numCols() != _batch.numCols())
+      throw new H2OIllegalArgumentException("Appended frame must have the same columns, found " + _target.numCols() +
+              " and " + _batch.numCols() + " columns.");
+    if (!Arrays.equals(_target.names(), _batch.names()))
+      throw new H2OIllegalArgumentException("Appended frame must have the same column names, found " +
+              Arrays.toString(_target.names()) + " and " + Arrays.toString(_batch.names()));
+    if (!Arrays.equals(_target.types(), _batch.types()))
+      throw new H2OIllegalArgumentException("Appended frame must have the same column types, found " +
+              Arrays.toString(_target.types()) + " and " + Arrays.toString(_batch.types()));
+    for (Vec v : _target.vecs())
+      if (v.getClass() != Vec.class)
+        throw new H2OIllegalArgumentException("Cannot append to a Frame with a virtual column of type " +
+                v.getClass().getSimpleName() + ", column " + _target.name(_target.find(v)));
+  }
+
+  private void checkNotShared() {
+    final Set<Key> vecKeys = new HashSet<>(Arrays.asList(_target.keys()));
+    for (Key k : KeySnapshot.globalKeysOfClass(Frame.class)) {
+      if (k.equals(_target._key))
+        continue;
+      Frame fr = DKV.getGet(k);
+      if (fr == null)
+        continue;
+      for (Key vk : fr.keys()) {
+        if (vecKeys.contains(vk))
+          throw new H2OIllegalArgumentException("Cannot append to Frame " + _target._key + ", column '" +
+                  _target.name(_target.find(vk)) + "' is shared with Frame " + k + ". Append to a copy of the Frame.");
+      }
+    }
+  }
+
+  private void appendLocked() {
+    final Vec[] oldVecs = _target.vecs();
+    final Vec[] batchVecs = _batch.vecs();
+    final int ncols = oldVecs.length;
+
+    // Extend the row layout
+    final long[] oldEspc = oldVecs[0].espc();
+    final long[] batchEspc = batchVecs[0].espc();
+    final int chunkOffset = oldEspc.length - 1;
+    final long rowOffset = oldEspc[chunkOffset];
+    final long[] espc = Arrays.copyOf(oldEspc, oldEspc.length + batchEspc.length - 1);
+    for (int i = 1; i < batchEspc.length; i++)
+      espc[chunkOffset + i] = rowOffset + batchEspc[i];
+    final int rowLayout = Vec.ESPC.rowLayout(oldVecs[0]._key, espc);
+
+    // Merge categorical domains, existing levels keep their codes
+    final Vec[] newVecs = new Vec[ncols];
+    final int[][] cmaps = new int[ncols][];
+    for (int i = 0; i < ncols; i++) {
+      String[] domain = oldVecs[i].domain();
+      if (oldVecs[i].isCategorical()) {
+        String[] batchDomain = batchVecs[i].domain();
+        HashMap<String, Integer> codes = new HashMap<>();
+        for (int j = 0; j < domain.length; j++)
+          codes.put(domain[j], j);
+        int[] cmap = new int[batchDomain.length];
+        boolean identity = true;
+        int len = domain.length;
+        for (int j = 0; j < batchDomain.length; j++) {
+          Integer code = codes.get(batchDomain[j]);
+          if (code == null)
+            codes.put(batchDomain[j], code = len++);
+          cmap[j] = code;
+          identity &= code == j;
+        }
+        if (len > domain.length) {
+          domain = Arrays.copyOf(domain, len);
+          for (int j = 0; j < batchDomain.length; j++)
+            domain[cmap[j]] = batchDomain[j];
+        }
+        cmaps[i] = identity ? null : cmap;
+      }
+      newVecs[i] = new Vec(oldVecs[i]._key, rowLayout, domain, oldVecs[i].get_type());
+    }
+
+    final RollupStats[] before = new RollupStats[ncols];
+    final AppendTask task;
+    try {
+      // No rollups can be computed on the target Vecs until the append is done
+      for (int i = 0; i < ncols; i++)
+        before[i] = RollupStats.startAppend(oldVecs[i]);
+      // Copy the Chunks of the batch after the last Chunk of the target
+      task = new AppendTask(newVecs, cmaps, chunkOffset, rowOffset).doAll(_batch);
+    } catch (RuntimeException e) {
+      Futures fs = new Futures();
+      for (Vec v : oldVecs)
+        v.postWrite(fs); // rollups of the unchanged Vecs will be recomputed
+      fs.blockForPending();
+      throw e;
+    }
+
+    Futures fs = new Futures();
+    for (int i = 0; i < ncols; i++)
+      DKV.put(newVecs[i], fs);
+    fs.blockForPending();
+    for (int i = 0; i < ncols; i++)
+      RollupStats.appendChunks(oldVecs[i], newVecs[i], before[i], task._rs != null ? task._rs[i] : null, fs);
+    fs.blockForPending();
+    _target.reloadVecs();
+  }
+
+  private static class AppendTask extends MRTask<AppendTask> {
+    private final Vec[] _dst;
+    private final int[][] _cmaps;
+    private final int _chunkOffset;
+    private final long _rowOffset;
+    // Output
+    RollupStats[] _rs;
+
+    AppendTask(Vec[] dst, int[][] cmaps, int chunkOffset, long rowOffset) {
+      _dst = dst;
+      _cmaps = cmaps;
+      _chunkOffset = chunkOffset;
+      _rowOffset = rowOffset;
+    }
+
+    @Override
+    public void map(Chunk[] cs) {
+      final int cidx = _chunkOffset + cs[0].cidx();
+      final long start = _rowOffset + cs[0].start();
+      _rs = new RollupStats[cs.length];
+      for (int i = 0; i < cs.length; i++) {
+        Chunk c;
+        if (_cmaps[i] != null) {
+          NewChunk nc = new NewChunk(_dst[i], cidx);
+          for (int r = 0; r < cs[i]._len; r++) {
+            if (cs[i].isNA(r)) nc.addNA();
+            else nc.addNum(_cmaps[i][(int) cs[i].at8(r)], 0);
+          }
+          c = nc.compress();
+        } else
+          c = cs[i].deepCopy();
+        DKV.put(_dst[i].chunkKey(cidx), c, _fs, true);
+        c._vec = _dst[i];
+        c._start = start;
+        c._cidx = cidx;
+        _rs[i] = RollupStats.ofChunk(c);
+      }
+    }
+
+    @Override
+    public void reduce(AppendTask mrt) {
+      if (_rs == null) _rs = mrt._rs;
+      else if (mrt._rs != null)
+        for (int i = 0; i < _rs.length; i++)
+          _rs[i] = RollupStats.merge(_rs[i], mrt._rs[i]);
+    }
+  }
+
+}
@@ -247,6 +247,127 @@ final class RollupStats extends Iced {
     _checksum ^= rs._checksum;
   }
 
+  // Turn the accumulated sum of squared deviations into the standard deviation,
+  // once all the Chunks were reduced
+  private void finishMoments() {
+    _sigma = Math.sqrt(_sigma/(_rows-1));
+    if (_rows == 1) _sigma = 0;
+    if (_rows < 5) for (int i=0; i<5-_rows; i++) {  // Fix PUBDEV-150 for files under 5 rows
+      _maxs[4-i] = Double.NaN;
+      _mins[4-i] = Double.NaN;
+    }
+  }
+
+  /** Rollups of a single Chunk, not finalized; used to update the rollups of a
+   *  Vec with appended Chunks, see {@link #appendChunks}. */
+  static RollupStats ofChunk( Chunk c ) { return new RollupStats(0).map(c); }
+
+  /** Reduce rollups of Chunks obtained by {@link #ofChunk}. */
+  static RollupStats merge( RollupStats a, RollupStats b ) {
+    if( a == null ) return b;
+    if( b != null ) a.reduce(b);
+    return a;
+  }
+
+  /** Marks the rollups of a Vec as mutating before new Chunks are appended to
+   *  it.  Goes through the same compare-and-swap protocol on the home node of
+   *  the rollups as their computation: a computation in progress is waited
+   *  for, and no new one can start until {@link #appendChunks} is called.
+   *  @return rollups of the Vec before the append, null if they were not
+   *  available */
+  static RollupStats startAppend( Vec vec ) {
+    final Key rskey = vec.rollupStatsKey();
+    return new RPC<>(rskey.home_node(), new StartAppendTask(rskey)).call().get()._rs;
+  }
+
+  /** Update rollups of a Vec after new Chunks were appended to it: rollups of
+   *  the appended Chunks are merged into the rollups from before the append
+   *  instead of rescanning the whole Vec.  If those are not available (or
+   *  cannot be merged, eg. for categorical columns, where the mean depends on
+   *  the domain) the rollups are just dropped and recomputed lazily.  The
+   *  histogram and percentiles are always dropped.  The result replaces the
+   *  mutating rollups installed by {@link #startAppend} only if they are still
+   *  in place.
+   *  @param oldVec Vec before the append
+   *  @param newVec Vec after the append (same Key, extended layout)
+   *  @param before rollups before the append, as returned by {@link #startAppend}
+   *  @param appended reduced rollups of the appended Chunks, see {@link #ofChunk} */
+  static void appendChunks( Vec oldVec, Vec newVec, RollupStats before, RollupStats appended, Futures fs ) {
+    assert oldVec._key.equals(newVec._key);
+    RollupStats res = null;
+    if( before != null && before.isReady() && appended != null &&
+        oldVec.domain() == null && newVec.domain() == null && !newVec.isString() && !newVec.isUUID() ) {
+      RollupStats cur = (RollupStats)before.clone();
+      cur._sigma = before._rows > 1 ? before._sigma*before._sigma*(before._rows-1) : 0; // Back to the sum of squared deviations
+      cur._checksum ^= oldVec.length();
+      res = new RollupStats(0);
+      res.reduce(cur);
+      res.reduce(appended);
+      res.finishMoments();
+      res._checksum ^= newVec.length();
+    }
+    final Key rskey = newVec.rollupStatsKey();
+    fs.add(new RPC<>(rskey.home_node(), new FinishAppendTask(rskey, res)).call());
+  }
+
+  // Swaps the rollups for the mutating marker, on the home node of the rollups
+  private static final class StartAppendTask extends DTask<StartAppendTask> {
+    final Key _rsKey;
+    RollupStats _rs; // Output: rollups before the append, if they were ready
+
+    StartAppendTask(Key rsKey) {
+      super((byte)(Thread.currentThread() instanceof H2O.FJWThr ? currThrPriority()+1 : H2O.MIN_HI_PRIORITY-3));
+      _rsKey = rsKey;
+    }
+
+    @Override public void compute2() {
+      assert _rsKey.home();
+      while( true ) {
+        Value v = DKV.get(_rsKey);
+        RollupStats rs = v == null ? null : v.<RollupStats>get();
+        if( rs != null && rs.isComputing() ) { // wait for the computation to finish and check again
+          rs._tsk.join();
+          continue;
+        }
+        if( rs != null && rs.isMutating() )    // already mutating, nothing to merge into
+          break;
+        Futures fs = new Futures();
+        Value oldv = DKV.DputIfMatch(_rsKey, new Value(_rsKey, makeMutating()), v, fs);
+        fs.blockForPending();
+        if( oldv == v ) {                       // got the lock
+          _rs = rs;
+          break;
+        }                                       // else someone else is modifying the rollups => try again
+      }
+      tryComplete();
+    }
+  }
+
+  // Replaces the mutating marker by the merged rollups (or by nothing), on the
+  // home node of the rollups
+  private static final class FinishAppendTask extends DTask<FinishAppendTask> {
+    final Key _rsKey;
+    final RollupStats _rs;
+
+    FinishAppendTask(Key rsKey, RollupStats rs) {
+      super((byte)(Thread.currentThread() instanceof H2O.FJWThr ? currThrPriority()+1 : H2O.MIN_HI_PRIORITY-3));
+      _rsKey = rsKey;
+      _rs = rs;
+    }
+
+    @Override public void compute2() {
+      assert _rsKey.home();
+      Value v = DKV.get(_rsKey);
+      RollupStats rs = v == null ? null : v.<RollupStats>get();
+      if( rs != null && rs.isMutating() ) {     // otherwise the rollups were already replaced by someone else
+        Futures fs = new Futures();
+        DKV.DputIfMatch(_rsKey, _rs == null ? null : new Value(_rsKey, _rs), v, fs);
+        fs.blockForPending();
+      }
+      tryComplete();
+    }
+  }
+
   double min( double d ) {
     assert(!Double.isNaN(d));
     for( int i=0; i<_mins.length; i++ )
@@ -270,19 +391,13 @@ final class RollupStats extends Iced {
     protected boolean modifiesVolatileVecs(){return false;}
 
     Roll( H2OCountedCompleter cmp, Key rskey ) { super(cmp); _rskey=rskey; }
-    @Override public void map( Chunk c ) { _rs = new RollupStats(0).map(c); }
+    @Override public void map( Chunk c ) { _rs = ChunkSummary.rollups(c); }
     @Override public void reduce( Roll roll ) { _rs.reduce(roll._rs); }
     @Override public void postGlobal() {
       if( _rs == null )
         _rs = new RollupStats(0);
-      else {
-        _rs._sigma = Math.sqrt(_rs._sigma/(_rs._rows-1));
-        if (_rs._rows == 1) _rs._sigma = 0;
-        if (_rs._rows < 5) for (int i=0; i<5-_rs._rows; i++) {  // Fix PUBDEV-150 for files under 5 rows
-          _rs._maxs[4-i] = Double.NaN;
-          _rs._mins[4-i] = Double.NaN;
-        }
-      }
+      else
+        _rs.finishMoments();
       // mean & sigma not allowed on more than 2 classes; for 2 classes the assumption is that it's true/false
       Vec vec = _fr.anyVec();
       String[] ss = vec.domain();
@@ -377,6 +492,57 @@ final class RollupStats extends Iced {
     RollupStats rs = val.get(RollupStats.class);
     return rs.isReady() ? rs : null;
   }
+  // Rollups (and possibly the histogram) of a single Chunk, cached with the
+  // Chunk.  A written Chunk is replaced in the K/V by a new instance without
+  // the summary, only the Chunks modified since the last computation are thus
+  // rescanned and the rollups of the other Chunks are just reduced again.
+  static final class ChunkSummary {
+    private static final boolean ENABLED = H2O.getSysBoolProperty("rollups.chunk_cache", true);
+
+    final byte[] _mem;          // Data the summary was computed from
+    final long _start;
+    final byte _type;
+    final RollupStats _rs;      // Not finalized
+    volatile ChunkHisto _histo;
+
+    private ChunkSummary(Chunk c, RollupStats rs) {
+      _mem = c._mem; _start = c._start; _type = c._vec.get_type(); _rs = rs;
+    }
+
+    private boolean matches(Chunk c) {
+      return _mem == c._mem && _start == c._start && _type == c._vec.get_type();
+    }
+
+    static ChunkSummary get(Chunk c) {
+      ChunkSummary s = c._summary;
+      return s != null && s.matches(c) ? s : null;
+    }
+
+    static RollupStats rollups(Chunk c) {
+      ChunkSummary s = get(c);
+      if( s != null ) return s._rs.copy();
+      RollupStats rs = new RollupStats(0).map(c);
+      if( ENABLED && c._mem != null && c.chk2() == null ) // Don't cache rollups of uncommitted writes
+        c._summary = new ChunkSummary(c, rs.copy());
+      return rs;
+    }
+  }
+
+  // Histogram of a single Chunk for the given bins
+  private static final class ChunkHisto {
+    final double _base, _stride;
+    final long[] _bins;
+    ChunkHisto(double base, double stride, long[] bins) { _base = base; _stride = stride; _bins = bins; }
+  }
+
+  // Deep copy of (not finalized) rollups, for reducing into
+  private RollupStats copy() {
+    RollupStats rs = (RollupStats)clone();
+    rs._mins = _mins.clone();
+    rs._maxs = _maxs.clone();
+    return rs;
+  }
+
   // Histogram base & stride
   double h_base() { return _mins[0]; }
   double h_stride() { return h_stride(_bins.length); }
@@ -389,6 +555,13 @@ final class RollupStats extends Iced {
     long[] _bins;                // Outputs
     Histo( H2OCountedCompleter cmp, RollupStats rs, int nbins ) { super(cmp);_base = rs.h_base(); _stride = rs.h_stride(nbins); _nbins = nbins; }
     @Override public void map( Chunk c ) {
+      // Reuse the histogram of an unmodified Chunk if the bins did not change
+      ChunkSummary s = ChunkSummary.get(c);
+      ChunkHisto h = s == null ? null : s._histo;
+      if( h != null && h._base == _base && h._stride == _stride && h._bins.length == _nbins ) {
+        _bins = h._bins.clone();
+        return;
+      }
       _bins = new long[_nbins];
       for( int i=c.nextNZ(-1); i< c._len; i=c.nextNZ(i) ) {
         double d = c.atd(i);
@@ -397,6 +570,8 @@ final class RollupStats extends Iced {
       // Sparse?  We skipped all the zeros; do them now
       if( c.isSparseZero() )
         _bins[idx(0.0)] += (c._len - c.sparseLenZero());
+      if( s != null && 4L*8*_nbins <= c.byteSize() ) // Only cache bins much smaller than the Chunk itself
+        s._histo = new ChunkHisto(_base, _stride, _bins.clone());
     }
     private int idx( double d ) { int idx = (int)((d-_base)/_stride); return Math.min(idx,_bins.length-1); }
 
@@ -29,6 +29,9 @@ public class SQLManager {
   private static final String HIVE_JDBC_DRIVER_CLASS = "org.apache.hive.jdbc.HiveDriver";
 
   private static final String TMP_TABLE_ENABLED = H2O.OptArgs.SYSTEM_PROP_PREFIX + "sql.tmp_table.enabled";
+  private static final String FETCH_SIZE_KEY = H2O.OptArgs.SYSTEM_PROP_PREFIX + "sql.fetch_size";
+  //An upper bound on the default fetch size of a partition query
+  private static final int MAX_FETCH_SIZE = 100000;
 
   private static AtomicLong NEXT_TABLE_NUM = new AtomicLong(0);
   
@@ -58,6 +61,27 @@ public class SQLManager {
       final String username, final String password, final String columns,
       final Boolean useTempTable, final String tempTableName,
       final SqlFetchMode fetchMode, final Integer numChunksHint) {
+    return importSqlTable(connection_url, table, select_query, username, password, columns,
+        useTempTable, tempTableName, fetchMode, numChunksHint, null);
+  }
+
+  /**
+   * @param connection_url (Input)
+   * @param table (Input)
+   * @param select_query (Input)
+   * @param username (Input)
+   * @param password (Input)
+   * @param columns (Input)
+   * @param fetchMode (Input)
+   * @param numChunksHint (optional) Specifies the desired number of chunks for the target Frame
+   * @param partitionColumn (optional) Integer or date column used to split the table into key ranges in
+   *                        the {@link SqlFetchMode#PARTITIONED} mode, the first such column is used if not given
+   */
+  public static Job<Frame> importSqlTable(
+      final String connection_url, final String table, final String select_query,
+      final String username, final String password, final String columns,
+      final Boolean useTempTable, final String tempTableName,
+      final SqlFetchMode fetchMode, final Integer numChunksHint, final String partitionColumn) {
 
     final Key<Frame> destination_key = nextTableKey(table, "sql_to_hex");
     final Job<Frame> j = new Job<>(destination_key, Frame.class.getName(), "Import SQL Table");
@@ -69,7 +93,7 @@ public class SQLManager {
         j, destination_key, databaseType, connection_url, 
         table, select_query, username, password, columns, 
         useTempTable, tempTableName,
-        fetchMode, numChunksHint
+        fetchMode, numChunksHint, partitionColumn
     );
     j.start(importDriver, Job.WORK_UNKNOWN);
 
@@ -92,11 +116,13 @@ public class SQLManager {
     final String _tempTableName;
     final SqlFetchMode _fetch_mode;
     final Integer _num_chunks_hint;
+    final String _partition_column;
 
     SQLImportDriver(
         Job<Frame> job, Key<Frame> destination_key, String database_type, 
         String connection_url, String table, String select_query, String username, String password, String columns,
-        Boolean useTempTable, String tempTableName, SqlFetchMode fetch_mode, Integer numChunksHint
+        Boolean useTempTable, String tempTableName, SqlFetchMode fetch_mode, Integer numChunksHint,
+        String partitionColumn
     ) {
       _j = job;
       _destination_key = destination_key;
@@ -111,6 +137,7 @@ public class SQLManager {
       _tempTableName = getTempTableName(tempTableName);
       _fetch_mode = fetch_mode;
       _num_chunks_hint = numChunksHint;
+      _partition_column = partitionColumn == null || partitionColumn.isEmpty() ? null : partitionColumn;
     }
 
     /*
@@ -146,6 +173,8 @@ public class SQLManager {
       String source_table = _table;
       final String[] columnNames;
       final byte[] columnH2OTypes;
+      //candidates for splitting the table in the partitioned mode
+      int firstIntCol = -1, firstDateCol = -1;
       try {
         conn = getConnectionSafe(_connection_url, _username, _password);
         stmt = conn.createStatement();
@@ -181,7 +210,7 @@ public class SQLManager {
         if (SqlFetchMode.DISTRIBUTED.equals(_fetch_mode)) {
           rs = stmt.executeQuery(buildSelectSingleRowSql(_database_type, source_table, _columns));
         } else {
-          // we use a simpler SQL-dialect independent query in the `streaming` mode because the goal is to be dialect independent
+          // we use a simpler SQL-dialect independent query in the `streaming` and `partitioned` modes because the goal is to be dialect independent
           stmt.setMaxRows(1);
           rs = stmt.executeQuery("SELECT " + _columns + " FROM " + source_table);
         }
@@ -210,6 +239,7 @@ public class SQLManager {
             case Types.BIGINT:
               columnH2OTypes[i] = Vec.T_NUM;
               intcols += 1;
+              if (firstIntCol < 0) firstIntCol = i;
               break;
             case Types.BIT:
             case Types.BOOLEAN:
@@ -230,6 +260,7 @@ public class SQLManager {
             case Types.TIMESTAMP:
               columnH2OTypes[i] = Vec.T_TIME;
               timecols += 1;
+              if (firstDateCol < 0 && rsmd.getColumnType(i + 1) != Types.TIME) firstDateCol = i;
               break;
             default:
               Log.warn("Unsupported column type: " + rsmd.getColumnTypeName(i + 1));
@@ -284,7 +315,24 @@ public class SQLManager {
         Log.info("Using user-specified target number of chunks: " + num_chunks);
       }
 
-      if (SqlFetchMode.DISTRIBUTED.equals(_fetch_mode)) {
+      SqlFetchMode fetchMode = _fetch_mode;
+      String partitionColumn = _partition_column;
+      if (SqlFetchMode.PARTITIONED.equals(fetchMode) && partitionColumn == null) {
+        if (firstIntCol >= 0 || firstDateCol >= 0) {
+          partitionColumn = columnNames[firstIntCol >= 0 ? firstIntCol : firstDateCol];
+        } else {
+          Log.warn("No integer or date column to partition the import by, falling back to the distributed mode.");
+          fetchMode = SqlFetchMode.DISTRIBUTED;
+        }
+      }
+
+      PartitionRange partitions = null;
+      if (SqlFetchMode.PARTITIONED.equals(fetchMode)) {
+        _j.update(0L, "Getting range of the partition column");
+        partitions = PartitionRange.query(_connection_url, _username, _password, source_table, partitionColumn, num_chunks);
+        Log.info("Partitioning the import by column " + partitionColumn + " into " + partitions.nPartitions() + " key ranges");
+        vec = Vec.makeConN(partitions.nPartitions(), partitions.nPartitions());
+      } else if (SqlFetchMode.DISTRIBUTED.equals(fetchMode)) {
         final int num_retrieval_chunks = ConnectionPoolProvider.estimateConcurrentConnections(H2O.getCloudSize(), H2O.ARGS.nthreads);
         vec = num_retrieval_chunks >= num_chunks
                 ? Vec.makeConN(numRow, num_chunks)
@@ -301,7 +349,13 @@ public class SQLManager {
       final ConnectionPoolProvider provider = new ConnectionPoolProvider(_connection_url, _username, _password, vec.nChunks());
       final Frame fr;
 
-      if (SqlFetchMode.DISTRIBUTED.equals(_fetch_mode)) {
+      if (partitions != null) {
+        final int fetchSize = getFetchSize((numRow + vec.nChunks() - 1) / vec.nChunks());
+        fr = new SqlTablePartitionsToH2OFrame(source_table, _database_type, _columns, columnNames, numCol, _j, provider,
+                partitions, fetchSize)
+                .doAll(columnH2OTypes, vec)
+                .outputFrame(_destination_key, columnNames, null);
+      } else if (SqlFetchMode.DISTRIBUTED.equals(fetchMode)) {
         fr = new SqlTableToH2OFrame(source_table, _database_type, _columns, columnNames, numCol, _j, provider)
                 .doAll(columnH2OTypes, vec)
                 .outputFrame(_destination_key, columnNames, null);
@@ -401,6 +455,141 @@ public class SQLManager {
     return sqlText;
   }
 
+  /**
+   * Builds SQL SELECT to retrieve a single key range of a partitioned import. The first partition also contains the
+   * rows with a NULL partition key, the first and the last partitions are unbounded so that no row is lost if the
+   * range of the key changes during the import. Bounds of the range are passed as parameters of a prepared statement,
+   * see {@link PartitionRange#bind}.
+   *
+   * @param table
+   * @param columns
+   * @param partitionColumn column the table is partitioned by
+   * @param partition index of the partition
+   * @param nPartitions total number of partitions
+   * @return String SQL SELECT statement
+   */
+  static String buildSelectPartitionSql(String table, String columns, String partitionColumn, int partition, int nPartitions) {
+    String sqlText = "SELECT " + columns + " FROM " + table;
+    if (nPartitions == 1)
+      return sqlText;
+    if (partition == 0)
+      return sqlText + " WHERE " + partitionColumn + " < ? OR " + partitionColumn + " IS NULL";
+    if (partition == nPartitions - 1)
+      return sqlText + " WHERE " + partitionColumn + " >= ?";
+    return sqlText + " WHERE " + partitionColumn + " >= ? AND " + partitionColumn + " < ?";
+  }
+
+  /**
+   * @param rowsPerPartition expected number of rows of a single query
+   * @return JDBC fetch size, user-defined or the expected number of rows up to {@link #MAX_FETCH_SIZE}
+   */
+  static int getFetchSize(long rowsPerPartition) {
+    final String userDefinedFetchSize = System.getProperty(FETCH_SIZE_KEY);
+    if (userDefinedFetchSize != null) {
+      try {
+        return Integer.parseInt(userDefinedFetchSize);
+      } catch (NumberFormatException e) {
+        Log.info("Unable to parse fetch size: " + userDefinedFetchSize + ". Falling back to default settings.", e);
+      }
+    }
+    return (int) Math.max(1, Math.min(rowsPerPartition, MAX_FETCH_SIZE));
+  }
+
+  /**
+   * Key ranges of a partitioned import: partition i holds the keys in [bounds[i], bounds[i+1]). Keys of a date column
+   * are represented as milliseconds since the epoch.
+   */
+  static class PartitionRange extends Iced<PartitionRange> {
+    final String _column;
+    final int _sqlType; // Types.BIGINT for numeric keys, otherwise the type of the date column
+    final long[] _bounds;
+
+    PartitionRange(String column, int sqlType, long[] bounds) {
+      _column = column;
+      _sqlType = sqlType;
+      _bounds = bounds;
+    }
+
+    int nPartitions() {
+      return _bounds.length - 1;
+    }
+
+    /**
+     * Splits the range of the partition column into (at most) given number of equally wide key ranges.
+     */
+    static PartitionRange query(String url, String user, String password, String table, String column, int nPartitions) {
+      final String sqlText = "SELECT MIN(" + column + "), MAX(" + column + ") FROM " + table;
+      try (Connection conn = getConnectionSafe(url, user, password);
+           Statement stmt = conn.createStatement();
+           ResultSet rs = stmt.executeQuery(sqlText)) {
+        rs.next();
+        final Object min = rs.getObject(1);
+        final Object max = rs.getObject(2);
+        if (min == null || max == null) // no keys, everything is read at once
+          return new PartitionRange(column, Types.BIGINT, new long[]{0, 0});
+        final int sqlType;
+        final long lo, hi;
+        if (min instanceof java.util.Date) {
+          sqlType = min instanceof Date ? Types.DATE : min instanceof Time ? Types.TIME : Types.TIMESTAMP;
+          lo = ((java.util.Date) min).getTime();
+          hi = ((java.util.Date) max).getTime();
+        } else if (min instanceof Number) {
+          sqlType = Types.BIGINT;
+          lo = (long) Math.floor(((Number) min).doubleValue());
+          hi = (long) Math.ceil(((Number) max).doubleValue());
+        } else {
+          throw new IllegalArgumentException("Partition column " + column + " must be numeric or a date, found values of type " +
+                  min.getClass().getName());
+        }
+        return new PartitionRange(column, sqlType, split(lo, hi, nPartitions));
+      } catch (SQLException ex) {
+        throw new RuntimeException("SQLException: " + ex.getMessage() + "\nFailed to execute SQL query: " + sqlText, ex);
+      }
+    }
+
+    static long[] split(long min, long max, int nPartitions) {
+      final double span = (double) max - min + 1;
+      nPartitions = (int) Math.max(1, Math.min(nPartitions, span));
+      final long[] bounds = new long[nPartitions + 1];
+      for (int i = 0; i < nPartitions; i++)
+        bounds[i] = min + (long) (span * i / nPartitions);
+      bounds[nPartitions] = max;
+      return bounds;
+    }
+
+    /**
+     * Binds bounds of the key range to a statement built by {@link #buildSelectPartitionSql}.
+     */
+    void bind(PreparedStatement stmt, int partition) throws SQLException {
+      final int n = nPartitions();
+      if (n == 1)
+        return;
+      if (partition == 0) {
+        bind(stmt, 1, _bounds[1]);
+      } else {
+        bind(stmt, 1, _bounds[partition]);
+        if (partition < n - 1)
+          bind(stmt, 2, _bounds[partition + 1]);
+      }
+    }
+
+    private void bind(PreparedStatement stmt, int idx, long value) throws SQLException {
+      switch (_sqlType) {
+        case Types.DATE:
+          stmt.setDate(idx, new Date(value));
+          break;
+        case Types.TIME:
+          stmt.setTime(idx, new Time(value));
+          break;
+        case Types.TIMESTAMP:
+          stmt.setTimestamp(idx, new Timestamp(value));
+          break;
+        default:
+          stmt.setLong(idx, value);
+      }
+    }
+  }
+
 
   static class ConnectionPoolProvider extends Iced<ConnectionPoolProvider> {
 
@@ -791,6 +980,55 @@ public class SQLManager {
     }
   }
 
+  /**
+   * Reads a partitioned table, one key range per Chunk. Unlike {@link SqlTableToH2OFrame}, the queries don't use
+   * an OFFSET (which makes the database skip over all the preceding rows) - each query only scans its key range,
+   * the number of rows in a Chunk is given by the data.
+   */
+  static class SqlTablePartitionsToH2OFrame extends SqlTableToH2OFrame {
+    final PartitionRange _partitions;
+    final int _fetchSize;
+
+    SqlTablePartitionsToH2OFrame(final String table, final String databaseType,
+                                 final String columns, final String[] columnNames, final int numCol,
+                                 final Job job, final ConnectionPoolProvider poolProvider,
+                                 final PartitionRange partitions, final int fetchSize) {
+      super(table, databaseType, columns, columnNames, numCol, job, poolProvider);
+      _partitions = partitions;
+      _fetchSize = fetchSize;
+    }
+
+    @Override
+    public void map(Chunk[] cs, NewChunk[] ncs) {
+      if (isCancelled() || _job != null && _job.stop_requested()) return;
+      final int partition = cs[0].cidx();
+      final String sqlText = buildSelectPartitionSql(_table, _columns, _partitions._column, partition,
+              _partitions.nPartitions());
+      Connection conn = null;
+      try {
+        conn = sqlConn.take();
+        try (PreparedStatement stmt = conn.prepareStatement(sqlText)) {
+          _partitions.bind(stmt, partition);
+          stmt.setFetchSize(_fetchSize);
+          try (ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+              writeRow(rs, ncs);
+            }
+          }
+        }
+      } catch (SQLException ex) {
+        throw new RuntimeException("SQLException: " + ex.getMessage() + "\nFailed to read SQL data", ex);
+      } catch (InterruptedException e) {
+        throw new RuntimeException("Interrupted exception when trying to take connection from pool", e);
+      } finally {
+        //return connection to pool
+        if (conn != null)
+          sqlConn.add(conn);
+      }
+      if (_job != null) _job.update(1);
+    }
+  }
+
   private static void dropTempTable(String connection_url, String username, String password, String tableName) {
     Connection conn = null;
     Statement stmt = null;
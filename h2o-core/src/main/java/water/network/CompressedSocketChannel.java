@@ -0,0 +1,187 @@
+package water.network;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.ByteChannel;
+import java.nio.channels.SocketChannel;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Wrapper around a (possibly SSL) socket channel which compresses the transferred bytes.
+ *
+ * Every write call is sent as a single frame: a header (1 byte compression flag, 4 bytes length of the original data,
+ * 4 bytes length of the frame payload) followed by the payload. Payloads smaller than the threshold, and payloads
+ * that did not shrink, are sent uncompressed. Reads return the decompressed bytes of the frames; a frame is never
+ * read past its end, the underlying channel can thus be used directly for out-of-band bytes between frames
+ * (eg. the AutoBuffer close handshake).
+ *
+ * Compression uses the fastest level of Deflater.
+ */
+public class CompressedSocketChannel implements ByteChannel {
+
+    private static final int HEADER_SIZE = 1 + 4 + 4;
+    private static final byte RAW = 0;
+    private static final byte DEFLATED = 1;
+
+    private final ByteChannel channel;
+    private final int threshold;
+
+    // Writing
+    private final ByteBuffer headerOut = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.nativeOrder());
+    private Deflater deflater;
+    private byte[] rawOut = new byte[0];
+    private byte[] compressedOut = new byte[0];
+
+    // Reading
+    private final ByteBuffer headerIn = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.nativeOrder());
+    private Inflater inflater;
+    private ByteBuffer payloadIn = ByteBuffer.allocate(0);
+    private byte[] inflated = new byte[0];
+    private ByteBuffer dataIn = ByteBuffer.allocate(0); // decompressed bytes of the current frame
+
+    /**
+     * @param channel channel to wrap
+     * @param threshold minimal size of the written data to be compressed (in bytes)
+     */
+    public CompressedSocketChannel(ByteChannel channel, int threshold) {
+        this.channel = channel;
+        this.threshold = threshold;
+    }
+
+    @Override
+    public int read(ByteBuffer dst) throws IOException {
+        if (!dataIn.hasRemaining() && !readFrame())
+            return -1;
+        int n = Math.min(dst.remaining(), dataIn.remaining());
+        ByteBuffer src = dataIn.duplicate();
+        src.limit(src.position() + n);
+        dst.put(src);
+        dataIn.position(dataIn.position() + n);
+        return n;
+    }
+
+    private boolean readFrame() throws IOException {
+        headerIn.clear();
+        if (!readFully(headerIn, true))
+            return false;
+        headerIn.flip();
+        final byte flag = headerIn.get();
+        final int rawLen = headerIn.getInt();
+        final int payloadLen = headerIn.getInt();
+        if (rawLen < 0 || payloadLen < 0)
+            throw new IOException("Communication protocol failure: invalid frame lengths " + rawLen + "/" + payloadLen);
+        if (payloadIn.capacity() < payloadLen)
+            payloadIn = ByteBuffer.allocate(payloadLen);
+        payloadIn.clear().limit(payloadLen);
+        readFully(payloadIn, false);
+        switch (flag) {
+            case RAW:
+                payloadIn.flip();
+                dataIn = payloadIn;
+                break;
+            case DEFLATED:
+                if (inflated.length < rawLen)
+                    inflated = new byte[rawLen];
+                if (inflater == null)
+                    inflater = new Inflater();
+                inflater.reset();
+                inflater.setInput(payloadIn.array(), 0, payloadLen);
+                try {
+                    int n = 0;
+                    while (n < rawLen && !inflater.finished()) {
+                        int k = inflater.inflate(inflated, n, rawLen - n);
+                        if (k == 0 && (inflater.needsInput() || inflater.needsDictionary()))
+                            break; // truncated payload, inflate would never make progress
+                        n += k;
+                    }
+                    if (n != rawLen)
+                        throw new IOException("Corrupted compressed frame, expected " + rawLen + " bytes, got " + n);
+                } catch (DataFormatException e) {
+                    throw new IOException("Corrupted compressed frame", e);
+                }
+                dataIn = ByteBuffer.wrap(inflated, 0, rawLen);
+                break;
+            default:
+                throw new IOException("Communication protocol failure: unexpected frame type " + flag);
+        }
+        return true;
+    }
+
+    private boolean readFully(ByteBuffer bb, boolean allowEOF) throws IOException {
+        while (bb.hasRemaining()) {
+            if (channel.read(bb) < 0) {
+                if (allowEOF && bb.position() == 0)
+                    return false;
+                throw new EOFException("Channel closed in the middle of a frame");
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int write(ByteBuffer src) throws IOException {
+        final int len = src.remaining();
+        if (len == 0)
+            return 0;
+        if (rawOut.length < len)
+            rawOut = new byte[len];
+        src.get(rawOut, 0, len);
+
+        byte flag = RAW;
+        byte[] payload = rawOut;
+        int payloadLen = len;
+        if (len >= threshold) {
+            if (deflater == null)
+                deflater = new Deflater(Deflater.BEST_SPEED);
+            if (compressedOut.length < len)
+                compressedOut = new byte[len];
+            deflater.reset();
+            deflater.setInput(rawOut, 0, len);
+            deflater.finish();
+            int n = deflater.deflate(compressedOut, 0, len);
+            if (deflater.finished() && n < len) { // only use the compressed bytes if they are actually smaller
+                flag = DEFLATED;
+                payload = compressedOut;
+                payloadLen = n;
+            }
+        }
+        headerOut.clear();
+        headerOut.put(flag).putInt(len).putInt(payloadLen).flip();
+        writeFully(headerOut);
+        writeFully(ByteBuffer.wrap(payload, 0, payloadLen));
+        return len;
+    }
+
+    private void writeFully(ByteBuffer bb) throws IOException {
+        while (bb.hasRemaining())
+            channel.write(bb);
+    }
+
+    @Override
+    public boolean isOpen() {
+        return channel.isOpen();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            channel.close();
+        } finally {
+            if (deflater != null) deflater.end();
+            if (inflater != null) inflater.end();
+        }
+    }
+
+    ByteChannel wrapped() {
+        return channel;
+    }
+
+    SocketChannel channel() {
+        return SocketChannelUtils.underlyingSocketChannel(channel);
+    }
+
+}
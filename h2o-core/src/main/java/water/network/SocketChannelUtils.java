@@ -6,11 +6,15 @@ import java.nio.channels.SocketChannel;
 public class SocketChannelUtils {
 
     public static boolean isSocketChannel(Channel channel) {
+        if (channel instanceof CompressedSocketChannel)
+            return isSocketChannel(((CompressedSocketChannel) channel).wrapped());
         return channel instanceof SocketChannel || channel instanceof SSLSocketChannel;
     }
 
     public static SocketChannel underlyingSocketChannel(Channel channel) {
-        if(channel instanceof SSLSocketChannel) {
+        if(channel instanceof CompressedSocketChannel) {
+            return ((CompressedSocketChannel) channel).channel();
+        } else if(channel instanceof SSLSocketChannel) {
             return ((SSLSocketChannel) channel).channel();
         } else if(channel instanceof SocketChannel) {
             return (SocketChannel) channel;
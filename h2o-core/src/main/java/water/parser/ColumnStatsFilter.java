@@ -0,0 +1,101 @@
+package water.parser;
+
+import water.Iced;
+import water.exceptions.H2OIllegalArgumentException;
+
+/**
+ * Block filter expressed on column statistics, used by parsers of formats that keep min/max statistics
+ * for blocks of rows (Parquet row groups, ORC stripes). The filter is a conjunction of closed ranges
+ * on numeric columns; a block is not read at all if its statistics show that none of its rows can satisfy
+ * all of the ranges.
+ *
+ * The filter only prunes whole blocks, it is not a row filter: blocks which might contain matching rows
+ * are imported in full, including their rows outside of the ranges.
+ * Columns are identified by their index in the parse setup, the same index as used by skipped columns
+ * (columns of unsupported types which are not part of the setup are not counted).
+ */
+public class ColumnStatsFilter extends Iced<ColumnStatsFilter> {
+
+  private final int[] _cols;
+  private final double[] _mins;
+  private final double[] _maxs;
+
+  /**
+   * @param cols indices of the filtered columns
+   * @param mins lower bounds (inclusive), NaN or -Infinity if not bounded
+   * @param maxs upper bounds (inclusive), NaN or +Infinity if not bounded
+   */
+  public ColumnStatsFilter(int[] cols, double[] mins, double[] maxs) {
+    if (cols.length != mins.length || cols.length != maxs.length)
+      throw new IllegalArgumentException("Expected the same number of columns and bounds, got: " +
+              cols.length + ", " + mins.length + ", " + maxs.length);
+    _cols = cols.clone();
+    _mins = mins.clone();
+    _maxs = maxs.clone();
+    for (int i = 0; i < _cols.length; i++) {
+      if (Double.isNaN(_mins[i])) _mins[i] = Double.NEGATIVE_INFINITY;
+      if (Double.isNaN(_maxs[i])) _maxs[i] = Double.POSITIVE_INFINITY;
+      if (_mins[i] > _maxs[i])
+        throw new IllegalArgumentException("Empty range for column " + _cols[i] + ": [" + _mins[i] + ", " + _maxs[i] + "]");
+    }
+  }
+
+  /**
+   * Makes a filter from its text representation, each range is given as {@code column:min:max}
+   * (eg. {@code 3:0:100}), an empty bound means the column is not bounded from that side (eg. {@code 5::10}).
+   * @param ranges ranges of the filter
+   * @return filter instance, null if no ranges were given
+   */
+  public static ColumnStatsFilter parse(String[] ranges) {
+    if (ranges == null || ranges.length == 0)
+      return null;
+    int[] cols = new int[ranges.length];
+    double[] mins = new double[ranges.length];
+    double[] maxs = new double[ranges.length];
+    for (int i = 0; i < ranges.length; i++) {
+      String[] parts = ranges[i].split(":", -1);
+      if (parts.length != 3)
+        throw new H2OIllegalArgumentException("Invalid block filter range '" + ranges[i] + "', expected 'column:min:max'.");
+      try {
+        cols[i] = Integer.parseInt(parts[0].trim());
+        mins[i] = parts[1].trim().isEmpty() ? Double.NaN : Double.parseDouble(parts[1]);
+        maxs[i] = parts[2].trim().isEmpty() ? Double.NaN : Double.parseDouble(parts[2]);
+      } catch (NumberFormatException e) {
+        throw new H2OIllegalArgumentException("Invalid block filter range '" + ranges[i] + "', expected 'column:min:max'.");
+      }
+    }
+    return new ColumnStatsFilter(cols, mins, maxs);
+  }
+
+  public boolean isFiltered(int col) {
+    for (int c : _cols)
+      if (c == col) return true;
+    return false;
+  }
+
+  /**
+   * Checks whether values of a column within a block can satisfy this filter.
+   * @param col index of the column
+   * @param min minimum value of the column in the block
+   * @param max maximum value of the column in the block
+   * @return false if no value in range [min, max] satisfies the filter, true otherwise
+   */
+  public boolean mightMatch(int col, double min, double max) {
+    for (int i = 0; i < _cols.length; i++) {
+      if (_cols[i] == col && (max < _mins[i] || min > _maxs[i]))
+        return false;
+    }
+    return true;
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder sb = new StringBuilder();
+    for (int i = 0; i < _cols.length; i++) {
+      if (i > 0) sb.append(" AND ");
+      sb.append(_mins[i]).append(" <= C").append(_cols[i] + 1).append(" <= ").append(_maxs[i]);
+    }
+    return sb.toString();
+  }
+
+}
@@ -138,6 +138,17 @@ public class FVecParseWriter extends Iced implements StreamParseWriter {
     }
     _col = -1;
   }
+
+  /**
+   * Records lines that were written column-by-column (by parsers filling whole columns at once, eg. Parquet)
+   * instead of line-by-line. All parsed columns need to have received a value (or NA) for each of the lines.
+   * @param nlines number of lines added
+   */
+  public void addColumnarLines(int nlines) {
+    _nLines += nlines;
+    _col = -1;
+  }
+
   @Override public void addNumCol(int colIdx, long number, int exp) {
     if( colIdx < _nCols ) {
       _nvs[_col = colIdx].addNum(number, exp);
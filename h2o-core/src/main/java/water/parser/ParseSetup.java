@@ -38,6 +38,7 @@ public class ParseSetup extends Iced {
   String[] _column_names;
   byte[] _column_types;       // Column types
   int[] _skipped_columns;     // column indices that are to be skipped
+  ColumnStatsFilter _column_stats_filter; // optional pruning of row blocks based on column statistics (Parquet, ORC)
   String[][] _domains;        // Domains for each column (null if numeric)
   String[][] _na_strings;       // Strings for NA in a given column
   String[][] _data;           // First few rows of parsed/tokenized data
@@ -71,6 +72,7 @@ public class ParseSetup extends Iced {
             ps._column_names, ps._column_types, ps._domains, ps._na_strings, ps._data,
             new ParseWriter.ParseErr[0], ps._chunk_size, ps._decrypt_tool, ps._skipped_columns,
             ps._nonDataLineMarkers, ps._escapechar);
+    _column_stats_filter = ps._column_stats_filter;
   }
 
   public static ParseSetup makeSVMLightSetup(){
@@ -288,6 +290,7 @@ public class ParseSetup extends Iced {
       if (demandedSetup._decrypt_tool != null)
         ps._decrypt_tool = demandedSetup._decrypt_tool;
       ps.setSkippedColumns(demandedSetup.getSkippedColumns());
+      ps.setColumnStatsFilter(demandedSetup.getColumnStatsFilter());
       ps.setParseColumnIndices(demandedSetup.getNumberColumns(), demandedSetup.getSkippedColumns()); // final consistent check between skipped_columns and parse_columns_indices
       return ps;
     }
@@ -828,6 +831,15 @@ public class ParseSetup extends Iced {
     return this;
   }
 
+  public ColumnStatsFilter getColumnStatsFilter() {
+    return _column_stats_filter;
+  }
+
+  public ParseSetup setColumnStatsFilter(ColumnStatsFilter filter) {
+    this._column_stats_filter = filter;
+    return this;
+  }
+
   public ParseSetup setSkippedColumns(int[] skipped_columns) {
     this._skipped_columns = skipped_columns;
     return this;
@@ -12,7 +12,7 @@ import water.util.Log;
 /**
  * Persistence backend using local file system.
  */
-public final class PersistFS extends Persist {
+public class PersistFS extends Persist {
   final File _root;
   final File _dir;
 
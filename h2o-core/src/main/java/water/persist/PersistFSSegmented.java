@@ -0,0 +1,315 @@
+package water.persist;
+
+import water.H2O;
+import water.Key;
+import water.Value;
+import water.nbhm.UtilUnsafe;
+import water.util.Log;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * User-mode swap backend storing spilled Values in large, pre-allocated,
+ * memory-mapped segment files instead of one file per Value.
+ * <p>
+ * Values are appended to the current segment; an in-memory index maps each
+ * Key to its (segment, offset, length) slot.  Loading a Value is a single bulk
+ * copy out of the mapping - no open/read/close syscalls and no stream buffers.
+ * Deleting a Value only drops its index entry; a filled segment whose live
+ * fraction falls below {@link #COMPACT_RATIO} is queued for compaction, the
+ * next store copies its surviving Values into the current segment and drops
+ * the old file.  Dropped segments are unmapped before their file is deleted.
+ * <p>
+ * Values which do not fit a segment are handed over to the plain
+ * {@link PersistFS} file-per-Value storage.  Non-swap operations (import,
+ * export, listing) are inherited from {@link PersistFS} unchanged.
+ * <p>
+ * Enabled by setting system property {@code sys.ai.h2o.persist.swap.segmented=true}.
+ */
+public class PersistFSSegmented extends PersistFS {
+
+  static final String PROP_ENABLED = "persist.swap.segmented";
+  static final String PROP_SEGMENT_SIZE = "persist.swap.segment.size";
+  static final int DEFAULT_SEGMENT_SIZE = 256 << 20;
+  // Segments with less than this fraction of live bytes get compacted
+  static final double COMPACT_RATIO = 0.5;
+
+  static boolean isEnabled() {
+    return H2O.getSysBoolProperty(PROP_ENABLED, false);
+  }
+
+  private final int _segmentSize;
+  private final Map<Key, Slot> _index = new ConcurrentHashMap<>();
+  private final List<Segment> _segments = new ArrayList<>(); // guarded by this
+  private final Set<Segment> _sparse = new LinkedHashSet<>(); // filled segments waiting for compaction, guarded by this
+  private Segment _current; // guarded by this
+  private int _nextSegmentId; // guarded by this
+
+  PersistFSSegmented(File root) {
+    this(root, Integer.parseInt(H2O.getSysProperty(PROP_SEGMENT_SIZE, String.valueOf(DEFAULT_SEGMENT_SIZE))));
+  }
+
+  PersistFSSegmented(File root, int segmentSize) {
+    super(root);
+    if (segmentSize <= 0)
+      throw new IllegalArgumentException("Swap segment size needs to be positive, got: " + segmentSize);
+    _segmentSize = segmentSize;
+  }
+
+  @Override
+  public void store(Value v) throws IOException {
+    assert !v.isPersisted();
+    byte[] m = v.memOrLoad(); // we are not single threaded anymore
+    if (m.length != v._max) {
+      Log.warn("Value size mismatch? " + v._key + " byte[].len=" + m.length + " v._max=" + v._max);
+      v._max = m.length; // Implies update of underlying POJO, then re-serializing it without K/V storing it
+    }
+    if (m.length > _segmentSize) { // Too big for a segment, use a dedicated file
+      super.store(v);
+      return;
+    }
+    synchronized (this) {
+      append(v._key, m);
+      if (!_sparse.isEmpty())
+        compactSparseSegments();
+    }
+  }
+
+  @Override
+  public byte[] load(Value v) throws IOException {
+    while (true) {
+      Slot s = _index.get(v._key);
+      if (s == null)
+        return super.load(v);
+      byte[] b = s._seg.read(s._off, s._len);
+      if (b != null)
+        return b;
+      // The segment was compacted and unmapped after we looked the slot up,
+      // the Value was moved to a new slot before that
+    }
+  }
+
+  @Override
+  public void delete(Value v) {
+    Slot s = _index.remove(v._key);
+    if (s == null) {
+      super.delete(v); // Possibly stored as a dedicated file
+      return;
+    }
+    release(v._key, s);
+  }
+
+  @Override
+  public void cleanUp() {
+    synchronized (this) {
+      _index.clear();
+      for (Segment seg : new ArrayList<>(_segments))
+        drop(seg);
+      _current = null;
+    }
+    super.cleanUp();
+  }
+
+  /** Number of segment files currently in use; exposed for testing only. */
+  synchronized int segmentCount() {
+    return _segments.size();
+  }
+
+  /** Number of filled segments waiting for compaction; exposed for testing only. */
+  synchronized int sparseSegmentCount() {
+    return _sparse.size();
+  }
+
+  // Append bytes into the current segment, opening a new one if full
+  private void append(Key k, byte[] m) throws IOException {
+    if (_current == null || _current._top + m.length > _segmentSize)
+      newCurrentSegment();
+    Segment seg = _current;
+    ByteBuffer bb = seg._buf.duplicate();
+    bb.position(seg._top);
+    bb.put(m);
+    Slot s = new Slot(seg, seg._top, m.length);
+    seg._top += m.length;
+    seg._live.addAndGet(m.length);
+    Slot old = _index.put(k, s);
+    if (old != null) // Re-spill of a Key, release the stale copy
+      release(k, old);
+    seg._keys.add(k);
+  }
+
+  // Account for a Value leaving its slot, segments are checked for compaction
+  // only when their live bytes cross the threshold (or drop to zero)
+  private void release(Key k, Slot s) {
+    Segment seg = s._seg;
+    seg._keys.remove(k);
+    long live = seg._live.addAndGet(-s._len);
+    double threshold = COMPACT_RATIO * seg._top;
+    if (live == 0 || (live < threshold && live + s._len >= threshold)) {
+      synchronized (this) {
+        if (seg == _current || !_segments.contains(seg))
+          return; // Checked again once the current segment is filled
+        if (seg._live.get() == 0)
+          drop(seg);
+        else
+          _sparse.add(seg);
+      }
+    }
+  }
+
+  // Move live Values out of the mostly-dead segments queued by release
+  private void compactSparseSegments() throws IOException {
+    List<Segment> sparse = new ArrayList<>(_sparse);
+    _sparse.clear();
+    for (Segment seg : sparse) {
+      if (!_segments.contains(seg)) continue;
+      for (Key k : seg._keys) {
+        Slot s = _index.get(k);
+        if (s == null || s._seg != seg) continue;
+        byte[] b = seg.read(s._off, s._len);
+        if (_current._top + b.length > _segmentSize)
+          newCurrentSegment();
+        Segment dst = _current;
+        ByteBuffer out = dst._buf.duplicate();
+        out.position(dst._top);
+        out.put(b);
+        // Only move the Value if it was not deleted or re-spilled meanwhile
+        dst._live.addAndGet(b.length);
+        dst._keys.add(k);
+        if (_index.replace(k, s, new Slot(dst, dst._top, b.length))) {
+          dst._top += b.length;
+        } else {
+          dst._live.addAndGet(-b.length);
+          dst._keys.remove(k);
+        }
+      }
+      drop(seg);
+    }
+  }
+
+  // Filled segment becomes sparse while being the current one, it is queued once replaced
+  private void newCurrentSegment() throws IOException {
+    Segment filled = _current;
+    _current = newSegment();
+    if (filled != null && filled._live.get() < COMPACT_RATIO * filled._top) {
+      if (filled._live.get() == 0)
+        drop(filled);
+      else
+        _sparse.add(filled);
+    }
+  }
+
+  private Segment newSegment() throws IOException {
+    File segDir = new File(_dir, "swap_segments");
+    if (!segDir.mkdirs() && !segDir.exists())
+      throw new IOException("mkdirs failed making " + segDir);
+    File f = new File(segDir, "segment_" + _nextSegmentId++);
+    try (RandomAccessFile raf = new RandomAccessFile(f, "rw")) {
+      raf.setLength(_segmentSize); // Pre-allocate
+      FileChannel fc = raf.getChannel();
+      MappedByteBuffer buf = fc.map(FileChannel.MapMode.READ_WRITE, 0, _segmentSize);
+      Segment seg = new Segment(f, buf);
+      _segments.add(seg);
+      return seg;
+    }
+  }
+
+  private void drop(Segment seg) {
+    _segments.remove(seg);
+    _sparse.remove(seg);
+    seg.unmap(); // Windows refuses to delete a mapped file, elsewhere the mapping would outlive the file
+    if (!seg._file.delete())
+      Log.debug("Failed to delete swap segment " + seg._file);
+  }
+
+  private static final class Segment {
+    final File _file;
+    final Set<Key> _keys = ConcurrentHashMap.newKeySet(); // Keys indexed to this segment
+    final AtomicLong _live = new AtomicLong(); // Bytes of Values still indexed
+    int _top; // Append position, guarded by the owning PersistFSSegmented
+    private final ReentrantReadWriteLock _lock = new ReentrantReadWriteLock(); // readers vs. unmap
+    MappedByteBuffer _buf; // null once unmapped
+
+    Segment(File file, MappedByteBuffer buf) {
+      _file = file;
+      _buf = buf;
+    }
+
+    /** @return the bytes at the given position or null if the segment was already unmapped */
+    byte[] read(int off, int len) {
+      _lock.readLock().lock();
+      try {
+        if (_buf == null)
+          return null;
+        byte[] b = new byte[len];
+        ByteBuffer bb = _buf.duplicate();
+        bb.position(off);
+        bb.get(b);
+        return b;
+      } finally {
+        _lock.readLock().unlock();
+      }
+    }
+
+    void unmap() {
+      MappedByteBuffer buf;
+      _lock.writeLock().lock();
+      try {
+        buf = _buf;
+        _buf = null;
+      } finally {
+        _lock.writeLock().unlock();
+      }
+      if (buf != null)
+        PersistFSSegmented.unmap(buf);
+    }
+  }
+
+  /**
+   * Releases the mapping right away instead of when the buffer gets collected,
+   * the buffer must not be accessed afterwards.
+   */
+  static void unmap(MappedByteBuffer buf) {
+    try {
+      Method invokeCleaner = sun.misc.Unsafe.class.getMethod("invokeCleaner", ByteBuffer.class); // Java 9+
+      invokeCleaner.invoke(UtilUnsafe.getUnsafe(), buf);
+      return;
+    } catch (NoSuchMethodException e) {
+      // Java 8, use the cleaner of the buffer directly
+    } catch (ReflectiveOperationException | RuntimeException e) {
+      Log.debug("Failed to unmap swap segment, it will be unmapped when collected: " + e);
+      return;
+    }
+    try {
+      Method cleanerMethod = buf.getClass().getMethod("cleaner");
+      cleanerMethod.setAccessible(true);
+      Object cleaner = cleanerMethod.invoke(buf);
+      if (cleaner != null)
+        cleaner.getClass().getMethod("clean").invoke(cleaner);
+    } catch (ReflectiveOperationException | RuntimeException e) {
+      Log.debug("Failed to unmap swap segment, it will be unmapped when collected: " + e);
+    }
+  }
+
+  private static final class Slot {
+    final Segment _seg;
+    final int _off;
+    final int _len;
+
+    Slot(Segment seg, int off, int len) {
+      _seg = seg;
+      _off = off;
+      _len = len;
+    }
+  }
+
+}
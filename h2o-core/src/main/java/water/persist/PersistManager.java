@@ -128,10 +128,10 @@ public class PersistManager {
     boolean windowsPath = iceRoot.toString().matches("^[a-zA-Z]:.*");
 
     if (windowsPath) {
-      ice = new PersistFS(new File(iceRoot.toString()));
+      ice = newPersistFS(new File(iceRoot.toString()));
     }
     else if ((iceRoot.getScheme() == null) || Schemes.FILE.equals(iceRoot.getScheme())) {
-      ice = new PersistFS(new File(iceRoot.getPath()));
+      ice = newPersistFS(new File(iceRoot.getPath()));
     }
     else if( Schemes.HDFS.equals(iceRoot.getScheme()) ) {
       Log.err("HDFS ice_root not yet supported.  Exiting.");
@@ -194,6 +194,14 @@ public class PersistManager {
     }
   }
 
+  private static PersistFS newPersistFS(File root) {
+    if (PersistFSSegmented.isEnabled()) {
+      Log.info("Using memory-mapped segment files for user-mode swapping");
+      return new PersistFSSegmented(root);
+    }
+    return new PersistFS(root);
+  }
+
   public void store(int backend, Value v) throws IOException {
     stats[backend].store_count.incrementAndGet();
     I[backend].store(v);
@@ -242,6 +242,7 @@ public class Env extends Iced {
     init(new AstFlatten());
     init(new AstGetrow());
     init(new AstGroup());
+    init(new AstGroup.AstGroupShuffled());
     init(new AstGroupedPermute());
     init(new AstIsCharacter());
     init(new AstIsFactor());
@@ -20,8 +20,13 @@ import water.*;
 import water.fvec.Frame;
 import water.fvec.Vec;
 import water.util.ArrayUtils;
+import water.util.Log;
 
+import java.io.IOException;
 import java.util.Arrays;
+import java.util.Comparator;
+import java.util.PriorityQueue;
+import java.util.concurrent.atomic.AtomicLong;
 
 class SingleThreadRadixOrder extends DTask<SingleThreadRadixOrder> {
   private final Frame _fr;
@@ -72,10 +77,60 @@ class SingleThreadRadixOrder extends DTask<SingleThreadRadixOrder> {
     }
     if (numRows == 0) { tryComplete(); return; }
 
-    // Allocate final _o and _x for this MSB which is gathered together on this
-    // node from the other nodes.
-    // TO DO: as Arno suggested, wrap up into class for fixed width batching
-    // (to save espc overhead)
+    Collator collator = new Collator(MSBnodeHeader);
+    Futures fs = new Futures();
+    int nbatch;
+    final long runRows = runRows();
+    if (numRows <= runRows) {
+      // Allocate final _o and _x for this MSB which is gathered together on this
+      // node from the other nodes.
+      // TO DO: as Arno suggested, wrap up into class for fixed width batching
+      // (to save espc overhead)
+      allocate(numRows);
+      collator.copyTo(_o, _x, numRows);
+      // We now have _o and _x collated from all the contributing nodes, in the correct original order.
+      // The main work. Radix sort this batch ...
+      sort(numRows);
+      assert _o.length == _x.length;
+      nbatch = _o.length;
+      for (int b=0; b<nbatch; b++) {
+        SplitByMSBLocal.OXbatch tmp = new SplitByMSBLocal.OXbatch(_o[b], _x[b]);
+        Value v = new Value(SplitByMSBLocal.getSortedOXbatchKey(_isLeft, _MSBvalue, b), tmp);
+        DKV.put(v._key, v, fs, true);  // the OXbatchKey's on this node will be reused for the new keys
+        v.freeMem();
+      }
+    } else {
+      Log.info("MSB " + _MSBvalue + " has " + numRows + " rows, sorting in runs of " + runRows + " rows spilled to " + H2O.ICE_ROOT);
+      nbatch = externalSort(collator, numRows, runRows, fs);
+    }
+
+    // don't need to clear these now using private transient
+    // _counts = null;
+    // keytmp = null;
+    //_nGroup = null;
+
+    // tell the world how many batches and rows for this MSB
+    OXHeader msbh = new OXHeader(nbatch, numRows, _batchSize);
+    DKV.put(getSortedOXHeaderKey(_isLeft, _MSBvalue), msbh, fs, true);
+    // TODO: check numRows is the total of the _x[b] lengths
+    fs.blockForPending();
+    tryComplete();
+  }
+
+  /**
+   * Maximum number of rows of a MSB sorted in memory at once. Larger MSBs are sorted in runs of this size, the runs are
+   * spilled to ice_root and merged afterwards (see {@link #externalSort}). Can be set with system property
+   * {@code sys.ai.h2o.sort.run_rows}, by default the concurrently running in-memory sorts (each holding o and x twice)
+   * are kept under a half of the heap.
+   */
+  private long runRows() {
+    long runRows = Long.parseLong(H2O.getSysProperty("sort.run_rows", "0"));
+    if (runRows > 0)
+      return runRows;
+    return Math.max(_batchSize, MemoryManager.MEM_MAX / (4L * (8 + _keySize) * H2O.NUMCPUS));
+  }
+
+  private void allocate(long numRows) {
     int nbatch = (int) ((numRows-1) / _batchSize +1);   // at least one batch.
     // the size of the last batch (could be batchSize, too if happens to be
     // exact multiple of batchSize)
@@ -89,23 +144,217 @@ class SingleThreadRadixOrder extends DTask<SingleThreadRadixOrder> {
     }
     _o[b] = MemoryManager.malloc8(lastSize);
     _x[b] = MemoryManager.malloc1(lastSize * _keySize);
+  }
 
-    SplitByMSBLocal.OXbatch ox[/*node*/] = new SplitByMSBLocal.OXbatch[H2O.CLOUD.size()];
-    int oxBatchNum[/*node*/] = new int[H2O.CLOUD.size()];  // which batch of OX are we on from that node?  Initialized to 0.
-    for (int node=0; node<H2O.CLOUD.size(); node++) {  //TO DO: why is this serial?  Relying on
-      k = SplitByMSBLocal.getNodeOXbatchKey(_isLeft, _MSBvalue, node, /*batch=*/0);
-      // assert k.home();   // TODO: PUBDEV-3074
-      ox[node] = DKV.getGet(k);   // get the first batch for each node for this MSB
-      DKV.remove(k);
+  // Sorts the first numRows rows of _o and _x in place
+  private void sort(long numRows) {
+    // TODO save this allocation and reuse per thread?  Or will heap just take care of it. Time this allocation and copy as step 1 anyway.
+    _xtmp = new byte[_x.length][];
+    _otmp = new long[_o.length][];
+    assert _x.length == _o.length;  // i.e. aligned batch size between x and o (think 20 bytes keys and 8 bytes of long in o)
+    // Seems like no deep clone available in Java. Maybe System.arraycopy but
+    // maybe that needs target to be allocated first
+    for (int i=0; i<_x.length; i++) {
+      _xtmp[i] = Arrays.copyOf(_x[i], _x[i].length);
+      _otmp[i] = Arrays.copyOf(_o[i], _o[i].length);
+    }
+    // TO DO: a way to share this working memory between threads.
+    //        Just create enough for the 4 threads active at any one time.  Not 256 allocations and releases.
+    //        We need o[] and x[] in full for the result. But this way we don't need full size xtmp[] and otmp[] at any single time.
+    //        Currently Java will allocate and free these xtmp and otmp and maybe it does good enough job reusing heap that we don't need to explicitly optimize this reuse.
+    //        Perhaps iterating this task through the largest bins first will help java reuse heap.
+    assert(_o != null);
+    assert(numRows > 0);
+
+    run(0, numRows, _keySize-1);  // if keySize is 6 bytes, first byte is byte 5
+    _xtmp = null;
+    _otmp = null;
+  }
+
+  /**
+   * External-memory sort of a MSB which doesn't fit in memory. The collated rows are radix sorted in runs of
+   * {@code runRows} rows, each run is written to ice_root in blocks of {@link #spillRows} rows. The runs are then
+   * merged, holding only one block per run in memory, and the merged rows are published as the sorted OX batches.
+   * The merge takes the rows of the earlier run first on equal keys, so the sort stays stable.
+   * @return number of sorted OX batches
+   */
+  private int externalSort(Collator collator, long numRows, long runRows, Futures fs) {
+    final int nruns = (int) ((numRows-1) / runRows + 1);
+    final int spillRows = spillRows();
+    final Run[] runs = new Run[nruns];
+    try {
+      for (int r = 0; r < nruns; r++) {
+        long len = Math.min(runRows, numRows - r*runRows);
+        allocate(len);
+        collator.copyTo(_o, _x, len);
+        sort(len);
+        runs[r] = new Run(r, len, spillRows);
+        for (long start = 0; start < len; start += spillRows)
+          runs[r].spill(start, (int) Math.min(spillRows, len - start));
+        _o = null;
+        _x = null;
+      }
+
+      PriorityQueue<Run> heads = new PriorityQueue<>(nruns, new Comparator<Run>() {
+        @Override public int compare(Run a, Run b) {
+          int cmp = keycmp(a._ox._x, a._row, b._ox._x, b._row);
+          return cmp != 0 ? cmp : Integer.compare(a._run, b._run);
+        }
+      });
+      for (Run run : runs)
+        if (run.next())
+          heads.add(run);
+      int nbatch = 0, off = 0;
+      long remaining = numRows;
+      long[] o = MemoryManager.malloc8((int) Math.min(_batchSize, remaining));
+      byte[] x = MemoryManager.malloc1(o.length * _keySize);
+      while (!heads.isEmpty()) {
+        Run run = heads.poll();
+        o[off] = run._ox._o[run._row];
+        System.arraycopy(run._ox._x, run._row*_keySize, x, off*_keySize, _keySize);
+        if (run.next())
+          heads.add(run);
+        if (++off == o.length) {
+          Value v = new Value(SplitByMSBLocal.getSortedOXbatchKey(_isLeft, _MSBvalue, nbatch++), new SplitByMSBLocal.OXbatch(o, x));
+          DKV.put(v._key, v, fs, true);
+          v.freeMem();
+          remaining -= off;
+          off = 0;
+          if (remaining > 0) {
+            o = MemoryManager.malloc8((int) Math.min(_batchSize, remaining));
+            x = MemoryManager.malloc1(o.length * _keySize);
+          }
+        }
+      }
+      assert remaining == 0;
+      return nbatch;
+    } finally {
+      for (Run run : runs)
+        if (run != null)
+          run.remove();
+    }
+  }
+
+  /**
+   * Rows per block of a spilled run, can be set with system property {@code sys.ai.h2o.sort.spill_rows} (64K by default).
+   */
+  private static int spillRows() {
+    return Integer.parseInt(H2O.getSysProperty("sort.spill_rows", String.valueOf(1 << 16)));
+  }
+
+  // Rows and blocks of sorted runs written to ice_root by this node; exposed for testing only
+  private static final AtomicLong SPILLED_ROWS = new AtomicLong();
+  private static final AtomicLong SPILLED_BLOCKS = new AtomicLong();
+  static long spilledRows() { return SPILLED_ROWS.get(); }
+  static long spilledBlocks() { return SPILLED_BLOCKS.get(); }
+
+  /** Sorted run spilled to ice_root, read back one block at a time during the merge */
+  private class Run {
+    final int _run;
+    final int _spillRows;
+    final Value[] _blocks;
+    int _block = -1;
+    SplitByMSBLocal.OXbatch _ox;  // current block
+    int _row;                     // current row in the current block
+
+    Run(int run, long len, int spillRows) {
+      _run = run;
+      _spillRows = spillRows;
+      _blocks = new Value[(int) ((len-1) / spillRows + 1)];
     }
-    int oxOffset[] = MemoryManager.malloc4(H2O.CLOUD.size());
-    int oxChunkIdx[] = MemoryManager.malloc4(H2O.CLOUD.size());  // that node has n chunks and which of those are we currently on?
-
-    int targetBatch = 0, targetOffset = 0, targetBatchRemaining = _batchSize;
-    final Vec vec = _fr.anyVec();
-    assert vec != null;
-    for (int c=0; c<vec.nChunks(); c++) {
-      int fromNode = vec.chunkKey(c).home_node().index();  // each chunk in the column may be on different nodes
+
+    // Writes rows [start, start+len) of the sorted _o and _x to disk
+    void spill(long start, int len) {
+      long[] o = MemoryManager.malloc8(len);
+      byte[] x = MemoryManager.malloc1(len * _keySize);
+      copyRange(start, len, _keySize, _batchSize, _o, _x, o, x);
+      Key k = Key.make("__radix_order__SortedRun_MSB" + _MSBvalue + "_run" + _run + "_block" + (start / _spillRows) + (_isLeft ? "_LEFT" : "_RIGHT"),
+              (byte) 1, Key.HIDDEN_USER_KEY, false, H2O.SELF);
+      Value v = new Value(k, new SplitByMSBLocal.OXbatch(o, x));
+      try {
+        H2O.getPM().store(Value.ICE, v);
+      } catch (IOException e) {
+        throw new RuntimeException("Failed to spill sorted run of MSB " + _MSBvalue + " to " + H2O.ICE_ROOT, e);
+      }
+      v.setDsk();
+      v.freeMem();
+      v.freePOJO();
+      _blocks[(int) (start / _spillRows)] = v;
+      SPILLED_ROWS.addAndGet(len);
+      SPILLED_BLOCKS.incrementAndGet();
+    }
+
+    // Moves to the next row, loading the next block from disk when needed; false when the run is exhausted
+    boolean next() {
+      if (_ox != null && ++_row < _ox._o.length)
+        return true;
+      if (_block >= 0) {
+        _blocks[_block].removePersist();
+        _blocks[_block] = null;
+        _ox = null;
+      }
+      if (++_block == _blocks.length)
+        return false;
+      _ox = _blocks[_block].get();
+      _row = 0;
+      return true;
+    }
+
+    void remove() {
+      for (Value v : _blocks)
+        if (v != null)
+          v.removePersist();
+    }
+  }
+
+  // Copies a batched range [start, start+len) of o and x into single arrays
+  private static void copyRange(final long start, final int len, final int keySize, final int batchSize, final long o[][], final byte x[][], final long otarget[], final byte xtarget[]) {
+    int copied = 0;
+    int batch = (int)(start / batchSize), offset = (int)(start % batchSize);
+    while (copied < len) {
+      final int thisCopy = Math.min(len - copied, batchSize - offset);
+      System.arraycopy(o[batch], offset,         otarget, copied,         thisCopy);
+      System.arraycopy(x[batch], offset*keySize, xtarget, copied*keySize, thisCopy*keySize);
+      copied += thisCopy;
+      batch++; offset = 0;
+    }
+  }
+
+  /**
+   * Streams the rows of this MSB sent by the nodes (as OX batches) in the original order of the rows within the global
+   * table.
+   */
+  private class Collator {
+    private final SplitByMSBLocal.MSBNodeHeader[] _MSBnodeHeader;
+    private final Vec _vec;
+    private final SplitByMSBLocal.OXbatch _ox[/*node*/];
+    private final int _oxBatchNum[/*node*/];  // which batch of OX are we on from that node?  Initialized to 0.
+    private final int _oxOffset[/*node*/];
+    private final int _oxChunkIdx[/*node*/];  // that node has n chunks and which of those are we currently on?
+    private int _chunk = -1;      // current chunk of the Vec
+    private int _fromNode;        // home node of the current chunk
+    private int _chunkRemaining;  // rows of the current chunk not yet copied
+
+    Collator(SplitByMSBLocal.MSBNodeHeader[] MSBnodeHeader) {
+      _MSBnodeHeader = MSBnodeHeader;
+      _vec = _fr.anyVec();
+      assert _vec != null;
+      _ox = new SplitByMSBLocal.OXbatch[H2O.CLOUD.size()];
+      _oxBatchNum = new int[H2O.CLOUD.size()];
+      for (int node=0; node<H2O.CLOUD.size(); node++) {  //TO DO: why is this serial?  Relying on
+        Key k = SplitByMSBLocal.getNodeOXbatchKey(_isLeft, _MSBvalue, node, /*batch=*/0);
+        // assert k.home();   // TODO: PUBDEV-3074
+        _ox[node] = DKV.getGet(k);   // get the first batch for each node for this MSB
+        DKV.remove(k);
+      }
+      _oxOffset = MemoryManager.malloc4(H2O.CLOUD.size());
+      _oxChunkIdx = MemoryManager.malloc4(H2O.CLOUD.size());
+    }
+
+    private void nextChunk() {
+      _chunk++;
+      assert _chunk < _vec.nChunks();
+      _fromNode = _vec.chunkKey(_chunk).home_node().index();  // each chunk in the column may be on different nodes
       // See long comment at the top of SendSplitMSB. One line from there repeated here :
       // " When the helper node (i.e. this one, now) (i.e the node doing all
       // the A's) gets the A's from that node, it must stack all the nodes' A's
@@ -114,39 +363,44 @@ class SingleThreadRadixOrder extends DTask<SingleThreadRadixOrder> {
       // TODO: We could process these in node order and or/in parallel if we
       // cumulated the counts first to know the offsets - should be doable and
       // high value
-      if (MSBnodeHeader[fromNode] == null) continue;
       // magically this works, given the outer for loop through global
       // chunk.  Relies on LINE_ANCHOR_1 above.
-      int numRowsToCopy = MSBnodeHeader[fromNode]._MSBnodeChunkCounts[oxChunkIdx[fromNode]++];   
       // _MSBnodeChunkCounts is a vector of the number of contributions from
       // each Vec chunk.  Since each chunk is length int, this must less than
       // that, so int The set of data corresponding to the Vec chunk
       // contributions is stored packed in batched vectors _o and _x.
+      _chunkRemaining = _MSBnodeHeader[_fromNode] == null ? 0 : _MSBnodeHeader[_fromNode]._MSBnodeChunkCounts[_oxChunkIdx[_fromNode]++];
+    }
 
-      // at most batchSize remaining.  No need to actually put the number of rows left in here
-      int sourceBatchRemaining = _batchSize - oxOffset[fromNode];
-      while (numRowsToCopy > 0) {   // No need for class now, as this is a bit different to the other batch copier. Two isn't too bad.
-        int thisCopy = Math.min(numRowsToCopy, Math.min(sourceBatchRemaining, targetBatchRemaining));
-        System.arraycopy(ox[fromNode]._o, oxOffset[fromNode],          _o[targetBatch], targetOffset,          thisCopy);
-        System.arraycopy(ox[fromNode]._x, oxOffset[fromNode]*_keySize, _x[targetBatch], targetOffset*_keySize, thisCopy*_keySize);
-        numRowsToCopy -= thisCopy;
-        oxOffset[fromNode] += thisCopy; sourceBatchRemaining -= thisCopy;
+    /** Copies the next numRows rows to the start of the batched o and x */
+    void copyTo(long[][] o, byte[][] x, long numRows) {
+      int targetBatch = 0, targetOffset = 0, targetBatchRemaining = _batchSize;
+      while (numRows > 0) {   // No need for class now, as this is a bit different to the other batch copier. Two isn't too bad.
+        while (_chunkRemaining == 0)
+          nextChunk();
+        final int fromNode = _fromNode;
+        // at most batchSize remaining.  No need to actually put the number of rows left in here
+        int sourceBatchRemaining = _batchSize - _oxOffset[fromNode];
+        int thisCopy = (int) Math.min(Math.min(numRows, _chunkRemaining), Math.min(sourceBatchRemaining, targetBatchRemaining));
+        System.arraycopy(_ox[fromNode]._o, _oxOffset[fromNode],          o[targetBatch], targetOffset,          thisCopy);
+        System.arraycopy(_ox[fromNode]._x, _oxOffset[fromNode]*_keySize, x[targetBatch], targetOffset*_keySize, thisCopy*_keySize);
+        numRows -= thisCopy; _chunkRemaining -= thisCopy;
+        _oxOffset[fromNode] += thisCopy; sourceBatchRemaining -= thisCopy;
         targetOffset += thisCopy; targetBatchRemaining -= thisCopy;
         if (sourceBatchRemaining == 0) {
           // fetch the next batch :
-          k = SplitByMSBLocal.getNodeOXbatchKey(_isLeft, _MSBvalue, fromNode, ++oxBatchNum[fromNode]);
+          Key k = SplitByMSBLocal.getNodeOXbatchKey(_isLeft, _MSBvalue, fromNode, ++_oxBatchNum[fromNode]);
           assert k.home();
-          ox[fromNode] = DKV.getGet(k);
+          _ox[fromNode] = DKV.getGet(k);
           DKV.remove(k);
-          if (ox[fromNode] == null) {
+          if (_ox[fromNode] == null) {
             // if the last chunksworth fills a batchsize exactly, the getGet above will have returned null.
             // TODO: Check will Cliff that a known fetch of a non-existent key is ok e.g. won't cause a delay/block? If ok, leave as good check.
-            int numNonZero = 0; for (int tmp : MSBnodeHeader[fromNode]._MSBnodeChunkCounts) if (tmp>0) numNonZero++;
-            assert oxBatchNum[fromNode]==numNonZero;
-            assert ArrayUtils.sum(MSBnodeHeader[fromNode]._MSBnodeChunkCounts) % _batchSize == 0;
+            int numNonZero = 0; for (int tmp : _MSBnodeHeader[fromNode]._MSBnodeChunkCounts) if (tmp>0) numNonZero++;
+            assert _oxBatchNum[fromNode]==numNonZero;
+            assert ArrayUtils.sum(_MSBnodeHeader[fromNode]._MSBnodeChunkCounts) % _batchSize == 0;
           }
-          oxOffset[fromNode] = 0;
-          sourceBatchRemaining = _batchSize;
+          _oxOffset[fromNode] = 0;
         }
         if (targetBatchRemaining == 0) {
           targetBatch++;
@@ -155,48 +409,6 @@ class SingleThreadRadixOrder extends DTask<SingleThreadRadixOrder> {
         }
       }
     }
-
-    // We now have _o and _x collated from all the contributing nodes, in the correct original order.
-    // TODO save this allocation and reuse per thread?  Or will heap just take care of it. Time this allocation and copy as step 1 anyway.
-    _xtmp = new byte[_x.length][];
-    _otmp = new long[_o.length][];
-    assert _x.length == _o.length;  // i.e. aligned batch size between x and o (think 20 bytes keys and 8 bytes of long in o)
-    // Seems like no deep clone available in Java. Maybe System.arraycopy but
-    // maybe that needs target to be allocated first
-    for (int i=0; i<_x.length; i++) {    
-      _xtmp[i] = Arrays.copyOf(_x[i], _x[i].length);
-      _otmp[i] = Arrays.copyOf(_o[i], _o[i].length);
-    }
-    // TO DO: a way to share this working memory between threads.
-    //        Just create enough for the 4 threads active at any one time.  Not 256 allocations and releases.
-    //        We need o[] and x[] in full for the result. But this way we don't need full size xtmp[] and otmp[] at any single time.
-    //        Currently Java will allocate and free these xtmp and otmp and maybe it does good enough job reusing heap that we don't need to explicitly optimize this reuse.
-    //        Perhaps iterating this task through the largest bins first will help java reuse heap.
-    assert(_o != null);
-    assert(numRows > 0);
-
-    // The main work. Radix sort this batch ...
-    run(0, numRows, _keySize-1);  // if keySize is 6 bytes, first byte is byte 5
-
-    // don't need to clear these now using private transient
-    // _counts = null;
-    // keytmp = null;
-    //_nGroup = null;
-
-    // tell the world how many batches and rows for this MSB
-    OXHeader msbh = new OXHeader(_o.length, numRows, _batchSize);
-    Futures fs = new Futures();
-    DKV.put(getSortedOXHeaderKey(_isLeft, _MSBvalue), msbh, fs, true);
-    assert _o.length == _x.length;
-    for (b=0; b<_o.length; b++) {
-      SplitByMSBLocal.OXbatch tmp = new SplitByMSBLocal.OXbatch(_o[b], _x[b]);
-      Value v = new Value(SplitByMSBLocal.getSortedOXbatchKey(_isLeft, _MSBvalue, b), tmp);
-      DKV.put(v._key, v, fs, true);  // the OXbatchKey's on this node will be reused for the new keys
-      v.freeMem();
-    }
-    // TODO: check numRows is the total of the _x[b] lengths
-    fs.blockForPending();
-    tryComplete();
   }
 
   static Key getSortedOXHeaderKey(boolean isLeft, int MSBvalue) {
@@ -1,6 +1,7 @@
 package water.rapids.ast.prims.mungers;
 
 import water.*;
+import water.fvec.AppendableVec;
 import water.fvec.Chunk;
 import water.fvec.Frame;
 import water.fvec.NewChunk;
@@ -19,7 +20,9 @@ import water.util.ArrayUtils;
 import water.util.IcedHashSet;
 import water.util.Log;
 
+import java.io.IOException;
 import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * GroupBy
@@ -39,98 +42,121 @@ import java.util.Arrays;
 public class AstGroup extends AstPrimitive {
 
   private final boolean _per_node_aggregates;
+  private final boolean _shuffle;
 
   public AstGroup() {
     this(true);
   }
 
   public AstGroup(boolean perNodeAggregates) {
+    this(perNodeAggregates, false);
+  }
+
+  AstGroup(boolean perNodeAggregates, boolean shuffle) {
     _per_node_aggregates = perNodeAggregates;
+    _shuffle = shuffle;
+  }
+
+  /**
+   * Same as GB, but uses the shuffle-based grouping (see {@link #doGroupsShuffled}) for this query only, regardless of
+   * {@code sys.ai.h2o.rapids.groupby.shuffle}: (GBshuffle data [group-by-cols] {fcn col "na"}...)
+   */
+  public static class AstGroupShuffled extends AstGroup {
+    public AstGroupShuffled() {
+      super(true, true);
+    }
+
+    @Override
+    public String str() {
+      return "GBshuffle";
+    }
   }
 
   public enum NAHandling {ALL, RM, IGNORE}
 
-  // Functions handled by GroupBy
+  // Functions handled by GroupBy. The state of a function is a range of
+  // doubles starting at an offset, so that the states of many groups can be
+  // packed in one array (see LongGroupTable)
   public enum FCN {
     nrow() {
       @Override
-      public void op(double[] d0s, double d1) {
-        d0s[0]++;
+      public void op(double[] d0s, int off, double d1) {
+        d0s[off]++;
       }
 
       @Override
-      public void atomic_op(double[] d0s, double[] d1s) {
-        d0s[0] += d1s[0];
+      public void atomic_op(double[] d0s, int off0, double[] d1s, int off1, int len) {
+        d0s[off0] += d1s[off1];
       }
 
       @Override
-      public double postPass(double ds[], long n) {
-        return ds[0];
+      public double postPass(double ds[], int off, int len, long n) {
+        return ds[off];
       }
     },
     mean() {
       @Override
-      public void op(double[] d0s, double d1) {
-        d0s[0] += d1;
+      public void op(double[] d0s, int off, double d1) {
+        d0s[off] += d1;
       }
 
       @Override
-      public void atomic_op(double[] d0s, double[] d1s) {
-        d0s[0] += d1s[0];
+      public void atomic_op(double[] d0s, int off0, double[] d1s, int off1, int len) {
+        d0s[off0] += d1s[off1];
       }
 
       @Override
-      public double postPass(double ds[], long n) {
-        return ds[0] / n;
+      public double postPass(double ds[], int off, int len, long n) {
+        return ds[off] / n;
       }
     },
     sum() {
       @Override
-      public void op(double[] d0s, double d1) {
-        d0s[0] += d1;
+      public void op(double[] d0s, int off, double d1) {
+        d0s[off] += d1;
       }
 
       @Override
-      public void atomic_op(double[] d0s, double[] d1s) {
-        d0s[0] += d1s[0];
+      public void atomic_op(double[] d0s, int off0, double[] d1s, int off1, int len) {
+        d0s[off0] += d1s[off1];
       }
 
       @Override
-      public double postPass(double ds[], long n) {
-        return ds[0];
+      public double postPass(double ds[], int off, int len, long n) {
+        return ds[off];
       }
     },
     sumSquares() {
       @Override
-      public void op(double[] d0s, double d1) {
-        d0s[0] += d1 * d1;
+      public void op(double[] d0s, int off, double d1) {
+        d0s[off] += d1 * d1;
       }
 
       @Override
-      public void atomic_op(double[] d0s, double[] d1s) {
-        d0s[0] += d1s[0];
+      public void atomic_op(double[] d0s, int off0, double[] d1s, int off1, int len) {
+        d0s[off0] += d1s[off1];
       }
 
       @Override
-      public double postPass(double ds[], long n) {
-        return ds[0];
+      public double postPass(double ds[], int off, int len, long n) {
+        return ds[off];
       }
     },
     var() {
       @Override
-      public void op(double[] d0s, double d1) {
-        d0s[0] += d1 * d1;
-        d0s[1] += d1;
+      public void op(double[] d0s, int off, double d1) {
+        d0s[off] += d1 * d1;
+        d0s[off + 1] += d1;
       }
 
       @Override
-      public void atomic_op(double[] d0s, double[] d1s) {
-        ArrayUtils.add(d0s, d1s);
+      public void atomic_op(double[] d0s, int off0, double[] d1s, int off1, int len) {
+        add(d0s, off0, d1s, off1, len);
       }
 
       @Override
-      public double postPass(double ds[], long n) {
-        double numerator = ds[0] - ds[1] * ds[1] / n;
+      public double postPass(double ds[], int off, int len, long n) {
+        double numerator = ds[off] - ds[off + 1] * ds[off + 1] / n;
         if (Math.abs(numerator) < 1e-5) numerator = 0;
         return numerator / (n - 1);
       }
@@ -142,19 +168,19 @@ public class AstGroup extends AstPrimitive {
     },
     sdev() {
       @Override
-      public void op(double[] d0s, double d1) {
-        d0s[0] += d1 * d1;
-        d0s[1] += d1;
+      public void op(double[] d0s, int off, double d1) {
+        d0s[off] += d1 * d1;
+        d0s[off + 1] += d1;
       }
 
       @Override
-      public void atomic_op(double[] d0s, double[] d1s) {
-        ArrayUtils.add(d0s, d1s);
+      public void atomic_op(double[] d0s, int off0, double[] d1s, int off1, int len) {
+        add(d0s, off0, d1s, off1, len);
       }
 
       @Override
-      public double postPass(double ds[], long n) {
-        double numerator = ds[0] - ds[1] * ds[1] / n;
+      public double postPass(double ds[], int off, int len, long n) {
+        double numerator = ds[off] - ds[off + 1] * ds[off + 1] / n;
         if (Math.abs(numerator) < 1e-5) numerator = 0;
         return Math.sqrt(numerator / (n - 1));
       }
@@ -166,18 +192,18 @@ public class AstGroup extends AstPrimitive {
     },
     min() {
       @Override
-      public void op(double[] d0s, double d1) {
-        d0s[0] = Math.min(d0s[0], d1);
+      public void op(double[] d0s, int off, double d1) {
+        d0s[off] = Math.min(d0s[off], d1);
       }
 
       @Override
-      public void atomic_op(double[] d0s, double[] d1s) {
-        op(d0s, d1s[0]);
+      public void atomic_op(double[] d0s, int off0, double[] d1s, int off1, int len) {
+        op(d0s, off0, d1s[off1]);
       }
 
       @Override
-      public double postPass(double ds[], long n) {
-        return ds[0];
+      public double postPass(double ds[], int off, int len, long n) {
+        return ds[off];
       }
 
       @Override
@@ -187,18 +213,18 @@ public class AstGroup extends AstPrimitive {
     },
     max() {
       @Override
-      public void op(double[] d0s, double d1) {
-        d0s[0] = Math.max(d0s[0], d1);
+      public void op(double[] d0s, int off, double d1) {
+        d0s[off] = Math.max(d0s[off], d1);
       }
 
       @Override
-      public void atomic_op(double[] d0s, double[] d1s) {
-        op(d0s, d1s[0]);
+      public void atomic_op(double[] d0s, int off0, double[] d1s, int off1, int len) {
+        op(d0s, off0, d1s[off1]);
       }
 
       @Override
-      public double postPass(double ds[], long n) {
-        return ds[0];
+      public double postPass(double ds[], int off, int len, long n) {
+        return ds[off];
       }
 
       @Override
@@ -209,17 +235,17 @@ public class AstGroup extends AstPrimitive {
     median() {  // we will be doing our own thing here for median
 
       @Override
-      public void op(double[] d0s, double d1) {
+      public void op(double[] d0s, int off, double d1) {
         ;
       }
 
       @Override
-      public void atomic_op(double[] d0s, double[] d1s) {
+      public void atomic_op(double[] d0s, int off0, double[] d1s, int off1, int len) {
         ;
       }
 
       @Override
-      public double postPass(double ds[], long n) {
+      public double postPass(double ds[], int off, int len, long n) {
         return 0;
       }
 
@@ -230,18 +256,21 @@ public class AstGroup extends AstPrimitive {
     },
     mode() {
       @Override
-      public void op(double[] d0s, double d1) {
-        d0s[(int) d1]++;
+      public void op(double[] d0s, int off, double d1) {
+        d0s[off + (int) d1]++;
       }
 
       @Override
-      public void atomic_op(double[] d0s, double[] d1s) {
-        ArrayUtils.add(d0s, d1s);
+      public void atomic_op(double[] d0s, int off0, double[] d1s, int off1, int len) {
+        add(d0s, off0, d1s, off1, len);
       }
 
       @Override
-      public double postPass(double ds[], long n) {
-        return ArrayUtils.maxIndex(ds);
+      public double postPass(double ds[], int off, int len, long n) {
+        int result = 0;
+        for (int i = 1; i < len; i++)
+          if (ds[off + i] > ds[off + result]) result = i;
+        return result;
       }
 
       @Override
@@ -250,15 +279,32 @@ public class AstGroup extends AstPrimitive {
       }
     },;
 
-    public abstract void op(double[] d0, double d1);
+    public abstract void op(double[] d0s, int off, double d1);
+
+    public abstract void atomic_op(double[] d0s, int off0, double[] d1s, int off1, int len);
 
-    public abstract void atomic_op(double[] d0, double[] d1);
+    public abstract double postPass(double ds[], int off, int len, long n);
 
-    public abstract double postPass(double ds[], long n);
+    public void op(double[] d0, double d1) {
+      op(d0, 0, d1);
+    }
+
+    public void atomic_op(double[] d0, double[] d1) {
+      atomic_op(d0, 0, d1, 0, d1.length);
+    }
+
+    public double postPass(double ds[], long n) {
+      return postPass(ds, 0, ds.length, n);
+    }
 
     public double[] initVal(int maxx) {
       return new double[]{0};
     }
+
+    private static void add(double[] d0s, int off0, double[] d1s, int off1, int len) {
+      for (int i = 0; i < len; i++)
+        d0s[off0 + i] += d1s[off1 + i];
+    }
   }
 
   @Override
@@ -303,6 +349,13 @@ public class AstGroup extends AstPrimitive {
   public ValFrame performGroupingWithAggregations(Frame fr, int[] gbCols, AGG[] aggs) {
     final boolean hasMedian = hasMedian(aggs);
     final byte[] gbColsTypes = ArrayUtils.select(fr.types(), gbCols);
+
+    final boolean shuffle = _shuffle || H2O.getSysBoolProperty("rapids.groupby.shuffle", false);
+    if (shuffle && !hasMedian && ArrayUtils.occurrenceCount(gbColsTypes, Vec.T_STR) == 0)
+      return new ValFrame(doGroupsShuffled(fr, gbCols, gbColsTypes, aggs, prepareFCNames(fr, aggs)));
+    GBTaskLongKeys longKeys = hasMedian ? null : GBTaskLongKeys.make(fr, gbCols, aggs);
+    if (longKeys != null)
+      return new ValFrame(doGroupsLongKeys(fr, gbCols, aggs, prepareFCNames(fr, aggs), longKeys));
     
     final IcedHashSet<G> gss = doGroups(fr, gbCols,  gbColsTypes, aggs, hasMedian, _per_node_aggregates);
     final G[] grps = gss.toArray(new G[gss.size()]);
@@ -330,30 +383,33 @@ public class AstGroup extends AstPrimitive {
       @Override
       public void map(Chunk[] c, NewChunk[] ncs) {
         int start = (int) c[0].start();
-        for (int i = 0; i < c[0]._len; ++i) {
-          G g = grps[i + start];  // One Group per row
-          int gbColsCnt = g.colsCount();
-          int j;
+        for (int i = 0; i < c[0]._len; ++i)
+          addRow(ncs, grps[i + start], gbColsTypes, aggs, medianCount >= 0);  // One Group per row
+      }
+    };
+  }
 
-          int strIdx = 0;
-          int numIdx = 0;
+  // Adds a Group to the output: the group-by columns followed by the aggregate results
+  private static void addRow(NewChunk[] ncs, G g, byte[] gbColsTypes, AGG[] aggs, boolean hasMedian) {
+    int gbColsCnt = g.colsCount();
+    int j;
 
-          for (j = 0; j < gbColsCnt; j++) {
-            if (gbColsTypes[j] == Vec.T_STR)
-              ncs[j].addStr(g._gsStr[strIdx++]);
-            else
-              ncs[j].addNum(g._gs[numIdx++]);
-          }
+    int strIdx = 0;
+    int numIdx = 0;
 
-          for (int a = 0; a < aggs.length; a++) {
-            if ((medianCount >=0) && g.medianR._isMedian[a])
-              ncs[j++].addNum(g.medianR._medians[a]);
-            else
-              ncs[j++].addNum(aggs[a]._fcn.postPass(g._dss[a], g._ns[a]));
-          }
-        }
-      }
-    };
+    for (j = 0; j < gbColsCnt; j++) {
+      if (gbColsTypes[j] == Vec.T_STR)
+        ncs[j].addStr(g._gsStr[strIdx++]);
+      else
+        ncs[j].addNum(g._gs[numIdx++]);
+    }
+
+    for (int a = 0; a < aggs.length; a++) {
+      if (hasMedian && g.medianR._isMedian[a])
+        ncs[j++].addNum(g.medianR._medians[a]);
+      else
+        ncs[j++].addNum(aggs[a]._fcn.postPass(g._dss[a], g._ns[a]));
+    }
   }
 
   private String[] prepareFCNames(Frame fr, AGG[] aggs) {
@@ -429,7 +485,8 @@ public class AstGroup extends AstPrimitive {
             } else {
               if (Double.isNaN(g1._gs[numIdx]) && !Double.isNaN(g2._gs[numIdx])) return -1;
               if (!Double.isNaN(g1._gs[numIdx]) && Double.isNaN(g2._gs[numIdx])) return 1;
-              if (g1._gs[numIdx] != g2._gs[numIdx]) return g1._gs[numIdx] < g2._gs[numIdx] ? -1 : 1;
+              if (g1._gs[numIdx] != g2._gs[numIdx] && !Double.isNaN(g1._gs[numIdx]))
+                return g1._gs[numIdx] < g2._gs[numIdx] ? -1 : 1;
 
               numIdx++;
             }
@@ -491,18 +548,98 @@ public class AstGroup extends AstPrimitive {
   public static IcedHashSet<G> doGroups(Frame fr, int[] gbCols, byte[] gbColsTypes, AGG[] aggs, boolean hasMedian, boolean perNodeAggregates) {
     // do the group by work now
     long start = System.currentTimeMillis();
-    GBTask<?> p1 = makeGBTask(perNodeAggregates, gbCols, gbColsTypes, aggs, hasMedian).doAll(fr);
+    GBTaskAllGroups<?> p1 = makeGBTask(perNodeAggregates, gbCols, gbColsTypes, aggs, hasMedian).doAll(fr);
     Log.info("Group By Task done in " + (System.currentTimeMillis() - start) / 1000. + " (s)");
     return p1.getGroups();
   }
 
-  private static GBTask<? extends GBTask> makeGBTask(boolean perNodeAggregates, int[] gbCols, byte[] gbColsTypes, AGG[] aggs, boolean hasMedian) {
+  private static GBTaskAllGroups<?> makeGBTask(boolean perNodeAggregates, int[] gbCols, byte[] gbColsTypes, AGG[] aggs, boolean hasMedian) {
     if (perNodeAggregates)
       return new GBTaskAggsPerNode(gbCols, gbColsTypes, aggs, hasMedian);
     else
       return new GBTaskAggsPerMap(gbCols, gbColsTypes, aggs, hasMedian);
   }
   
+  /**
+   * Shuffle-based grouping for group-by columns of a high cardinality, enabled by system property
+   * {@code sys.ai.h2o.rapids.groupby.shuffle} or per query by {@link AstGroupShuffled}. Every map hash-partitions its groups by the group key, each partition is
+   * owned by one node. The owners merge their (disjoint) partitions and write them directly as the Chunks of the
+   * output Frame - the groups are never funneled through the reduce tree. Partial groups waiting for their owner
+   * are kept serialized, once a node holds more than {@code sys.ai.h2o.rapids.groupby.shuffle.budget} bytes of them
+   * they are written to ice_root. The result is sorted by the group-by columns, same as in the regular mode.
+   * Medians and string group-by columns are not supported.
+   *
+   * Only the shuffle spills: an owner merges each of its partitions in memory, so the groups of one partition (about
+   * number of groups / number of partitions) have to fit in the heap of the owner node. For more groups use more
+   * partitions ({@code sys.ai.h2o.rapids.groupby.shuffle.partitions}).
+   */
+  private static Frame doGroupsShuffled(Frame fr, int[] gbCols, byte[] gbColsTypes, AGG[] aggs, String[] fcNames) {
+    long start = System.currentTimeMillis();
+    final int nparts = Integer.parseInt(H2O.getSysProperty("rapids.groupby.shuffle.partitions",
+            String.valueOf(H2O.CLOUD.size() * Math.max(1, Math.min(H2O.ARGS.nthreads, 8)))));
+    final long budget = Long.parseLong(H2O.getSysProperty("rapids.groupby.shuffle.budget",
+            String.valueOf(MemoryManager.MEM_MAX / 4)));
+
+    // Output columns, Chunk p of the output holds the groups of partition p
+    final int nCols = gbCols.length + aggs.length;
+    String[] names = new String[nCols];
+    AppendableVec[] avs = new AppendableVec[nCols];
+    Key<Vec>[] keys = new Vec.VectorGroup().addVecs(nCols);
+    for (int i = 0; i < gbCols.length; i++) {
+      names[i] = fr.name(gbCols[i]);
+      avs[i] = new AppendableVec(keys[i], fr.vec(gbCols[i]).get_type());
+      avs[i].setDomain(fr.vec(gbCols[i]).domain());
+    }
+    for (int i = 0; i < aggs.length; i++) {
+      names[i + gbCols.length] = fcNames[i];
+      avs[i + gbCols.length] = new AppendableVec(keys[i + gbCols.length], Vec.T_NUM);
+    }
+
+    Key shuffleKey = Key.make();
+    ShuffleGroups shuffle = new ShuffleGroups(gbCols, gbColsTypes, aggs, shuffleKey, keys[0], nparts, budget).doAll(fr);
+    MergeShuffledGroups merge = new MergeShuffledGroups(shuffleKey, fr.anyVec(), gbColsTypes, aggs, nparts,
+            shuffle._present, avs).doAllNodes();
+    Frame res = new Frame(names, AppendableVec.closeAll(merge._avs));
+    Log.info("Shuffled Group By Task done in " + (System.currentTimeMillis() - start) / 1000. + " (s)");
+    if (gbCols.length == 0)
+      return res;
+    Frame sorted = Merge.sort(res, ArrayUtils.seq(0, gbCols.length));
+    res.delete();
+    return sorted;
+  }
+
+  /**
+   * Grouping on one or two integer-valued (integer, categorical or time) columns. The group-by values are packed in a
+   * long key and the groups are kept in a {@link LongGroupTable} - primitive arrays instead of a {@link G} object (with
+   * its arrays) per group. Can be disabled with system property {@code sys.ai.h2o.rapids.groupby.long_keys=false}.
+   */
+  private static Frame doGroupsLongKeys(Frame fr, int[] gbCols, AGG[] aggs, String[] fcNames, GBTaskLongKeys task) {
+    long start = System.currentTimeMillis();
+    final LongGroupTable table = task.doAll(fr)._table;
+    Log.info("Group By Task (long keys) done in " + (System.currentTimeMillis() - start) / 1000. + " (s)");
+    final long[] keys = table == null ? new long[0] : table.sortedKeys();
+    final long[] mins = task._mins;
+    final long[] spans = task._spans;
+    MRTask mrFill = new MRTask() {
+      @Override
+      public void map(Chunk[] c, NewChunk[] ncs) {
+        int start = (int) c[0].start();
+        for (int i = 0; i < c[0]._len; ++i) {
+          long key = keys[i + start];  // One Group per row
+          int slot = table.find(key);
+          for (int j = mins.length - 1; j >= 0; j--) {
+            long v = key % spans[j];
+            key /= spans[j];
+            ncs[j].addNum(v == 0 ? Double.NaN : (double) (v - 1 + mins[j]));
+          }
+          for (int a = 0; a < aggs.length; a++)
+            ncs[mins.length + a].addNum(table.result(slot, a));
+        }
+      }
+    };
+    return buildOutput(gbCols, aggs.length, fr, fcNames, keys.length, mrFill);
+  }
+
   // Utility for AstDdply; return a single aggregate for counting rows-per-group
   public static AGG[] aggNRows() {
     return new AGG[]{new AGG(FCN.nrow, 0, NAHandling.IGNORE, 0)};
@@ -556,10 +693,15 @@ public class AstGroup extends AstPrimitive {
     // ds is the reduction array
     // ns is the element count
     public void op(double[][] d0ss, long[] n0s, int i, double d1) {
+      op(d0ss[i], 0, n0s, i, d1);
+    }
+
+    // Same as above, for a state starting at offset off of d0s and the count n0s[n]
+    void op(double[] d0s, int off, long[] n0s, int n, double d1) {
       // Normal number or ALL   : call op()
-      if (!Double.isNaN(d1) || _na == NAHandling.ALL) _fcn.op(d0ss[i], d1);
+      if (!Double.isNaN(d1) || _na == NAHandling.ALL) _fcn.op(d0s, off, d1);
       // Normal number or IGNORE: bump count; RM: do not bump count
-      if (!Double.isNaN(d1) || _na == NAHandling.IGNORE) n0s[i]++;
+      if (!Double.isNaN(d1) || _na == NAHandling.IGNORE) n0s[n]++;
     }
 
     // Atomically update the array pair {dss[i],ns[i]} with the pair {d1,n1}.
@@ -609,10 +751,19 @@ public class AstGroup extends AstPrimitive {
           _aggs[i].op(gOld._dss, gOld._ns, i, cs[_aggs[i]._col].atd(row));
       }
     }
-    
+
+  }
+
+  // Group-by task which collects all the groups in one table
+  private static abstract class GBTaskAllGroups<E extends GBTaskAllGroups<E>> extends GBTask<E> {
+
+    GBTaskAllGroups(int[] gbCols, byte[] gbColsTypes, AGG[] aggs, boolean hasMedian) {
+      super(gbCols, gbColsTypes, aggs, hasMedian);
+    }
+
     abstract IcedHashSet<G> getGroups();
-    
-  } 
+
+  }
   
   // --------------------------------------------------------------------------
   // Main worker MRTask.  Makes 1 pass over the data, and accumulates both all
@@ -620,7 +771,7 @@ public class AstGroup extends AstPrimitive {
   // This version merges discovered groups into a per-node aggregates map - it
   // more memory efficient but it seems to suffer from a race condition 
   // (bug PUBDEV-6319).
-  private static class GBTaskAggsPerNode extends GBTask<GBTaskAggsPerNode> {
+  private static class GBTaskAggsPerNode extends GBTaskAllGroups<GBTaskAggsPerNode> {
     final IcedHashSet<G> _gss; // Shared per-node, common, racy
 
     GBTaskAggsPerNode(int[] gbCols, byte[] gbColsTypes, AGG[] aggs, boolean hasMedian) {
@@ -709,7 +860,7 @@ public class AstGroup extends AstPrimitive {
   // a node-global map of aggregates, it creates aggregates per chunk
   // and uses reduce to reduce results of map into a single aggregated.
   // Consumes more memory but doesn't suffer from bug PUBDEV-6319.
-  public static class GBTaskAggsPerMap extends GBTask<GBTaskAggsPerMap> {
+  public static class GBTaskAggsPerMap extends GBTaskAllGroups<GBTaskAggsPerMap> {
     IcedHashSet<G> _gss; // each map will have its own IcedHashMap
 
     GBTaskAggsPerMap(int[] gbCols, byte[] gbColsTypes, AGG[] aggs, boolean hasMedian) {
@@ -741,6 +892,369 @@ public class AstGroup extends AstPrimitive {
     }
   }
 
+  // --------------------------------------------------------------------------
+  // First pass of the shuffle-based grouping. Each map finds the groups of its
+  // Chunk and splits them into partitions by hash of the group key. The partial
+  // groups of each partition are left in the DKV on this node for the owner of
+  // the partition to pick up.
+  private static class ShuffleGroups extends GBTask<ShuffleGroups> {
+    final Key _shuffleKey;
+    final Key<Vec> _ownerKey;  // partition p is owned by the home node of Chunk p of this Vec
+    final int _nparts;
+    final long _budget;        // bytes of partial groups a node keeps in memory
+    long[] _present;           // bitset of the (chunk, partition) pairs with partial groups
+    private transient AtomicLong _inHeap;
+
+    ShuffleGroups(int[] gbCols, byte[] gbColsTypes, AGG[] aggs, Key shuffleKey, Key<Vec> ownerKey, int nparts, long budget) {
+      super(gbCols, gbColsTypes, aggs, false);
+      _shuffleKey = shuffleKey;
+      _ownerKey = ownerKey;
+      _nparts = nparts;
+      _budget = budget;
+    }
+
+    @Override
+    protected void setupLocal() {
+      _inHeap = new AtomicLong();
+    }
+
+    @Override
+    public void map(Chunk[] cs) {
+      // Groups found in this Chunk
+      IcedHashSet<G> gs = new IcedHashSet<>();
+      map(cs, gs);
+      G[] groups = gs.toArray(new G[gs.size()]);
+      int[] part = new int[groups.length];
+      int[] cnts = new int[_nparts];
+      for (int i = 0; i < groups.length; i++)
+        cnts[part[i] = partition(groups[i], _nparts)]++;
+      G[][] parts = new G[_nparts][];
+      for (int p = 0; p < _nparts; p++)
+        parts[p] = new G[cnts[p]];
+      Arrays.fill(cnts, 0);
+      for (int i = 0; i < groups.length; i++)
+        parts[part[i]][cnts[part[i]]++] = groups[i];
+
+      final int cidx = cs[0].cidx();
+      _present = new long[(int) (((long) cs[0].vec().nChunks() * _nparts + 63) >> 6)];
+      for (int p = 0; p < _nparts; p++) {
+        if (parts[p].length == 0) continue;
+        store(partialKey(_shuffleKey, cidx, p, H2O.SELF), new GroupPartial(parts[p]));
+        long bit = (long) cidx * _nparts + p;
+        _present[(int) (bit >> 6)] |= 1L << bit;
+      }
+    }
+
+    // Keeps only the serialized form of the partial groups, on disk if over the budget
+    private void store(Key k, GroupPartial gp) {
+      Value v = new Value(k, gp);
+      if (_inHeap.addAndGet(v._max) > _budget) {
+        try {
+          H2O.getPM().store(Value.ICE, v);
+        } catch (IOException e) {
+          throw new RuntimeException("Failed to spill groups to " + H2O.ICE_ROOT, e);
+        }
+        v.setDsk();
+        v.freeMem();
+        _inHeap.addAndGet(-v._max);
+      }
+      v.freePOJO();
+      DKV.put(k, v, _fs);
+    }
+
+    @Override
+    public void reduce(ShuffleGroups t) {
+      if (_present == null) _present = t._present;
+      else if (t._present != null)
+        for (int i = 0; i < _present.length; i++)
+          _present[i] |= t._present[i];
+    }
+  }
+
+  private static int partition(G g, int nparts) {
+    return g.hashCode() % nparts;
+  }
+
+  private static Key partialKey(Key shuffleKey, int cidx, int part, H2ONode home) {
+    return Key.make(shuffleKey + "_chunk" + cidx + "_part" + part, (byte) 1, Key.HIDDEN_USER_KEY, false, home);
+  }
+
+  // Partial groups of one Chunk falling into one partition
+  private static class GroupPartial extends Iced<GroupPartial> {
+    final G[] _groups;
+    GroupPartial(G[] groups) { _groups = groups; }
+  }
+
+  // Second pass of the shuffle-based grouping, run on all nodes. Every node
+  // merges the partial groups of the partitions it owns and writes each
+  // partition as a Chunk of the output. A partition is merged in memory (the
+  // partials are dropped from the DKV as soon as they are merged).
+  private static class MergeShuffledGroups extends MRTask<MergeShuffledGroups> {
+    final Key _shuffleKey;
+    final Vec _vec;             // any Vec of the grouped Frame
+    final byte[] _gbColsTypes;
+    final AGG[] _aggs;
+    final int _nparts;
+    final long[] _present;
+    final AppendableVec[] _avs; // output
+
+    MergeShuffledGroups(Key shuffleKey, Vec vec, byte[] gbColsTypes, AGG[] aggs, int nparts, long[] present, AppendableVec[] avs) {
+      _shuffleKey = shuffleKey;
+      _vec = vec;
+      _gbColsTypes = gbColsTypes;
+      _aggs = aggs;
+      _nparts = nparts;
+      _present = present;
+      _avs = avs;
+    }
+
+    @Override
+    protected void setupLocal() {
+      int nowned = 0;
+      int[] owned = new int[_nparts];
+      for (int p = 0; p < _nparts; p++)
+        if (Vec.chunkKey(_avs[0]._key, p).home())
+          owned[nowned++] = p;
+      if (nowned == 0)
+        return;
+      Futures fs = new Futures();
+      H2O.submitTask(new LocalMR(new MergePartitionFun(this, Arrays.copyOf(owned, nowned), fs), nowned)).join();
+      fs.blockForPending();
+    }
+
+    void mergePartition(int p, Futures fs) {
+      IcedHashSet<G> gss = new IcedHashSet<>();
+      final int nchunks = _vec.nChunks();
+      for (int c = 0; c < nchunks; c++) {
+        long bit = (long) c * _nparts + p;
+        if (_present == null || (_present[(int) (bit >> 6)] & (1L << bit)) == 0) continue;
+        Key k = partialKey(_shuffleKey, c, p, _vec.chunkKey(c).home_node());
+        GroupPartial gp = DKV.getGet(k);
+        DKV.remove(k, fs);
+        for (G rg : gp._groups) {
+          G lg;
+          if ((lg = gss.addIfAbsent(rg)) != null) {
+            for (int i = 0; i < _aggs.length; i++)
+              _aggs[i].atomic_op(lg._dss, lg._ns, i, rg._dss[i], rg._ns[i]);
+          }
+        }
+      }
+      NewChunk[] ncs = new NewChunk[_avs.length];
+      for (int i = 0; i < ncs.length; i++)
+        ncs[i] = new NewChunk(_avs[i], p);
+      for (G g : gss)
+        addRow(ncs, g, _gbColsTypes, _aggs, false);
+      for (NewChunk nc : ncs)
+        nc.close(fs);
+    }
+
+    @Override
+    public void reduce(MergeShuffledGroups t) {
+      for (int i = 0; i < _avs.length; i++)
+        _avs[i].reduce(t._avs[i]);
+    }
+  }
+
+  private static class MergePartitionFun extends MrFun<MergePartitionFun> {
+    private final transient MergeShuffledGroups _task;
+    private final transient int[] _parts;
+    private final transient Futures _fs;
+
+    MergePartitionFun(MergeShuffledGroups task, int[] parts, Futures fs) {
+      _task = task;
+      _parts = parts;
+      _fs = fs;
+    }
+
+    @Override
+    protected void map(int id) {
+      _task.mergePartition(_parts[id], _fs);
+    }
+  }
+
+  // --------------------------------------------------------------------------
+  // Group-by on one or two integer-valued columns. The group-by values of a row
+  // are packed in a long key: NA as 0, any other value v of column c as
+  // v-min_c+1, the columns mixed in radix span_c=max_c-min_c+2. The keys sort
+  // the same way as the groups (NA first).
+  private static class GBTaskLongKeys extends MRTask<GBTaskLongKeys> {
+    final int[] _gbCols;
+    final AGG[] _aggs;
+    final long[] _mins;
+    final long[] _spans;
+    LongGroupTable _table;
+
+    private GBTaskLongKeys(int[] gbCols, AGG[] aggs, long[] mins, long[] spans) {
+      _gbCols = gbCols;
+      _aggs = aggs;
+      _mins = mins;
+      _spans = spans;
+    }
+
+    // Task for the group-by columns, null if they are not integer-valued or the keys don't fit in a long
+    static GBTaskLongKeys make(Frame fr, int[] gbCols, AGG[] aggs) {
+      if (gbCols.length == 0 || gbCols.length > 2 || !H2O.getSysBoolProperty("rapids.groupby.long_keys", true))
+        return null;
+      long[] mins = new long[gbCols.length];
+      long[] spans = new long[gbCols.length];
+      double range = 1;
+      for (int c = 0; c < gbCols.length; c++) {
+        Vec vec = fr.vec(gbCols[c]);
+        if (!vec.isCategorical() && !((vec.isNumeric() || vec.isTime()) && vec.isInt()))
+          return null;
+        if (vec.naCnt() == vec.length())
+          return null;
+        range *= vec.max() - vec.min() + 2; // in double, the span of a column alone can overflow a long
+        if (range > (double) (1L << 62))
+          return null;
+        mins[c] = (long) vec.min();
+        spans[c] = (long) vec.max() - (long) vec.min() + 2;
+      }
+      return new GBTaskLongKeys(gbCols, aggs, mins, spans);
+    }
+
+    @Override
+    public void map(Chunk[] cs) {
+      // Groups found in this Chunk
+      _table = new LongGroupTable(_aggs);
+      for (int row = 0; row < cs[0]._len; row++) {
+        long key = 0;
+        for (int c = 0; c < _gbCols.length; c++) {
+          double d = cs[_gbCols[c]].atd(row);
+          key = key * _spans[c] + (Double.isNaN(d) ? 0 : (long) d - _mins[c] + 1);
+        }
+        int slot = _table.slot(key);
+        for (int a = 0; a < _aggs.length; a++) // Accumulate aggregate reductions
+          _table.op(slot, a, cs[_aggs[a]._col].atd(row));
+      }
+    }
+
+    @Override
+    public void reduce(GBTaskLongKeys t) {
+      if (_table == null || (t._table != null && t._table._size > _table._size)) {
+        LongGroupTable table = _table;
+        _table = t._table;
+        if (table != null) _table.merge(table);
+      } else if (t._table != null)
+        _table.merge(t._table);
+    }
+  }
+
+  // Groups keyed by a long. Open addressing with linear probing, the aggregate
+  // states are kept column-major: the state of aggregate a of the group in
+  // slot s starts at _dss[a][s*width_a], its row count is _ns[a][s].
+  static class LongGroupTable extends Iced<LongGroupTable> {
+    final AGG[] _aggs;
+    final int[] _widths;  // width of the state of each aggregate
+    long[] _keys;         // key+1 of each slot, 0 for an empty slot
+    double[][] _dss;
+    long[][] _ns;
+    int _size;
+    private transient double[][] _initVals;
+
+    LongGroupTable(AGG[] aggs) {
+      _aggs = aggs;
+      _widths = new int[aggs.length];
+      for (int a = 0; a < aggs.length; a++)
+        _widths[a] = aggs[a].initVal().length;
+      alloc(16);
+    }
+
+    private void alloc(int cap) {
+      _keys = MemoryManager.malloc8(cap);
+      _dss = new double[_aggs.length][];
+      _ns = new long[_aggs.length][];
+      for (int a = 0; a < _aggs.length; a++) {
+        _dss[a] = MemoryManager.malloc8d(cap * _widths[a]);
+        _ns[a] = MemoryManager.malloc8(cap);
+      }
+    }
+
+    private static int hash(long key, int mask) {
+      long h = key * 0x9E3779B97F4A7C15L;
+      return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+    // Slot of the group, -1 if there is no such group
+    int find(long key) {
+      final int mask = _keys.length - 1;
+      for (int s = hash(key, mask); _keys[s] != 0; s = (s + 1) & mask)
+        if (_keys[s] == key + 1)
+          return s;
+      return -1;
+    }
+
+    // Slot of the group, the group is added if not present
+    int slot(long key) {
+      int mask = _keys.length - 1;
+      int s = hash(key, mask);
+      for (; _keys[s] != 0; s = (s + 1) & mask)
+        if (_keys[s] == key + 1)
+          return s;
+      if (((_size + 1) << 2) > 3 * _keys.length) { // keep the load under 3/4
+        resize();
+        return slot(key);
+      }
+      _keys[s] = key + 1;
+      _size++;
+      if (_initVals == null) {
+        _initVals = new double[_aggs.length][];
+        for (int a = 0; a < _aggs.length; a++)
+          _initVals[a] = _aggs[a].initVal();
+      }
+      for (int a = 0; a < _aggs.length; a++)
+        System.arraycopy(_initVals[a], 0, _dss[a], s * _widths[a], _widths[a]);
+      return s;
+    }
+
+    private void resize() {
+      final long[] keys = _keys;
+      final double[][] dss = _dss;
+      final long[][] ns = _ns;
+      alloc(keys.length << 1);
+      final int mask = _keys.length - 1;
+      for (int s0 = 0; s0 < keys.length; s0++) {
+        if (keys[s0] == 0) continue;
+        int s = hash(keys[s0] - 1, mask);
+        while (_keys[s] != 0) s = (s + 1) & mask;
+        _keys[s] = keys[s0];
+        for (int a = 0; a < _aggs.length; a++) {
+          System.arraycopy(dss[a], s0 * _widths[a], _dss[a], s * _widths[a], _widths[a]);
+          _ns[a][s] = ns[a][s0];
+        }
+      }
+    }
+
+    void op(int slot, int a, double d) {
+      _aggs[a].op(_dss[a], slot * _widths[a], _ns[a], slot, d);
+    }
+
+    // Merge the groups of another table into this one
+    void merge(LongGroupTable t) {
+      for (int s0 = 0; s0 < t._keys.length; s0++) {
+        if (t._keys[s0] == 0) continue;
+        int s = slot(t._keys[s0] - 1);
+        for (int a = 0; a < _aggs.length; a++) {
+          _aggs[a]._fcn.atomic_op(_dss[a], s * _widths[a], t._dss[a], s0 * _widths[a], _widths[a]);
+          _ns[a][s] += t._ns[a][s0];
+        }
+      }
+    }
+
+    double result(int slot, int a) {
+      return _aggs[a]._fcn.postPass(_dss[a], slot * _widths[a], _widths[a], _ns[a][slot]);
+    }
+
+    long[] sortedKeys() {
+      long[] keys = new long[_size];
+      int i = 0;
+      for (long k : _keys)
+        if (k != 0) keys[i++] = k - 1;
+      Arrays.sort(keys);
+      return keys;
+    }
+  }
+
   public static class MedianResult extends Iced {
     int[] _medianCols;
     double[] _medians;
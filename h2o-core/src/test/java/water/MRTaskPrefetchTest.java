@@ -0,0 +1,85 @@
+package water;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+import water.fvec.Chunk;
+import water.fvec.Frame;
+import water.fvec.Vec;
+
+import java.io.IOException;
+
+import static org.junit.Assert.*;
+
+public class MRTaskPrefetchTest extends TestUtil {
+
+  @BeforeClass
+  public static void setup() { stall_till_cloudsize(1); }
+
+  private static class Sum extends MRTask<Sum> {
+    double _sum;
+    @Override public void map(Chunk c) {
+      for (int i = 0; i < c._len; i++)
+        _sum += c.atd(i);
+    }
+    @Override public void reduce(Sum mrt) { _sum += mrt._sum; }
+  }
+
+  @Test
+  public void testMapOverSwappedChunks() throws IOException {
+    final long len = 100000;
+    Vec vec = makeSwappedSequence(len);
+    try {
+      final double expected = len * (len - 1) / 2.0;
+      long prefetched = MRTask.prefetchedChunks();
+      assertEquals(expected, new Sum().doAll(vec)._sum, 0);
+      assertTrue("Swapped chunks are read ahead", MRTask.prefetchedChunks() > prefetched);
+
+      swapOut(vec);
+      prefetched = MRTask.prefetchedChunks();
+      assertEquals(expected, new Sum().doAll(new byte[0], new Frame(vec), true)._sum, 0);
+      assertTrue("Swapped chunks are read ahead", MRTask.prefetchedChunks() > prefetched);
+    } finally {
+      vec.remove();
+    }
+  }
+
+  @Test
+  public void testNoReadAheadWithoutCacheHeadroom() throws IOException {
+    final long len = 100000;
+    Vec vec = makeSwappedSequence(len);
+    long oldMax = MemoryManager.setReadAheadMax(0);
+    try {
+      assertFalse(MemoryManager.hasCacheHeadroom(1));
+      long prefetched = MRTask.prefetchedChunks();
+      assertEquals(len * (len - 1) / 2.0, new Sum().doAll(vec)._sum, 0);
+      assertEquals("Read-ahead backs off", prefetched, MRTask.prefetchedChunks());
+    } finally {
+      MemoryManager.setReadAheadMax(oldMax);
+      vec.remove();
+    }
+  }
+
+  private static Vec makeSwappedSequence(long len) throws IOException {
+    Vec vec = Vec.makeConN(len, 50);
+    new MRTask() {
+      @Override public void map(Chunk c) {
+        for (int i = 0; i < c._len; i++)
+          c.set(i, c.start() + i);
+      }
+    }.doAll(vec);
+    swapOut(vec);
+    return vec;
+  }
+
+  // Push all chunks out of memory, they need to be loaded back from disk by the MRTask
+  private static void swapOut(Vec vec) throws IOException {
+    for (int cidx = 0; cidx < vec.nChunks(); cidx++) {
+      Value val = Value.STORE_get(vec.chunkKey(cidx));
+      val.storePersist();
+      val.freePOJO();
+      val.freeMem();
+    }
+    Cleaner.Histo.current(true); // Make the swapped chunks visible to the read-ahead
+  }
+
+}
@@ -0,0 +1,27 @@
+package water;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class NodeTopologyTest {
+
+  @Test
+  public void order() {
+    // nodes 0, 2, 4 share a host, nodes 1, 3 share another one, node 5 is alone
+    NodeTopology topo = new NodeTopology(null, new int[]{0, 1, 0, 1, 0, 2}, 3);
+    assertArrayEquals(new short[]{0, 2, 4, 1, 3, 5}, topo.order(0));
+    assertArrayEquals(new short[]{3, 1, 4, 0, 2, 5}, topo.order(3));
+    assertArrayEquals(new short[]{5, 0, 2, 4, 1, 3}, topo.order(5));
+  }
+
+  @Test
+  public void split() {
+    NodeTopology topo = new NodeTopology(null, new int[]{0, 0, 0, 1, 1, 1, 1, 1}, 2);
+    short[] order = topo.order(0);
+    assertEquals(3, topo.split(order, 0, 8)); // group boundary instead of the mid-point
+    assertEquals(5, topo.split(order, 3, 8)); // single group, plain mid-point
+    assertEquals(4, topo.split(new short[]{0, 1, 2}, 0, 8)); // different cloud
+  }
+
+}
@@ -0,0 +1,167 @@
+package water;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import water.fvec.Chunk;
+import water.fvec.Vec;
+import water.runner.CloudSize;
+import water.runner.H2ORunner;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+@RunWith(H2ORunner.class)
+@CloudSize(1)
+public class OffHeapCacheTest {
+
+  private long _offHeapMax;
+
+  @Before
+  public void enableOffHeap() {
+    _offHeapMax = MemoryManager.setOffHeapMax(1 << 24);
+  }
+
+  @After
+  public void restoreOffHeap() {
+    MemoryManager.setOffHeapMax(_offHeapMax);
+  }
+
+  @Test
+  public void testParkAndReload() {
+    Scope.enter();
+    try {
+      double[] vals = randomValues(1000);
+      Vec v = Scope.track(Vec.makeVec(vals, Vec.newKey()));
+      Value val = H2O.STORE.get(v.chunkKey(0));
+      byte[] mem = val.memOrLoad().clone();
+      long used = MemoryManager.offHeapUsed();
+
+      assertTrue(val.storeOffHeap());
+      assertTrue(val.isOffHeap());
+      assertEquals(used + mem.length, MemoryManager.offHeapUsed());
+      assertTrue(val.storeOffHeap()); // parking twice doesn't allocate again
+      assertEquals(used + mem.length, MemoryManager.offHeapUsed());
+
+      // Drop the heap copies the same way the Cleaner does
+      val.freeMem();
+      val.freePOJO();
+      assertNull(val.rawMem());
+      assertNull(val.rawPOJO());
+      assertFalse(val.isEmpty());
+
+      assertArrayEquals(mem, val.memOrLoad());
+      Chunk c = val.get();
+      for (int i = 0; i < vals.length; i++)
+        assertEquals(vals[i], c.atd(i), 0);
+      assertEquals(used + mem.length, MemoryManager.offHeapUsed()); // copy stays valid until removed
+
+      v.remove();
+      assertEquals(used, MemoryManager.offHeapUsed());
+    } finally {
+      Scope.exit();
+    }
+  }
+
+  @Test
+  public void testRemoveReleasesOffHeap() {
+    Scope.enter();
+    try {
+      Vec v = Scope.track(Vec.makeVec(randomValues(1000), Vec.newKey()));
+      long used = MemoryManager.offHeapUsed();
+      Key k = v.chunkKey(0);
+
+      assertTrue(H2O.STORE.get(k).storeOffHeap());
+      assertTrue(MemoryManager.offHeapUsed() > used);
+      DKV.remove(k);
+      assertEquals(used, MemoryManager.offHeapUsed());
+    } finally {
+      Scope.exit();
+    }
+  }
+
+  @Test
+  public void testReplaceReleasesOffHeap() {
+    Scope.enter();
+    try {
+      Vec v = Scope.track(Vec.makeVec(randomValues(1000), Vec.newKey()));
+      long used = MemoryManager.offHeapUsed();
+      Key k = v.chunkKey(0);
+      Value val = H2O.STORE.get(k);
+
+      assertTrue(val.storeOffHeap());
+      DKV.put(k, new Value(k, val.memOrLoad().clone()));
+      assertEquals(used, MemoryManager.offHeapUsed());
+      assertFalse(val.isOffHeap());
+    } finally {
+      Scope.exit();
+    }
+  }
+
+  @Test
+  public void testRawRemoveReleasesOffHeap() {
+    Scope.enter();
+    try {
+      Vec v = Scope.track(Vec.makeVec(randomValues(1000), Vec.newKey()));
+      long used = MemoryManager.offHeapUsed();
+      Key k = v.chunkKey(0);
+
+      assertTrue(H2O.STORE.get(k).storeOffHeap());
+      H2O.raw_remove(k);
+      assertEquals(used, MemoryManager.offHeapUsed());
+    } finally {
+      Scope.exit();
+    }
+  }
+
+  @Test
+  public void testDroppedValueReleasesOffHeap() {
+    // H2O.raw_clear releases the copies of the dropped Values the same way - exercised on a Value outside of the K/V
+    // store, clearing the store would wipe the keys of the other tests running in this JVM
+    long used = MemoryManager.offHeapUsed();
+    byte[] mem = new byte[1000];
+    new Random(42).nextBytes(mem);
+    Value val = new Value(Key.make(), mem);
+
+    assertTrue(val.storeOffHeap());
+    assertEquals(used + mem.length, MemoryManager.offHeapUsed());
+    val.freeOffHeap();
+    assertEquals(used, MemoryManager.offHeapUsed());
+    assertFalse(val.isOffHeap());
+    val.freeOffHeap(); // releasing twice doesn't release the budget twice
+    assertEquals(used, MemoryManager.offHeapUsed());
+    assertArrayEquals(mem, val.memOrLoad());
+  }
+
+  @Test
+  public void testBudgetExhausted() {
+    Scope.enter();
+    try {
+      Vec v = Scope.track(Vec.makeVec(randomValues(1000), Vec.newKey()));
+      long used = MemoryManager.offHeapUsed();
+      Value val = H2O.STORE.get(v.chunkKey(0));
+      MemoryManager.setOffHeapMax(used + val._max - 1);
+
+      assertFalse(val.storeOffHeap());
+      assertFalse(val.isOffHeap());
+      assertEquals(used, MemoryManager.offHeapUsed());
+
+      MemoryManager.setOffHeapMax(used + val._max);
+      assertTrue(val.storeOffHeap());
+      assertEquals(used + val._max, MemoryManager.offHeapUsed());
+    } finally {
+      Scope.exit();
+    }
+  }
+
+  private static double[] randomValues(int n) {
+    Random r = new Random(42);
+    double[] vals = new double[n];
+    for (int i = 0; i < n; i++)
+      vals[i] = r.nextDouble();
+    return vals;
+  }
+
+}
@@ -0,0 +1,169 @@
+package water.fvec;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+import water.DKV;
+import water.Key;
+import water.Scope;
+import water.TestUtil;
+import water.exceptions.H2OIllegalArgumentException;
+
+import static org.junit.Assert.*;
+
+public class FrameAppenderTest extends TestUtil {
+
+  @BeforeClass
+  public static void setup() { stall_till_cloudsize(1); }
+
+  @Test
+  public void testAppend() {
+    Scope.enter();
+    try {
+      Frame target = new TestFrameBuilder()
+              .withColNames("num", "cat", "str")
+              .withVecTypes(Vec.T_NUM, Vec.T_CAT, Vec.T_STR)
+              .withDataForCol(0, ard(1, 2, Double.NaN, 4, 5, 6))
+              .withDataForCol(1, ar("b", "a", "b", null, "a", "a"))
+              .withDataForCol(2, ar("s1", "s2", "s3", "s4", "s5", "s6"))
+              .withChunkLayout(4, 2)
+              .build();
+      Frame batch = new TestFrameBuilder()
+              .withColNames("num", "cat", "str")
+              .withVecTypes(Vec.T_NUM, Vec.T_CAT, Vec.T_STR)
+              .withDataForCol(0, ard(7.5, -1, 3))
+              .withDataForCol(1, ar("c", "b", "a"))
+              .withDataForCol(2, ar("s7", "s8", null))
+              .withChunkLayout(1, 2)
+              .build();
+      final Vec num = target.vec(0);
+      assertEquals(3.6, num.mean(), 1e-10); // make rollups available for merging
+
+      Frame result = new FrameAppender(target, batch).append(null);
+      Frame fr = DKV.getGet(target._key);
+      assertSame(result, target);
+      assertEquals(9, fr.numRows());
+      assertEquals(4, fr.anyVec().nChunks());
+      assertEquals(num._key, fr.vec(0)._key); // appended in place
+
+      assertArrayEquals(new String[]{"a", "b", "c"}, fr.vec(1).domain());
+      String[] cats = {"b", "a", "b", null, "a", "a", "c", "b", "a"};
+      String[] strs = {"s1", "s2", "s3", "s4", "s5", "s6", "s7", "s8", null};
+      double[] nums = {1, 2, Double.NaN, 4, 5, 6, 7.5, -1, 3};
+      for (int i = 0; i < 9; i++) {
+        assertEquals(nums[i], fr.vec(0).at(i), 0);
+        assertEquals(cats[i], fr.vec(1).isNA(i) ? null : fr.vec(1).domain()[(int) fr.vec(1).at8(i)]);
+        assertEquals(strs[i], fr.vec(2).isNA(i) ? null : fr.vec(2).atStr(new water.parser.BufferedString(), i).toString());
+      }
+
+      // merged rollups are the same as the rollups computed from scratch
+      Vec v = fr.vec(0);
+      assertNotNull(DKV.get(v.rollupStatsKey())); // were not dropped
+      RollupStats merged = RollupStats.get(v);
+      DKV.remove(v.rollupStatsKey());
+      RollupStats computed = RollupStats.get(v);
+      assertNotSame(merged, computed);
+      assertEquals(computed._mean, merged._mean, 1e-10);
+      assertEquals(computed._sigma, merged._sigma, 1e-10);
+      assertEquals(computed._naCnt, merged._naCnt);
+      assertEquals(computed._rows, merged._rows);
+      assertEquals(computed._nzCnt, merged._nzCnt);
+      assertEquals(computed._isInt, merged._isInt);
+      assertEquals(computed._checksum, merged._checksum);
+      assertArrayEquals(computed._mins, merged._mins, 0);
+      assertArrayEquals(computed._maxs, merged._maxs, 0);
+      assertEquals(1, fr.vec(1).naCnt());
+    } finally {
+      Scope.exit();
+    }
+  }
+
+  @Test(expected = H2OIllegalArgumentException.class)
+  public void testAppendIncompatible() {
+    Scope.enter();
+    try {
+      Frame target = new TestFrameBuilder()
+              .withColNames("a")
+              .withVecTypes(Vec.T_NUM)
+              .withDataForCol(0, ard(1, 2))
+              .build();
+      Frame batch = new TestFrameBuilder()
+              .withColNames("a")
+              .withVecTypes(Vec.T_STR)
+              .withDataForCol(0, ar("x"))
+              .build();
+      new FrameAppender(target, batch).append(null);
+    } finally {
+      Scope.exit();
+    }
+  }
+
+  @Test
+  public void testAppendRemapsCategoricals() {
+    Scope.enter();
+    try {
+      Frame target = new TestFrameBuilder()
+              .withColNames("cat")
+              .withVecTypes(Vec.T_CAT)
+              .withDataForCol(0, ar("c", "b", null, "c"))
+              .withChunkLayout(2, 2)
+              .build();
+      // different order of the shared levels and new levels on both sides of them
+      Frame batch = new TestFrameBuilder()
+              .withColNames("cat")
+              .withVecTypes(Vec.T_CAT)
+              .withDataForCol(0, ar("d", "a", "c", null, "b", "a"))
+              .withChunkLayout(4, 2)
+              .build();
+      assertArrayEquals(new String[]{"b", "c"}, target.vec(0).domain());
+      assertArrayEquals(new String[]{"a", "b", "c", "d"}, batch.vec(0).domain());
+      assertEquals(1, target.vec(0).naCnt());
+
+      new FrameAppender(target, batch).append(null);
+      Frame fr = DKV.getGet(target._key);
+      Vec cat = fr.vec(0);
+      assertArrayEquals("Existing levels keep their codes", new String[]{"b", "c", "a", "d"}, cat.domain());
+      String[] expected = {"c", "b", null, "c", "d", "a", "c", null, "b", "a"};
+      assertEquals(expected.length, fr.numRows());
+      for (int i = 0; i < expected.length; i++)
+        assertEquals(expected[i], cat.isNA(i) ? null : cat.domain()[(int) cat.at8(i)]);
+      assertEquals(2, cat.naCnt()); // rollups were recomputed
+      assertEquals(3, cat.max(), 0);
+    } finally {
+      Scope.exit();
+    }
+  }
+
+  @Test
+  public void testAppendToSharedVecsIsRefused() {
+    Scope.enter();
+    try {
+      Frame target = new TestFrameBuilder()
+              .withColNames("a", "b")
+              .withVecTypes(Vec.T_NUM, Vec.T_NUM)
+              .withDataForCol(0, ard(1, 2))
+              .withDataForCol(1, ard(3, 4))
+              .build();
+      Frame other = new Frame(Key.<Frame>make(), new String[]{"x"}, new Vec[]{target.vec(1)});
+      DKV.put(other);
+      Scope.track_generic(other);
+      Frame batch = new TestFrameBuilder()
+              .withColNames("a", "b")
+              .withVecTypes(Vec.T_NUM, Vec.T_NUM)
+              .withDataForCol(0, ard(5))
+              .withDataForCol(1, ard(6))
+              .build();
+      try {
+        new FrameAppender(target, batch).append(null);
+        fail("Expected the append to be refused");
+      } catch (H2OIllegalArgumentException e) {
+        assertTrue(e.getMessage(), e.getMessage().contains("column 'b' is shared with Frame " + other._key));
+      }
+      assertEquals(2, DKV.<Frame>getGet(target._key).numRows());
+      assertEquals(2, other.numRows());
+      assertNull("Target is not left locked", DKV.<Frame>getGet(target._key)._lockers);
+    } finally {
+      Scope.exit();
+    }
+  }
+
+}
@@ -0,0 +1,56 @@
+package water.fvec;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+import water.Scope;
+import water.TestUtil;
+
+import static org.junit.Assert.*;
+
+public class RollupStatsChunkCacheTest extends TestUtil {
+
+  @BeforeClass
+  public static void setup() { stall_till_cloudsize(1); }
+
+  @Test
+  public void testOnlyModifiedChunksAreRescanned() {
+    Scope.enter();
+    try {
+      Frame fr = new TestFrameBuilder()
+              .withColNames("x")
+              .withVecTypes(Vec.T_NUM)
+              .withDataForCol(0, ard(1, 2, 3, 4, 5, 6, 7, 8))
+              .withChunkLayout(2, 2, 2, 2)
+              .build();
+      Vec v = fr.vec(0);
+      assertEquals(4.5, v.mean(), 1e-10);
+      assertNotNull(v.bins());
+
+      RollupStats.ChunkSummary[] summaries = new RollupStats.ChunkSummary[v.nChunks()];
+      for (int i = 0; i < summaries.length; i++) {
+        summaries[i] = v.chunkForChunkIdx(i)._summary;
+        assertNotNull(summaries[i]);
+      }
+
+      try (Vec.Writer w = v.open()) {
+        w.set(3, 20);
+      }
+      assertEquals(6.5, v.mean(), 1e-10);
+      assertEquals(20, v.max(), 0);
+      assertEquals(1, v.min(), 0);
+      Vec copy = Scope.track(v.makeCopy());
+      assertArrayEquals(copy.bins(), v.bins());
+
+      // untouched Chunks kept their rollups, the modified Chunk was rescanned
+      for (int i = 0; i < summaries.length; i++) {
+        if (i == 1)
+          assertNotSame(summaries[i], v.chunkForChunkIdx(i)._summary);
+        else
+          assertSame(summaries[i], v.chunkForChunkIdx(i)._summary);
+      }
+    } finally {
+      Scope.exit();
+    }
+  }
+
+}
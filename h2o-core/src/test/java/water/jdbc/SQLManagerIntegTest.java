@@ -16,6 +16,7 @@ import java.sql.DriverManager;
 import java.sql.Statement;
 
 import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
 
 public class SQLManagerIntegTest extends TestUtil {
 
@@ -94,4 +95,37 @@ public class SQLManagerIntegTest extends TestUtil {
     }
   }
 
+  @Test
+  public void importSqlTablePartitioned() throws Exception {
+    Scope.enter();
+    try (Connection conn = DriverManager.getConnection(connectionString);
+         Statement stmt = conn.createStatement()) {
+      stmt.executeUpdate("CREATE TABLE TestPartitions (ID INT, DAY DATE, VAL DOUBLE)");
+      for (int i = 0; i < 100; i++) {
+        stmt.executeUpdate("INSERT INTO TestPartitions VALUES (" + (i % 10 == 0 ? "NULL" : String.valueOf(i * 7)) + ", " +
+                "DATE('2020-01-" + String.format("%02d", 1 + i / 4) + "'), " + (i / 2.0) + ")");
+      }
+
+      for (String partitionColumn : new String[]{null, "DAY"}) {
+        Job<Frame> j = SQLManager.importSqlTable(
+            connectionString, "TestPartitions", "", "", "", "*",
+            null, null,
+            SqlFetchMode.PARTITIONED, 4, partitionColumn
+        );
+        Frame fr = Scope.track(j.get());
+
+        assertArrayEquals(new String[]{"ID", "DAY", "VAL"}, fr._names);
+        assertEquals(4, fr.anyVec().nChunks());
+        assertEquals(100, fr.numRows());
+        assertEquals(10, fr.vec("ID").naCnt());
+        double sum = 0;
+        for (long r = 0; r < fr.numRows(); r++)
+          sum += fr.vec("VAL").at(r);
+        assertEquals(99 * 100 / 4.0, sum, 0);
+      }
+    } finally {
+      Scope.exit();
+    }
+  }
+
 }
@@ -133,4 +133,24 @@ public class SQLManagerTest {
     Assert.assertEquals("SELECT * FROM mytable LIMIT 1310 OFFSET 0",
             SQLManager.buildSelectChunkSql("", "mytable", 0, 1310, "*", null));
   }
+
+  @Test
+  public void testBuildSelectPartitionSql() {
+    Assert.assertEquals("SELECT * FROM mytable",
+            SQLManager.buildSelectPartitionSql("mytable", "*", "id", 0, 1));
+    Assert.assertEquals("SELECT * FROM mytable WHERE id < ? OR id IS NULL",
+            SQLManager.buildSelectPartitionSql("mytable", "*", "id", 0, 3));
+    Assert.assertEquals("SELECT * FROM mytable WHERE id >= ? AND id < ?",
+            SQLManager.buildSelectPartitionSql("mytable", "*", "id", 1, 3));
+    Assert.assertEquals("SELECT * FROM mytable WHERE id >= ?",
+            SQLManager.buildSelectPartitionSql("mytable", "*", "id", 2, 3));
+  }
+
+  @Test
+  public void testSplitPartitionRange() {
+    Assert.assertArrayEquals(new long[]{0, 25, 50, 75, 99}, SQLManager.PartitionRange.split(0, 99, 4));
+    // never more partitions than keys
+    Assert.assertArrayEquals(new long[]{-1, 0, 1, 1}, SQLManager.PartitionRange.split(-1, 1, 10));
+    Assert.assertArrayEquals(new long[]{7, 7}, SQLManager.PartitionRange.split(7, 7, 10));
+  }
 }
@@ -0,0 +1,100 @@
+package water.network;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.ByteChannel;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class CompressedSocketChannelTest {
+
+  @Test
+  public void roundTrip() throws IOException {
+    byte[] compressible = new byte[100000];
+    for (int i = 0; i < compressible.length; i++)
+      compressible[i] = (byte) (i % 7);
+    byte[] random = new byte[20000];
+    new Random(42).nextBytes(random);
+    byte[] small = new byte[]{1, 2, 3};
+
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    CompressedSocketChannel writer = new CompressedSocketChannel(new StreamChannel(null, Channels.newChannel(out)), 1024);
+    writer.write(ByteBuffer.wrap(compressible));
+    writer.write(ByteBuffer.wrap(random));
+    writer.write(ByteBuffer.wrap(small));
+    byte[] sent = out.toByteArray();
+    assertTrue(sent.length < compressible.length + random.length);
+
+    // read the data back in small pieces followed by a raw byte right after the last frame
+    byte[] stream = new byte[sent.length + 1];
+    System.arraycopy(sent, 0, stream, 0, sent.length);
+    stream[sent.length] = (byte) 0xcd;
+    ByteArrayInputStream in = new ByteArrayInputStream(stream);
+    CompressedSocketChannel reader = new CompressedSocketChannel(new StreamChannel(Channels.newChannel(in), null), 1024);
+    ByteArrayOutputStream received = new ByteArrayOutputStream();
+    ByteBuffer bb = ByteBuffer.allocate(777);
+    int expected = compressible.length + random.length + small.length;
+    while (received.size() < expected) {
+      bb.clear();
+      int n = reader.read(bb);
+      assertTrue(n > 0);
+      received.write(bb.array(), 0, n);
+    }
+    byte[] data = received.toByteArray();
+    assertArrayEquals(compressible, Arrays.copyOfRange(data, 0, compressible.length));
+    assertArrayEquals(random, Arrays.copyOfRange(data, compressible.length, compressible.length + random.length));
+    assertArrayEquals(small, Arrays.copyOfRange(data, compressible.length + random.length, expected));
+    assertEquals(0xcd, in.read()); // frames are not read past their end
+    assertEquals(-1, reader.read(bb));
+  }
+
+  @Test(timeout = 10000)
+  public void truncatedCompressedFrame() throws IOException {
+    byte[] compressible = new byte[100000];
+    for (int i = 0; i < compressible.length; i++)
+      compressible[i] = (byte) (i % 7);
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    new CompressedSocketChannel(new StreamChannel(null, Channels.newChannel(out)), 1024).write(ByteBuffer.wrap(compressible));
+    ByteBuffer frame = ByteBuffer.wrap(out.toByteArray()).order(ByteOrder.nativeOrder());
+    assertEquals(1, frame.get(0)); // deflated
+
+    // keep only half of the payload and fix up its length in the header
+    int payloadLen = frame.getInt(5) / 2;
+    frame.putInt(5, payloadLen);
+    byte[] stream = Arrays.copyOf(frame.array(), 9 + payloadLen);
+    CompressedSocketChannel reader = new CompressedSocketChannel(
+            new StreamChannel(Channels.newChannel(new ByteArrayInputStream(stream)), null), 1024);
+    try {
+      reader.read(ByteBuffer.allocate(compressible.length));
+      fail("Truncated frame should not be accepted");
+    } catch (IOException e) {
+      assertTrue(e.getMessage(), e.getMessage().startsWith("Corrupted compressed frame"));
+    }
+  }
+
+  private static class StreamChannel implements ByteChannel {
+    private final ReadableByteChannel _in;
+    private final WritableByteChannel _out;
+
+    StreamChannel(ReadableByteChannel in, WritableByteChannel out) {
+      _in = in;
+      _out = out;
+    }
+
+    @Override public int read(ByteBuffer dst) throws IOException { return _in.read(dst); }
+    @Override public int write(ByteBuffer src) throws IOException { return _out.write(src); }
+    @Override public boolean isOpen() { return true; }
+    @Override public void close() {}
+  }
+
+}
@@ -0,0 +1,41 @@
+package water.parser;
+
+import org.junit.Test;
+import water.exceptions.H2OIllegalArgumentException;
+
+import static org.junit.Assert.*;
+
+public class ColumnStatsFilterTest {
+
+  @Test
+  public void parse() {
+    assertNull(ColumnStatsFilter.parse(null));
+    assertNull(ColumnStatsFilter.parse(new String[0]));
+    ColumnStatsFilter filter = ColumnStatsFilter.parse(new String[]{"0:1:10", "2::5", "3:-1:"});
+    assertTrue(filter.isFiltered(0));
+    assertFalse(filter.isFiltered(1));
+    assertTrue(filter.isFiltered(2));
+    assertTrue(filter.isFiltered(3));
+    assertEquals("1.0 <= C1 <= 10.0 AND -Infinity <= C3 <= 5.0 AND -1.0 <= C4 <= Infinity", filter.toString());
+  }
+
+  @Test(expected = H2OIllegalArgumentException.class)
+  public void parseInvalid() {
+    ColumnStatsFilter.parse(new String[]{"0:1"});
+  }
+
+  @Test
+  public void mightMatch() {
+    ColumnStatsFilter filter = ColumnStatsFilter.parse(new String[]{"0:1:10", "2::5"});
+    assertTrue(filter.mightMatch(0, 0, 1));
+    assertTrue(filter.mightMatch(0, 5, 6));
+    assertTrue(filter.mightMatch(0, 10, 20));
+    assertTrue(filter.mightMatch(0, -100, 100));
+    assertFalse(filter.mightMatch(0, -5, 0.5));
+    assertFalse(filter.mightMatch(0, 10.5, 11));
+    assertTrue(filter.mightMatch(1, -100, -50)); // not filtered
+    assertTrue(filter.mightMatch(2, -1e10, -1e9));
+    assertFalse(filter.mightMatch(2, 6, 7));
+  }
+
+}
@@ -0,0 +1,148 @@
+package water.persist;
+
+import org.junit.After;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import water.Key;
+import water.TestUtil;
+import water.Value;
+
+import java.io.File;
+import java.io.IOException;
+
+import static org.junit.Assert.*;
+
+public class PersistFSSegmentedTest extends TestUtil {
+
+  @Rule
+  public TemporaryFolder tmp = new TemporaryFolder();
+
+  private PersistFSSegmented p;
+
+  @BeforeClass
+  public static void setUp() {
+    stall_till_cloudsize(1);
+  }
+
+  @After
+  public void cleanUp() {
+    if (p != null)
+      p.cleanUp();
+  }
+
+  @Test
+  public void testStoreLoadDelete() throws IOException {
+    p = new PersistFSSegmented(tmp.getRoot(), 1000);
+    Value[] vals = new Value[10];
+    for (int i = 0; i < vals.length; i++) {
+      vals[i] = new Value(Key.make(), bytes(i, 300));
+      p.store(vals[i]);
+      vals[i].setDsk();
+    }
+    // 3 values per segment
+    assertEquals(4, p.segmentCount());
+    assertEquals(4, segmentFiles());
+    for (int i = 0; i < vals.length; i++)
+      assertArrayEquals(bytes(i, 300), p.load(vals[i]));
+
+    // deleting all values of a filled segment unmaps it and deletes its file
+    p.delete(vals[0]);
+    p.delete(vals[1]);
+    p.delete(vals[2]);
+    assertEquals(3, p.segmentCount());
+    assertEquals(3, segmentFiles());
+    for (int i = 3; i < vals.length; i++)
+      assertArrayEquals(bytes(i, 300), p.load(vals[i]));
+
+    p.cleanUp();
+    assertEquals(0, p.segmentCount());
+    assertEquals(0, segmentFiles());
+  }
+
+  @Test
+  public void testCompaction() throws IOException {
+    p = new PersistFSSegmented(tmp.getRoot(), 1000);
+    Value[] vals = new Value[6];
+    for (int i = 0; i < vals.length; i++) {
+      vals[i] = new Value(Key.make(), bytes(i, 300));
+      p.store(vals[i]);
+      vals[i].setDsk();
+    }
+    assertEquals(2, p.segmentCount());
+    // leave a single live value in each of the filled segments
+    p.delete(vals[0]);
+    p.delete(vals[1]);
+    p.delete(vals[3]);
+    p.delete(vals[4]);
+    assertEquals(1, p.sparseSegmentCount()); // the current segment is queued once replaced
+
+    // next store opens a new segment and compacts both sparse segments into it
+    Value extra = new Value(Key.make(), bytes(42, 300));
+    p.store(extra);
+    assertEquals(1, p.segmentCount());
+    assertEquals(1, segmentFiles());
+    assertEquals(0, p.sparseSegmentCount());
+
+    assertArrayEquals(bytes(2, 300), p.load(vals[2]));
+    assertArrayEquals(bytes(5, 300), p.load(vals[5]));
+    assertArrayEquals(bytes(42, 300), p.load(extra));
+  }
+
+  @Test
+  public void testCompactionThreshold() throws IOException {
+    p = new PersistFSSegmented(tmp.getRoot(), 1000);
+    Value[] vals = new Value[4];
+    for (int i = 0; i < vals.length; i++) {
+      vals[i] = new Value(Key.make(), bytes(i, 300));
+      p.store(vals[i]);
+      vals[i].setDsk();
+    }
+    assertEquals(2, p.segmentCount());
+    // 2/3 of the first segment are still live, stores don't touch it
+    p.delete(vals[0]);
+    assertEquals(0, p.sparseSegmentCount());
+    Value extra = new Value(Key.make(), bytes(42, 300));
+    p.store(extra);
+    assertEquals(2, p.segmentCount());
+
+    // dropping below the threshold queues it, the next store compacts it
+    p.delete(vals[1]);
+    assertEquals(1, p.sparseSegmentCount());
+    Value extra2 = new Value(Key.make(), bytes(43, 300));
+    p.store(extra2);
+    assertEquals(0, p.sparseSegmentCount());
+    assertEquals(2, p.segmentCount());
+    assertArrayEquals(bytes(2, 300), p.load(vals[2]));
+    assertArrayEquals(bytes(3, 300), p.load(vals[3]));
+    assertArrayEquals(bytes(42, 300), p.load(extra));
+    assertArrayEquals(bytes(43, 300), p.load(extra2));
+  }
+
+  @Test
+  public void testLargeValueFallsBackToFile() throws IOException {
+    p = new PersistFSSegmented(tmp.getRoot(), 100);
+    Value v = new Value(Key.make(), bytes(7, 500));
+    p.store(v);
+    v.setDsk();
+    assertEquals(0, p.segmentCount());
+    assertTrue(p.getFile(v).exists());
+    assertArrayEquals(bytes(7, 500), p.load(v));
+    p.delete(v);
+    assertFalse(p.getFile(v).exists());
+  }
+
+  private int segmentFiles() {
+    String[] files = new File(p._dir, "swap_segments").list();
+    return files == null ? 0 : files.length;
+  }
+
+  private static byte[] bytes(int seed, int len) {
+    byte[] b = new byte[len];
+    for (int i = 0; i < len; i++)
+      b[i] = (byte) (seed * 31 + i);
+    return b;
+  }
+
+}
@@ -0,0 +1,63 @@
+package water.rapids;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import water.H2O;
+import water.H2ONode;
+import water.Scope;
+import water.TestUtil;
+import water.fvec.Frame;
+import water.fvec.TestFrameBuilder;
+import water.fvec.Vec;
+import water.runner.CloudSize;
+import water.runner.H2ORunner;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Shuffle-based group-by on a cloud where the partial groups of the Chunks are pulled by other nodes.
+ */
+@CloudSize(3)
+@RunWith(H2ORunner.class)
+public class GroupByMultiNodeTest extends TestUtil {
+
+  @Test
+  public void testShuffledGroupBy() {
+    Scope.enter();
+    String prefix = H2O.OptArgs.SYSTEM_PROP_PREFIX + "rapids.groupby.shuffle";
+    try {
+      Frame fr = new TestFrameBuilder()
+              .withName("gb_shuffle_multi_node")
+              .withColNames("k1", "k2", "v")
+              .withVecTypes(Vec.T_NUM, Vec.T_NUM, Vec.T_NUM)
+              .withRandomIntDataForCol(0, 10000, 0, 3000, 42)
+              .withRandomIntDataForCol(1, 10000, 0, 3, 43)
+              .withRandomDoubleDataForCol(2, 10000, 0, 100, 44)
+              .withChunkLayout(1000, 1000, 1000, 1000, 1000, 1000, 1000, 1000, 1000, 1000)
+              .build();
+      Set<H2ONode> homes = new HashSet<>();
+      for (int c = 0; c < fr.anyVec().nChunks(); c++)
+        homes.add(fr.anyVec().chunkKey(c).home_node());
+      assertTrue("Chunks are spread over multiple nodes", homes.size() > 1);
+
+      String aggs = " [0 1] nrow 2 \"all\" mean 2 \"all\" \"sdev\" 2 \"rm\" max 2 \"all\")";
+      Frame expected = Scope.track(Rapids.exec("(GB gb_shuffle_multi_node" + aggs).getFrame());
+      Frame shuffled = Scope.track(Rapids.exec("(GBshuffle gb_shuffle_multi_node" + aggs).getFrame());
+      assertArrayEquals(expected.names(), shuffled.names());
+      assertFrameEquals(expected, shuffled, 1e-10);
+
+      // partial groups spilled to ice_root are fetched by the owners too
+      System.setProperty(prefix + ".budget", "0");
+      Frame spilled = Scope.track(Rapids.exec("(GBshuffle gb_shuffle_multi_node" + aggs).getFrame());
+      assertFrameEquals(expected, spilled, 1e-10);
+    } finally {
+      System.clearProperty(prefix + ".budget");
+      Scope.exit();
+    }
+  }
+
+}
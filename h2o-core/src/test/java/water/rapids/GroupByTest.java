@@ -14,7 +14,10 @@ import water.runner.CloudSize;
 import water.runner.H2ORunner;
 import water.util.Log;
 
+import java.util.Random;
+
 import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
 @CloudSize(1)
@@ -427,4 +430,157 @@ public class GroupByTest extends TestUtil {
       expectedResFrame.remove();
     }
   }
+
+  @Test
+  public void testShuffledGroupBy() {
+    Scope.enter();
+    try {
+      Frame fr = new TestFrameBuilder()
+              .withColNames("k1", "k2", "v")
+              .withVecTypes(Vec.T_NUM, Vec.T_NUM, Vec.T_NUM)
+              .withRandomIntDataForCol(0, 1000, 0, 300, 42)
+              .withRandomIntDataForCol(1, 1000, 0, 3, 43)
+              .withRandomDoubleDataForCol(2, 1000, 0, 100, 44)
+              .withChunkLayout(300, 300, 400)
+              .build();
+      AstGroup.AGG[] aggs = new AstGroup.AGG[]{
+              new AstGroup.AGG(AstGroup.FCN.nrow, 2, AstGroup.NAHandling.ALL, 0),
+              new AstGroup.AGG(AstGroup.FCN.mean, 2, AstGroup.NAHandling.ALL, 0),
+              new AstGroup.AGG(AstGroup.FCN.sdev, 2, AstGroup.NAHandling.ALL, 0),
+              new AstGroup.AGG(AstGroup.FCN.max, 2, AstGroup.NAHandling.ALL, 0)
+      };
+      int[] gbCols = new int[]{0, 1};
+      Frame expected = Scope.track(new AstGroup().performGroupingWithAggregations(fr, gbCols, aggs).getFrame());
+
+      String prefix = H2O.OptArgs.SYSTEM_PROP_PREFIX + "rapids.groupby.shuffle";
+      try {
+        System.setProperty(prefix, "true");
+        System.setProperty(prefix + ".partitions", "7");
+        Frame shuffled = Scope.track(new AstGroup().performGroupingWithAggregations(fr, gbCols, aggs).getFrame());
+        assertFrameEquals(expected, shuffled, 1e-10);
+
+        System.setProperty(prefix + ".budget", "0"); // spill all partial groups
+        Frame spilled = Scope.track(new AstGroup().performGroupingWithAggregations(fr, gbCols, aggs).getFrame());
+        assertFrameEquals(expected, spilled, 1e-10);
+      } finally {
+        System.clearProperty(prefix);
+        System.clearProperty(prefix + ".partitions");
+        System.clearProperty(prefix + ".budget");
+      }
+    } finally {
+      Scope.exit();
+    }
+  }
+
+  @Test
+  public void testShuffledGroupByPerQuery() {
+    Scope.enter();
+    try {
+      Frame fr = new TestFrameBuilder()
+              .withName("gb_shuffle_per_query")
+              .withColNames("k1", "k2", "v")
+              .withVecTypes(Vec.T_NUM, Vec.T_NUM, Vec.T_NUM)
+              .withRandomIntDataForCol(0, 1000, 0, 300, 42)
+              .withRandomIntDataForCol(1, 1000, 0, 3, 43)
+              .withRandomDoubleDataForCol(2, 1000, 0, 100, 44)
+              .withChunkLayout(300, 300, 400)
+              .build();
+      Frame expected = Scope.track(Rapids.exec("(GB gb_shuffle_per_query [0 1] nrow 2 \"all\" mean 2 \"all\" \"sdev\" 2 \"rm\")").getFrame());
+      // GBshuffle doesn't need sys.ai.h2o.rapids.groupby.shuffle
+      Frame shuffled = Scope.track(Rapids.exec("(GBshuffle gb_shuffle_per_query [0 1] nrow 2 \"all\" mean 2 \"all\" \"sdev\" 2 \"rm\")").getFrame());
+      assertArrayEquals(expected.names(), shuffled.names());
+      assertFrameEquals(expected, shuffled, 1e-10);
+    } finally {
+      Scope.exit();
+    }
+  }
+
+  @Test
+  public void testLongKeysGroupBy() {
+    Scope.enter();
+    try {
+      Random rnd = new Random(42);
+      double[] k1 = new double[1000];
+      String[] k2 = new String[1000];
+      double[] v = new double[1000];
+      String[] c = new String[1000];
+      for (int i = 0; i < k1.length; i++) {
+        k1[i] = rnd.nextInt(10) == 0 ? Double.NaN : rnd.nextInt(300) - 100;
+        k2[i] = rnd.nextInt(10) == 0 ? null : "l" + rnd.nextInt(4);
+        v[i] = rnd.nextInt(10) == 0 ? Double.NaN : rnd.nextDouble() * 100;
+        c[i] = "c" + rnd.nextInt(5);
+      }
+      Frame fr = new TestFrameBuilder()
+              .withColNames("k1", "k2", "v", "c")
+              .withVecTypes(Vec.T_NUM, Vec.T_CAT, Vec.T_NUM, Vec.T_CAT)
+              .withDataForCol(0, k1)
+              .withDataForCol(1, k2)
+              .withDataForCol(2, v)
+              .withDataForCol(3, c)
+              .withChunkLayout(300, 300, 400)
+              .build();
+      AstGroup.AGG[] aggs = new AstGroup.AGG[]{
+              new AstGroup.AGG(AstGroup.FCN.nrow, 2, AstGroup.NAHandling.ALL, 0),
+              new AstGroup.AGG(AstGroup.FCN.mean, 2, AstGroup.NAHandling.RM, 0),
+              new AstGroup.AGG(AstGroup.FCN.sdev, 2, AstGroup.NAHandling.RM, 0),
+              new AstGroup.AGG(AstGroup.FCN.min, 2, AstGroup.NAHandling.IGNORE, 0),
+              new AstGroup.AGG(AstGroup.FCN.max, 2, AstGroup.NAHandling.ALL, 0),
+              new AstGroup.AGG(AstGroup.FCN.mode, 3, AstGroup.NAHandling.ALL, 5)
+      };
+      String prop = H2O.OptArgs.SYSTEM_PROP_PREFIX + "rapids.groupby.long_keys";
+      for (int[] gbCols : new int[][]{{0}, {1}, {0, 1}, {1, 0}}) {
+        Frame longKeys = Scope.track(new AstGroup().performGroupingWithAggregations(fr, gbCols, aggs).getFrame());
+        Frame expected;
+        try {
+          System.setProperty(prop, "false");
+          expected = Scope.track(new AstGroup().performGroupingWithAggregations(fr, gbCols, aggs).getFrame());
+        } finally {
+          System.clearProperty(prop);
+        }
+        assertFrameEquals(expected, longKeys, 1e-10);
+      }
+    } finally {
+      Scope.exit();
+    }
+  }
+
+  @Test
+  public void testLongKeysGroupByExtremeValues() {
+    Scope.enter();
+    try {
+      Frame fr = new TestFrameBuilder()
+              .withColNames("k1", "k2", "v")
+              .withVecTypes(Vec.T_NUM, Vec.T_NUM, Vec.T_NUM)
+              .withDataForCol(0, ard(Integer.MIN_VALUE, Integer.MAX_VALUE, 0, Double.NaN, Integer.MAX_VALUE, Integer.MIN_VALUE))
+              .withDataForCol(1, ard(-1e18, 1e18, 0, 1e18, Double.NaN, -1e18)) // span doesn't fit in a long
+              .withDataForCol(2, ard(1, 2, 3, 4, 5, 6))
+              .withChunkLayout(3, 3)
+              .build();
+      AstGroup.AGG[] aggs = new AstGroup.AGG[]{
+              new AstGroup.AGG(AstGroup.FCN.sum, 2, AstGroup.NAHandling.ALL, 0)
+      };
+      Frame res = Scope.track(new AstGroup().performGroupingWithAggregations(fr, new int[]{0}, aggs).getFrame());
+      assertEquals(4, res.numRows());
+      assertTrue(res.vec(0).isNA(0));
+      assertArrayEquals(ard(Double.NaN, Integer.MIN_VALUE, 0, Integer.MAX_VALUE), new double[]{
+              res.vec(0).at(0), res.vec(0).at(1), res.vec(0).at(2), res.vec(0).at(3)}, 0);
+      assertArrayEquals(ard(4, 7, 3, 7), new double[]{
+              res.vec(1).at(0), res.vec(1).at(1), res.vec(1).at(2), res.vec(1).at(3)}, 0);
+
+      String prop = H2O.OptArgs.SYSTEM_PROP_PREFIX + "rapids.groupby.long_keys";
+      for (int[] gbCols : new int[][]{{0}, {1}, {0, 1}, {1, 0}}) {
+        Frame longKeys = Scope.track(new AstGroup().performGroupingWithAggregations(fr, gbCols, aggs).getFrame());
+        Frame expected;
+        try {
+          System.setProperty(prop, "false");
+          expected = Scope.track(new AstGroup().performGroupingWithAggregations(fr, gbCols, aggs).getFrame());
+        } finally {
+          System.clearProperty(prop);
+        }
+        assertFrameEquals(expected, longKeys, 0);
+      }
+    } finally {
+      Scope.exit();
+    }
+  }
 }
@@ -12,6 +12,7 @@ import water.util.ArrayUtils;
 import java.io.IOException;
 import java.util.Random;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
 public class SortTest extends TestUtil {
@@ -73,6 +74,48 @@ public class SortTest extends TestUtil {
     }
   }
 
+  // Sort with the MSBs split into small runs spilled to ice_root and merged
+  @Test public void testExternalSort() {
+    // runs of 1000 rows, each spilled in a single block
+    long[] spilled = externalSort(1000, 0);
+    assertTrue("Large MSBs are sorted externally", spilled[0] > 0);
+    assertTrue(spilled[1] > 0);
+  }
+
+  @Test public void testExternalSortMultipleBlocksPerRun() {
+    // runs of 1000 rows, each spilled in blocks of 100 rows
+    long[] spilled = externalSort(1000, 100);
+    assertTrue("Large MSBs are sorted externally", spilled[0] > 0);
+    assertTrue("Runs are spilled in multiple blocks", spilled[1] >= spilled[0] / 100);
+  }
+
+  /** @return rows and blocks spilled by the sort */
+  private long[] externalSort(int runRows, int spillRows) {
+    Frame fr = null, res = null;
+    String runRowsProp = H2O.OptArgs.SYSTEM_PROP_PREFIX + "sort.run_rows";
+    String spillRowsProp = H2O.OptArgs.SYSTEM_PROP_PREFIX + "sort.spill_rows";
+    long rows = SingleThreadRadixOrder.spilledRows();
+    long blocks = SingleThreadRadixOrder.spilledBlocks();
+    try {
+      System.setProperty(runRowsProp, String.valueOf(runRows));
+      if (spillRows > 0)
+        System.setProperty(spillRowsProp, String.valueOf(spillRows));
+      fr = buildFrame(1000,10);
+      fr.insertVec(0,"row",fr.remove(2));
+      DKV.put(fr);
+      res = Merge.sort(fr,new int[]{1,2});
+      assertEquals(fr.numRows(), res.numRows());
+      res.add("row",res.remove(0));
+      new CheckSort().doAll(res);
+      return new long[]{SingleThreadRadixOrder.spilledRows() - rows, SingleThreadRadixOrder.spilledBlocks() - blocks};
+    } finally {
+      System.clearProperty(runRowsProp);
+      System.clearProperty(spillRowsProp);
+      if( fr  != null ) fr .delete();
+      if( res != null ) res.delete();
+    }
+  }
+
   // test our sorting with string columns implementation.  The string columns may have NAs.
   // Our sort results are compared with sorting done by R.
   @Test public void testSortWithStringsColumns() {
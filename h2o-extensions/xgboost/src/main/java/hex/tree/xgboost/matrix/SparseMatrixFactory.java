@@ -21,6 +21,7 @@ import static water.MemoryManager.*;
 /*
 - truly sparse matrix - no categoricals
 - collect all nonzeros column by column (in parallel), then stitch together into final data structures
+- only the non-zero elements of sparse chunks are visited (see ChunkCSR)
  */
 public class SparseMatrixFactory {
 
@@ -45,13 +46,16 @@ public class SparseMatrixFactory {
         DataInfo di, float[] resp, float[] weights, float[] offsets
     ) throws XGBoostError {
 
-        SparseMatrixDimensions sparseMatrixDimensions = calculateCSRMatrixDimensions(chunks, di, weight);
+        ChunkCSR chunkCSR = new ChunkCSR(chunks, weight != -1 ? chunks[weight] : null, di, chunks[0].len());
+        SparseMatrixDimensions sparseMatrixDimensions = chunkCSR.dimensions();
         SparseMatrix sparseMatrix = allocateCSRMatrix(sparseMatrixDimensions);
 
-        int actualRows = initializeFromChunks(
-            chunks, weight,
-            di, sparseMatrix._rowHeaders, sparseMatrix._sparseData, sparseMatrix._colIndices,
-            respIdx, resp, weights, offsetIdx, offsets);
+        int actualRows = chunkCSR.write(sparseMatrix, 0, 0);
+        int rwRow = 0;
+        for (int i = 0; i < chunks[0].len(); i++) {
+            rwRow = setResponseAndWeightAndOffset(chunks, respIdx, weight, offsetIdx, resp, weights, offsets, rwRow, i);
+        }
+        assert rwRow == actualRows;
         return toDMatrix(sparseMatrix, sparseMatrixDimensions, actualRows, di.fullN(), resp, weights, offsets).get();
     }
     
@@ -188,6 +192,115 @@ public class SparseMatrixFactory {
         public float get(float[][] dest) {
             return dest[_row][_col];
         }
+
+        static void set(long[][] dest, long pos, long val) {
+            dest[(int) (pos / SparseMatrix.MAX_DIM)][(int) (pos % SparseMatrix.MAX_DIM)] = val;
+        }
+
+        static void set(float[][] dest, long pos, float val) {
+            dest[(int) (pos / SparseMatrix.MAX_DIM)][(int) (pos % SparseMatrix.MAX_DIM)] = val;
+        }
+
+        static void set(int[][] dest, long pos, int val) {
+            dest[(int) (pos / SparseMatrix.MAX_DIM)][(int) (pos % SparseMatrix.MAX_DIM)] = val;
+        }
+    }
+
+    /**
+     * CSR layout of the rows of a single chunk. Chunks are column-major: the non-zero elements are collected column
+     * by column using {@link Chunk#nextNZ(int, boolean)} - for sparse chunks ({@link water.fvec.CXIChunk},
+     * {@link water.fvec.CXFChunk}) only the non-zeros are visited - and scattered directly into the final CSR arrays.
+     * Elements of each row are ordered by their column index, the same as if the chunk was walked row by row.
+     */
+    static final class ChunkCSR {
+        private final Chunk[] _feats; // categorical features first, numerical after
+        private final DataInfo _di;
+        private final int _len;
+        private final int[] _rowNonZeros; // number of elements in each row, -1 for rows with zero weight
+        final int _rows;
+        final long _nonZeros;
+
+        ChunkCSR(Chunk[] feats, Chunk weightChunk, DataInfo di, int len) {
+            _feats = feats;
+            _di = di;
+            _len = len;
+            _rowNonZeros = malloc4(len);
+            int rows = 0;
+            for (int r = 0; r < len; r++) {
+                // Rows with zero weights are going to be ignored
+                if (weightChunk != null && weightChunk.atd(r) == 0) {
+                    _rowNonZeros[r] = -1;
+                } else {
+                    _rowNonZeros[r] = di._cats;
+                    rows++;
+                }
+            }
+            long nonZeros = (long) rows * di._cats;
+            for (int j = 0; j < di._nums; j++) {
+                final Chunk c = feats[di._cats + j];
+                for (int r = c.nextNZ(-1, true); r < len; r = c.nextNZ(r, true)) {
+                    if (_rowNonZeros[r] >= 0 && (float) c.atd(r) != 0) {
+                        _rowNonZeros[r]++;
+                        nonZeros++;
+                    }
+                }
+            }
+            _rows = rows;
+            _nonZeros = nonZeros;
+        }
+
+        SparseMatrixDimensions dimensions() {
+            return new SparseMatrixDimensions(new int[]{(int) _nonZeros}, new int[]{_rows});
+        }
+
+        /**
+         * Writes the rows of the chunk into the matrix.
+         *
+         * @param matrix target matrix
+         * @param row index of the first row of the chunk in the matrix
+         * @param pos index of the first element of the chunk in the matrix
+         * @return number of rows written
+         */
+        int write(SparseMatrix matrix, int row, long pos) {
+            final long[] rowPos = malloc8(_len); // position of the next element of each row
+            for (int r = 0; r < _len; r++) {
+                if (_rowNonZeros[r] < 0) continue;
+                NestedArrayPointer.set(matrix._rowHeaders, row++, pos);
+                rowPos[r] = pos;
+                pos += _rowNonZeros[r];
+            }
+            NestedArrayPointer.set(matrix._rowHeaders, row, pos);
+            for (int j = 0; j < _di._cats; j++) {
+                final Chunk c = _feats[j];
+                for (int r = 0; r < _len; r++) {
+                    if (_rowNonZeros[r] < 0) continue;
+                    final int colIndex = c.isNA(r) ? _di.getCategoricalId(j, Float.NaN) : _di.getCategoricalId(j, c.at8(r));
+                    NestedArrayPointer.set(matrix._sparseData, rowPos[r], 1); //one-hot encoding
+                    NestedArrayPointer.set(matrix._colIndices, rowPos[r]++, colIndex);
+                }
+            }
+            final int numOffset = _di._catOffsets[_di._catOffsets.length - 1];
+            for (int j = 0; j < _di._nums; j++) {
+                final Chunk c = _feats[_di._cats + j];
+                for (int r = c.nextNZ(-1, true); r < _len; r = c.nextNZ(r, true)) {
+                    if (_rowNonZeros[r] < 0) continue;
+                    final float val = (float) c.atd(r);
+                    if (val != 0) {
+                        NestedArrayPointer.set(matrix._sparseData, rowPos[r], val);
+                        NestedArrayPointer.set(matrix._colIndices, rowPos[r]++, numOffset + j);
+                    }
+                }
+            }
+            return _rows;
+        }
+    }
+
+    private static Chunk[] featureChunks(Frame f, DataInfo di, int cidx) {
+        Chunk[] feats = new Chunk[di._cats + di._nums];
+        for (int i = 0; i < feats.length; i++) {
+            feats[i] = f.vec(i).chunkForChunkIdx(cidx);
+        }
+        return feats;
     }
 
     public static int initializeFromChunkIds(
@@ -245,85 +358,18 @@ public class SparseMatrixFactory {
             int chunk = _chunks[chunkIdx];
             long nonZeroCount = _dims._precedingNonZeroElementsCounts[chunkIdx];
             int rwRow = _dims._precedingRowCounts[chunkIdx];
-            NestedArrayPointer rowHeaderPointer = new NestedArrayPointer(rwRow);
-            NestedArrayPointer dataPointer = new NestedArrayPointer(nonZeroCount);
 
             Chunk weightChunk = _weightVec != null ? _weightVec.chunkForChunkIdx(chunk) : null;
             Chunk offsetChunk = _offsetsVec != null ? _offsetsVec.chunkForChunkIdx(chunk) : null;
             Chunk respChunk = _respVec.chunkForChunkIdx(chunk);
-            Chunk[] featChunks = new Chunk[_frame.vecs().length];
-            for (int i = 0; i < featChunks.length; i++) {
-                featChunks[i] = _frame.vecs()[i].chunkForChunkIdx(chunk);
-            }
-            for(int i = 0; i < respChunk._len; i++) {
-                if (weightChunk != null && weightChunk.atd(i) == 0) continue;
-                rowHeaderPointer.setAndIncrement(_matrix._rowHeaders, nonZeroCount);
-                _actualRows[chunkIdx]++;
-                for (int j = 0; j < _di._cats; j++) {
-                    dataPointer.set(_matrix._sparseData, 1);
-                    if (featChunks[j].isNA(i)) {
-                        dataPointer.set(_matrix._colIndices, _di.getCategoricalId(j, Float.NaN));
-                    } else {
-                        dataPointer.set(_matrix._colIndices, _di.getCategoricalId(j, featChunks[j].at8(i)));
-                    }
-                    dataPointer.increment();
-                    nonZeroCount++;
-                }
-                for (int j = 0; j < _di._nums; j++) {
-                    float val = (float) featChunks[_di._cats + j].atd(i);
-                    if (val != 0) {
-                        dataPointer.set(_matrix._sparseData, val);
-                        dataPointer.set(_matrix._colIndices, _di._catOffsets[_di._catOffsets.length - 1] + j);
-                        dataPointer.increment();
-                        nonZeroCount++;
-                    }
-                }
+            ChunkCSR chunkCSR = new ChunkCSR(featureChunks(_frame, _di, chunk), weightChunk, _di, respChunk._len);
+            _actualRows[chunkIdx] = chunkCSR.write(_matrix, rwRow, nonZeroCount);
+            for (int i = 0; i < respChunk._len; i++) {
                 rwRow = setResponseWeightAndOffset(weightChunk, offsetChunk, respChunk, _resp, _weights, _offsets, rwRow, i);
             }
-            rowHeaderPointer.set(_matrix._rowHeaders, nonZeroCount);
         }
     }
 
-    private static int initializeFromChunks(
-        Chunk[] chunks, int weight, DataInfo di, long[][] rowHeaders, float[][] data, int[][] colIndex, 
-        int respIdx, float[] resp, float[] weights, int offsetIdx, float[] offsets
-    ) {
-        int actualRows = 0;
-        int nonZeroCount = 0;
-        int rwRow = 0;
-
-        NestedArrayPointer rowHeaderPointer = new NestedArrayPointer();
-        NestedArrayPointer dataPointer = new NestedArrayPointer();
-
-        for (int i = 0; i < chunks[0].len(); i++) {
-            if (weight != -1 && chunks[weight].atd(i) == 0) continue;
-            actualRows++;
-            rowHeaderPointer.setAndIncrement(rowHeaders, nonZeroCount);
-            for (int j = 0; j < di._cats; j++) {
-                dataPointer.set(data, 1); //one-hot encoding
-                if (chunks[j].isNA(i)) {
-                    dataPointer.set(colIndex, di.getCategoricalId(j, Float.NaN));
-                } else {
-                    dataPointer.set(colIndex, di.getCategoricalId(j, chunks[j].at8(i)));
-                }
-                dataPointer.increment();
-                nonZeroCount++;
-            }
-            for (int j = 0; j < di._nums; j++) {
-                float val = (float) chunks[di._cats + j].atd(i);
-                if (val != 0) {
-                    dataPointer.set(data, val);
-                    dataPointer.set(colIndex, di._catOffsets[di._catOffsets.length - 1] + j);
-                    dataPointer.increment();
-                    nonZeroCount++;
-                }
-            }
-            rwRow = setResponseAndWeightAndOffset(chunks, respIdx, weight, offsetIdx, resp, weights, offsets, rwRow, i);
-        }
-        rowHeaderPointer.set(rowHeaders, nonZeroCount);
-        return actualRows;
-    }
-
     /**
      * Creates a {@link SparseMatrix} object with pre-instantiated backing arrays for row-oriented compression schema (CSR).
      * All backing arrays are allocated using MemoryManager.
@@ -377,24 +423,7 @@ public class SparseMatrixFactory {
     }
 
     protected static SparseMatrixDimensions calculateCSRMatrixDimensions(Chunk[] chunks, DataInfo di, int weightColIndex){
-
-        int[] nonZeroElementsCounts = new int[1];
-        int[] rowIndicesCounts = new int[1];
-
-        for (int i = 0; i < chunks[0].len(); i++) {
-            // Rows with zero weights are going to be ignored
-            if (weightColIndex != -1 && chunks[weightColIndex].atd(i) == 0) continue;
-            rowIndicesCounts[0]++;
-            nonZeroElementsCounts[0] += di._cats;
-            for (int j = 0; j < di._nums; j++) {
-                double val = chunks[di._cats + j].atd(i);
-                if (val != 0) {
-                    nonZeroElementsCounts[0]++;
-                }
-            }
-        }
-
-        return new SparseMatrixDimensions(nonZeroElementsCounts, rowIndicesCounts);
+        return new ChunkCSR(chunks, weightColIndex != -1 ? chunks[weightColIndex] : null, di, chunks[0].len()).dimensions();
     }
 
     public static SparseMatrixDimensions calculateCSRMatrixDimensions(Frame f, int[] chunkIds, Vec w, DataInfo di) {
@@ -426,44 +455,10 @@ public class SparseMatrixFactory {
         @Override
         protected void map(int i) {
             final int cidx = _chunkIds[i];
-
-            int rowIndicesCount = 0;
-            int nonZeroElementsCount = 0;
-
-            if (_di._nums == 0) {
-                if (_w == null) {
-                    // no weights and only categoricals => sizing is trivial
-                    rowIndicesCount = _f.anyVec().chunkForChunkIdx(cidx)._len;
-                    nonZeroElementsCount = rowIndicesCount * _di._cats;
-                } else {
-                    Chunk ws = _w.chunkForChunkIdx(cidx);
-                    int nzWeights = 0;
-                    for (int r = 0; r < ws._len; r++)
-                        if (ws.atd(r) != 0) {
-                            nzWeights++;
-                        }
-                    rowIndicesCount += nzWeights;
-                    nonZeroElementsCount += nzWeights * _di._cats;
-                }
-            } else {
-                Chunk[] cs = new Chunk[_di._nums];
-                for (int c = 0; c < cs.length; c++) {
-                    cs[c] = _f.vec(_di._cats + c).chunkForChunkIdx(cidx);
-                }
-                Chunk ws = _w != null ? _w.chunkForChunkIdx(cidx) : null;
-                for (int r = 0; r < cs[0]._len; r++) {
-                    if (ws != null && ws.atd(r) == 0) continue;
-                    rowIndicesCount++;
-                    nonZeroElementsCount += _di._cats;
-                    for (int j = 0; j < _di._nums; j++) {
-                        if (cs[j].atd(r) != 0) {
-                            nonZeroElementsCount++;
-                        }
-                    }
-                }
-            }
-            _rowIndicesCounts[i] = rowIndicesCount;
-            _nonZeroElementsCounts[i] = nonZeroElementsCount;
+            final Chunk ws = _w != null ? _w.chunkForChunkIdx(cidx) : null;
+            final ChunkCSR chunkCSR = new ChunkCSR(featureChunks(_f, _di, cidx), ws, _di, _f.anyVec().chunkLen(cidx));
+            _rowIndicesCounts[i] = chunkCSR._rows;
+            _nonZeroElementsCounts[i] = (int) chunkCSR._nonZeros;
         }
     }
 
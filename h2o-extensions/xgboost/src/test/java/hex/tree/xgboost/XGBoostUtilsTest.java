@@ -429,6 +429,94 @@ public class XGBoostUtilsTest extends TestUtil {
         if (frame != null) frame.remove();
       }
     }
+
+    @Test
+    public void testSparsematrixInit_sparseChunks() {
+      Scope.enter();
+      try {
+        final Random rnd = new Random(42);
+        final int nrows = 3000;
+        final String[] levels = new String[nrows];
+        final double[] sparseCol = new double[nrows];
+        final double[] naSparseCol = new double[nrows];
+        final double[] weights = new double[nrows];
+        final double[] response = new double[nrows];
+        for (int i = 0; i < nrows; i++) {
+          levels[i] = rnd.nextInt(20) == 0 ? null : "l" + rnd.nextInt(4);
+          sparseCol[i] = rnd.nextInt(50) == 0 ? Double.NaN : rnd.nextInt(20) == 0 ? rnd.nextInt(5) + 0.5 : 0;
+          naSparseCol[i] = rnd.nextInt(20) == 0 ? rnd.nextInt(5) : Double.NaN;
+          weights[i] = rnd.nextInt(4) == 0 ? 0 : rnd.nextInt(3) + 1;
+          response[i] = rnd.nextDouble();
+        }
+        final Frame frame = Scope.track(new TestFrameBuilder()
+                .withColNames("C1", "C2", "C3", "W", "R")
+                .withVecTypes(Vec.T_CAT, Vec.T_NUM, Vec.T_NUM, Vec.T_NUM, Vec.T_NUM)
+                .withDataForCol(0, levels)
+                .withDataForCol(1, sparseCol)
+                .withDataForCol(2, naSparseCol)
+                .withDataForCol(3, weights)
+                .withDataForCol(4, response)
+                .withChunkLayout(1000, 2000)
+                .build());
+        assertTrue(frame.vec("C2").chunkForChunkIdx(0) instanceof CXFChunk);
+        assertTrue(frame.vec("C3").chunkForChunkIdx(0) instanceof CXIChunk);
+        final DataInfo di = new DataInfo(frame.subframe(new String[]{"C1", "C2", "C3"}), null, true,
+                DataInfo.TransformType.NONE, false, false, false);
+        final Frame adapted = di._adaptedFrame;
+        final int[] chunksIds = VecUtils.getLocalChunkIds(adapted.anyVec());
+
+        // Expected CSR layout, walking the frame row by row
+        final List<Long> rowHeaders = new ArrayList<>();
+        final List<Integer> colIndices = new ArrayList<>();
+        final List<Float> data = new ArrayList<>();
+        for (int i = 0; i < nrows; i++) {
+          if (weights[i] == 0) continue;
+          rowHeaders.add((long) data.size());
+          for (int j = 0; j < di._cats; j++) {
+            final Vec v = adapted.vec(j);
+            colIndices.add(v.isNA(i) ? di.getCategoricalId(j, Float.NaN) : di.getCategoricalId(j, v.at8(i)));
+            data.add(1f);
+          }
+          for (int j = 0; j < di._nums; j++) {
+            final float val = (float) adapted.vec(di._cats + j).at(i);
+            if (val != 0) {
+              colIndices.add(di._catOffsets[di._catOffsets.length - 1] + j);
+              data.add(val);
+            }
+          }
+        }
+        rowHeaders.add((long) data.size());
+
+        XGBoostUtilsTest.setSparseMatrixMaxDimensions(1000);
+        final SparseMatrixDimensions sparseMatrixDimensions = SparseMatrixFactory.calculateCSRMatrixDimensions(
+                adapted, chunksIds, frame.vec("W"), di);
+        assertEquals(data.size(), sparseMatrixDimensions._nonZeroElementsCount);
+        assertEquals(rowHeaders.size(), sparseMatrixDimensions._rowHeadersCount);
+
+        final SparseMatrix sparseMatrix = SparseMatrixFactory.allocateCSRMatrix(sparseMatrixDimensions);
+        final float[] resp = new float[nrows];
+        final float[] ws = new float[nrows];
+        final int actualRows = SparseMatrixFactory.initializeFromChunkIds(
+                adapted, chunksIds, frame.vec("W"), null, di, sparseMatrix, sparseMatrixDimensions,
+                frame.vec("R"), resp, ws, null);
+        assertEquals(rowHeaders.size() - 1, actualRows);
+
+        final float[] expectedData = new float[data.size()];
+        final int[] expectedColIndices = new int[colIndices.size()];
+        final long[] expectedRowHeaders = new long[rowHeaders.size()];
+        for (int i = 0; i < expectedData.length; i++) {
+          expectedData[i] = data.get(i);
+          expectedColIndices[i] = colIndices.get(i);
+        }
+        for (int i = 0; i < expectedRowHeaders.length; i++) {
+          expectedRowHeaders[i] = rowHeaders.get(i);
+        }
+        checkSparseDataInitialization(sparseMatrix, expectedData, expectedRowHeaders, expectedColIndices);
+      } finally {
+        XGBoostUtilsTest.revertDefaultSparseMatrixMaxSize();
+        Scope.exit();
+      }
+    }
   }
 
   /**
@@ -0,0 +1,220 @@
+package hex.genmodel.algos.tree;
+
+import hex.genmodel.utils.ByteBufferWrapper;
+import hex.genmodel.utils.GenmodelBitSet;
+
+import java.util.Arrays;
+
+/**
+ * Decoded form of a single compressed tree, laid out as a structure of arrays
+ * indexed by node number. The tree is decoded once and then scored by a tight
+ * loop without parsing node types, column ids or bitsets again.
+ *
+ * Scoring is equivalent to {@link SharedTreeMojoModel#scoreTree(byte[], double[], boolean, String[][])},
+ * only MOJOs version 1.2 and newer can be represented in this form.
+ */
+public final class FlatTree {
+
+  private static final int NsdNaVsRest = NaSplitDir.NAvsREST.value();
+  private static final int NsdNaLeft = NaSplitDir.NALeft.value();
+  private static final int NsdLeft = NaSplitDir.Left.value();
+
+  private static final byte FLAG_NA_VS_REST = 1;
+  private static final byte FLAG_LEFTWARD = 2;
+  private static final byte FLAG_BITSET = 4;
+
+  // Split column of each node, -1 for leaves
+  final int[] _colIds;
+  // Split value of numeric splits; prediction value for leaves
+  final float[] _values;
+  // Index of the left and right child node
+  final int[] _left;
+  final int[] _right;
+  // NA handling and split type, see FLAG_*
+  final byte[] _flags;
+  // Bitset of group splits (or the bitset in effect along the path to a NA-vs-REST node)
+  final GenmodelBitSet[] _bitsets;
+
+  private FlatTree(int[] colIds, float[] values, int[] left, int[] right, byte[] flags, GenmodelBitSet[] bitsets) {
+    _colIds = colIds;
+    _values = values;
+    _left = left;
+    _right = right;
+    _flags = flags;
+    _bitsets = bitsets;
+  }
+
+  public int numNodes() {
+    return _colIds.length;
+  }
+
+  /**
+   * Scores a single row.
+   * @param row input row
+   * @param domains model domains, used to route unseen categorical levels the same way as NAs
+   * @return prediction of the tree
+   */
+  public double score(double[] row, String[][] domains) {
+    int n = 0;
+    int col;
+    while ((col = _colIds[n]) >= 0) {
+      n = goRight(n, col, row[col], domains) ? _right[n] : _left[n];
+    }
+    return _values[n];
+  }
+
+  /**
+   * Scores a block of rows stored column-wise, the whole block is moved through the tree level by level.
+   * @param columns input data, columns[c][r] is value of column c in row r
+   * @param nrows number of rows of the block
+   * @param domains model domains
+   * @param preds output, prediction of row r is added to preds[r][predIdx]
+   * @param predIdx index of the prediction to accumulate into
+   * @param nodes working space, needs to hold at least nrows elements
+   * @param active working space, needs to hold at least nrows elements
+   */
+  public void scoreBatch(double[][] columns, int nrows, String[][] domains, double[][] preds, int predIdx,
+                         int[] nodes, int[] active) {
+    Arrays.fill(nodes, 0, nrows, 0);
+    int nactive = 0;
+    if (_colIds[0] < 0) { // Single-leaf tree
+      for (int r = 0; r < nrows; r++)
+        preds[r][predIdx] += _values[0];
+      return;
+    }
+    for (int r = 0; r < nrows; r++)
+      active[nactive++] = r;
+    while (nactive > 0) {
+      int stillActive = 0;
+      for (int i = 0; i < nactive; i++) {
+        int r = active[i];
+        int n = nodes[r];
+        int col = _colIds[n];
+        n = goRight(n, col, columns[col][r], domains) ? _right[n] : _left[n];
+        if (_colIds[n] < 0)
+          preds[r][predIdx] += _values[n];
+        else {
+          nodes[r] = n;
+          active[stillActive++] = r;
+        }
+      }
+      nactive = stillActive;
+    }
+  }
+
+  private boolean goRight(int n, int col, double d, String[][] domains) {
+    final byte flags = _flags[n];
+    final boolean bitset = (flags & FLAG_BITSET) != 0;
+    final GenmodelBitSet bs = _bitsets[n];
+    if (Double.isNaN(d) || (bitset && bs != null && !bs.isInRange((int) d)) ||
+            (domains != null && domains[col] != null && domains[col].length <= (int) d))
+      return (flags & FLAG_LEFTWARD) == 0;
+    if ((flags & FLAG_NA_VS_REST) != 0)
+      return false;
+    return bitset ? bs.contains((int) d) : d >= _values[n];
+  }
+
+  /**
+   * Decodes a compressed tree (MOJO version 1.2 and newer).
+   * @param tree compressed tree
+   * @return flat representation of the tree
+   */
+  public static FlatTree decode(byte[] tree) {
+    Builder b = new Builder();
+    b.decode(tree, new ByteBufferWrapper(tree), null);
+    return b.build();
+  }
+
+  private static class Builder {
+    private int _n;
+    private int[] _colIds = new int[16];
+    private float[] _values = new float[16];
+    private int[] _left = new int[16];
+    private int[] _right = new int[16];
+    private byte[] _flags = new byte[16];
+    private GenmodelBitSet[] _bitsets = new GenmodelBitSet[16];
+
+    private int newNode() {
+      if (_n == _colIds.length) {
+        int len = _n << 1;
+        _colIds = Arrays.copyOf(_colIds, len);
+        _values = Arrays.copyOf(_values, len);
+        _left = Arrays.copyOf(_left, len);
+        _right = Arrays.copyOf(_right, len);
+        _flags = Arrays.copyOf(_flags, len);
+        _bitsets = Arrays.copyOf(_bitsets, len);
+      }
+      return _n++;
+    }
+
+    private int leaf(float value) {
+      int n = newNode();
+      _colIds[n] = -1;
+      _values[n] = value;
+      return n;
+    }
+
+    // Mirrors the node decoding of SharedTreeMojoModel.scoreTree; `pathBs` is the last bitset
+    // decoded on the path from the root - the byte-code scorer keeps using it for NA-vs-REST nodes.
+    private int decode(byte[] tree, ByteBufferWrapper ab, GenmodelBitSet pathBs) {
+      int nodeType = ab.get1U();
+      int colId = ab.get2();
+      if (colId == 65535)
+        return leaf(ab.get4f());
+      int n = newNode();
+      _colIds[n] = colId;
+      int naSplitDir = ab.get1U();
+      boolean naVsRest = naSplitDir == NsdNaVsRest;
+      boolean leftward = naSplitDir == NsdNaLeft || naSplitDir == NsdLeft;
+      int lmask = (nodeType & 51);
+      int equal = (nodeType & 12);  // Can be one of 0, 8, 12
+      assert equal != 4;  // no longer supported
+      byte flags = 0;
+      if (naVsRest) flags |= FLAG_NA_VS_REST;
+      if (leftward) flags |= FLAG_LEFTWARD;
+      if (equal != 0) flags |= FLAG_BITSET;
+      GenmodelBitSet bs = pathBs;
+      if (!naVsRest) {
+        if (equal == 0) {
+          _values[n] = ab.get4f();
+        } else {
+          bs = new GenmodelBitSet(0);
+          if (equal == 8)
+            bs.fill2(tree, ab);
+          else
+            bs.fill3(tree, ab);
+        }
+      }
+      _flags[n] = flags;
+      _bitsets[n] = bs;
+
+      // Right subtree starts after the left subtree
+      ByteBufferWrapper abRight = new ByteBufferWrapper(tree);
+      abRight.skip(ab.position());
+      switch (lmask) {
+        case 0:  abRight.skip(abRight.get1U());  break;
+        case 1:  abRight.skip(abRight.get2());  break;
+        case 2:  abRight.skip(abRight.get3());  break;
+        case 3:  abRight.skip(abRight.get4());  break;
+        case 48: abRight.skip(4);  break;  // skip the prediction
+        default:
+          throw new IllegalStateException("illegal lmask value " + lmask);
+      }
+      int rmask = (nodeType & 0xC0) >> 2;
+
+      if (lmask <= 3)
+        ab.skip(lmask + 1);
+      int left = (lmask & 16) != 0 ? leaf(ab.get4f()) : decode(tree, ab, bs);
+      int right = (rmask & 16) != 0 ? leaf(abRight.get4f()) : decode(tree, abRight, bs);
+      _left[n] = left;
+      _right[n] = right;
+      return n;
+    }
+
+    private FlatTree build() {
+      return new FlatTree(Arrays.copyOf(_colIds, _n), Arrays.copyOf(_values, _n), Arrays.copyOf(_left, _n),
+              Arrays.copyOf(_right, _n), Arrays.copyOf(_flags, _n), Arrays.copyOf(_bitsets, _n));
+    }
+  }
+
+}
@@ -26,6 +26,16 @@ public abstract class SharedTreeMojoModel extends MojoModel implements TreeBacke
     private static final int NsdLeft = NaSplitDir.Left.value();
 
     private ScoreTree _scoreTree;
+
+    /**
+     * Decoded form of {@link #_compressed_trees}, built on first use of the batch scoring API.
+     */
+    private transient volatile FlatTree[] _flat_trees;
+
+    /**
+     * Whether single-row scoring should use {@link #_flat_trees} instead of decoding {@link #_compressed_trees}.
+     */
+    private boolean _score_flat_trees;
     
     private static Logger logger = LoggerFactory.getLogger(SharedTreeMojoModel.class);
 
@@ -866,6 +876,20 @@ public abstract class SharedTreeMojoModel extends MojoModel implements TreeBacke
      */
     public final void scoreTreeRange(double[] row, int fromIndex, int toIndex, double[] preds) {
         final int clOffset = _nclasses == 1 ? 0 : 1;
+        if (_score_flat_trees) {
+          final FlatTree[] trees = flatTrees();
+          for (int classIndex = 0; classIndex < _ntrees_per_group; classIndex++) {
+            int k = clOffset + classIndex;
+            int itree = treeIndex(fromIndex, classIndex);
+            for (int groupIndex = fromIndex; groupIndex < toIndex; groupIndex++) {
+              if (trees[itree] != null) { // Skip all empty trees
+                preds[k] += trees[itree].score(row, _domains);
+              }
+              itree++;
+            }
+          }
+          return;
+        }
         for (int classIndex = 0; classIndex < _ntrees_per_group; classIndex++) {
             int k = clOffset + classIndex;
             int itree = treeIndex(fromIndex, classIndex);
@@ -878,6 +902,85 @@ public abstract class SharedTreeMojoModel extends MojoModel implements TreeBacke
         }
     }
 
+    /**
+     * Scores a block of rows stored column-wise. Each tree is decoded only once (see {@link FlatTree})
+     * and the whole block is routed through it, instead of decoding the compressed tree again for every row.
+     * MOJOs older than version 1.2 are scored row by row.
+     * @param columns input data in the same column order as for {@link #score0(double[], double[])},
+     *                columns[c][r] is value of column c in row r
+     * @param nrows number of rows of the block
+     * @param preds output, one array of {@link #getPredsSize()} elements per row
+     * @return preds array
+     */
+    public final double[][] score0(double[][] columns, int nrows, double[][] preds) {
+      return score0(columns, null, nrows, preds);
+    }
+
+    /**
+     * Scores a block of rows stored column-wise, see {@link #score0(double[][], int, double[][])}.
+     * @param offsets offset of each row, or null if the model doesn't use an offset
+     */
+    public final double[][] score0(double[][] columns, double[] offsets, int nrows, double[][] preds) {
+      final double[] row = new double[columns.length];
+      final FlatTree[] trees = flatTrees();
+      if (trees == null) { // Legacy MOJO, score row by row
+        for (int r = 0; r < nrows; r++) {
+          fillRow(columns, r, row);
+          score0(row, offsets == null ? 0.0 : offsets[r], preds[r]);
+        }
+        return preds;
+      }
+      for (int r = 0; r < nrows; r++)
+        Arrays.fill(preds[r], 0);
+      final int clOffset = _nclasses == 1 ? 0 : 1;
+      final int[] nodes = new int[nrows];
+      final int[] active = new int[nrows];
+      for (int classIndex = 0; classIndex < _ntrees_per_group; classIndex++) {
+        int itree = treeIndex(0, classIndex);
+        for (int groupIndex = 0; groupIndex < _ntree_groups; groupIndex++) {
+          if (trees[itree] != null) // Skip all empty trees
+            trees[itree].scoreBatch(columns, nrows, _domains, preds, clOffset + classIndex, nodes, active);
+          itree++;
+        }
+      }
+      for (int r = 0; r < nrows; r++) {
+        fillRow(columns, r, row);
+        unifyPreds(row, offsets == null ? 0.0 : offsets[r], preds[r]);
+      }
+      return preds;
+    }
+
+    private static void fillRow(double[][] columns, int r, double[] row) {
+      for (int c = 0; c < row.length; c++)
+        row[c] = columns[c][r];
+    }
+
+    /**
+     * Decodes all trees into the flat representation (see {@link FlatTree}) and switches all scoring
+     * to use it. Trades memory (roughly 3-4x the size of the compressed trees) for lower scoring latency.
+     * Has no effect on MOJOs older than version 1.2.
+     * @return true if the flat representation is used for scoring
+     */
+    public final boolean precompileTrees() {
+      _score_flat_trees = flatTrees() != null;
+      return _score_flat_trees;
+    }
+
+    /**
+     * @return decoded trees or null if this MOJO version doesn't support the flat representation
+     */
+    final FlatTree[] flatTrees() {
+      FlatTree[] trees = _flat_trees;
+      if (trees == null && !(_scoreTree instanceof ScoreTree0 || _scoreTree instanceof ScoreTree1)) {
+        trees = new FlatTree[_compressed_trees.length];
+        for (int i = 0; i < trees.length; i++)
+          if (_compressed_trees[i] != null)
+            trees[i] = FlatTree.decode(_compressed_trees[i]);
+        _flat_trees = trees;
+      }
+      return trees;
+    }
+
     // note that _ntree_group = _treekeys.length
     // ntrees_per_group = _treeKeys[0].length
     public String[] getDecisionPathNames() {
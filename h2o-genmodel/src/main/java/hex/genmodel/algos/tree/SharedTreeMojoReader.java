@@ -8,6 +8,11 @@ import java.io.IOException;
 
 public abstract class SharedTreeMojoReader<M extends SharedTreeMojoModel> extends ModelMojoReader<M> {
 
+  /**
+   * System property enabling decoding of the trees into a flat representation at load time,
+   * see {@link SharedTreeMojoModel#precompileTrees()}.
+   */
+  public static final String PRECOMPILE_TREES_PROPERTY = "sys.ai.h2o.mojo.tree.precompile";
 
   @Override
   protected void readModelData() throws IOException {
@@ -67,6 +72,9 @@ public abstract class SharedTreeMojoReader<M extends SharedTreeMojoModel> extend
 
 
     _model.postInit();
+    if (Boolean.getBoolean(PRECOMPILE_TREES_PROPERTY)) {
+      _model.precompileTrees();
+    }
   }
 
   @Override
@@ -61,6 +61,7 @@ public class EasyPredictModelWrapper implements Serializable {
   // These private members are read-only after the constructor.
   public final GenModel m;
   private final RowToRawDataConverter rowDataConverter;
+  private final BatchBuffersThreadLocal batchBuffers; // working buffers of the batch predictions
 
   private final boolean useExtendedOutput;
   private final boolean enableLeafAssignment;
@@ -323,6 +324,7 @@ public class EasyPredictModelWrapper implements Serializable {
     } else {
       rowDataConverter = new RowToRawDataConverter(m, columnMapping, domainMap, errorConsumer, config);
     }
+    batchBuffers = new BatchBuffersThreadLocal(m.nfeatures());
   }
 
 
@@ -902,6 +904,116 @@ public class EasyPredictModelWrapper implements Serializable {
     throw new IllegalStateException("Model does not support variable importance");
   }
 
+  //----------------------------------------------------------------------
+  // Batch predictions.
+  //
+  // Intended for high-throughput scoring: no prediction objects are created, the working buffers
+  // are reused (one set per thread) and the results are written to arrays provided by the caller.
+  // Leaf node assignments, staged probabilities, calibrated probabilities and contributions are not
+  // calculated, even if enabled in the Config.
+  //----------------------------------------------------------------------
+
+  /**
+   * Make predictions for a batch of new data points using a Binomial model.
+   *
+   * @param rows New data points.
+   * @param labelIndices Output: index of the predicted label (in {@link #getResponseDomainValues()}) for each row,
+   *                     can be null.
+   * @param classProbabilities Output: class probabilities for each row (each row needs to have space for all
+   *                           response classes), can be null.
+   * @throws PredictException
+   */
+  public void predictBinomial(RowData[] rows, int[] labelIndices, double[][] classProbabilities) throws PredictException {
+    predictClasses(ModelCategory.Binomial, rows, labelIndices, classProbabilities);
+  }
+
+  /**
+   * Make predictions for a batch of new data points using a Multinomial model.
+   *
+   * @param rows New data points.
+   * @param labelIndices Output: index of the predicted label (in {@link #getResponseDomainValues()}) for each row,
+   *                     can be null.
+   * @param classProbabilities Output: class probabilities for each row (each row needs to have space for all
+   *                           response classes), can be null.
+   * @throws PredictException
+   */
+  public void predictMultinomial(RowData[] rows, int[] labelIndices, double[][] classProbabilities) throws PredictException {
+    predictClasses(ModelCategory.Multinomial, rows, labelIndices, classProbabilities);
+  }
+
+  /**
+   * Make predictions for a batch of new data points using a Regression model.
+   *
+   * @param rows New data points.
+   * @param values Output: predicted value for each row.
+   * @throws PredictException
+   */
+  public void predictRegression(RowData[] rows, double[] values) throws PredictException {
+    validateModelCategory(ModelCategory.Regression);
+    checkBatchOutput(rows, values.length);
+    final BatchBuffers buffers = batchBuffers.get();
+    final double[] preds = buffers.preds(m.getPredsSize(ModelCategory.Regression));
+    for (int i = 0; i < rows.length; i++) {
+      values[i] = predict(rows[i], 0, buffers.rawData, preds)[0];
+    }
+  }
+
+  private void predictClasses(ModelCategory c, RowData[] rows, int[] labelIndices, double[][] classProbabilities)
+      throws PredictException {
+    validateModelCategory(c);
+    if (labelIndices != null)
+      checkBatchOutput(rows, labelIndices.length);
+    if (classProbabilities != null)
+      checkBatchOutput(rows, classProbabilities.length);
+    final int nclasses = m.getNumResponseClasses();
+    final BatchBuffers buffers = batchBuffers.get();
+    final double[] preds = buffers.preds(m.getPredsSize(c));
+    for (int i = 0; i < rows.length; i++) {
+      double[] p = predict(rows[i], 0, buffers.rawData, preds);
+      if (labelIndices != null)
+        labelIndices[i] = (int) p[0];
+      if (classProbabilities != null)
+        System.arraycopy(p, 1, classProbabilities[i], 0, nclasses);
+    }
+  }
+
+  private static void checkBatchOutput(RowData[] rows, int outputLength) {
+    if (outputLength < rows.length)
+      throw new IllegalArgumentException("Output array is too small, expected at least " + rows.length +
+          " elements, got " + outputLength + ".");
+  }
+
+  /**
+   * Buffers holding the raw data of a row and the predictions, reused across rows.
+   */
+  private static class BatchBuffers {
+    final double[] rawData;
+    double[] preds = new double[0];
+
+    BatchBuffers(int nfeatures) {
+      rawData = new double[nfeatures];
+    }
+
+    double[] preds(int size) {
+      if (preds.length != size)
+        preds = new double[size];
+      return preds;
+    }
+  }
+
+  private static class BatchBuffersThreadLocal extends ThreadLocal<BatchBuffers> implements Serializable {
+    private final int nfeatures;
+
+    BatchBuffersThreadLocal(int nfeatures) {
+      this.nfeatures = nfeatures;
+    }
+
+    @Override
+    protected BatchBuffers initialValue() {
+      return new BatchBuffers(nfeatures);
+    }
+  }
+
   //----------------------------------------------------------------------
   // Transparent methods passed through to GenModel.
   //----------------------------------------------------------------------
@@ -960,7 +1072,16 @@ public class EasyPredictModelWrapper implements Serializable {
   }
 
   protected double[] predict(RowData data, double offset, double[] preds) throws PredictException {
-    double[] rawData = nanArray(m.nfeatures());
+    return predict(data, offset, nanArray(m.nfeatures()), preds);
+  }
+
+  /**
+   * Variant of {@link #predict(RowData, double, double[])} working with reused buffers, the content
+   * of the given rawData and preds arrays is overwritten.
+   */
+  private double[] predict(RowData data, double offset, double[] rawData, double[] preds) throws PredictException {
+    Arrays.fill(rawData, Double.NaN);
+    Arrays.fill(preds, 0);
     rawData = fillRawData(data, rawData);
     if (m.requiresOffset() || offset != 0) {
       preds = m.score0(rawData, offset, preds);
@@ -15,7 +15,7 @@ import java.util.Map;
 public class RowToRawDataConverter implements Serializable {
 
   private final Map<String, Integer> _modelColumnNameToIndexMap;
-  private final Map<Integer, CategoricalEncoder> _domainMap;
+  private final CategoricalEncoder[] _encoders; // domain map indexed by the model column index
   private final EasyPredictModelWrapper.ErrorConsumer _errorConsumer;
 
   private final boolean _convertUnknownCategoricalLevelsToNa;
@@ -27,7 +27,7 @@ public class RowToRawDataConverter implements Serializable {
                                EasyPredictModelWrapper.ErrorConsumer errorConsumer,
                                EasyPredictModelWrapper.Config config) {
     _modelColumnNameToIndexMap = modelColumnNameToIndexMap;
-    _domainMap = domainMap;
+    _encoders = toEncoderArray(domainMap);
     _errorConsumer = errorConsumer;
     _convertUnknownCategoricalLevelsToNa = config.getConvertUnknownCategoricalLevelsToNa();
     _convertInvalidNumbersToNa = config.getConvertInvalidNumbersToNa();
@@ -42,7 +42,8 @@ public class RowToRawDataConverter implements Serializable {
    * but this conversion is only needed to make it possible to produce predictions so it makes sense
    */
   public double[] convert(RowData data, double[] rawData) throws PredictException {  
-    for (String dataColumnName : data.keySet()) {
+    for (Map.Entry<String, Object> entry : data.entrySet()) {
+      String dataColumnName = entry.getKey();
       Integer index = _modelColumnNameToIndexMap.get(dataColumnName);
 
       // Skip column names that are not known.
@@ -51,14 +52,24 @@ public class RowToRawDataConverter implements Serializable {
         continue;
       }
 
-      Object o = data.get(dataColumnName);
-      if (convertValue(dataColumnName, o, _domainMap.get(index), index, rawData)) {
+      Object o = entry.getValue();
+      if (convertValue(dataColumnName, o, index < _encoders.length ? _encoders[index] : null, index, rawData)) {
         return rawData;
       }
     }
     return rawData;
   }
 
+  private static CategoricalEncoder[] toEncoderArray(Map<Integer, CategoricalEncoder> domainMap) {
+    int size = 0;
+    for (Integer index : domainMap.keySet())
+      size = Math.max(size, index + 1);
+    CategoricalEncoder[] encoders = new CategoricalEncoder[size];
+    for (Map.Entry<Integer, CategoricalEncoder> entry : domainMap.entrySet())
+      encoders[entry.getKey()] = entry.getValue();
+    return encoders;
+  }
+
   protected boolean convertValue(String columnName, Object o, CategoricalEncoder catEncoder,
                                  int targetIndex, double[] rawData) throws PredictException {
     if (catEncoder == null) {
@@ -10,11 +10,11 @@ import hex.genmodel.easy.EasyPredictModelWrapper;
 import hex.genmodel.easy.RowData;
 import hex.genmodel.easy.prediction.*;
 
-import java.io.BufferedWriter;
-import java.io.FileReader;
-import java.io.FileWriter;
-import java.io.IOException;
+import java.io.*;
 import java.util.*;
+import java.util.concurrent.*;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 
 /**
  * Simple driver program for reading a CSV file and making predictions.  Added support for separators that are
@@ -35,8 +35,13 @@ public class PredictCsv {
   public boolean predictContributions = false; // enable tree models to predict contributions instead of regular predictions
   boolean returnGLRMReconstruct = false; // for GLRM, return x factor by default unless set this to true
   public int glrmIterNumber = -1;  // for GLRM, default to 100.
+  public int nThreads = 1; // number of scoring threads, more than 1 enables pipelined parallel scoring
+  private static final int BATCH_SIZE = 1024; // number of lines scored together in parallel mode
+  private static final String GZIP_SUFFIX = ".gz"; // input/output files with this suffix are (de)compressed
+  private static final int GZIP_BUFFER_SIZE = 1 << 16;
   // Model instance
   private EasyPredictModelWrapper model;
+  private EasyPredictModelWrapper.Config modelConfig; // used to make model instances of the scoring threads
 
   public static void main(String[] args) {
     // Parse command line arguments
@@ -117,9 +122,8 @@ public class PredictCsv {
 
   public void run() throws Exception {
     ModelCategory category = model.getModelCategory();
-    CSVReader reader = new CSVReader(new FileReader(inputCSVFileName), separator);
-    BufferedWriter output = new BufferedWriter(new FileWriter(outputCSVFileName));
-    int lastCommaAutoEn = -1; // for deeplearning model in autoencoder mode
+    CSVReader reader = new CSVReader(openInput(), separator);
+    BufferedWriter output = new BufferedWriter(openOutput());
 
     // Emit outputCSV column names.
     switch (category) {
@@ -177,142 +181,277 @@ public class PredictCsv {
       else  // file empty, throw an error
         throw new Exception("Input dataset file is empty!");
 
-      while ((splitLine = reader.readNext()) != null) {
-        // Parse the CSV line.  Don't handle quoted commas.  This isn't a parser test.
-        RowData row = formatDataRow(splitLine, inputColumnNames);
-        // Do the prediction.
-        // Emit the result to the output file.
-        switch (category) {
-          case AutoEncoder: { // write the expanded predictions out
-            AutoEncoderModelPrediction p = model.predictAutoEncoder(row);
-            for (int i=0; i < p.reconstructed.length; i++) {
-              output.write(myDoubleToString(p.reconstructed[i]));
-
-              if (i < lastCommaAutoEn)
-                output.write(',');
-            }
-            break;
-          }
-          case Binomial: {
-            BinomialModelPrediction p = model.predictBinomial(row);
-            if (getTreePath) {
-              writeTreePaths(p.leafNodeAssignments, output);
-            } else if (predictContributions) {
-              writeContributions(p.contributions, output);
-            } else {
-              output.write(p.label);
+      if (nThreads > 1) {
+        predictParallel(reader, inputColumnNames, output);
+      } else {
+        while ((splitLine = reader.readNext()) != null) {
+          predictLine(model, splitLine, inputColumnNames, output);
+          lineNum++;
+        }
+      }
+    }
+    catch (LinePredictionException e) {
+      throw e; // already identifies the line (parallel mode)
+    }
+    catch (Exception e) {
+      throw new Exception("Prediction failed on line " + lineNum, e);
+    } finally {
+      // Clean up.
+      output.close();
+      reader.close();
+    }
+  }
+
+  /**
+   * Makes the predictions for a single line of the input and writes them to the output.
+   */
+  private void predictLine(EasyPredictModelWrapper model, String[] splitLine, String[] inputColumnNames,
+                           Writer output) throws Exception {
+    ModelCategory category = model.getModelCategory();
+    int lastCommaAutoEn = -1; // for deeplearning model in autoencoder mode
+    // Parse the CSV line.  Don't handle quoted commas.  This isn't a parser test.
+    RowData row = formatDataRow(splitLine, inputColumnNames);
+    // Do the prediction.
+    // Emit the result to the output file.
+    switch (category) {
+      case AutoEncoder: { // write the expanded predictions out
+        AutoEncoderModelPrediction p = model.predictAutoEncoder(row);
+        for (int i=0; i < p.reconstructed.length; i++) {
+          output.write(myDoubleToString(p.reconstructed[i]));
+
+          if (i < lastCommaAutoEn)
+            output.write(',');
+        }
+        break;
+      }
+      case Binomial: {
+        BinomialModelPrediction p = model.predictBinomial(row);
+        if (getTreePath) {
+          writeTreePaths(p.leafNodeAssignments, output);
+        } else if (predictContributions) {
+          writeContributions(p.contributions, output);
+        } else {
+          output.write(p.label);
+          output.write(",");
+          for (int i = 0; i < p.classProbabilities.length; i++) {
+            if (i > 0) {
               output.write(",");
-              for (int i = 0; i < p.classProbabilities.length; i++) {
-                if (i > 0) {
-                  output.write(",");
-                }
-                output.write(myDoubleToString(p.classProbabilities[i]));
-              }
             }
-            break;
+            output.write(myDoubleToString(p.classProbabilities[i]));
           }
-          case Multinomial: {
-            MultinomialModelPrediction p = model.predictMultinomial(row);
-            if (getTreePath) {
-              writeTreePaths(p.leafNodeAssignments, output);
-            } else {
-              output.write(p.label);
+        }
+        break;
+      }
+      case Multinomial: {
+        MultinomialModelPrediction p = model.predictMultinomial(row);
+        if (getTreePath) {
+          writeTreePaths(p.leafNodeAssignments, output);
+        } else {
+          output.write(p.label);
+          output.write(",");
+          for (int i = 0; i < p.classProbabilities.length; i++) {
+            if (i > 0) {
               output.write(",");
-              for (int i = 0; i < p.classProbabilities.length; i++) {
-                if (i > 0) {
-                  output.write(",");
-                }
-                output.write(myDoubleToString(p.classProbabilities[i]));
-              }
             }
-            break;
+            output.write(myDoubleToString(p.classProbabilities[i]));
           }
-          case Ordinal: {
-            OrdinalModelPrediction p = model.predictOrdinal(row);
-            output.write(p.label);
+        }
+        break;
+      }
+      case Ordinal: {
+        OrdinalModelPrediction p = model.predictOrdinal(row);
+        output.write(p.label);
+        output.write(",");
+        for (int i = 0; i < p.classProbabilities.length; i++) {
+          if (i > 0) {
             output.write(",");
-            for (int i = 0; i < p.classProbabilities.length; i++) {
-              if (i > 0) {
-                output.write(",");
-              }
-              output.write(myDoubleToString(p.classProbabilities[i]));
-            }
-            break;
-          }
-          case Clustering: {
-            ClusteringModelPrediction p = model.predictClustering(row);
-            output.write(myDoubleToString(p.cluster));
-            break;
           }
+          output.write(myDoubleToString(p.classProbabilities[i]));
+        }
+        break;
+      }
+      case Clustering: {
+        ClusteringModelPrediction p = model.predictClustering(row);
+        output.write(myDoubleToString(p.cluster));
+        break;
+      }
 
-          case Regression: {
-              RegressionModelPrediction p = model.predictRegression(row);
-              if (getTreePath) {
-                writeTreePaths(p.leafNodeAssignments, output);
-              } else if (predictContributions) {
-                writeContributions(p.contributions, output);
-              } else
-               output.write(myDoubleToString(p.value));
+      case Regression: {
+          RegressionModelPrediction p = model.predictRegression(row);
+          if (getTreePath) {
+            writeTreePaths(p.leafNodeAssignments, output);
+          } else if (predictContributions) {
+            writeContributions(p.contributions, output);
+          } else
+           output.write(myDoubleToString(p.value));
 
-            break;
-          }
-          
-          case CoxPH: {
-              CoxPHModelPrediction p = model.predictCoxPH(row);
-              output.write(myDoubleToString(p.value));
+        break;
+      }
+      
+      case CoxPH: {
+          CoxPHModelPrediction p = model.predictCoxPH(row);
+          output.write(myDoubleToString(p.value));
 
-            break;
-          }
+        break;
+      }
 
-          case DimReduction: {
-            DimReductionModelPrediction p = model.predictDimReduction(row);
-            double[] out;
+      case DimReduction: {
+        DimReductionModelPrediction p = model.predictDimReduction(row);
+        double[] out;
 
-            if (returnGLRMReconstruct) {
-              out = p.reconstructed;  // reconstructed A
-            } else {
-              out = p.dimensions; // x factors
-            }
+        if (returnGLRMReconstruct) {
+          out = p.reconstructed;  // reconstructed A
+        } else {
+          out = p.dimensions; // x factors
+        }
 
-            int lastOne = out.length-1;
-            for (int i=0; i < out.length; i++) {
-              output.write(myDoubleToString(out[i]));
+        int lastOne = out.length-1;
+        for (int i=0; i < out.length; i++) {
+          output.write(myDoubleToString(out[i]));
 
-              if (i < lastOne)
-                output.write(',');
-            }
-            break;
-          }
+          if (i < lastOne)
+            output.write(',');
+        }
+        break;
+      }
 
-          case AnomalyDetection: {
-            AnomalyDetectionPrediction p = model.predictAnomalyDetection(row);
-            double[] rawPreds = p.toPreds();
-            for (int i = 0; i < rawPreds.length - 1; i++) {
-              output.write(myDoubleToString(rawPreds[i]));
-              output.write(',');
+      case AnomalyDetection: {
+        AnomalyDetectionPrediction p = model.predictAnomalyDetection(row);
+        double[] rawPreds = p.toPreds();
+        for (int i = 0; i < rawPreds.length - 1; i++) {
+          output.write(myDoubleToString(rawPreds[i]));
+          output.write(',');
+        }
+        output.write(myDoubleToString(rawPreds[rawPreds.length - 1]));
+        break;
+      }
+
+      default:
+        throw new Exception("Unknown model category " + category);
+    }
+
+    output.write("\n");
+  }
+
+  /**
+   * Pipelined prediction: the calling thread reads batches of lines and hands them to a pool of scoring workers
+   * (each worker has its own instance of EasyPredictModelWrapper), a dedicated writer writes the scored batches
+   * in the order they were read. The number of batches in flight is bounded to keep the memory use constant.
+   */
+  private void predictParallel(final CSVReader reader, final String[] inputColumnNames,
+                               final Writer output) throws Exception {
+    final ExecutorService workers = Executors.newFixedThreadPool(nThreads);
+    final ExecutorService writer = Executors.newSingleThreadExecutor();
+    final BlockingQueue<Future<String>> scored = new ArrayBlockingQueue<>(2 * nThreads);
+    final FutureTask<String> endOfInput = new FutureTask<>(new Callable<String>() {
+      @Override
+      public String call() {
+        return null;
+      }
+    });
+    final ThreadLocal<EasyPredictModelWrapper> workerModels = new ThreadLocal<EasyPredictModelWrapper>() {
+      @Override
+      protected EasyPredictModelWrapper initialValue() {
+        return new EasyPredictModelWrapper(modelConfig);
+      }
+    };
+    try {
+      final Future<Void> written = writer.submit(new Callable<Void>() {
+        @Override
+        public Void call() throws Exception {
+          Future<String> batch;
+          while ((batch = scored.take()) != endOfInput) {
+            output.write(batch.get());
+          }
+          return null;
+        }
+      });
+      int lineNum = 1;
+      List<String[]> lines;
+      while (!(lines = readBatch(reader)).isEmpty()) {
+        final List<String[]> batchLines = lines;
+        final int firstLineNum = lineNum;
+        Future<String> batch = workers.submit(new Callable<String>() {
+          @Override
+          public String call() throws Exception {
+            EasyPredictModelWrapper model = workerModels.get();
+            StringWriter out = new StringWriter();
+            int currentLineNum = firstLineNum;
+            try {
+              for (String[] splitLine : batchLines) {
+                predictLine(model, splitLine, inputColumnNames, out);
+                currentLineNum++;
+              }
+            } catch (Exception e) {
+              throw new LinePredictionException(currentLineNum, e);
             }
-            output.write(myDoubleToString(rawPreds[rawPreds.length - 1]));
-            break;
+            return out.toString();
           }
+        });
+        enqueue(scored, batch, written);
+        lineNum += batchLines.size();
+      }
+      enqueue(scored, endOfInput, written);
+      waitFor(written);
+    } finally {
+      workers.shutdownNow();
+      writer.shutdownNow();
+    }
+  }
 
-          default:
-            throw new Exception("Unknown model category " + category);
-        }
+  private List<String[]> readBatch(CSVReader reader) throws IOException {
+    List<String[]> lines = new ArrayList<>(BATCH_SIZE);
+    String[] splitLine;
+    while (lines.size() < BATCH_SIZE && (splitLine = reader.readNext()) != null) {
+      lines.add(splitLine);
+    }
+    return lines;
+  }
 
-        output.write("\n");
-        lineNum++;
+  private static void enqueue(BlockingQueue<Future<String>> queue, Future<String> batch,
+                              Future<Void> written) throws Exception {
+    while (!queue.offer(batch, 100, TimeUnit.MILLISECONDS)) {
+      if (written.isDone()) { // writer failed, don't wait for the queue to free up
+        waitFor(written);
+        throw new IllegalStateException("Writer finished before the end of input.");
       }
     }
-    catch (Exception e) {
-      throw new Exception("Prediction failed on line " + lineNum, e);
-    } finally {
-      // Clean up.
-      output.close();
-      reader.close();
+  }
+
+  private static void waitFor(Future<Void> written) throws Exception {
+    try {
+      written.get();
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof ExecutionException) // failed scoring of a batch
+        cause = cause.getCause();
+      if (cause instanceof Exception)
+        throw (Exception) cause;
+      throw e;
+    }
+  }
+
+  private static class LinePredictionException extends Exception {
+    LinePredictionException(int lineNum, Exception cause) {
+      super("Prediction failed on line " + lineNum, cause);
     }
   }
 
-  private void writeHeader(String[] colNames, BufferedWriter output) throws Exception {
+  private Reader openInput() throws IOException {
+    InputStream is = new FileInputStream(inputCSVFileName);
+    if (inputCSVFileName.endsWith(GZIP_SUFFIX))
+      is = new GZIPInputStream(is, GZIP_BUFFER_SIZE);
+    return new InputStreamReader(is);
+  }
+
+  private Writer openOutput() throws IOException {
+    OutputStream os = new FileOutputStream(outputCSVFileName);
+    if (outputCSVFileName.endsWith(GZIP_SUFFIX))
+      os = new GZIPOutputStream(os, GZIP_BUFFER_SIZE);
+    return new OutputStreamWriter(os);
+  }
+
+  private void writeHeader(String[] colNames, Writer output) throws Exception {
     output.write(colNames[0]);
     for (int i = 1; i < colNames.length; i++) {
       output.write(",");
@@ -320,7 +459,7 @@ public class PredictCsv {
     }
   }
 
-  private void writeTreePaths(String[] treePaths, BufferedWriter output) throws Exception {
+  private void writeTreePaths(String[] treePaths, Writer output) throws Exception {
     int len = treePaths.length-1;
 
     for (int index=0; index<len; index++) {
@@ -330,7 +469,7 @@ public class PredictCsv {
     output.write(treePaths[len]);
   }
 
-  private void writeContributions(float[] contributions, BufferedWriter output) throws Exception {
+  private void writeContributions(float[] contributions, Writer output) throws Exception {
     for (int i = 0; i < contributions.length; i++) {
       if (i > 0) {
         output.write(",");
@@ -362,6 +501,7 @@ public class PredictCsv {
     if (returnGLRMReconstruct)
       config.setEnableGLRMReconstrut(true);
 
+    modelConfig = config;
     model = new EasyPredictModelWrapper(config);
   } 
 
@@ -386,6 +526,7 @@ public class PredictCsv {
     if (glrmIterNumber > 0)   // set GLRM Mojo iteration number
       config.setGLRMIterNumber(glrmIterNumber);
     
+    modelConfig = config;
     model = new EasyPredictModelWrapper(config);
   }
 
@@ -393,12 +534,13 @@ public class PredictCsv {
     System.out.println();
     System.out.println("Usage:  java [...java args...] hex.genmodel.tools.PredictCsv --mojo mojoName");
     System.out.println("             --pojo pojoName --input inputFile --output outputFile --separator sepStr --decimal --setConvertInvalidNum");
+    System.out.println("             --threads nThreads");
     System.out.println();
     System.out.println("     --mojo    Name of the zip file containing model's MOJO.");
     System.out.println("     --pojo    Name of the java class containing the model's POJO. Either this ");
     System.out.println("               parameter or --model must be specified.");
-    System.out.println("     --input   text file containing the test data set to score.");
-    System.out.println("     --output  Name of the output CSV file with computed predictions.");
+    System.out.println("     --input   text file containing the test data set to score (gzip compressed if the name ends with .gz).");
+    System.out.println("     --output  Name of the output CSV file with computed predictions (gzip compressed if the name ends with .gz).");
     System.out.println("     --separator Separator to be used in input file containing test data set.");
     System.out.println("     --decimal Use decimal numbers in the output (default is to use hexademical).");
     System.out.println("     --setConvertInvalidNum Will call .setConvertInvalidNumbersToNa(true) when loading models.");
@@ -408,6 +550,8 @@ public class PredictCsv {
             " models instead of regular model predictions");
     System.out.println("     --glrmReconstruct will return the reconstructed dataset for GLRM mojo instead of X factor derived from the dataset.");
     System.out.println("     --glrmIterNumber integer indicating number of iterations to go through when constructing X factor derived from the dataset.");
+    System.out.println("     --threads number of threads used for scoring (default 1); with more than 1 thread the input is read, scored");
+    System.out.println("               and written in a pipeline, predictions are written in the same order as the input rows.");
     System.out.println();
     System.exit(1);
   }
@@ -488,6 +632,7 @@ public class PredictCsv {
             case "--output": outputCSVFileName = sarg; break;
             case "--separator": separator=sarg.charAt(sarg.length()-1); break;
             case "--glrmIterNumber": glrmIterNumber=Integer.valueOf(sarg); break;
+            case "--threads": nThreads=Integer.valueOf(sarg); break;
             default:
               System.out.println("ERROR: Unknown command line argument: " + s);
               usage();
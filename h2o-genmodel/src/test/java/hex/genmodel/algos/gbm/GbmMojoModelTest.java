@@ -14,6 +14,7 @@ import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.util.Random;
 
 import static org.junit.Assert.*;
 
@@ -67,6 +68,47 @@ public class GbmMojoModelTest {
     assertArrayEquals(expectedPreds, preds, 1e-8);
   }
 
+  @Test
+  public void testScore0Batch() throws Exception {
+    final int nrows = 1000;
+    final int ncols = mojo12.nfeatures();
+    Random rnd = new Random(42);
+    double[][] columns = new double[ncols][nrows];
+    for (int r = 0; r < nrows; r++) {
+      for (int c = 0; c < ncols; c++) {
+        double v;
+        if (mojo12.getDomainValues(c) != null) // include unseen levels
+          v = rnd.nextInt(mojo12.getDomainValues(c).length + 2);
+        else
+          v = rnd.nextDouble() * 20;
+        columns[c][r] = rnd.nextInt(20) == 0 ? Double.NaN : v;
+      }
+    }
+    double[][] preds = new double[nrows][3];
+    mojo12.score0(columns, nrows, preds);
+    double[] row = new double[ncols];
+    for (int r = 0; r < nrows; r++) {
+      for (int c = 0; c < ncols; c++)
+        row[c] = columns[c][r];
+      assertArrayEquals(mojo12.score0(row, new double[3]), preds[r], 0);
+    }
+  }
+
+  @Test
+  public void testScore0PrecompiledTrees() throws Exception {
+    GbmMojoModel precompiled = (GbmMojoModel) ModelMojoReader.readFrom(new ClasspathReaderBackend());
+    assertTrue(precompiled.precompileTrees());
+    Random rnd = new Random(42);
+    double[] row = new double[precompiled.nfeatures()];
+    for (int i = 0; i < 1000; i++) {
+      for (int c = 0; c < row.length; c++) {
+        double v = mojo12.getDomainValues(c) != null ? rnd.nextInt(mojo12.getDomainValues(c).length + 2) : rnd.nextDouble() * 20;
+        row[c] = rnd.nextInt(20) == 0 ? Double.NaN : v;
+      }
+      assertArrayEquals(mojo12.score0(row, new double[3]), precompiled.score0(row, new double[3]), 0);
+    }
+  }
+
   @Test
   public void testPredict() throws Exception {
     EasyPredictModelWrapper wrapper = new EasyPredictModelWrapper(mojo12);
@@ -14,6 +14,7 @@ import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.util.Random;
 
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertNotNull;
@@ -49,6 +50,24 @@ public class IsolationForestMojoModelTest {
         assertArrayEquals(res._paths, res2.leafNodeAssignments);
     }
 
+    @Test
+    public void testScore0Batch() {
+        final int nrows = 100;
+        final int ncols = mojo.nfeatures();
+        Random rnd = new Random(42);
+        double[][] columns = new double[ncols][nrows];
+        for (int c = 0; c < ncols; c++)
+            for (int r = 0; r < nrows; r++)
+                columns[c][r] = rnd.nextInt(10) == 0 ? Double.NaN : rnd.nextGaussian() * 10;
+        double[][] preds = new double[nrows][mojo.getPredsSize()];
+        mojo.score0(columns, nrows, preds);
+        double[] row = new double[ncols];
+        for (int r = 0; r < nrows; r++) {
+            for (int c = 0; c < ncols; c++)
+                row[c] = columns[c][r];
+            assertArrayEquals(mojo.score0(row, new double[mojo.getPredsSize()]), preds[r], 0);
+        }
+    }
 
     private static class ClasspathReaderBackend implements MojoReaderBackend {
         @Override
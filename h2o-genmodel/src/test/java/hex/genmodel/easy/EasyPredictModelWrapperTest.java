@@ -400,6 +400,45 @@ public class EasyPredictModelWrapperTest {
     }
   }
 
+  @Test
+  public void testPredictBinomialBatch() throws Exception {
+    SupervisedModel rawModel = new SupervisedModel(makeSupervisedModel().getNames(), makeSupervisedModel().getDomainValues()) {
+      @Override
+      public double[] score0(double[] data, double[] preds) {
+        Assert.assertEquals(0, preds[0], 0);
+        preds[2] = Double.isNaN(data[1]) ? 0.5 : data[1] / 2;
+        preds[1] = 1 - preds[2];
+        preds[0] = preds[2] > 0.5 ? 1 : 0;
+        return preds;
+      }
+    };
+    EasyPredictModelWrapper m = new EasyPredictModelWrapper(rawModel);
+
+    RowData[] rows = new RowData[5];
+    for (int i = 0; i < rows.length; i++) {
+      rows[i] = new RowData();
+      rows[i].put("C1", "c1level" + (1 + i % 2));
+      if (i != 3)
+        rows[i].put("C2", "c2level" + (1 + i % 3));
+    }
+    int[] labels = new int[rows.length];
+    double[][] probs = new double[rows.length][2];
+    m.predictBinomial(rows, labels, probs);
+
+    for (int i = 0; i < rows.length; i++) {
+      BinomialModelPrediction p = m.predictBinomial(rows[i]);
+      Assert.assertEquals(p.labelIndex, labels[i]);
+      Assert.assertArrayEquals(p.classProbabilities, probs[i], 0);
+    }
+
+    try {
+      m.predictBinomial(rows, new int[rows.length - 1], null);
+      Assert.fail("Expected failure on a too small output array");
+    } catch (IllegalArgumentException e) {
+      Assert.assertTrue(e.getMessage().startsWith("Output array is too small"));
+    }
+  }
+
   @Test
   public void testSortedClassProbability() throws Exception {
     SupervisedModel rawModel = makeSupervisedModel();
@@ -2,9 +2,13 @@ package water.parser.orc;
 
 import org.apache.hadoop.hive.common.type.HiveDecimal;
 import org.apache.hadoop.hive.ql.exec.vector.*;
+import org.apache.hadoop.hive.ql.io.orc.ColumnStatistics;
+import org.apache.hadoop.hive.ql.io.orc.DoubleColumnStatistics;
+import org.apache.hadoop.hive.ql.io.orc.IntegerColumnStatistics;
 import org.apache.hadoop.hive.ql.io.orc.Reader;
 import org.apache.hadoop.hive.ql.io.orc.RecordReader;
 import org.apache.hadoop.hive.ql.io.orc.StripeInformation;
+import org.apache.hadoop.hive.ql.io.orc.StripeStatistics;
 import org.apache.hadoop.hive.serde2.io.HiveDecimalWritable;
 import org.apache.hadoop.hive.serde2.objectinspector.*;
 import org.joda.time.DateTime;
@@ -16,6 +20,7 @@ import water.Key;
 import water.fvec.Vec;
 import water.parser.*;
 import water.util.ArrayUtils;
+import water.util.Log;
 import water.util.StringUtils;
 
 import java.io.IOException;
@@ -68,6 +73,8 @@ public class OrcParser extends Parser {
 
   private transient HashMap<Integer,HashMap<Number,byte[]>> _toStringMaps = new HashMap<>();
 
+  private transient byte[] _parseTypes; // column types of the parsed (not skipped) columns
+
 
   @Override protected ParseWriter streamParse(final InputStream is, final StreamParseWriter dout) throws IOException {
     List<StripeInformation> stripesInfo = ((OrcParseSetup) this._setup).getStripes();
@@ -116,9 +123,30 @@ public class OrcParser extends Parser {
     // write one stripe of data to H2O frame
     String [] orcTypes = setup.getColumnTypesString();
     boolean[] toInclude = setup.getToInclude();
+    byte [] col_types = _setup.getColumnTypes();
+    // push skipped columns down to the reader, ORC column ids of the parsed columns are kept in toRead
+    boolean[] toRead = toInclude.clone();
+    int[] orcColIds = new int[col_types.length];
+    _parseTypes = new byte[col_types.length];
+    int nParsed = 0;
+    for (int orcColId = 1, colIndex = 0; orcColId < toInclude.length; orcColId++) {
+      if (!toInclude[orcColId])
+        continue;
+      orcColIds[colIndex] = orcColId;
+      if (isKept(colIndex))
+        _parseTypes[nParsed++] = col_types[colIndex];
+      else
+        toRead[orcColId] = false;
+      colIndex++;
+    }
     try {
+      if (!mightMatch(chunkId, orcColIds)) {
+        Log.debug("Skipping ORC stripe #", chunkId, " (", thisStripe.getNumberOfRows(),
+                " rows), it doesn't match block filter: ", _setup.getColumnStatsFilter());
+        return dout;
+      }
       RecordReader perStripe = orcFileReader.rows(thisStripe.getOffset(), thisStripe.getDataLength(),
-          setup.getToInclude(), null, setup.getColumnNames());
+          toRead, null, setup.getColumnNames());
       VectorizedRowBatch batch = null;
       long rows = 0;
       long rowCount = thisStripe.getNumberOfRows();
@@ -129,20 +157,23 @@ public class OrcParser extends Parser {
         if(currentBatchRow != nrows)
           throw new IllegalArgumentException("got batch with too many records, does not fit in int");
         ColumnVector[] dataVectors = batch.cols;
-        int colIndex = 0;
+        int colIndex = 0;  // index to all supported columns
+        int parseIndex = 0;  // index to columns actually parsed
         for (int col = 0; col < batch.numCols; ++col) {  // read one column at a time;
           if (toInclude[col + 1]) { // only write a column if we actually want it
-            if(_setup.getColumnTypes()[colIndex] != Vec.T_BAD)
-              write1column(dataVectors[col], orcTypes[colIndex], colIndex, nrows, dout);
-            else dout.addNAs(col,nrows);
+            if (isKept(colIndex)) {
+              if (col_types[colIndex] != Vec.T_BAD)
+                write1column(dataVectors[col], orcTypes[colIndex], parseIndex, nrows, dout);
+              else dout.addNAs(parseIndex, nrows);
+              parseIndex++;
+            }
             colIndex++;
           }
         }
         rows  += currentBatchRow;    // record number of rows of data actually read
       }
-      byte [] col_types = _setup.getColumnTypes();
-      for(int i = 0; i < col_types.length; ++i){
-        if(col_types[i] == Vec.T_BAD)
+      for(int i = 0; i < nParsed; ++i){
+        if(_parseTypes[i] == Vec.T_BAD)
           dout.addNAs(i,(int)rowCount);
       }
       perStripe.close();
@@ -153,6 +184,46 @@ public class OrcParser extends Parser {
   }
 
 
+  private boolean isKept(int colIndex) {
+    return _keepColumns == null || _keepColumns[colIndex];
+  }
+
+  /**
+   * Uses the stripe statistics to check whether any row of the stripe can match the block filter of the setup.
+   * Only integer and floating point columns are considered, stripes without usable statistics are always read.
+   * Filtered columns are identified by their index in the setup (the supported columns), same as skipped columns.
+   *
+   * @param stripeId index of the stripe
+   * @param orcColIds ORC column ids of the supported columns
+   * @return false if no row of the stripe can match the filter, true otherwise
+   */
+  private boolean mightMatch(int stripeId, int[] orcColIds) throws IOException {
+    ColumnStatsFilter filter = _setup.getColumnStatsFilter();
+    if (filter == null)
+      return true;
+    List<StripeStatistics> stripeStats = orcFileReader.getMetadata().getStripeStatistics();
+    if (stripeId >= stripeStats.size())
+      return true;
+    ColumnStatistics[] colStats = stripeStats.get(stripeId).getColumnStatistics();
+    for (int colIndex = 0; colIndex < orcColIds.length; colIndex++) {
+      if (!filter.isFiltered(colIndex) || orcColIds[colIndex] >= colStats.length)
+        continue;
+      ColumnStatistics stats = colStats[orcColIds[colIndex]];
+      if (stats == null || stats.getNumberOfValues() == 0)
+        continue;
+      if (stats instanceof IntegerColumnStatistics) {
+        IntegerColumnStatistics intStats = (IntegerColumnStatistics) stats;
+        if (!filter.mightMatch(colIndex, intStats.getMinimum(), intStats.getMaximum()))
+          return false;
+      } else if (stats instanceof DoubleColumnStatistics) {
+        DoubleColumnStatistics doubleStats = (DoubleColumnStatistics) stats;
+        if (!filter.mightMatch(colIndex, doubleStats.getMinimum(), doubleStats.getMaximum()))
+          return false;
+      }
+    }
+    return true;
+  }
+
   /**
    * This method writes one column of H2O data frame at a time.
    *
@@ -338,7 +409,7 @@ public class OrcParser extends Parser {
    */
   private void writeDoublecolumn(DoubleColumnVector vec, int colId, int rowNumber, ParseWriter dout) {
     double[] oneColumn = vec.vector;
-    byte t = _setup.getColumnTypes()[colId];
+    byte t = _parseTypes[colId];
     switch(t) {
       case Vec.T_CAT:
         if(_toStringMaps.get(colId) == null)
@@ -399,7 +470,7 @@ public class OrcParser extends Parser {
    */
   private void writeLongcolumn(LongColumnVector vec, int colId, int rowNumber, ParseWriter dout) {
     long[] oneColumn = vec.vector;
-    byte t = _setup.getColumnTypes()[colId];
+    byte t = _parseTypes[colId];
     switch(t) {
       case Vec.T_CAT:
         if(_toStringMaps.get(colId) == null)
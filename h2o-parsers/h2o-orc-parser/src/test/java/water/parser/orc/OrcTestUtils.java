@@ -12,7 +12,10 @@ import org.apache.hadoop.hive.ql.io.orc.OrcFile;
 import org.apache.hadoop.hive.ql.io.orc.Reader;
 import org.apache.hadoop.hive.ql.io.orc.RecordReader;
 import org.apache.hadoop.hive.ql.io.orc.StripeInformation;
+import org.apache.hadoop.hive.ql.io.orc.Writer;
 import org.apache.hadoop.hive.serde2.io.HiveDecimalWritable;
+import org.apache.hadoop.hive.serde2.objectinspector.ObjectInspector;
+import org.apache.hadoop.hive.serde2.objectinspector.ObjectInspectorFactory;
 import org.apache.hadoop.hive.serde2.objectinspector.StructField;
 import org.apache.hadoop.hive.serde2.objectinspector.StructObjectInspector;
 import org.joda.time.DateTime;
@@ -327,4 +330,39 @@ public class OrcTestUtils {
     else
       return (timestamp-hour*HOUR_OFFSET);
   }
+
+  /**
+   * Row of the file generated by {@link #writeSequenceOrc(File, int, int)}.
+   */
+  static class SequenceRow {
+    final int id;
+    final double x;
+    final long y;
+
+    SequenceRow(int id) {
+      this.id = id;
+      this.x = id / 2.0;
+      this.y = 2L * id;
+    }
+  }
+
+  /**
+   * Writes an ORC file with columns id (0 ... nrows-1), x = id/2 and y = 2*id, a new stripe is started
+   * after every stripeRows rows.
+   */
+  static void writeSequenceOrc(File f, int nrows, int stripeRows) throws IOException {
+    ObjectInspector inspector = ObjectInspectorFactory.getReflectionObjectInspector(
+            SequenceRow.class, ObjectInspectorFactory.ObjectInspectorOptions.JAVA);
+    Writer writer = OrcFile.createWriter(new Path(f.toString()),
+            OrcFile.writerOptions(new Configuration()).inspector(inspector));
+    try {
+      for (int i = 0; i < nrows; i++) {
+        writer.addRow(new SequenceRow(i));
+        if ((i + 1) % stripeRows == 0)
+          writer.writeIntermediateFooter(); // flushes the current stripe
+      }
+    } finally {
+      writer.close();
+    }
+  }
 }
@@ -0,0 +1,123 @@
+package water.parser.orc;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.hive.ql.io.orc.OrcFile;
+import org.apache.hadoop.hive.ql.io.orc.Reader;
+import org.apache.hadoop.hive.ql.io.orc.StripeInformation;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import water.TestUtil;
+import water.fvec.Frame;
+import water.fvec.Vec;
+import water.parser.ColumnStatsFilter;
+import water.parser.ParseSetup;
+
+import java.io.File;
+import java.io.IOException;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests skipping of ORC stripes based on a block filter, and the skipped columns which are not read at all.
+ */
+public class ParseTestOrcBlockFilter extends TestUtil {
+
+    private static final int NROWS = 10000;
+    private static final int STRIPE_ROWS = 1000;
+
+    @BeforeClass
+    static public void setup() {
+        TestUtil.stall_till_cloudsize(1);
+    }
+
+    @Test
+    public void testSkippedColumns() throws IOException {
+        File dir = java.nio.file.Files.createTempDirectory("orc-block-filter").toFile();
+        Frame f = null;
+        try {
+            File file = new File(dir, "sequence.orc");
+            OrcTestUtils.writeSequenceOrc(file, NROWS, STRIPE_ROWS);
+            // parsed values are written to the parse index, not to the index of the column in the file
+            f = parseTestFile(file.getCanonicalPath(), new int[]{0});
+            assertArrayEquals(ar("x", "y"), f.names());
+            assertEquals(NROWS, f.numRows());
+            assertEquals((NROWS - 1) / 2.0, f.vec("x").max(), 1e-10);
+            assertEquals(2 * (NROWS - 1), f.vec("y").max(), 0);
+            for (long row = 0; row < f.numRows(); row++)
+                assertEquals(f.vec("y").at8(row) / 4.0, f.vec("x").at(row), 1e-10); // x is stored as mantissa/exponent
+        } finally {
+            if (f != null) f.delete();
+            deleteDir(dir);
+        }
+    }
+
+    @Test
+    public void testParseWithBlockFilter() throws IOException {
+        File dir = java.nio.file.Files.createTempDirectory("orc-block-filter").toFile();
+        try {
+            File file = new File(dir, "sequence.orc");
+            OrcTestUtils.writeSequenceOrc(file, NROWS, STRIPE_ROWS);
+            long expectedRows = rowsInMatchingStripes(file, 4000, 4500);
+            assertBlockFilterParse(file.getCanonicalPath(), "0:4000:4500", null, expectedRows);
+            // filter on a column which is not imported, filtered columns use the same indices as skipped columns
+            assertBlockFilterParse(file.getCanonicalPath(), "2:8000:9000", new int[]{1}, expectedRows);
+            assertBlockFilterParse(file.getCanonicalPath(), "0:4000:4500", new int[]{1}, expectedRows);
+        } finally {
+            deleteDir(dir);
+        }
+    }
+
+    /**
+     * Number of rows in stripes whose ids (rows are written in order of ids starting from 0) intersect [lo, hi].
+     */
+    private static long rowsInMatchingStripes(File file, long lo, long hi) throws IOException {
+        Reader reader = OrcFile.createReader(new Path(file.toString()), OrcFile.readerOptions(new Configuration()));
+        assertTrue("Expected multiple stripes", reader.getStripes().size() > 2);
+        long expectedRows = 0;
+        long firstId = 0;
+        for (StripeInformation stripe : reader.getStripes()) {
+            long lastId = firstId + stripe.getNumberOfRows() - 1;
+            if (lastId >= lo && firstId <= hi)
+                expectedRows += stripe.getNumberOfRows();
+            firstId = lastId + 1;
+        }
+        return expectedRows;
+    }
+
+    private void assertBlockFilterParse(String fname, final String range, int[] skippedColumns, long expectedRows) {
+        Frame f = null;
+        try {
+            f = parseTestFile(fname, new ParseSetupTransformer() {
+                @Override
+                public ParseSetup transformSetup(ParseSetup guessedSetup) {
+                    guessedSetup.setColumnStatsFilter(ColumnStatsFilter.parse(new String[]{range}));
+                    return guessedSetup;
+                }
+            }, skippedColumns);
+            assertEquals(skippedColumns == null ? 3 : 2, f.numCols());
+            assertEquals("Only the matching stripes are read", expectedRows, f.numRows());
+            assertTrue("Some stripes are skipped", f.numRows() < NROWS);
+            assertTrue("Non-matching rows of the matching stripes are kept", f.numRows() > 501);
+            Vec id = f.vec("id");
+            assertTrue(id.min() <= 4000 && id.max() >= 4500);
+            for (long row = 0; row < f.numRows(); row++) {
+                long i = id.at8(row);
+                if (skippedColumns == null)
+                    assertEquals(i / 2.0, f.vec("x").at(row), 1e-10);
+                assertEquals(2 * i, f.vec("y").at8(row));
+            }
+        } finally {
+            if (f != null) f.delete();
+        }
+    }
+
+    private static void deleteDir(File dir) {
+        File[] files = dir.listFiles();
+        if (files != null)
+            for (File f : files)
+                f.delete();
+        dir.delete();
+    }
+
+}
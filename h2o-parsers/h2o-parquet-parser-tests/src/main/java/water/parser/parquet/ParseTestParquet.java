@@ -12,8 +12,12 @@ import org.apache.parquet.avro.AvroParquetWriter;
 import org.apache.parquet.column.ParquetProperties;
 import org.apache.parquet.example.data.Group;
 import org.apache.parquet.example.data.simple.SimpleGroupFactory;
+import org.apache.parquet.format.converter.ParquetMetadataConverter;
+import org.apache.parquet.hadoop.ParquetFileReader;
 import org.apache.parquet.hadoop.ParquetWriter;
 import org.apache.parquet.hadoop.example.GroupWriteSupport;
+import org.apache.parquet.hadoop.metadata.BlockMetaData;
+import org.apache.parquet.hadoop.metadata.ParquetMetadata;
 import org.apache.parquet.io.api.Binary;
 import org.apache.parquet.schema.MessageType;
 import org.junit.Assert;
@@ -28,6 +32,7 @@ import water.fvec.NFSFileVec;
 import water.fvec.TestFrameBuilder;
 import water.fvec.Vec;
 import water.parser.BufferedString;
+import water.parser.ColumnStatsFilter;
 import water.parser.ParseDataset;
 import water.parser.ParseSetup;
 import water.util.IcedInt;
@@ -306,6 +311,34 @@ public class ParseTestParquet extends TestUtil {
     }
   }
 
+  @Test
+  public void testParseStringOverflowColumnar() throws IOException {
+    final String prop = H2O.OptArgs.SYSTEM_PROP_PREFIX + VecParquetColumnarReader.PROP_ENABLED;
+    Key<?> cfgKey = Key.make(WriterDelegate.class.getCanonicalName() + "_maxStringSize");
+    File dir = Files.createTempDir();
+    Frame f = null;
+    try {
+      File file = ParquetFileGenerator.generateStringParquet(dir, "strings.parquet", 10);
+      System.setProperty(prop, "true");
+      DKV.put(cfgKey, new IcedInt(30)); // only the first 2 strings (12 chars each) fit
+      f = parseTestFile(file.getCanonicalPath(), null, ParseSetup.HAS_HEADER, new byte[]{Vec.T_NUM, Vec.T_STR}, psTransformer);
+      assertArrayEquals(ar("int_field", "string_field"), f.names());
+      assertEquals(10, f.numRows());
+      for (int i = 0; i < 10; i++) {
+        assertEquals(i, f.vec(0).at8(i));
+        if (i < 2)
+          assertEquals(ParquetFileGenerator.fillString(12, 'c'), f.vec(1).atStr(new BufferedString(), i).toString());
+        else
+          assertTrue(f.vec(1).isNA(i));
+      }
+    } finally {
+      System.clearProperty(prop);
+      DKV.remove(cfgKey);
+      if (f != null) f.delete();
+      org.apache.commons.io.FileUtils.deleteQuietly(dir);
+    }
+  }
+
   @Test
   public void testParseMultiWithEmpty() {
     final int nFiles = 10;
@@ -396,6 +429,112 @@ public class ParseTestParquet extends TestUtil {
     assertFrameAssertion(assertion);
   }
 
+  @Test
+  public void testColumnarParseMatchesRecordParse() throws IOException {
+    File dir = Files.createTempDir();
+    try {
+      File numbers = ParquetFileGenerator.generateParquetFile(dir, "numbers.parquet", 1000, new Date());
+      File sparse = ParquetFileGenerator.generateSparseParquetFile(dir, "sparse.parquet", 1000);
+      File avro = ParquetFileGenerator.generateAvroPrimitiveTypes(dir, "avro.parquet", 1000, new Date());
+      File dictionary = ParquetFileGenerator.generateNullableDictionaryParquet(dir, "dictionary.parquet", 1000, new Date());
+      File categorical = ParquetFileGenerator.generateParquetFileWithNullCharacters(dir, "categorical.parquet", 100);
+      File decimals = ParquetFileGenerator.generateParquetFileDecimals(dir, "decimals.parquet", 100);
+      for (File f : new File[]{numbers, sparse, avro, dictionary, decimals}) {
+        assertColumnarParseMatchesRecordParse(f.getCanonicalPath(), null);
+        assertColumnarParseMatchesRecordParse(f.getCanonicalPath(), new int[]{1});
+      }
+      assertColumnarParseMatchesRecordParse(categorical.getCanonicalPath(), null);
+    } finally {
+      org.apache.commons.io.FileUtils.deleteQuietly(dir);
+    }
+  }
+
+  private void assertColumnarParseMatchesRecordParse(String fname, int[] skippedColumns) {
+    final String prop = H2O.OptArgs.SYSTEM_PROP_PREFIX + VecParquetColumnarReader.PROP_ENABLED;
+    Frame records = null, columns = null;
+    try {
+      System.setProperty(prop, "false");
+      records = parseTestFile(fname, psTransformer, skippedColumns);
+      System.setProperty(prop, "true");
+      columns = parseTestFile(fname, psTransformer, skippedColumns);
+      assertArrayEquals(records.names(), columns.names());
+      assertArrayEquals(records.types(), columns.types());
+      assertBitIdentical(records, columns);
+    } finally {
+      System.clearProperty(prop);
+      if (records != null) records.delete();
+      if (columns != null) columns.delete();
+    }
+  }
+
+  @Test
+  public void testParseWithBlockFilter() throws IOException {
+    File dir = Files.createTempDir();
+    try {
+      File file = ParquetFileGenerator.generateSequenceParquet(dir, "sequence.parquet", 10000);
+      long expectedRows = rowsInMatchingRowGroups(file, 4000, 4500);
+      assertBlockFilterParse(file.getCanonicalPath(), "0:4000:4500", null, expectedRows);
+      // filter on a column which is not imported, filtered columns use the same indices as skipped columns
+      assertBlockFilterParse(file.getCanonicalPath(), "2:8000:9000", new int[]{1}, expectedRows);
+      // columnar reader prunes the same row groups
+      final String prop = H2O.OptArgs.SYSTEM_PROP_PREFIX + VecParquetColumnarReader.PROP_ENABLED;
+      try {
+        System.setProperty(prop, "true");
+        assertBlockFilterParse(file.getCanonicalPath(), "0:4000:4500", new int[]{1}, expectedRows);
+      } finally {
+        System.clearProperty(prop);
+      }
+    } finally {
+      org.apache.commons.io.FileUtils.deleteQuietly(dir);
+    }
+  }
+
+  /**
+   * Number of rows in row groups whose ids (rows are written in order of ids starting from 0) intersect [lo, hi].
+   */
+  private static long rowsInMatchingRowGroups(File file, long lo, long hi) throws IOException {
+    ParquetMetadata footer = ParquetFileReader.readFooter(new Configuration(), new Path(file.getPath()),
+            ParquetMetadataConverter.NO_FILTER);
+    assertTrue("Expected multiple row groups", footer.getBlocks().size() > 2);
+    long expectedRows = 0;
+    long firstId = 0;
+    for (BlockMetaData block : footer.getBlocks()) {
+      long lastId = firstId + block.getRowCount() - 1;
+      if (lastId >= lo && firstId <= hi)
+        expectedRows += block.getRowCount();
+      firstId = lastId + 1;
+    }
+    return expectedRows;
+  }
+
+  private void assertBlockFilterParse(String fname, final String range, int[] skippedColumns, long expectedRows) {
+    Frame f = null;
+    try {
+      f = parseTestFile(fname, new ParseSetupTransformer() {
+        @Override
+        public ParseSetup transformSetup(ParseSetup guessedSetup) {
+          guessedSetup = psTransformer.transformSetup(guessedSetup);
+          guessedSetup.setColumnStatsFilter(ColumnStatsFilter.parse(new String[]{range}));
+          return guessedSetup;
+        }
+      }, skippedColumns);
+      assertEquals(skippedColumns == null ? 3 : 2, f.numCols());
+      assertEquals("Only the matching row groups are read", expectedRows, f.numRows());
+      assertTrue("Some row groups are skipped", f.numRows() < 10000);
+      assertTrue("Non-matching rows of the matching row groups are kept", f.numRows() > 501);
+      Vec id = f.vec("id");
+      assertTrue(id.min() <= 4000 && id.max() >= 4500);
+      for (long row = 0; row < f.numRows(); row++) {
+        long i = id.at8(row);
+        if (skippedColumns == null)
+          assertEquals(i / 2.0, f.vec("x").at(row), 1e-10); // chunk compression stores decimals as mantissa/exponent
+        assertEquals(2 * i, f.vec("y").at8(row));
+      }
+    } finally {
+      if (f != null) f.delete();
+    }
+  }
+
   @Test
   public void testPubdev5673() {
     Frame actual = null;
@@ -496,6 +635,62 @@ class ParquetFileGenerator {
     return f;
   }
 
+  static File generateStringParquet(File parentDir, String filename, int nrows) throws IOException {
+    File f = new File(parentDir, filename);
+
+    Configuration conf = new Configuration();
+    MessageType schema = parseMessageType(
+        "message test { "
+            + "required int32 int_field; "
+            + "required BINARY string_field; "
+            + "} ");
+    GroupWriteSupport.setSchema(schema, conf);
+    SimpleGroupFactory fact = new SimpleGroupFactory(schema);
+    ParquetWriter<Group> writer = new ParquetWriter<Group>(new Path(f.getPath()), new GroupWriteSupport(),
+        UNCOMPRESSED,
+        262144, 1024, 512, true, false, ParquetProperties.WriterVersion.PARQUET_2_0, conf);
+    try {
+      Binary binary = Binary.fromString(fillString(12, 'c'));
+      for (int i = 0; i < nrows; i++) {
+        writer.write(fact.newGroup()
+            .append("int_field", i)
+            .append("string_field", binary)
+        );
+      }
+    } finally {
+      writer.close();
+    }
+    return f;
+  }
+
+  static File generateSequenceParquet(File parentDir, String filename, int nrows) throws IOException {
+    File f = new File(parentDir, filename);
+
+    Configuration conf = new Configuration();
+    MessageType schema = parseMessageType(
+        "message test { "
+            + "required int32 id; "
+            + "required double x; "
+            + "required int64 y; "
+            + "} ");
+    GroupWriteSupport.setSchema(schema, conf);
+    SimpleGroupFactory fact = new SimpleGroupFactory(schema);
+    ParquetWriter<Group> writer = new ParquetWriter<Group>(new Path(f.getPath()), new GroupWriteSupport(),
+        UNCOMPRESSED, 1024, 1024, 512, true, false, ParquetProperties.WriterVersion.PARQUET_2_0, conf);
+    try {
+      for (int i = 0; i < nrows; i++) {
+        writer.write(fact.newGroup()
+            .append("id", i)
+            .append("x", i / 2.0)
+            .append("y", 2L * i)
+        );
+      }
+    } finally {
+      writer.close();
+    }
+    return f;
+  }
+
   public static String fillString(int count,char c) {
     StringBuilder sb = new StringBuilder( count );
     for( int i=0; i<count; i++ ) {
@@ -571,6 +766,38 @@ class ParquetFileGenerator {
     return f;
   }
 
+  /**
+   * Low-cardinality nullable columns, values are dictionary encoded, definition levels and dictionary ids are RLE.
+   */
+  static File generateNullableDictionaryParquet(File parentDir, String filename, int nrows, Date date) throws IOException {
+    File f = new File(parentDir, filename);
+
+    Configuration conf = new Configuration();
+    MessageType schema = parseMessageType(
+            "message test { optional int32 int32_field; optional int64 int64_field; optional double double_field; "
+                    + "optional int64 timestamp_field (TIMESTAMP_MILLIS); optional binary string_field (UTF8); "
+                    + "optional boolean boolean_field; } ");
+    GroupWriteSupport.setSchema(schema, conf);
+    SimpleGroupFactory fact = new SimpleGroupFactory(schema);
+    ParquetWriter<Group> writer = new ParquetWriter<Group>(new Path(f.getPath()), new GroupWriteSupport(),
+            UNCOMPRESSED, 1024, 1024, 512, true, false, ParquetProperties.WriterVersion.PARQUET_2_0, conf);
+    try {
+      for (int i = 0; i < nrows; i++) {
+        Group g = fact.newGroup();
+        if (i % 5 != 0) { g = g.append("int32_field", i % 7); }
+        if (i % 50 > 10) { g = g.append("int64_field", 1L << (i % 40)); }
+        if (i % 4 != 0) { g = g.append("double_field", (i % 3) * 0.5); }
+        if (i % 6 != 0) { g = g.append("timestamp_field", date.getTime() + (i % 4) * 1000); }
+        if (i % 3 != 0) { g = g.append("string_field", "CAT_" + (i % 9)); }
+        if (i % 7 != 0) { g = g.append("boolean_field", i % 2 == 0); }
+        writer.write(g);
+      }
+    } finally {
+      writer.close();
+    }
+    return f;
+  }
+
   static File generateParquetFileDecimals(File parentDir, String filename, int nrows) throws IOException {
     File f = new File(parentDir, filename);
 
@@ -11,6 +11,8 @@ import water.parser.BufferedString;
 import water.parser.parquet.ext.DecimalUtils;
 import water.util.StringUtils;
 
+import java.util.Arrays;
+
 /**
  * Implementation of Parquet's GroupConverter for H2O's chunks.
  *
@@ -28,23 +30,28 @@ class ChunkConverter extends GroupConverter {
 
   private long _currentRecordIdx = -1;
 
+  /**
+   * @param parquetSchema schema of the file
+   * @param chunkSchema column types of all columns in the file
+   * @param writer output
+   * @param keepColumns columns actually parsed, converters are provided only for these (in the order of the read schema,
+   *                    see {@link ChunkReadSupport#projectSchema(MessageType, boolean[])})
+   */
   ChunkConverter(MessageType parquetSchema, byte[] chunkSchema, WriterDelegate writer, boolean[] keepColumns) {
     _writer = writer;
 
     int colIdx = 0; // index to columns actually parsed
-    _converters = new Converter[chunkSchema.length];
+    Converter[] converters = new Converter[chunkSchema.length];
     int trueColumnIndex = 0;  // count all columns including the skipped ones
     for (Type parquetField : parquetSchema.getFields()) {
       assert parquetField.isPrimitive();
-      if (keepColumns[trueColumnIndex]) {
-        _converters[trueColumnIndex] = newConverter(colIdx, chunkSchema[trueColumnIndex], parquetField.asPrimitiveType());
+      if (keepColumns == null || keepColumns[trueColumnIndex]) {
+        converters[colIdx] = newConverter(colIdx, chunkSchema[trueColumnIndex], parquetField.asPrimitiveType());
         colIdx++;
-      } else {
-        _converters[trueColumnIndex] = nullConverter(chunkSchema[trueColumnIndex], parquetField.asPrimitiveType());
       }
-
       trueColumnIndex++;
     }
+    _converters = Arrays.copyOf(converters, colIdx);
   }
 
   @Override
@@ -67,60 +74,6 @@ class ChunkConverter extends GroupConverter {
     return _currentRecordIdx;
   }
 
-  private PrimitiveConverter nullConverter(byte vecType, PrimitiveType parquetType) {
-    switch (vecType) {
-      case Vec.T_BAD:
-      case Vec.T_CAT:
-      case Vec.T_STR:
-      case Vec.T_UUID:
-      case Vec.T_TIME:
-      case Vec.T_NUM:
-          boolean dictSupport = parquetType.getOriginalType() == OriginalType.UTF8 || parquetType.getOriginalType() == OriginalType.ENUM;
-          return new NullStringConverter(dictSupport);
-      default:
-        throw new UnsupportedOperationException("Unsupported type " + vecType);
-    }
-  }
-
-  private static class NullStringConverter extends PrimitiveConverter {
-    private final boolean _dictionarySupport;
-
-    NullStringConverter(boolean dictionarySupport) {
-      _dictionarySupport = dictionarySupport;
-    }
-
-    @Override
-    public void addBinary(Binary value) { ; }
-
-    @Override
-    public boolean hasDictionarySupport() {
-      return _dictionarySupport;
-    }
-
-    @Override
-    public void setDictionary(Dictionary dictionary) {
-    }
-
-    @Override
-    public void addValueFromDictionary(int dictionaryId) {
-    }
-
-    @Override
-    public void addBoolean(boolean value) { }
-
-    @Override
-    public void addDouble(double value) { }
-
-    @Override
-    public void addFloat(float value) { }
-
-    @Override
-    public void addInt(int value) { }
-
-    @Override
-    public void addLong(long value) { }
-  }
-
   private PrimitiveConverter newConverter(int colIdx, byte vecType, PrimitiveType parquetType) {
     switch (vecType) {
       case Vec.T_BAD:
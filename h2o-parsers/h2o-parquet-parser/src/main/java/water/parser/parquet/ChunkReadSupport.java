@@ -5,7 +5,10 @@ import org.apache.parquet.hadoop.api.InitContext;
 import org.apache.parquet.hadoop.api.ReadSupport;
 import org.apache.parquet.io.api.RecordMaterializer;
 import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.Type;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
 public class ChunkReadSupport extends ReadSupport<Long> {
@@ -22,7 +25,21 @@ public class ChunkReadSupport extends ReadSupport<Long> {
 
   @Override
   public ReadContext init(InitContext context) {
-    return new ReadContext(context.getFileSchema());
+    return new ReadContext(projectSchema(context.getFileSchema(), _keepColumns));
+  }
+
+  /**
+   * Makes the read schema - only the columns that are actually parsed, skipped columns are not read at all.
+   */
+  static MessageType projectSchema(MessageType fileSchema, boolean[] keepColumns) {
+    if (keepColumns == null)
+      return fileSchema;
+    List<Type> fields = new ArrayList<>(fileSchema.getFieldCount());
+    for (int i = 0; i < fileSchema.getFieldCount(); i++) {
+      if (keepColumns[i])
+        fields.add(fileSchema.getType(i));
+    }
+    return new MessageType(fileSchema.getName(), fields);
   }
 
   @Override
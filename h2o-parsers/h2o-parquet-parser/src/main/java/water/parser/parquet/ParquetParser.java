@@ -1,7 +1,13 @@
 package water.parser.parquet;
 
+import org.apache.parquet.column.statistics.DoubleStatistics;
+import org.apache.parquet.column.statistics.FloatStatistics;
+import org.apache.parquet.column.statistics.IntStatistics;
+import org.apache.parquet.column.statistics.LongStatistics;
+import org.apache.parquet.column.statistics.Statistics;
 import org.apache.parquet.format.converter.ParquetMetadataConverter;
 import org.apache.parquet.hadoop.metadata.BlockMetaData;
+import org.apache.parquet.hadoop.metadata.ColumnChunkMetaData;
 import org.apache.parquet.hadoop.metadata.ParquetMetadata;
 import org.apache.parquet.schema.MessageType;
 import org.apache.parquet.schema.OriginalType;
@@ -18,6 +24,7 @@ import water.util.IcedHashMapGeneric;
 import water.util.Log;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
@@ -40,7 +47,7 @@ public class ParquetParser extends Parser {
 
   @Override
   protected final StreamParseWriter sequentialParse(Vec vec, final StreamParseWriter dout) {
-    final ParquetMetadata metadata = VecParquetReader.readFooter(_metadata);
+    final ParquetMetadata metadata = filterRowGroups(VecParquetReader.readFooter(_metadata), _setup.getColumnStatsFilter());
     final int nChunks = vec.nChunks();
     final long totalRecs = totalRecords(metadata);
     final long nChunkRecs = ((totalRecs / nChunks) + (totalRecs % nChunks > 0 ? 1 : 0));
@@ -94,12 +101,22 @@ public class ParquetParser extends Parser {
     // extract metadata, we want to read only the row groups that have centers in this chunk
     ParquetMetadataConverter.MetadataFilter chunkFilter = ParquetMetadataConverter.range(
             chunk.start(), chunk.start() + chunk.len());
-    ParquetMetadata metadata = VecParquetReader.readFooter(_metadata, chunkFilter);
+    ParquetMetadata metadata = filterRowGroups(VecParquetReader.readFooter(_metadata, chunkFilter), _setup.getColumnStatsFilter());
     if (metadata.getBlocks().isEmpty()) {
-      Log.trace("Chunk #", cidx, " doesn't contain any Parquet block center.");
+      Log.trace("Chunk #", cidx, " doesn't contain any Parquet block center (or all of them were filtered out).");
       return dout;
     }
     Log.info("Processing ", metadata.getBlocks().size(), " blocks of chunk #", cidx);
+    if (dout instanceof FVecParseWriter && VecParquetColumnarReader.isEnabled()) {
+      VecParquetColumnarReader reader = new VecParquetColumnarReader(vec, metadata, (FVecParseWriter) dout,
+              _setup.getColumnTypes(), _keepColumns, _setup.get_parse_columns_indices().length);
+      try {
+        reader.readAll();
+      } catch (IOException e) {
+        throw new RuntimeException("Failed to parse records", e);
+      }
+      return dout;
+    }
     VecParquetReader reader = new VecParquetReader(vec, metadata, dout, _setup.getColumnTypes(), _keepColumns, _setup.get_parse_columns_indices().length);
     try {
       Long recordNumber;
@@ -302,6 +319,72 @@ public class ParquetParser extends Parser {
     return colNames;
   }
 
+  /**
+   * Drops row groups whose column statistics show that none of their rows can match the given filter.
+   * Only statistics of numeric columns are used (decimals are stored unscaled and are skipped), row groups
+   * without usable statistics are always kept.
+   */
+  static ParquetMetadata filterRowGroups(ParquetMetadata metadata, ColumnStatsFilter filter) {
+    if (filter == null)
+      return metadata;
+    final MessageType schema = metadata.getFileMetaData().getSchema();
+    final List<String[]> colPaths = schema.getPaths(); // setup columns, see columnNames()
+    final List<BlockMetaData> blocks = new ArrayList<>(metadata.getBlocks().size());
+    for (BlockMetaData block : metadata.getBlocks()) {
+      if (mightMatch(block, schema, colPaths, filter))
+        blocks.add(block);
+      else
+        Log.debug("Skipping Parquet row group at position ", block.getStartingPos(), " (", block.getRowCount(),
+                " rows), it doesn't match block filter: ", filter);
+    }
+    if (blocks.size() == metadata.getBlocks().size())
+      return metadata;
+    return new ParquetMetadata(metadata.getFileMetaData(), blocks);
+  }
+
+  /**
+   * Columns of the filter are identified by their index in the setup (= index of the column path in the schema,
+   * same as for skipped columns).
+   */
+  private static boolean mightMatch(BlockMetaData block, MessageType schema, List<String[]> colPaths,
+                                    ColumnStatsFilter filter) {
+    for (ColumnChunkMetaData column : block.getColumns()) {
+      String[] path = column.getPath().toArray();
+      int colIdx = setupColumnIndex(colPaths, path);
+      if (colIdx < 0 || !filter.isFiltered(colIdx) || schema.getType(path).getOriginalType() == OriginalType.DECIMAL)
+        continue;
+      Statistics stats = column.getStatistics();
+      if (stats == null || !stats.hasNonNullValue())
+        continue;
+      final double min, max;
+      if (stats instanceof IntStatistics) {
+        min = ((IntStatistics) stats).getMin();
+        max = ((IntStatistics) stats).getMax();
+      } else if (stats instanceof LongStatistics) {
+        min = ((LongStatistics) stats).getMin();
+        max = ((LongStatistics) stats).getMax();
+      } else if (stats instanceof FloatStatistics) {
+        min = ((FloatStatistics) stats).getMin();
+        max = ((FloatStatistics) stats).getMax();
+      } else if (stats instanceof DoubleStatistics) {
+        min = ((DoubleStatistics) stats).getMin();
+        max = ((DoubleStatistics) stats).getMax();
+      } else
+        continue;
+      if (!filter.mightMatch(colIdx, min, max))
+        return false;
+    }
+    return true;
+  }
+
+  private static int setupColumnIndex(List<String[]> colPaths, String[] path) {
+    for (int i = 0; i < colPaths.size(); i++) {
+      if (Arrays.equals(colPaths.get(i), path))
+        return i;
+    }
+    return -1;
+  }
+
   private static BlockMetaData findFirstBlock(ParquetMetadata metadata) {
     BlockMetaData firstBlockMeta = metadata.getBlocks().get(0);
     for (BlockMetaData meta : metadata.getBlocks()) {
@@ -0,0 +1,214 @@
+package water.parser.parquet;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.Path;
+import org.apache.parquet.column.ColumnDescriptor;
+import org.apache.parquet.column.ColumnReader;
+import org.apache.parquet.column.impl.ColumnReadStoreImpl;
+import org.apache.parquet.column.page.PageReadStore;
+import org.apache.parquet.hadoop.ParquetFileReader;
+import org.apache.parquet.hadoop.metadata.FileMetaData;
+import org.apache.parquet.hadoop.metadata.ParquetMetadata;
+import org.apache.parquet.io.api.GroupConverter;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.OriginalType;
+import org.apache.parquet.schema.PrimitiveType;
+import water.H2O;
+import water.fvec.NewChunk;
+import water.fvec.Vec;
+import water.parser.FVecParseWriter;
+import water.util.Log;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Columnar alternative to {@link VecParquetReader} used for parsing of the Parquet row groups of a single Chunk.
+ *
+ * Instead of assembling records and dispatching each value of a record through {@link ChunkConverter} and
+ * {@link WriterDelegate}, row groups are decoded one column at a time. Column readers take care of the page
+ * decoding (plain, RLE, dictionary) and the values are appended directly to the NewChunks of the output
+ * {@link FVecParseWriter}:
+ *  - plain numeric columns (INT32, INT64, FLOAT, DOUBLE) and millisecond timestamps are copied to the NewChunk
+ *    without any per-value converter dispatch,
+ *  - other columns (strings, categoricals, booleans, decimals, INT96 timestamps) are written by the converters
+ *    of {@link ChunkConverter}, fed straight from the column reader (dictionaries are decoded just once
+ *    per column chunk).
+ *
+ * Can be disabled by setting system property {@code sys.ai.h2o.parser.parquet.columnar=false}. The reader
+ * relies on constructors introduced in Parquet 1.8, with older Parquet on the classpath (eg. Hive 1.x environments
+ * served by h2o-parquet-v17-compat) the parser falls back to {@link VecParquetReader}.
+ */
+class VecParquetColumnarReader {
+
+  static final String PROP_ENABLED = "parser.parquet.columnar";
+
+  private static final boolean IS_SUPPORTED = isSupported();
+
+  static boolean isEnabled() {
+    return IS_SUPPORTED && H2O.getSysBoolProperty(PROP_ENABLED, true);
+  }
+
+  /**
+   * Checks the Parquet version on the classpath provides the constructors used in {@link #readAll()}
+   * (Parquet 1.7 only has ColumnReadStoreImpl(PageReadStore, GroupConverter, MessageType)).
+   */
+  static boolean isSupported() {
+    try {
+      ParquetFileReader.class.getConstructor(
+              Configuration.class, FileMetaData.class, Path.class, List.class, List.class);
+      ColumnReadStoreImpl.class.getConstructor(
+              PageReadStore.class, GroupConverter.class, MessageType.class, String.class);
+      return true;
+    } catch (NoSuchMethodException e) {
+      Log.info("Parquet columnar reader is not supported by the Parquet version on the classpath, " +
+              "using the record reader instead.");
+      return false;
+    }
+  }
+
+  private final Vec _vec;
+  private final ParquetMetadata _metadata;
+  private final FVecParseWriter _writer;
+  private final WriterDelegate _delegate;
+  private final byte[] _chunkSchema;
+  private final boolean[] _keepColumns;
+
+  VecParquetColumnarReader(Vec vec, ParquetMetadata metadata, FVecParseWriter writer, byte[] chunkSchema,
+                           boolean[] keepColumns, int parseColumnNumber) {
+    _vec = vec;
+    _metadata = metadata;
+    _writer = writer;
+    _delegate = new WriterDelegate(writer, parseColumnNumber);
+    _chunkSchema = chunkSchema;
+    _keepColumns = keepColumns;
+  }
+
+  /**
+   * Reads all row groups of the metadata.
+   * @return number of records written
+   * @throws IOException
+   */
+  long readAll() throws IOException {
+    final VecReaderEnv env = VecReaderEnv.make(_vec);
+    final FileMetaData fileMetaData = _metadata.getFileMetaData();
+    final MessageType schema = fileMetaData.getSchema();
+    final List<ColumnDescriptor> allColumns = schema.getColumns();
+    final MessageType readSchema = ChunkReadSupport.projectSchema(schema, _keepColumns);
+    // Provides the converters of the non-numeric columns, only its primitive converters are used
+    final ChunkConverter converter = new ChunkConverter(schema, _chunkSchema, _delegate, _keepColumns);
+
+    long records = 0;
+    ParquetFileReader reader = new ParquetFileReader(env.getConf(), fileMetaData, env.getPath(),
+            _metadata.getBlocks(), readSchema.getColumns());
+    try {
+      PageReadStore rowGroup;
+      while ((rowGroup = reader.readNextRowGroup()) != null) {
+        final int rowCount = (int) rowGroup.getRowCount(); // checked by ParquetParser#checkCompatibility
+        ColumnReadStoreImpl store = new ColumnReadStoreImpl(rowGroup, converter, readSchema, fileMetaData.getCreatedBy());
+        int colIdx = 0; // index to columns actually parsed
+        for (int i = 0; i < allColumns.size(); i++) {
+          if (!_keepColumns[i])
+            continue;
+          ColumnDescriptor column = allColumns.get(i);
+          ColumnReader columnReader = store.getColumnReader(column);
+          PrimitiveType parquetType = schema.getType(i).asPrimitiveType();
+          if (isPlainNumeric(_chunkSchema[i], parquetType))
+            readNumeric(columnReader, column, rowCount, _writer.getNvs()[colIdx]);
+          else
+            readWithConverter(columnReader, column, rowCount, colIdx);
+          colIdx++;
+        }
+        _writer.addColumnarLines(rowCount);
+        records += rowCount;
+      }
+    } finally {
+      reader.close();
+    }
+    return records;
+  }
+
+  /**
+   * Numeric columns that can be written directly to a NewChunk, needs to match the cases where
+   * {@link ChunkConverter} would use its NumberConverter (or TimestampConverter for millisecond timestamps).
+   */
+  static boolean isPlainNumeric(byte vecType, PrimitiveType parquetType) {
+    final OriginalType ot = parquetType.getOriginalType();
+    switch (parquetType.getPrimitiveTypeName()) {
+      case INT32:
+      case FLOAT:
+      case DOUBLE:
+        return vecType == Vec.T_NUM && ot != OriginalType.DECIMAL;
+      case INT64:
+        return (vecType == Vec.T_NUM && ot != OriginalType.DECIMAL) ||
+                (vecType == Vec.T_TIME && ot == OriginalType.TIMESTAMP_MILLIS);
+      default:
+        return false;
+    }
+  }
+
+  private static void readNumeric(ColumnReader reader, ColumnDescriptor column, int rowCount, NewChunk nc) {
+    final int maxDef = column.getMaxDefinitionLevel();
+    switch (column.getType()) {
+      case INT32:
+        for (int r = 0; r < rowCount; r++) {
+          if (reader.getCurrentDefinitionLevel() < maxDef)
+            nc.addNA();
+          else
+            nc.addNum(reader.getInteger(), 0);
+          reader.consume();
+        }
+        break;
+      case INT64:
+        for (int r = 0; r < rowCount; r++) {
+          if (reader.getCurrentDefinitionLevel() < maxDef)
+            nc.addNA();
+          else
+            nc.addNum(reader.getLong(), 0);
+          reader.consume();
+        }
+        break;
+      case FLOAT:
+        for (int r = 0; r < rowCount; r++) {
+          if (reader.getCurrentDefinitionLevel() < maxDef)
+            nc.addNA();
+          else
+            addDouble(nc, reader.getFloat());
+          reader.consume();
+        }
+        break;
+      case DOUBLE:
+        for (int r = 0; r < rowCount; r++) {
+          if (reader.getCurrentDefinitionLevel() < maxDef)
+            nc.addNA();
+          else
+            addDouble(nc, reader.getDouble());
+          reader.consume();
+        }
+        break;
+      default:
+        throw new IllegalStateException("Not a plain numeric column: " + column);
+    }
+  }
+
+  // Same as FVecParseWriter#addNumCol(int, double)
+  private static void addDouble(NewChunk nc, double d) {
+    if (Double.isNaN(d) || Double.isInfinite(d))
+      nc.addNA();
+    else
+      nc.addNumDecompose(d);
+  }
+
+  private void readWithConverter(ColumnReader reader, ColumnDescriptor column, int rowCount, int colIdx) {
+    final int maxDef = column.getMaxDefinitionLevel();
+    _delegate.startColumn(colIdx);
+    for (int r = 0; r < rowCount; r++) {
+      if (reader.getCurrentDefinitionLevel() < maxDef)
+        _delegate.addInvalidCol(colIdx);
+      else
+        reader.writeCurrentValueToConverter(); // writes to the ChunkConverter's converter of the column
+      reader.consume();
+    }
+  }
+
+}
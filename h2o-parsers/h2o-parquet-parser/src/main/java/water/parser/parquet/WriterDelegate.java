@@ -43,6 +43,14 @@ final class WriterDelegate {
     _writer.newLine();
   }
 
+  /**
+   * Switches to column-by-column writing (see {@link VecParquetColumnarReader}): all following values
+   * (until the next call of this method) will be written to column colIdx.
+   */
+  void startColumn(int colIdx) {
+    _col = colIdx;
+  }
+
   private int moveToCol(int colIdx) {
     for (int c = _col + 1; c < colIdx; c++) _writer.addInvalidCol(c);
     _col = colIdx;
@@ -57,14 +65,21 @@ final class WriterDelegate {
     _writer.addNumCol(moveToCol(colIdx), d);
   }
 
+  void addInvalidCol(int colIdx) {
+    _writer.addInvalidCol(moveToCol(colIdx));
+  }
+
   void addStrCol(int colIdx, BufferedString str) {
-    if (_colRawSize[colIdx] == -1)
-      return; // already exceeded max length
+    if (_colRawSize[colIdx] == -1) { // already exceeded max length
+      _writer.addInvalidCol(moveToCol(colIdx)); // the value still needs to be written (columnar mode doesn't pad)
+      return;
+    }
 
     long totalSize = (long) str.length() + _colRawSize[colIdx];
     if (totalSize > _maxStringSize) {
       _colRawSize[colIdx] = -1;
       Log.err("Total String size limit reached: skipping remaining values in column: " + colIdx + "!");
+      _writer.addInvalidCol(moveToCol(colIdx));
       return;
     }
 
@@ -445,12 +445,13 @@ class H2OFrame(Keyed):
 
 
     def _import_parse(self, path, pattern, destination_frame, header, separator, column_names, column_types, na_strings,
-                      skipped_columns=None, custom_non_data_line_markers=None, partition_by=None, quotechar=None, escapechar=None):
+                      skipped_columns=None, custom_non_data_line_markers=None, partition_by=None, quotechar=None, escapechar=None,
+                      block_filter=None):
         if H2OFrame.__LOCAL_EXPANSION_ON_SINGLE_IMPORT__ and is_type(path, str) and "://" not in path:  # fixme: delete those 2 lines, cf. PUBDEV-5717
             path = os.path.abspath(path)
         rawkey = h2o.lazy_import(path, pattern)
         self._parse(rawkey, destination_frame, header, separator, column_names, column_types, na_strings,
-                    skipped_columns, custom_non_data_line_markers, partition_by, quotechar, escapechar)
+                    skipped_columns, custom_non_data_line_markers, partition_by, quotechar, escapechar, block_filter)
         return self
 
 
@@ -465,9 +466,10 @@ class H2OFrame(Keyed):
 
     def _parse(self, rawkey, destination_frame="", header=None, separator=None, column_names=None, column_types=None,
                na_strings=None, skipped_columns=None, custom_non_data_line_markers=None, partition_by=None, quotechar=None,
-               escapechar=None):
+               escapechar=None, block_filter=None):
         setup = h2o.parse_setup(rawkey, destination_frame, header, separator, column_names, column_types, na_strings,
-                                skipped_columns, custom_non_data_line_markers, partition_by, quotechar, escapechar)
+                                skipped_columns, custom_non_data_line_markers, partition_by, quotechar, escapechar,
+                                block_filter)
         return self._parse_raw(setup)
 
 
@@ -486,7 +488,8 @@ class H2OFrame(Keyed):
              "custom_non_data_line_markers": None,
              "partition_by": None,
              "single_quotes": None,
-             "escapechar": None
+             "escapechar": None,
+             "block_filter": None
              }
 
         if setup["column_names"]: p["column_names"] = None
@@ -2822,7 +2825,7 @@ class H2OFrame(Keyed):
         return splits
 
 
-    def group_by(self, by):
+    def group_by(self, by, shuffle=False):
         """
         Return a new ``GroupBy`` object using this frame and the desired grouping columns.
 
@@ -2830,6 +2833,7 @@ class H2OFrame(Keyed):
 
         :param by: The columns to group on (either a single column name, or a list of column names, or
             a list of column indices).
+        :param bool shuffle: Use the shuffle-based grouping meant for a high number of groups (default False).
         :returns: New ``GroupBy`` object, sorted by the natural group-by column sort.
         
         :examples:
@@ -2851,7 +2855,8 @@ class H2OFrame(Keyed):
         ...     print(grouped.get_frame())
         """
         assert_is_type(by, str, int, [str, int])
-        return GroupBy(self, by)
+        assert_is_type(shuffle, bool)
+        return GroupBy(self, by, shuffle)
 
     def sort(self, by, ascending=[]):
         """
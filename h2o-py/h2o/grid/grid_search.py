@@ -58,7 +58,9 @@ class H2OGridSearch(h2o_meta(Keyed)):
         directory (use HDFS or other distributed file-system). Should the cluster crash during training, the grid
         can be reloaded from this directory via ``h2o.load_grid``, and training can be resumed.
     :param parallelism: Level of parallelism during grid model building. 1 = sequential building (default). 
-         Use the value of 0 for adaptive parallelism - decided by H2O. Any number > 1 sets the exact number of models
+         Use the value of 0 for adaptive parallelism - decided by H2O: the number of models built in parallel
+         (at most 2 x number of CPUs) is adjusted during the search based on the load of the cluster and the expected
+         cost of the models; the grid keeps reporting parallelism 0. Any number > 1 sets the exact number of models
          built in parallel.
     :returns: a new H2OGridSearch instance
 
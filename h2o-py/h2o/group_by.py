@@ -61,7 +61,7 @@ class GroupBy(object):
     """
 
 
-    def __init__(self, fr, by):
+    def __init__(self, fr, by, shuffle=False):
         """
         Return a new ``GroupBy`` object using the H2OFrame specified in fr and the desired grouping columns
         specified in by.  The original H2O frame will be stored as member _fr.  Information on the new grouping
@@ -72,9 +72,13 @@ class GroupBy(object):
         :param H2OFrame fr: H2OFrame that you want the group by operation to be performed on.
         :param by: can be a column name (str) or an index (int) of a single column,  or a list for multiple columns
             denoting the set of columns to group by.
+        :param bool shuffle: use the shuffle-based grouping meant for a high number of groups, the groups are merged
+            on the nodes owning them instead of on the node running the query.  Falls back to the regular grouping for
+            median and string group-by columns.
         """
         self._fr = fr  # IN
         self._by = by  # IN
+        self._shuffle = shuffle  # IN
         self._aggs = {}  # IN
         self._res = None  # OUT
 
@@ -343,7 +347,7 @@ class GroupBy(object):
             for cind in cols_operated:
                 if cind not in self._by:
                     self._check_string_columns(cind)
-            self._res = h2o.H2OFrame._expr(expr=ExprNode("GB", self._fr, self._by, *aggs))
+            self._res = h2o.H2OFrame._expr(expr=ExprNode("GBshuffle" if self._shuffle else "GB", self._fr, self._by, *aggs))
 
         return self._res
 
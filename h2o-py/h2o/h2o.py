@@ -417,7 +417,7 @@ def upload_file(path, destination_frame=None, header=0, sep=None, col_names=None
 
 def import_file(path=None, destination_frame=None, parse=True, header=0, sep=None, col_names=None, col_types=None,
                 na_strings=None, pattern=None, skipped_columns=None, custom_non_data_line_markers=None,
-                partition_by=None, quotechar=None, escapechar=None):
+                partition_by=None, quotechar=None, escapechar=None, block_filter=None):
     """
     Import a dataset that is already on the cluster.
 
@@ -458,6 +458,9 @@ def import_file(path=None, destination_frame=None, parse=True, header=0, sep=Non
     :param custom_non_data_line_markers: If a line in imported file starts with any character in given string it will NOT be imported. Empty string means all lines are imported, None means that default behaviour for given format will be used
     :param quotechar: A hint for the parser which character to expect as quoting character. Only single quote, double quote or None (default) are allowed. None means automatic detection.
     :param escapechar: (Optional) One ASCII character used to escape other characters.
+    :param block_filter: (Optional) A range or a list of ranges "column_index:min:max" (an empty bound is unbounded).
+        Parquet row groups and ORC stripes whose column statistics show no row satisfying all the ranges are not read.
+        Rows are not filtered: the blocks which are read are imported in full. Ignored by the other file formats.
 
     :returns: a new :class:`H2OFrame` instance.
 
@@ -482,6 +485,7 @@ def import_file(path=None, destination_frame=None, parse=True, header=0, sep=Non
     assert_is_type(quotechar, None, U("'", '"'))
     assert_is_type(escapechar, None, I(str, lambda s: len(s) == 1))
     assert isinstance(skipped_columns, (type(None), list)), "The skipped_columns should be an list of column names!"
+    assert_is_type(block_filter, None, [str], str)
     check_frame_id(destination_frame)
     patharr = path if isinstance(path, list) else [path]
     if any(os.path.split(p)[0] == "~" for p in patharr):
@@ -491,7 +495,8 @@ def import_file(path=None, destination_frame=None, parse=True, header=0, sep=Non
         return lazy_import(path, pattern)
     else:
         return H2OFrame()._import_parse(path, pattern, destination_frame, header, sep, col_names, col_types, na_strings,
-                                        skipped_columns, custom_non_data_line_markers, partition_by, quotechar, escapechar)
+                                        skipped_columns, custom_non_data_line_markers, partition_by, quotechar, escapechar,
+                                        block_filter)
 
 
 def load_grid(grid_file_path, load_params_references=False):
@@ -626,7 +631,7 @@ def import_hive_table(database=None, table=None, partitions=None, allow_multi_fo
 
 
 def import_sql_table(connection_url, table, username, password, columns=None, optimize=True, 
-                     fetch_mode=None, num_chunks_hint=None):
+                     fetch_mode=None, num_chunks_hint=None, partition_column=None):
     """
     Import SQL table to H2OFrame in memory.
 
@@ -647,8 +652,11 @@ def import_sql_table(connection_url, table, username, password, columns=None, op
     :param password: password for SQL server
     :param optimize: DEPRECATED. Ignored - use fetch_mode instead. Optimize import of SQL table for faster imports.
     :param fetch_mode: Set to DISTRIBUTED to enable distributed import. Set to SINGLE to force a sequential read by a single node
-        from the database.
+        from the database. Set to PARTITIONED to split the table into key ranges of an integer or date column that are
+        read concurrently (avoids the OFFSET queries of the distributed import).
     :param num_chunks_hint: Desired number of chunks for the target Frame.
+    :param partition_column: Integer or date column to split the table by in the PARTITIONED fetch mode. Default is
+        the first integer or date column.
 
     :returns: an :class:`H2OFrame` containing data of the specified SQL table.
 
@@ -668,8 +676,9 @@ def import_sql_table(connection_url, table, username, password, columns=None, op
     assert_is_type(optimize, bool)
     assert_is_type(fetch_mode, str, None)
     assert_is_type(num_chunks_hint, int, None)
+    assert_is_type(partition_column, str, None)
     p = {"connection_url": connection_url, "table": table, "username": username, "password": password,
-         "fetch_mode": fetch_mode, "num_chunks_hint": num_chunks_hint}
+         "fetch_mode": fetch_mode, "num_chunks_hint": num_chunks_hint, "partition_column": partition_column}
     if columns:
         p["columns"] = ", ".join(columns)
     j = H2OJob(api("POST /99/ImportSQLTable", data=p), "Import SQL Table").poll()
@@ -677,7 +686,8 @@ def import_sql_table(connection_url, table, username, password, columns=None, op
 
 
 def import_sql_select(connection_url, select_query, username, password, optimize=True,
-                      use_temp_table=None, temp_table_name=None, fetch_mode=None, num_chunks_hint=None):
+                      use_temp_table=None, temp_table_name=None, fetch_mode=None, num_chunks_hint=None,
+                      partition_column=None):
     """
     Import the SQL table that is the result of the specified SQL query to H2OFrame in memory.
 
@@ -699,8 +709,11 @@ def import_sql_select(connection_url, select_query, username, password, optimize
     :param use_temp_table: whether a temporary table should be created from select_query
     :param temp_table_name: name of temporary table to be created from select_query
     :param fetch_mode: Set to DISTRIBUTED to enable distributed import. Set to SINGLE to force a sequential read by a single node
-        from the database.
+        from the database. Set to PARTITIONED to split the table into key ranges of an integer or date column that are
+        read concurrently (avoids the OFFSET queries of the distributed import).
     :param num_chunks_hint: Desired number of chunks for the target Frame.
+    :param partition_column: Integer or date column to split the table by in the PARTITIONED fetch mode. Default is
+        the first integer or date column.
 
     :returns: an :class:`H2OFrame` containing data of the specified SQL query.
 
@@ -722,16 +735,17 @@ def import_sql_select(connection_url, select_query, username, password, optimize
     assert_is_type(temp_table_name, str, None)
     assert_is_type(fetch_mode, str, None)
     assert_is_type(num_chunks_hint, int, None)
+    assert_is_type(partition_column, str, None)
     p = {"connection_url": connection_url, "select_query": select_query, "username": username, "password": password,
          "use_temp_table": use_temp_table, "temp_table_name": temp_table_name, "fetch_mode": fetch_mode,
-         "num_chunks_hint": num_chunks_hint}
+         "num_chunks_hint": num_chunks_hint, "partition_column": partition_column}
     j = H2OJob(api("POST /99/ImportSQLTable", data=p), "Import SQL Table").poll()
     return get_frame(j.dest_key)
 
 
 def parse_setup(raw_frames, destination_frame=None, header=0, separator=None, column_names=None,
                 column_types=None, na_strings=None, skipped_columns=None, custom_non_data_line_markers=None,
-                partition_by=None, quotechar=None, escapechar=None):
+                partition_by=None, quotechar=None, escapechar=None, block_filter=None):
     """
     Retrieve H2O's best guess as to what the structure of the data file is.
 
@@ -771,6 +785,8 @@ def parse_setup(raw_frames, destination_frame=None, header=0, separator=None, co
     :param partition_by: A list of columns the dataset has been partitioned by. None by default.
     :param quotechar: A hint for the parser which character to expect as quoting character. Only single quote, double quote or None (default) are allowed. None means automatic detection.
     :param escapechar: (Optional) One ASCII character used to escape other characters.
+    :param block_filter: (Optional) A range or a list of ranges "column_index:min:max" (an empty bound is unbounded).
+        Parquet row groups and ORC stripes whose column statistics show no row satisfying all the ranges are not read.
 
     :returns: a dictionary containing parse parameters guessed by the H2O backend.
 
@@ -805,6 +821,7 @@ def parse_setup(raw_frames, destination_frame=None, header=0, separator=None, co
     assert_is_type(partition_by, None, [str], str)
     assert_is_type(quotechar, None, U("'", '"'))
     assert_is_type(escapechar, None, I(str, lambda s: len(s) == 1))
+    assert_is_type(block_filter, None, [str], str)
     check_frame_id(destination_frame)
 
     # The H2O backend only accepts things that are quoted
@@ -924,6 +941,8 @@ def parse_setup(raw_frames, destination_frame=None, header=0, separator=None, co
                 if (colidx < 0): raise ValueError("skipped column index cannot be negative")
                 j["skipped_columns"].append(colidx)
 
+    if block_filter is not None:
+        j["block_filter"] = [block_filter] if is_type(block_filter, str) else block_filter
 
     # quote column names and column types also when not specified by user
     if j["column_names"]: j["column_names"] = list(map(quoted, j["column_names"]))
@@ -0,0 +1,33 @@
+from __future__ import print_function
+import sys
+sys.path.insert(1,"../../")
+import h2o
+from tests import pyunit_utils
+
+
+def parquet_block_filter():
+    """
+    Tests the block_filter parse parameter is passed to the backend. Ranges which every row group satisfies
+    don't skip any row group, so the filtered frame matches the frame imported without a filter.
+    :return: None if passed.  Otherwise, an exception will be thrown.
+    """
+    path = pyunit_utils.locate("smalldata/parser/parquet/airlines-simple.snappy.parquet")
+    original = h2o.import_file(path=path)
+    numeric = [i for i, name in enumerate(original.names) if original.type(name) in ("int", "real")]
+    assert len(numeric) > 0
+
+    col = numeric[0]
+    unbounded = h2o.import_file(path=path, block_filter="%d::" % col)
+    pyunit_utils.compare_frames_local(original, unbounded, prob=1)
+
+    col_min = original[col].min()
+    col_max = original[col].max()
+    ranges = ["%d:%s:%s" % (col, col_min, col_max), "%d::%s" % (col, col_max)]
+    bounded = h2o.import_file(path=path, block_filter=ranges)
+    pyunit_utils.compare_frames_local(original, bounded, prob=1)
+
+
+if __name__ == "__main__":
+    pyunit_utils.standalone_test(parquet_block_filter)
+else:
+    parquet_block_filter()